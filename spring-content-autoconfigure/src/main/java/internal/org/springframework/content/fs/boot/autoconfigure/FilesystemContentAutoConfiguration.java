@@ -2,16 +2,27 @@ package internal.org.springframework.content.fs.boot.autoconfigure;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.bind.PropertySourcesPropertyValues;
 import org.springframework.boot.bind.RelaxedDataBinder;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.content.fs.io.FanoutLayout;
+import org.springframework.content.fs.io.FanoutMigrator;
 import org.springframework.content.fs.io.FileSystemResourceLoader;
+import org.springframework.content.fs.io.FilesystemRoot;
+import org.springframework.content.fs.io.WriteMode;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -20,6 +31,7 @@ import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
 import internal.org.springframework.content.fs.config.FilesystemStoreConfiguration;
+import internal.org.springframework.content.fs.config.FilesystemStoreFactoryBean;
 import internal.org.springframework.content.fs.config.FilesystemStoreRegistrar;
 
 @Configuration
@@ -34,7 +46,50 @@ public class FilesystemContentAutoConfiguration {
     @Bean
 	@ConditionalOnMissingBean(FileSystemResourceLoader.class)
 	FileSystemResourceLoader fileSystemResourceLoader(FilesystemProperties props) {
-		return new FileSystemResourceLoader(props.getFilesystemRoot());
+		if (props.getFilesystemRoots().isEmpty() && props.getMinFreeSpace() == 0L && props.getMaxConcurrency() == 0) {
+			return new FileSystemResourceLoader(props.getFilesystemRoot());
+		}
+
+		List<String> paths = (props.getFilesystemRoots().isEmpty() ? Collections.singletonList(props.getFilesystemRoot()) : props.getFilesystemRoots());
+		List<FilesystemRoot> roots = new ArrayList<>(paths.size());
+		for (String path : paths) {
+			FilesystemRoot root = new FilesystemRoot(path);
+			root.setMinFreeSpace(props.getMinFreeSpace());
+			root.setMaxConcurrency(props.getMaxConcurrency());
+			roots.add(root);
+		}
+		return new FileSystemResourceLoader(roots);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean(FanoutLayout.class)
+	FanoutLayout fanoutLayout(FilesystemProperties props) {
+		return new FanoutLayout(props.getFanout().getLevels(), props.getFanout().getWidth());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean(WriteMode.class)
+	WriteMode writeMode(FilesystemProperties props) {
+		return (props.getWrite().isAtomic() ? WriteMode.atomic(props.getWrite().getDurability()) : WriteMode.IN_PLACE);
+	}
+
+	@Bean(name = FilesystemStoreFactoryBean.BULK_EXECUTOR_BEAN_NAME, destroyMethod = "shutdown")
+	@ConditionalOnProperty(prefix = "spring.content.fs", name = "bulk-concurrency")
+	@ConditionalOnMissingBean(name = FilesystemStoreFactoryBean.BULK_EXECUTOR_BEAN_NAME)
+	ExecutorService filesystemStoreBulkExecutor(FilesystemProperties props) {
+		AtomicInteger threads = new AtomicInteger();
+		return Executors.newFixedThreadPool(Math.max(1, props.getBulkConcurrency()), r -> {
+			Thread thread = new Thread(r, "content-fs-bulk-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@Bean(initMethod = "start", destroyMethod = "stop")
+	@ConditionalOnProperty(prefix = "spring.content.fs.fanout", name = "migrate", havingValue = "true")
+	@ConditionalOnMissingBean(FanoutMigrator.class)
+	FanoutMigrator fanoutMigrator(FileSystemResourceLoader loader, FanoutLayout layout) {
+		return new FanoutMigrator(loader, layout);
 	}
 
 	@Component
@@ -48,6 +103,36 @@ public class FilesystemContentAutoConfiguration {
 	     */
 		String filesystemRoot;
 
+		/**
+		 * The root locations file system stores stripe their content over, for example one on each disk
+		 */
+		List<String> filesystemRoots = new ArrayList<>();
+
+		/**
+		 * The free space, in bytes, below which new content is placed on other roots
+		 */
+		long minFreeSpace = 0L;
+
+		/**
+		 * The number of content streams that can be open on each root at once (0 for no limit)
+		 */
+		int maxConcurrency = 0;
+
+		/**
+		 * The number of contents set in bulk that are written at once (unset writes them in turn)
+		 */
+		int bulkConcurrency = 0;
+
+		/**
+		 * The fan-out directories file system stores place their content under
+		 */
+		Fanout fanout = new Fanout();
+
+		/**
+		 * How file system stores write content
+		 */
+		Write write = new Write();
+
 		public String getFilesystemRoot() {
             if (filesystemRoot == null) {
                 try {
@@ -63,5 +148,116 @@ public class FilesystemContentAutoConfiguration {
 		public void setFilesystemRoot(String filesystemRoot) {
 			this.filesystemRoot = filesystemRoot;
 		}
+
+		public List<String> getFilesystemRoots() {
+			return filesystemRoots;
+		}
+
+		public void setFilesystemRoots(List<String> filesystemRoots) {
+			this.filesystemRoots = filesystemRoots;
+		}
+
+		public long getMinFreeSpace() {
+			return minFreeSpace;
+		}
+
+		public void setMinFreeSpace(long minFreeSpace) {
+			this.minFreeSpace = minFreeSpace;
+		}
+
+		public int getMaxConcurrency() {
+			return maxConcurrency;
+		}
+
+		public void setMaxConcurrency(int maxConcurrency) {
+			this.maxConcurrency = maxConcurrency;
+		}
+
+		public int getBulkConcurrency() {
+			return bulkConcurrency;
+		}
+
+		public void setBulkConcurrency(int bulkConcurrency) {
+			this.bulkConcurrency = bulkConcurrency;
+		}
+
+		public Fanout getFanout() {
+			return fanout;
+		}
+
+		public Write getWrite() {
+			return write;
+		}
+
+		public static class Fanout {
+
+			/**
+			 * The number of levels of directories content is placed under (0 places content at the root)
+			 */
+			int levels = 0;
+
+			/**
+			 * The number of hex characters naming each directory
+			 */
+			int width = 2;
+
+			/**
+			 * Whether content placed at the root before it was laid out is moved into the layout in the background
+			 */
+			boolean migrate = false;
+
+			public int getLevels() {
+				return levels;
+			}
+
+			public void setLevels(int levels) {
+				this.levels = levels;
+			}
+
+			public int getWidth() {
+				return width;
+			}
+
+			public void setWidth(int width) {
+				this.width = width;
+			}
+
+			public boolean isMigrate() {
+				return migrate;
+			}
+
+			public void setMigrate(boolean migrate) {
+				this.migrate = migrate;
+			}
+		}
+
+		public static class Write {
+
+			/**
+			 * Whether content is written to a temporary file and renamed into place, rather than written in place
+			 */
+			boolean atomic = false;
+
+			/**
+			 * When atomically written content is synced to disk (none, fsync or group-commit)
+			 */
+			WriteMode.Durability durability = WriteMode.Durability.NONE;
+
+			public boolean isAtomic() {
+				return atomic;
+			}
+
+			public void setAtomic(boolean atomic) {
+				this.atomic = atomic;
+			}
+
+			public WriteMode.Durability getDurability() {
+				return durability;
+			}
+
+			public void setDurability(WriteMode.Durability durability) {
+				this.durability = durability;
+			}
+		}
 	}
 }
@@ -0,0 +1,277 @@
+package internal.org.springframework.content.commons.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.content.commons.io.BoundedInputStream;
+
+/**
+ * The cached content of one store.
+ * <p>
+ * Content is cached on disk and, when a heap size is given, content no larger than the heap
+ * object size is also kept in memory.  Each tier is bounded by the total size of its content and
+ * evicts the least recently used content first.  Content is cached as it is read from the store
+ * and only once it has been read to the end; content invalidated while it was being read is not
+ * cached.
+ */
+public class CacheRegion {
+
+	private static final Log logger = LogFactory.getLog(CacheRegion.class);
+
+	private final String name;
+	private final Path directory;
+	private final long maxDiskSize;
+	private final long maxHeapSize;
+	private final long maxHeapObjectSize;
+
+	// guarded by this
+	private final LinkedHashMap<Object, CachedFile> disk = new LinkedHashMap<>(16, 0.75f, true);
+	private final LinkedHashMap<Object, byte[]> heap = new LinkedHashMap<>(16, 0.75f, true);
+	private long diskSize = 0L;
+	private long heapSize = 0L;
+	private long invalidations = 0L;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	public CacheRegion(String name, Path directory, long maxDiskSize, long maxHeapSize, long maxHeapObjectSize) {
+		this.name = name;
+		this.directory = directory;
+		this.maxDiskSize = maxDiskSize;
+		this.maxHeapSize = maxHeapSize;
+		this.maxHeapObjectSize = (maxHeapSize > 0 ? Math.min(maxHeapObjectSize, maxHeapSize) : 0L);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the cached content for key, or null if it is not cached.
+	 *
+	 * @param key the content id
+	 * @return the content
+	 */
+	public InputStream get(Object key) {
+		return get(key, 0L, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Returns at most length bytes of the cached content for key starting at offset, or null if
+	 * it is not cached.
+	 *
+	 * @param key the content id
+	 * @param offset the offset of the first byte
+	 * @param length the maximum number of bytes
+	 * @return the range of content
+	 */
+	public InputStream get(Object key, long offset, long length) {
+		byte[] bytes;
+		CachedFile file;
+		synchronized (this) {
+			bytes = heap.get(key);
+			file = (bytes == null ? disk.get(key) : null);
+		}
+
+		try {
+			if (bytes != null) {
+				hits.incrementAndGet();
+				return BoundedInputStream.range(new ByteArrayInputStream(bytes), offset, length);
+			}
+			if (file != null) {
+				FileChannel channel = FileChannel.open(file.path, StandardOpenOption.READ);
+				try {
+					channel.position(offset);
+				} catch (IOException ioe) {
+					channel.close();
+					throw ioe;
+				}
+				hits.incrementAndGet();
+				return new BoundedInputStream(Channels.newInputStream(channel), length);
+			}
+		} catch (NoSuchFileException nsfe) {
+			// evicted since it was looked up
+		} catch (IOException ioe) {
+			logger.debug(String.format("Unable to read cached content %s from %s", key, name), ioe);
+		}
+		misses.incrementAndGet();
+		return null;
+	}
+
+	/**
+	 * Returns a stream of content, read from the store, that caches the content once it has been
+	 * read to the end.
+	 *
+	 * @param key the content id
+	 * @param content the content
+	 * @return the caching stream
+	 */
+	public InputStream cache(Object key, InputStream content) {
+		return new CachingInputStream(content, this, key);
+	}
+
+	/**
+	 * Removes the content for key from the cache, and prevents content for any key that is being
+	 * read from being cached.
+	 *
+	 * @param key the content id
+	 */
+	public void invalidate(Object key) {
+		List<Path> deletes = new ArrayList<>();
+		synchronized (this) {
+			invalidations++;
+			remove(key, deletes);
+		}
+		delete(deletes);
+	}
+
+	/**
+	 * Removes all content from the cache.
+	 */
+	public void clear() {
+		List<Path> deletes = new ArrayList<>();
+		synchronized (this) {
+			invalidations++;
+			for (CachedFile file : disk.values()) {
+				deletes.add(file.path);
+			}
+			disk.clear();
+			heap.clear();
+			diskSize = 0L;
+			heapSize = 0L;
+		}
+		delete(deletes);
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	public synchronized long getDiskSize() {
+		return diskSize;
+	}
+
+	public synchronized long getHeapSize() {
+		return heapSize;
+	}
+
+	long getMaxDiskSize() {
+		return maxDiskSize;
+	}
+
+	long getMaxHeapObjectSize() {
+		return maxHeapObjectSize;
+	}
+
+	synchronized long stamp() {
+		return invalidations;
+	}
+
+	Path newFile() throws IOException {
+		return Files.createTempFile(directory, "content", ".tmp");
+	}
+
+	/*
+	 * Caches content that was read to the end, unless it was invalidated since it was stamped.
+	 * Either of file or bytes may be null.
+	 */
+	void put(Object key, Path file, long length, byte[] bytes, long stamp) {
+		List<Path> deletes = new ArrayList<>();
+		synchronized (this) {
+			if (stamp != invalidations) {
+				if (file != null) {
+					deletes.add(file);
+				}
+			} else {
+				remove(key, deletes);
+				if (file != null) {
+					disk.put(key, new CachedFile(file, length));
+					diskSize += length;
+					evict(disk, deletes);
+				}
+				if (bytes != null) {
+					heap.put(key, bytes);
+					heapSize += bytes.length;
+					evict(heap, deletes);
+				}
+			}
+		}
+		delete(deletes);
+	}
+
+	private void remove(Object key, List<Path> deletes) {
+		CachedFile file = disk.remove(key);
+		if (file != null) {
+			diskSize -= file.length;
+			deletes.add(file.path);
+		}
+		byte[] bytes = heap.remove(key);
+		if (bytes != null) {
+			heapSize -= bytes.length;
+		}
+	}
+
+	private void evict(Map<Object, ?> tier, List<Path> deletes) {
+		Iterator<? extends Map.Entry<Object, ?>> entries = tier.entrySet().iterator();
+		while (entries.hasNext() && (tier == disk ? diskSize > maxDiskSize : heapSize > maxHeapSize)) {
+			Object value = entries.next().getValue();
+			entries.remove();
+			if (value instanceof CachedFile) {
+				diskSize -= ((CachedFile) value).length;
+				deletes.add(((CachedFile) value).path);
+			} else {
+				heapSize -= ((byte[]) value).length;
+			}
+			evictions.incrementAndGet();
+		}
+	}
+
+	static void delete(List<Path> files) {
+		for (Path file : files) {
+			delete(file);
+		}
+	}
+
+	static void delete(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException ioe) {
+			logger.debug(String.format("Unable to delete cached content %s", file), ioe);
+		}
+	}
+
+	private static final class CachedFile {
+
+		private final Path path;
+		private final long length;
+
+		CachedFile(Path path, long length) {
+			this.path = path;
+			this.length = length;
+		}
+	}
+}
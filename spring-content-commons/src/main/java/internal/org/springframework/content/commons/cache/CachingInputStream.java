@@ -0,0 +1,176 @@
+package internal.org.springframework.content.commons.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Copies content into a {@link CacheRegion} as it is read.  The content is cached when it has
+ * been read to the end; content that is skipped, closed early or too large for the region is not
+ * cached.  Failing to cache never fails a read.
+ */
+class CachingInputStream extends FilterInputStream {
+
+	private static final Log logger = LogFactory.getLog(CachingInputStream.class);
+
+	private final CacheRegion region;
+	private final Object key;
+	private final long stamp;
+
+	private Path file;
+	private OutputStream out;
+	private ByteArrayOutputStream bytes;
+	private long length = 0L;
+	private boolean done = false;
+
+	CachingInputStream(InputStream in, CacheRegion region, Object key) {
+		super(in);
+		this.region = region;
+		this.key = key;
+		this.stamp = region.stamp();
+
+		if (region.getMaxDiskSize() > 0) {
+			try {
+				file = region.newFile();
+				out = new BufferedOutputStream(Files.newOutputStream(file));
+			} catch (IOException ioe) {
+				logger.debug(String.format("Unable to cache content %s in %s", key, region.getName()), ioe);
+				dropFile();
+			}
+		}
+		if (region.getMaxHeapObjectSize() > 0) {
+			bytes = new ByteArrayOutputStream();
+		}
+		if (out == null && bytes == null) {
+			done = true;
+		}
+	}
+
+	@Override
+	public int read() throws IOException {
+		int b = in.read();
+		if (b == -1) {
+			complete();
+		} else {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+		return b;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int read = in.read(b, off, len);
+		if (read == -1) {
+			complete();
+		} else if (read > 0) {
+			write(b, off, read);
+		}
+		return read;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		abandon();
+		return in.skip(n);
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	@Override
+	public synchronized void mark(int readlimit) {
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		throw new IOException("mark/reset not supported");
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			in.close();
+		} finally {
+			abandon();
+		}
+	}
+
+	private void write(byte[] b, int off, int len) {
+		if (done) {
+			return;
+		}
+		length += len;
+		if (out != null) {
+			if (length > region.getMaxDiskSize()) {
+				dropFile();
+			} else {
+				try {
+					out.write(b, off, len);
+				} catch (IOException ioe) {
+					logger.debug(String.format("Unable to cache content %s in %s", key, region.getName()), ioe);
+					dropFile();
+				}
+			}
+		}
+		if (bytes != null) {
+			if (length > region.getMaxHeapObjectSize()) {
+				bytes = null;
+			} else {
+				bytes.write(b, off, len);
+			}
+		}
+		if (out == null && bytes == null) {
+			done = true;
+		}
+	}
+
+	private void complete() {
+		if (done) {
+			return;
+		}
+		done = true;
+		if (out != null) {
+			try {
+				out.close();
+			} catch (IOException ioe) {
+				logger.debug(String.format("Unable to cache content %s in %s", key, region.getName()), ioe);
+				dropFile();
+			}
+		}
+		region.put(key, (out != null ? file : null), length, (bytes != null ? bytes.toByteArray() : null), stamp);
+	}
+
+	private void abandon() {
+		if (done) {
+			return;
+		}
+		done = true;
+		dropFile();
+		bytes = null;
+	}
+
+	private void dropFile() {
+		if (out != null) {
+			try {
+				out.close();
+			} catch (IOException ioe) {
+				// ignore
+			}
+			out = null;
+		}
+		if (file != null) {
+			CacheRegion.delete(file);
+			file = null;
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package internal.org.springframework.content.commons.chunk;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * The chunks of a content, in order.
+ * <p>
+ * A manifest is stored as a header line followed by a {@literal <digest> <length>} line for each
+ * chunk.  Each chunk is stored at a location derived from its digest.
+ */
+public class ChunkManifest {
+
+	static final String HEADER = "spring-content-chunks/1";
+
+	/**
+	 * The prefix of the location of every chunk.
+	 */
+	public static final String CHUNKS = "chunks/";
+
+	private final List<String> digests = new ArrayList<>();
+	// offsets[i] is the offset of chunk i and offsets[count] the length
+	private long[] offsets = new long[16];
+
+	/**
+	 * Returns the location of the chunk with the given digest.
+	 *
+	 * @param digest the chunk digest
+	 * @return the location
+	 */
+	public static String location(String digest) {
+		return String.format("%s%s/%s", CHUNKS, digest.substring(0, 2), digest);
+	}
+
+	/**
+	 * Returns the digest of the chunk at the given location.
+	 *
+	 * @param location the chunk location
+	 * @return the digest
+	 */
+	public static String digest(String location) {
+		return location.substring(location.lastIndexOf('/') + 1);
+	}
+
+	/**
+	 * Reads the manifest held by a resource.
+	 *
+	 * @param resource the resource
+	 * @return the manifest, or null if the resource does not exist or does not hold a manifest
+	 * @throws IOException if the resource cannot be read
+	 */
+	public static ChunkManifest read(Resource resource) throws IOException {
+		if (resource == null || !resource.exists()) {
+			return null;
+		}
+		try (InputStream in = resource.getInputStream()) {
+			byte[] header = (HEADER + "\n").getBytes(StandardCharsets.US_ASCII);
+			byte[] read = new byte[header.length];
+			int length = 0;
+			int n;
+			while (length < read.length && (n = in.read(read, length, read.length - length)) != -1) {
+				length += n;
+			}
+			if (!Arrays.equals(header, read)) {
+				return null;
+			}
+
+			ChunkManifest manifest = new ChunkManifest();
+			BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int space = line.indexOf(' ');
+				if (space > 0) {
+					manifest.add(line.substring(0, space), Long.parseLong(line.substring(space + 1)));
+				}
+			}
+			return manifest;
+		}
+	}
+
+	public void add(String digest, long length) {
+		int count = digests.size();
+		if (count + 1 == offsets.length) {
+			offsets = Arrays.copyOf(offsets, offsets.length * 2);
+		}
+		offsets[count + 1] = offsets[count] + length;
+		digests.add(digest);
+	}
+
+	public void write(OutputStream out) throws IOException {
+		Writer writer = new OutputStreamWriter(out, StandardCharsets.US_ASCII);
+		writer.write(HEADER);
+		writer.write('\n');
+		for (int i = 0; i < digests.size(); i++) {
+			writer.write(String.format("%s %d\n", digests.get(i), getChunkLength(i)));
+		}
+		writer.flush();
+	}
+
+	public List<String> getDigests() {
+		return Collections.unmodifiableList(digests);
+	}
+
+	public int getChunkCount() {
+		return digests.size();
+	}
+
+	public long getLength() {
+		return offsets[digests.size()];
+	}
+
+	public long getChunkOffset(int chunk) {
+		return offsets[chunk];
+	}
+
+	public long getChunkLength(int chunk) {
+		return offsets[chunk + 1] - offsets[chunk];
+	}
+
+	/**
+	 * Returns the index of the chunk holding the byte at offset.
+	 *
+	 * @param offset the offset
+	 * @return the chunk index, or the chunk count if offset is past the end
+	 */
+	public int chunkAt(long offset) {
+		int low = 0;
+		int high = digests.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (offsets[mid + 1] <= offset) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+}
@@ -0,0 +1,166 @@
+package internal.org.springframework.content.commons.chunk;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Function;
+
+import org.springframework.content.commons.io.BoundedInputStream;
+import org.springframework.content.commons.io.RangeableResource;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * The content described by a {@link ChunkManifest}, read chunk by chunk.
+ * <p>
+ * Chunks are opened in order as the stream reaches them and a range only opens the chunks that
+ * overlap it, reading the first and last of those from an offset when the store allows.
+ */
+public class ChunkedResource extends AbstractResource implements RangeableResource {
+
+	private final Resource manifestResource;
+	private final ChunkManifest manifest;
+	private final Function<String, Resource> chunks;
+
+	public ChunkedResource(Resource manifestResource, ChunkManifest manifest, Function<String, Resource> chunks) {
+		this.manifestResource = manifestResource;
+		this.manifest = manifest;
+		this.chunks = chunks;
+	}
+
+	public ChunkManifest getManifest() {
+		return manifest;
+	}
+
+	@Override
+	public boolean exists() {
+		return manifestResource.exists();
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		return getInputStream(0L, Long.MAX_VALUE);
+	}
+
+	@Override
+	public InputStream getInputStream(long offset, long length) throws IOException {
+		long start = Math.min(Math.max(offset, 0L), manifest.getLength());
+		long end = (length > manifest.getLength() - start ? manifest.getLength() : start + length);
+		return new ChunkedInputStream(start, end);
+	}
+
+	@Override
+	public long contentLength() throws IOException {
+		return manifest.getLength();
+	}
+
+	@Override
+	public long lastModified() throws IOException {
+		return manifestResource.lastModified();
+	}
+
+	@Override
+	public String getFilename() {
+		return manifestResource.getFilename();
+	}
+
+	@Override
+	public String getDescription() {
+		return String.format("chunked %s", manifestResource.getDescription());
+	}
+
+	private InputStream openChunk(int chunk, long from, long count) throws IOException {
+		String location = ChunkManifest.location(manifest.getDigests().get(chunk));
+		Resource resource = chunks.apply(location);
+		if (resource == null || !resource.exists()) {
+			throw new FileNotFoundException(String.format("Chunk %s of %s does not exist", location, manifestResource.getDescription()));
+		}
+		if (from == 0L && count == manifest.getChunkLength(chunk)) {
+			return resource.getInputStream();
+		}
+		if (resource instanceof RangeableResource) {
+			return ((RangeableResource) resource).getInputStream(from, count);
+		}
+		return BoundedInputStream.range(resource.getInputStream(), from, count);
+	}
+
+	private class ChunkedInputStream extends InputStream {
+
+		private final long end;
+		private long position;
+		private int chunk;
+		private InputStream current;
+
+		ChunkedInputStream(long start, long end) {
+			this.position = start;
+			this.end = end;
+			this.chunk = manifest.chunkAt(start);
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			int read = read(b, 0, 1);
+			return (read == -1 ? -1 : b[0] & 0xff);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			while (position < end) {
+				if (current == null) {
+					long from = position - manifest.getChunkOffset(chunk);
+					long to = Math.min(end, manifest.getChunkOffset(chunk) + manifest.getChunkLength(chunk));
+					current = openChunk(chunk, from, to - manifest.getChunkOffset(chunk) - from);
+				}
+				int read = current.read(b, off, (int) Math.min(len, end - position));
+				if (read == -1) {
+					current.close();
+					current = null;
+					if (position != manifest.getChunkOffset(chunk + 1)) {
+						throw new IOException(String.format("Chunk %d of %s is truncated", chunk, manifestResource.getDescription()));
+					}
+					chunk++;
+					continue;
+				}
+				position += read;
+				return read;
+			}
+			return -1;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			if (n <= 0) {
+				return 0;
+			}
+			long target = Math.min(end, position + n);
+			long skipped = target - position;
+			int targetChunk = manifest.chunkAt(target);
+			if (current != null && targetChunk == chunk) {
+				long s = current.skip(skipped);
+				position += s;
+				return s;
+			}
+			close();
+			chunk = targetChunk;
+			position = target;
+			return skipped;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return (current != null ? current.available() : 0);
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (current != null) {
+				current.close();
+				current = null;
+			}
+		}
+	}
+}
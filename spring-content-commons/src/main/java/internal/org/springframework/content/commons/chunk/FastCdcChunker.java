@@ -0,0 +1,105 @@
+package internal.org.springframework.content.commons.chunk;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.springframework.util.Assert;
+
+/**
+ * Splits a stream into content-defined chunks with the FastCDC algorithm.
+ * <p>
+ * A cut point is placed where a rolling gear hash of the preceding bytes matches a mask, so an
+ * edit only changes the chunks around it and the chunks of the rest of the content are the same
+ * as before.  No cut is placed before the minimum size, a harder mask is used up to the average
+ * size and an easier one after it (normalized chunking), and a cut is forced at the maximum size.
+ */
+public class FastCdcChunker {
+
+	// fixed so that the same content is always cut in the same places
+	private static final long[] GEAR = new long[256];
+	static {
+		Random random = new Random(0x5C0FFEE5L);
+		for (int i = 0; i < GEAR.length; i++) {
+			GEAR[i] = random.nextLong();
+		}
+	}
+
+	private final InputStream in;
+	private final int minSize;
+	private final int avgSize;
+	private final long hardMask;
+	private final long easyMask;
+
+	private final byte[] buffer;
+	private int buffered = 0;
+	private boolean eof = false;
+
+	public FastCdcChunker(InputStream in, int minSize, int avgSize, int maxSize) {
+		Assert.isTrue(minSize > 0 && minSize <= avgSize && avgSize <= maxSize, "sizes must be 0 < minSize <= avgSize <= maxSize");
+		this.in = in;
+		this.minSize = minSize;
+		this.avgSize = avgSize;
+		int bits = 31 - Integer.numberOfLeadingZeros(avgSize);
+		// the gear hash shifts left, so its high bits depend on the most bytes
+		this.hardMask = mask(bits + 1);
+		this.easyMask = mask(Math.max(bits - 1, 1));
+		this.buffer = new byte[maxSize];
+	}
+
+	/**
+	 * Returns the next chunk, or null at the end of the stream.
+	 *
+	 * @return the chunk
+	 * @throws IOException if the stream cannot be read
+	 */
+	public byte[] next() throws IOException {
+		fill();
+		if (buffered == 0) {
+			return null;
+		}
+		int cut = cut(buffer, buffered);
+		byte[] chunk = Arrays.copyOf(buffer, cut);
+		System.arraycopy(buffer, cut, buffer, 0, buffered - cut);
+		buffered -= cut;
+		return chunk;
+	}
+
+	private void fill() throws IOException {
+		while (!eof && buffered < buffer.length) {
+			int read = in.read(buffer, buffered, buffer.length - buffered);
+			if (read == -1) {
+				eof = true;
+			} else {
+				buffered += read;
+			}
+		}
+	}
+
+	private int cut(byte[] bytes, int length) {
+		if (length <= minSize) {
+			return length;
+		}
+		int normal = Math.min(avgSize, length);
+		long hash = 0L;
+		int i = minSize;
+		for (; i < normal; i++) {
+			hash = (hash << 1) + GEAR[bytes[i] & 0xff];
+			if ((hash & hardMask) == 0) {
+				return i + 1;
+			}
+		}
+		for (; i < length; i++) {
+			hash = (hash << 1) + GEAR[bytes[i] & 0xff];
+			if ((hash & easyMask) == 0) {
+				return i + 1;
+			}
+		}
+		return length;
+	}
+
+	private static long mask(int bits) {
+		return -1L << (64 - bits);
+	}
+}
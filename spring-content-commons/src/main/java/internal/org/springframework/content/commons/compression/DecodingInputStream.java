@@ -0,0 +1,79 @@
+package internal.org.springframework.content.commons.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.content.commons.compression.ContentCodec;
+import org.springframework.content.commons.io.ContentEncodedInputStream;
+import org.springframework.util.Assert;
+
+/**
+ * A stream of encoded content that is decoded when it is first read, so that until then the
+ * content can be taken as it is stored.
+ */
+public class DecodingInputStream extends InputStream implements ContentEncodedInputStream {
+
+	private final InputStream encoded;
+	private final ContentCodec codec;
+	private final long encodedLength;
+
+	private InputStream decoded;
+
+	public DecodingInputStream(InputStream encoded, ContentCodec codec, long encodedLength) {
+		this.encoded = encoded;
+		this.codec = codec;
+		this.encodedLength = encodedLength;
+	}
+
+	@Override
+	public String getContentEncoding() {
+		return codec.getEncoding();
+	}
+
+	@Override
+	public long getEncodedLength() {
+		return encodedLength;
+	}
+
+	@Override
+	public InputStream getEncodedInputStream() {
+		Assert.state(decoded == null, "Content has already been read");
+		return encoded;
+	}
+
+	@Override
+	public int read() throws IOException {
+		return decoded().read();
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		return decoded().read(b, off, len);
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		return decoded().skip(n);
+	}
+
+	@Override
+	public int available() throws IOException {
+		return (decoded != null ? decoded.available() : 0);
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (decoded != null) {
+			decoded.close();
+		} else {
+			encoded.close();
+		}
+	}
+
+	private InputStream decoded() throws IOException {
+		if (decoded == null) {
+			decoded = codec.decode(encoded);
+		}
+		return decoded;
+	}
+}
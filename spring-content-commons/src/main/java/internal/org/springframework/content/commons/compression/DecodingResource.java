@@ -0,0 +1,116 @@
+package internal.org.springframework.content.commons.compression;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.springframework.content.commons.compression.ContentCodec;
+import org.springframework.content.commons.io.ContentEncodedResource;
+import org.springframework.content.commons.io.DeletableResource;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.WritableResource;
+
+/**
+ * A store resource of encoded content, which is decoded as it is read.  Its length is the decoded
+ * length recorded in the content's {@link EncodingMarker}.
+ * <p>
+ * Encoded content cannot be read from an offset or through a file channel, so the resource is
+ * neither a {@link org.springframework.content.commons.io.RangeableResource} nor a
+ * {@link org.springframework.content.commons.io.FileChannelResource}, whatever the store's
+ * resource is.  Content written through the resource is stored as it is written and deleting it
+ * deletes its marker too.
+ */
+public class DecodingResource extends AbstractResource implements ContentEncodedResource, WritableResource, DeletableResource {
+
+	private final Resource resource;
+	private final ContentCodec codec;
+	private final EncodingMarker marker;
+	private final Resource markerResource;
+
+	public DecodingResource(Resource resource, ContentCodec codec, EncodingMarker marker, Resource markerResource) {
+		this.resource = resource;
+		this.codec = codec;
+		this.marker = marker;
+		this.markerResource = markerResource;
+	}
+
+	@Override
+	public String getContentEncoding() {
+		return codec.getEncoding();
+	}
+
+	@Override
+	public InputStream getEncodedInputStream() throws IOException {
+		return resource.getInputStream();
+	}
+
+	@Override
+	public long getEncodedLength() {
+		return marker.getEncodedLength();
+	}
+
+	@Override
+	public boolean exists() {
+		return resource.exists();
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		return codec.decode(resource.getInputStream());
+	}
+
+	@Override
+	public long contentLength() {
+		return marker.getLength();
+	}
+
+	@Override
+	public long lastModified() throws IOException {
+		return resource.lastModified();
+	}
+
+	@Override
+	public String getFilename() {
+		return resource.getFilename();
+	}
+
+	@Override
+	public String getDescription() {
+		return resource.getDescription();
+	}
+
+	@Override
+	public boolean isWritable() {
+		return resource instanceof WritableResource && ((WritableResource) resource).isWritable();
+	}
+
+	@Override
+	public OutputStream getOutputStream() throws IOException {
+		if (!(resource instanceof WritableResource)) {
+			throw new FileNotFoundException(String.format("%s cannot be written", getDescription()));
+		}
+		deleteMarker();
+		return ((WritableResource) resource).getOutputStream();
+	}
+
+	@Override
+	public void delete() {
+		if (!(resource instanceof DeletableResource)) {
+			throw new UnsupportedOperationException(String.format("%s cannot be deleted", getDescription()));
+		}
+		((DeletableResource) resource).delete();
+		deleteMarker();
+	}
+
+	public Resource getResource() {
+		return resource;
+	}
+
+	private void deleteMarker() {
+		if (markerResource instanceof DeletableResource) {
+			((DeletableResource) markerResource).delete();
+		}
+	}
+}
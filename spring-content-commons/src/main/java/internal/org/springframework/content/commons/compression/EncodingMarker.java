@@ -0,0 +1,119 @@
+package internal.org.springframework.content.commons.compression;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * How a content is encoded.
+ * <p>
+ * A marker is stored alongside each encoded content, at a location derived from its content id,
+ * as a header line followed by an {@literal <encoding> <length> <encoded length>} line.  Content
+ * without a marker is stored as it is.
+ */
+public class EncodingMarker {
+
+	static final String HEADER = "spring-content-encoding/1";
+
+	/**
+	 * The prefix of the location of every marker.
+	 */
+	public static final String ENCODINGS = "encodings/";
+
+	private final String encoding;
+	private final long length;
+	private final long encodedLength;
+
+	public EncodingMarker(String encoding, long length, long encodedLength) {
+		this.encoding = encoding;
+		this.length = length;
+		this.encodedLength = encodedLength;
+	}
+
+	/**
+	 * Returns the location of the marker of a content id.
+	 *
+	 * @param contentId the content id
+	 * @return the location
+	 */
+	public static String location(Object contentId) {
+		return ENCODINGS + contentId.toString();
+	}
+
+	/**
+	 * Returns the content id whose marker is at the given location.
+	 *
+	 * @param location the marker location
+	 * @return the content id
+	 */
+	public static String contentId(String location) {
+		return location.substring(ENCODINGS.length());
+	}
+
+	/**
+	 * Reads the marker held by a resource.
+	 *
+	 * @param resource the resource
+	 * @return the marker, or null if the resource does not exist or does not hold a marker
+	 * @throws IOException if the resource cannot be read
+	 */
+	public static EncodingMarker read(Resource resource) throws IOException {
+		if (resource == null || !resource.exists()) {
+			return null;
+		}
+		try (InputStream in = resource.getInputStream()) {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+			if (!HEADER.equals(reader.readLine())) {
+				return null;
+			}
+			String line = reader.readLine();
+			String[] fields = (line != null ? line.split(" ") : new String[0]);
+			if (fields.length != 3) {
+				return null;
+			}
+			return new EncodingMarker(fields[0], Long.parseLong(fields[1]), Long.parseLong(fields[2]));
+		}
+	}
+
+	public void write(OutputStream out) throws IOException {
+		Writer writer = new OutputStreamWriter(out, StandardCharsets.US_ASCII);
+		writer.write(HEADER);
+		writer.write('\n');
+		writer.write(String.format("%s %d %d\n", encoding, length, encodedLength));
+		writer.flush();
+	}
+
+	/**
+	 * Returns the HTTP content-coding of the content.
+	 *
+	 * @return the content-coding
+	 */
+	public String getEncoding() {
+		return encoding;
+	}
+
+	/**
+	 * Returns the length of the decoded content.
+	 *
+	 * @return the length
+	 */
+	public long getLength() {
+		return length;
+	}
+
+	/**
+	 * Returns the length of the content as it is stored.
+	 *
+	 * @return the encoded length
+	 */
+	public long getEncodedLength() {
+		return encodedLength;
+	}
+}
@@ -0,0 +1,120 @@
+package internal.org.springframework.content.commons.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterInputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.content.commons.compression.ContentCodec;
+
+/**
+ * Encodes content as a gzip member, which can be sent as it is stored to clients that accept
+ * {@literal gzip}.
+ */
+public class GzipContentCodec implements ContentCodec {
+
+	public static final String ENCODING = "gzip";
+
+	// magic, deflate, no flags, no mtime, no xfl, unknown os
+	private static final byte[] HEADER = new byte[] {
+			0x1f, (byte) 0x8b, 0x08, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, (byte) 0xff };
+
+	private final int level;
+
+	public GzipContentCodec() {
+		this(Deflater.DEFAULT_COMPRESSION);
+	}
+
+	public GzipContentCodec(int level) {
+		this.level = level;
+	}
+
+	@Override
+	public String getEncoding() {
+		return ENCODING;
+	}
+
+	@Override
+	public InputStream encode(InputStream content) throws IOException {
+		return new GzipEncodingInputStream(content, level);
+	}
+
+	@Override
+	public InputStream decode(InputStream encoded) throws IOException {
+		return new GZIPInputStream(encoded, 8192);
+	}
+
+	private static class GzipEncodingInputStream extends InputStream {
+
+		private final CRC32 crc = new CRC32();
+		private final Deflater deflater;
+		private final InputStream deflated;
+
+		private byte[] pending = HEADER;
+		private int position = 0;
+		private boolean finished = false;
+
+		GzipEncodingInputStream(InputStream content, int level) {
+			this.deflater = new Deflater(level, true);
+			this.deflated = new DeflaterInputStream(new CheckedInputStream(content, crc), deflater, 8192);
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			int read = read(b, 0, 1);
+			return (read == -1 ? -1 : b[0] & 0xff);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			while (true) {
+				if (pending != null) {
+					if (position < pending.length) {
+						int n = Math.min(len, pending.length - position);
+						System.arraycopy(pending, position, b, off, n);
+						position += n;
+						return n;
+					}
+					pending = null;
+				}
+				if (finished) {
+					return -1;
+				}
+				int read = deflated.read(b, off, len);
+				if (read != -1) {
+					return read;
+				}
+				pending = trailer();
+				position = 0;
+				finished = true;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				deflated.close();
+			} finally {
+				deflater.end();
+			}
+		}
+
+		private byte[] trailer() {
+			long checksum = crc.getValue();
+			long size = deflater.getBytesRead() & 0xffffffffL;
+			byte[] trailer = new byte[8];
+			for (int i = 0; i < 4; i++) {
+				trailer[i] = (byte) (checksum >>> (8 * i));
+				trailer[4 + i] = (byte) (size >>> (8 * i));
+			}
+			return trailer;
+		}
+	}
+}
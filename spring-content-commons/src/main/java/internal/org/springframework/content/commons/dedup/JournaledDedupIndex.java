@@ -0,0 +1,189 @@
+package internal.org.springframework.content.commons.dedup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.content.commons.dedup.DedupIndex;
+import org.springframework.content.commons.repository.StoreAccessException;
+
+/**
+ * A {@link DedupIndex} held in memory and, when given a journal file, recorded in it so that it
+ * survives restarts.
+ * <p>
+ * Each change is appended to the journal, and flushed, before it is applied.  The journal is
+ * replayed and compacted to one line per stored content when the index is created.  Lines are
+ * {@literal S <digest> <length> <references> <contentId>} for stored content,
+ * {@literal T <digest>} for an added reference and {@literal R <contentId>} for a released one.
+ */
+public class JournaledDedupIndex implements DedupIndex, Closeable {
+
+	private static final Log logger = LogFactory.getLog(JournaledDedupIndex.class);
+
+	// guarded by this
+	private final Map<String, String> digests = new HashMap<>();
+	private final Map<String, Entry> contents = new HashMap<>();
+	private long logicalSize = 0L;
+	private long storedSize = 0L;
+
+	private final Path journal;
+	private Writer writer;
+
+	public JournaledDedupIndex() {
+		this.journal = null;
+	}
+
+	public JournaledDedupIndex(Path journal) throws IOException {
+		this.journal = journal;
+		if (Files.exists(journal)) {
+			replay();
+		}
+		compact();
+	}
+
+	@Override
+	public synchronized String retain(String digest) {
+		String contentId = digests.get(digest);
+		if (contentId == null) {
+			return null;
+		}
+		record("T " + digest);
+		Entry entry = contents.get(contentId);
+		entry.references++;
+		logicalSize += entry.length;
+		return contentId;
+	}
+
+	@Override
+	public synchronized void add(String digest, String contentId, long length) {
+		record(String.format("S %s %d %d %s", digest, length, 1, contentId));
+		store(digest, contentId, length, 1L);
+	}
+
+	@Override
+	public synchronized long release(String contentId) {
+		Entry entry = contents.get(contentId);
+		if (entry == null) {
+			return -1L;
+		}
+		record("R " + contentId);
+		return release(contentId, entry);
+	}
+
+	@Override
+	public synchronized long getLogicalSize() {
+		return logicalSize;
+	}
+
+	@Override
+	public synchronized long getStoredSize() {
+		return storedSize;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (writer != null) {
+			writer.close();
+			writer = null;
+		}
+	}
+
+	private void store(String digest, String contentId, long length, long references) {
+		Entry replaced = contents.put(contentId, new Entry(digest, length, references));
+		if (replaced != null) {
+			// content overwritten in place
+			logicalSize -= replaced.length * replaced.references;
+			storedSize -= replaced.length;
+			digests.remove(replaced.digest, contentId);
+		}
+		digests.putIfAbsent(digest, contentId);
+		logicalSize += length * references;
+		storedSize += length;
+	}
+
+	private long release(String contentId, Entry entry) {
+		entry.references--;
+		logicalSize -= entry.length;
+		if (entry.references == 0) {
+			contents.remove(contentId);
+			digests.remove(entry.digest, contentId);
+			storedSize -= entry.length;
+		}
+		return entry.references;
+	}
+
+	private void record(String line) {
+		if (journal == null) {
+			return;
+		}
+		try {
+			writer.write(line);
+			writer.write('\n');
+			writer.flush();
+		} catch (IOException ioe) {
+			throw new StoreAccessException(String.format("Unable to record deduplicated content in %s", journal), ioe);
+		}
+	}
+
+	private void replay() throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] op = line.split(" ", 5);
+				if (op[0].equals("S") && op.length == 5) {
+					store(op[1], op[4], Long.parseLong(op[2]), Long.parseLong(op[3]));
+				} else if (op[0].equals("T") && op.length == 2) {
+					String contentId = digests.get(op[1]);
+					if (contentId != null) {
+						contents.get(contentId).references++;
+						logicalSize += contents.get(contentId).length;
+					}
+				} else if (op[0].equals("R") && line.length() > 2) {
+					Entry entry = contents.get(line.substring(2));
+					if (entry != null) {
+						release(line.substring(2), entry);
+					}
+				} else {
+					// a line torn by a crash can only be the last
+					logger.warn(String.format("Ignoring malformed line in %s: %s", journal, line));
+				}
+			}
+		}
+	}
+
+	private void compact() throws IOException {
+		Path compacted = journal.resolveSibling(journal.getFileName() + ".tmp");
+		try (BufferedWriter out = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+			for (Map.Entry<String, Entry> content : contents.entrySet()) {
+				Entry entry = content.getValue();
+				out.write(String.format("S %s %d %d %s\n", entry.digest, entry.length, entry.references, content.getKey()));
+			}
+		}
+		Files.move(compacted, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		writer = Files.newBufferedWriter(journal, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+	}
+
+	private static class Entry {
+
+		private final String digest;
+		private final long length;
+		private long references;
+
+		Entry(String digest, long length, long references) {
+			this.digest = digest;
+			this.length = length;
+			this.references = references;
+		}
+	}
+}
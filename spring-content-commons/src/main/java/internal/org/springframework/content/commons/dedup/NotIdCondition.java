@@ -0,0 +1,26 @@
+package internal.org.springframework.content.commons.dedup;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+
+import org.springframework.content.commons.utils.Condition;
+
+/**
+ * Matches a content id field that is not also the entity's id, so it can be reset, or pointed at
+ * content shared with other entities, without changing the entity's identity.
+ */
+public class NotIdCondition implements Condition {
+
+	public static final Condition INSTANCE = new NotIdCondition();
+
+	@Override
+	public boolean matches(Field field) {
+		for (Annotation annotation : field.getAnnotations()) {
+			if ("javax.persistence.Id".equals(annotation.annotationType().getCanonicalName()) ||
+				"org.springframework.data.annotation.Id".equals(annotation.annotationType().getCanonicalName())) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,154 @@
+package internal.org.springframework.content.commons.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.util.Assert;
+
+/**
+ * Publishes the content of a file as {@link ByteBuffer}s read with an
+ * {@link AsynchronousFileChannel}.
+ * <p>
+ * Each subscriber reads the file through its own channel, opened when it subscribes.  A read
+ * is only issued while the subscriber has outstanding demand, so no thread is blocked waiting
+ * on either the disk or the subscriber.
+ */
+public class AsynchronousFileChannelPublisher implements Publisher<ByteBuffer> {
+
+	private final Path path;
+	private final int bufferSize;
+
+	public AsynchronousFileChannelPublisher(Path path) {
+		this(path, InputStreamPublisher.DEFAULT_BUFFER_SIZE);
+	}
+
+	public AsynchronousFileChannelPublisher(Path path, int bufferSize) {
+		Assert.notNull(path, "path must not be null");
+		Assert.isTrue(bufferSize > 0, "bufferSize must be greater than 0");
+		this.path = path;
+		this.bufferSize = bufferSize;
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super ByteBuffer> subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException("subscriber must not be null");
+		}
+
+		AsynchronousFileChannel channel;
+		try {
+			channel = AsynchronousFileChannel.open(path, StandardOpenOption.READ);
+		} catch (IOException | RuntimeException e) {
+			subscriber.onSubscribe(new Subscription() {
+				@Override public void request(long n) {}
+				@Override public void cancel() {}
+			});
+			subscriber.onError(e);
+			return;
+		}
+		subscriber.onSubscribe(new ChannelSubscription(channel, subscriber));
+	}
+
+	private final class ChannelSubscription implements Subscription, CompletionHandler<Integer, ByteBuffer> {
+
+		private final AsynchronousFileChannel channel;
+		private final Subscriber<? super ByteBuffer> subscriber;
+		private final AtomicLong demand = new AtomicLong();
+		private final AtomicBoolean reading = new AtomicBoolean();
+		private final AtomicBoolean terminated = new AtomicBoolean();
+		private volatile long position = 0L;
+
+		ChannelSubscription(AsynchronousFileChannel channel, Subscriber<? super ByteBuffer> subscriber) {
+			this.channel = channel;
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				if (terminate()) {
+					subscriber.onError(new IllegalArgumentException("request must be greater than 0, was " + n));
+				}
+				return;
+			}
+			long current, next;
+			do {
+				current = demand.get();
+				next = current + n;
+				if (next < 0) {
+					next = Long.MAX_VALUE;
+				}
+			} while (!demand.compareAndSet(current, next));
+			readIfDemanded();
+		}
+
+		@Override
+		public void cancel() {
+			terminate();
+		}
+
+		private void readIfDemanded() {
+			// a read is only ever in flight once; the completion handler issues the next one
+			while (!terminated.get() && demand.get() > 0 && reading.compareAndSet(false, true)) {
+				if (demand.get() > 0) {
+					ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+					try {
+						channel.read(buffer, position, buffer, this);
+					} catch (RuntimeException e) {
+						failed(e, buffer);
+					}
+					return;
+				}
+				reading.set(false);
+			}
+		}
+
+		@Override
+		public void completed(Integer read, ByteBuffer buffer) {
+			if (terminated.get()) {
+				return;
+			}
+			if (read == -1) {
+				if (terminate()) {
+					subscriber.onComplete();
+				}
+				return;
+			}
+			position += read;
+			buffer.flip();
+			demand.decrementAndGet();
+			subscriber.onNext(buffer);
+
+			reading.set(false);
+			readIfDemanded();
+		}
+
+		@Override
+		public void failed(Throwable t, ByteBuffer buffer) {
+			if (terminate()) {
+				subscriber.onError(t);
+			}
+		}
+
+		private boolean terminate() {
+			if (!terminated.compareAndSet(false, true)) {
+				return false;
+			}
+			try {
+				channel.close();
+			} catch (IOException ioe) {
+				// ignore
+			}
+			return true;
+		}
+	}
+}
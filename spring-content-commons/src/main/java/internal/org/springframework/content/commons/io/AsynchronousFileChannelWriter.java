@@ -0,0 +1,137 @@
+package internal.org.springframework.content.commons.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Writes the {@link ByteBuffer}s of a {@link Publisher} to a file with an
+ * {@link AsynchronousFileChannel}.
+ * <p>
+ * Buffers are requested one at a time and the next is only requested once the previous one has
+ * been written, so the publisher is never asked for content faster than the disk accepts it.
+ */
+public class AsynchronousFileChannelWriter implements Subscriber<ByteBuffer>, CompletionHandler<Integer, ByteBuffer> {
+
+	private final AsynchronousFileChannel channel;
+	private final CompletableFuture<Long> result = new CompletableFuture<>();
+
+	private Subscription subscription;
+	private long position = 0L;
+	private boolean writing = false;
+	private boolean completed = false;
+
+	private AsynchronousFileChannelWriter(AsynchronousFileChannel channel) {
+		this.channel = channel;
+	}
+
+	/**
+	 * Writes content to path, replacing any existing file.
+	 *
+	 * @param content the content
+	 * @param path the file to write
+	 * @return a future completed with the number of bytes written
+	 */
+	public static CompletableFuture<Long> write(Publisher<ByteBuffer> content, Path path) {
+		AsynchronousFileChannel channel;
+		try {
+			channel = AsynchronousFileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+		} catch (IOException | RuntimeException e) {
+			CompletableFuture<Long> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			return failed;
+		}
+		AsynchronousFileChannelWriter writer = new AsynchronousFileChannelWriter(channel);
+		content.subscribe(writer);
+		return writer.result;
+	}
+
+	@Override
+	public synchronized void onSubscribe(Subscription s) {
+		if (subscription != null) {
+			s.cancel();
+			return;
+		}
+		subscription = s;
+		s.request(1);
+	}
+
+	@Override
+	public synchronized void onNext(ByteBuffer buffer) {
+		if (result.isDone()) {
+			return;
+		}
+		writing = true;
+		write(buffer);
+	}
+
+	@Override
+	public synchronized void onError(Throwable t) {
+		fail(t);
+	}
+
+	@Override
+	public synchronized void onComplete() {
+		completed = true;
+		if (!writing) {
+			finish();
+		}
+	}
+
+	@Override
+	public synchronized void completed(Integer written, ByteBuffer buffer) {
+		position += written;
+		if (buffer.hasRemaining()) {
+			write(buffer);
+			return;
+		}
+		writing = false;
+		if (completed) {
+			finish();
+		} else {
+			subscription.request(1);
+		}
+	}
+
+	@Override
+	public synchronized void failed(Throwable t, ByteBuffer buffer) {
+		if (subscription != null) {
+			subscription.cancel();
+		}
+		fail(t);
+	}
+
+	private void write(ByteBuffer buffer) {
+		try {
+			channel.write(buffer, position, buffer, this);
+		} catch (RuntimeException e) {
+			failed(e, buffer);
+		}
+	}
+
+	private void finish() {
+		try {
+			channel.close();
+			result.complete(position);
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+
+	private void fail(Throwable t) {
+		try {
+			channel.close();
+		} catch (IOException ioe) {
+			// ignore
+		}
+		result.completeExceptionally(t);
+	}
+}
@@ -0,0 +1,167 @@
+package internal.org.springframework.content.commons.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.util.Assert;
+
+/**
+ * Publishes the content of an {@link InputStream} as {@link ByteBuffer}s.
+ * <p>
+ * Each subscriber gets its own stream from the source, which is opened on the executor when
+ * the subscriber first requests content.  The stream is read, on the executor, only as fast as
+ * the subscriber requests buffers and is closed on completion, error or cancellation.  A null
+ * stream is published as empty content.
+ */
+public class InputStreamPublisher implements Publisher<ByteBuffer> {
+
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private final Callable<InputStream> source;
+	private final Executor executor;
+	private final int bufferSize;
+
+	public InputStreamPublisher(Callable<InputStream> source, Executor executor) {
+		this(source, executor, DEFAULT_BUFFER_SIZE);
+	}
+
+	public InputStreamPublisher(Callable<InputStream> source, Executor executor, int bufferSize) {
+		Assert.notNull(source, "source must not be null");
+		Assert.notNull(executor, "executor must not be null");
+		Assert.isTrue(bufferSize > 0, "bufferSize must be greater than 0");
+		this.source = source;
+		this.executor = executor;
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Returns a publisher of empty content.
+	 *
+	 * @return the publisher
+	 */
+	public static InputStreamPublisher empty() {
+		return new InputStreamPublisher(() -> null, Runnable::run);
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super ByteBuffer> subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException("subscriber must not be null");
+		}
+		subscriber.onSubscribe(new InputStreamSubscription(subscriber));
+	}
+
+	private final class InputStreamSubscription implements Subscription, Runnable {
+
+		private final Subscriber<? super ByteBuffer> subscriber;
+		private final AtomicLong demand = new AtomicLong();
+		private final AtomicInteger wip = new AtomicInteger();
+
+		private volatile boolean cancelled = false;
+		private volatile Throwable invalidRequest;
+
+		// only accessed by the draining thread
+		private InputStream in;
+		private boolean opened = false;
+		private boolean done = false;
+
+		InputStreamSubscription(Subscriber<? super ByteBuffer> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				invalidRequest = new IllegalArgumentException("request must be greater than 0, was " + n);
+			} else {
+				long current, next;
+				do {
+					current = demand.get();
+					next = current + n;
+					if (next < 0) {
+						next = Long.MAX_VALUE;
+					}
+				} while (!demand.compareAndSet(current, next));
+			}
+			schedule();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			schedule();
+		}
+
+		private void schedule() {
+			if (wip.getAndIncrement() == 0) {
+				try {
+					executor.execute(this);
+				} catch (RejectedExecutionException ree) {
+					done = true;
+					subscriber.onError(ree);
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			int missed = 1;
+			do {
+				if (done) {
+					return;
+				}
+				try {
+					if (cancelled) {
+						terminate();
+						return;
+					}
+					if (invalidRequest != null) {
+						terminate();
+						subscriber.onError(invalidRequest);
+						return;
+					}
+					if (!opened && demand.get() > 0) {
+						opened = true;
+						in = source.call();
+					}
+					while (opened && demand.get() > 0 && !cancelled) {
+						byte[] bytes = new byte[bufferSize];
+						int read = (in != null ? in.read(bytes) : -1);
+						if (read == -1) {
+							terminate();
+							subscriber.onComplete();
+							return;
+						}
+						demand.decrementAndGet();
+						subscriber.onNext(ByteBuffer.wrap(bytes, 0, read));
+					}
+				} catch (Throwable t) {
+					terminate();
+					subscriber.onError(t);
+					return;
+				}
+				missed = wip.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		private void terminate() {
+			done = true;
+			if (in != null) {
+				try {
+					in.close();
+				} catch (IOException ioe) {
+					// ignore
+				}
+			}
+		}
+	}
+}
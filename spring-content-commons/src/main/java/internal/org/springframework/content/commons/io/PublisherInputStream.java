@@ -0,0 +1,124 @@
+package internal.org.springframework.content.commons.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * An {@link InputStream} over the {@link ByteBuffer}s of a {@link Publisher}.
+ * <p>
+ * Buffers are requested one at a time, as the previous one is consumed, so a reader that falls
+ * behind slows the publisher down rather than buffering its content.  Reads block until the
+ * next buffer arrives.  Closing the stream before the end of the content cancels the
+ * subscription.
+ */
+public class PublisherInputStream extends InputStream {
+
+	private static final Object COMPLETE = new Object();
+
+	private final BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+
+	private volatile Subscription subscription;
+	private ByteBuffer current;
+	private boolean finished = false;
+
+	public PublisherInputStream(Publisher<ByteBuffer> publisher) {
+		publisher.subscribe(new Subscriber<ByteBuffer>() {
+
+			@Override
+			public void onSubscribe(Subscription s) {
+				subscription = s;
+				s.request(1);
+			}
+
+			@Override
+			public void onNext(ByteBuffer buffer) {
+				signals.add(buffer);
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				signals.add(t);
+			}
+
+			@Override
+			public void onComplete() {
+				signals.add(COMPLETE);
+			}
+		});
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!nextBuffer()) {
+			return -1;
+		}
+		return current.get() & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (!nextBuffer()) {
+			return -1;
+		}
+		int count = Math.min(len, current.remaining());
+		current.get(b, off, count);
+		return count;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return (current != null ? current.remaining() : 0);
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!finished) {
+			finished = true;
+			Subscription s = subscription;
+			if (s != null) {
+				s.cancel();
+			}
+		}
+	}
+
+	private boolean nextBuffer() throws IOException {
+		while (current == null || !current.hasRemaining()) {
+			if (finished) {
+				return false;
+			}
+			if (current != null) {
+				current = null;
+				subscription.request(1);
+			}
+
+			Object signal;
+			try {
+				signal = signals.take();
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted waiting for content");
+			}
+
+			if (signal == COMPLETE) {
+				finished = true;
+				return false;
+			} else if (signal instanceof Throwable) {
+				finished = true;
+				throw new IOException("Error reading content", (Throwable) signal);
+			}
+			current = (ByteBuffer) signal;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,62 @@
+package internal.org.springframework.content.commons.replication;
+
+import java.util.Arrays;
+
+/**
+ * The latencies of the most recent reads of a replica.
+ */
+public class LatencyTracker {
+
+	private final long[] samples;
+	private int next = 0;
+	private int count = 0;
+
+	public LatencyTracker(int size) {
+		this.samples = new long[size];
+	}
+
+	public synchronized void record(long nanos) {
+		samples[next] = nanos;
+		next = (next + 1) % samples.length;
+		if (count < samples.length) {
+			count++;
+		}
+	}
+
+	public synchronized int getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the mean of the recorded latencies, or 0 when none are recorded.
+	 *
+	 * @return the mean in nanoseconds
+	 */
+	public synchronized long mean() {
+		if (count == 0) {
+			return 0L;
+		}
+		long sum = 0L;
+		for (int i = 0; i < count; i++) {
+			sum += samples[i];
+		}
+		return sum / count;
+	}
+
+	/**
+	 * Returns the latency that the given fraction of the recorded latencies do not exceed, or 0
+	 * when none are recorded.
+	 *
+	 * @param fraction the fraction, for example 0.95
+	 * @return the percentile in nanoseconds
+	 */
+	public synchronized long percentile(double fraction) {
+		if (count == 0) {
+			return 0L;
+		}
+		long[] sorted = Arrays.copyOf(samples, count);
+		Arrays.sort(sorted);
+		int index = (int) Math.ceil(fraction * count) - 1;
+		return sorted[Math.max(0, Math.min(index, count - 1))];
+	}
+}
@@ -1,13 +1,20 @@
 package internal.org.springframework.content.commons.repository;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.content.commons.annotations.HandleAfterGetContent;
 import org.springframework.content.commons.annotations.HandleAfterSetContent;
@@ -20,6 +27,7 @@ import org.springframework.content.commons.repository.StoreEvent;
 import org.springframework.content.commons.repository.events.AfterGetContentEvent;
 import org.springframework.content.commons.repository.events.AfterSetContentEvent;
 import org.springframework.content.commons.repository.events.AfterUnsetContentEvent;
+import org.springframework.content.commons.repository.events.AsyncStoreEventDispatcher;
 import org.springframework.content.commons.repository.events.BeforeGetContentEvent;
 import org.springframework.content.commons.repository.events.BeforeSetContentEvent;
 import org.springframework.content.commons.repository.events.BeforeUnsetContentEvent;
@@ -37,22 +45,53 @@ public class AnnotatedStoreEventInvoker
 
 	private static final Log logger = LogFactory.getLog(AnnotatedStoreEventInvoker.class);
 
+	private static final EventHandlerMethod[] NO_HANDLERS = new EventHandlerMethod[0];
+
 	private final MultiValueMap<Class<? extends StoreEvent>, EventHandlerMethod> handlerMethods = new LinkedMultiValueMap<Class<? extends StoreEvent>, EventHandlerMethod>();
 
+	private final ConcurrentMap<Class<? extends StoreEvent>, ConcurrentMap<Class<?>, EventHandlerMethod[]>> resolvedHandlers = new ConcurrentHashMap<>();
+
 	private ReflectionService reflectionService;
 
+	// a supplied reflection service is always used, otherwise handlers are invoked through their bound method handles
+	private final boolean useMethodHandles;
+
+	// looked up lazily so that, as a bean post processor, this does not force early creation of the dispatcher
+	private ObjectProvider<AsyncStoreEventDispatcher> dispatcherProvider;
+	private volatile AsyncStoreEventDispatcher dispatcher;
+	private volatile boolean dispatcherResolved = false;
+
 	public AnnotatedStoreEventInvoker() {
 		reflectionService = new ReflectionServiceImpl();
+		useMethodHandles = true;
 	}
 	
 	public AnnotatedStoreEventInvoker(ReflectionService reflectionService) {
 		this.reflectionService = reflectionService;
+		this.useMethodHandles = false;
 	}
 	
+	@Autowired
+	public void setAsyncStoreEventDispatcher(ObjectProvider<AsyncStoreEventDispatcher> dispatcherProvider) {
+		this.dispatcherProvider = dispatcherProvider;
+	}
+
 	MultiValueMap<Class<? extends StoreEvent>, EventHandlerMethod> getHandlers() {
 		return handlerMethods;
 	}
-	
+
+	/**
+	 * Returns whether any annotated handler would be invoked for an event of the given type
+	 * whose source is of the given type.
+	 *
+	 * @param eventType the type of event
+	 * @param sourceType the type of content entity the event is for
+	 * @return true if at least one handler matches
+	 */
+	public boolean handles(Class<? extends StoreEvent> eventType, Class<?> sourceType) {
+		return resolveHandlers(eventType, sourceType).length > 0;
+	}
+
 	@Override
 	public Object postProcessBeforeInitialization(Object bean, String beanName)
 			throws BeansException {
@@ -90,31 +129,80 @@ public class AnnotatedStoreEventInvoker
 
 	@Override
 	public void onApplicationEvent(StoreEvent event) {
-		Class<? extends StoreEvent> eventType = event.getClass();
+		Object src = event.getSource();
 
-		if (!handlerMethods.containsKey(eventType)) {
+		EventHandlerMethod[] handlers = resolveHandlers(event.getClass(), src.getClass());
+		if (handlers.length == 0) {
 			return;
 		}
 
-		for (EventHandlerMethod handlerMethod : handlerMethods.get(eventType)) {
+		AsyncStoreEventDispatcher dispatcher = getDispatcher();
+		if (dispatcher != null && AsyncStoreEventDispatcher.isAsync(event)) {
+			dispatcher.dispatch(event, () -> invokeHandlers(event, handlers));
+		} else {
+			invokeHandlers(event, handlers);
+		}
+	}
 
-			Object src = event.getSource();
+	private void invokeHandlers(StoreEvent event, EventHandlerMethod[] handlers) {
+		Object src = event.getSource();
 
-			if (!ClassUtils.isAssignable(handlerMethod.targetType, src.getClass())) {
-				continue;
+		boolean debug = logger.isDebugEnabled();
+		for (EventHandlerMethod handlerMethod : handlers) {
+			if (debug) {
+				logger.debug(String.format("Invoking %s handler for %s.", event.getClass().getSimpleName(), src));
 			}
 
-			List<Object> parameters = new ArrayList<Object>();
-			parameters.add(src);
-			
-			if (logger.isDebugEnabled()) {
-				logger.debug(String.format("Invoking {} handler for {}.", event.getClass().getSimpleName(), event.getSource()));
+			if (useMethodHandles && handlerMethod.handle != null) {
+				handlerMethod.invoke(src);
+			} else {
+				reflectionService.invokeMethod(handlerMethod.method, handlerMethod.handler, src);
 			}
+		}
+	}
 
-			reflectionService.invokeMethod(handlerMethod.method, handlerMethod.handler, parameters.toArray());
+	private AsyncStoreEventDispatcher getDispatcher() {
+		if (!dispatcherResolved) {
+			if (dispatcherProvider != null) {
+				dispatcher = dispatcherProvider.getIfAvailable();
+			}
+			dispatcherResolved = true;
 		}
+		return dispatcher;
 	}
-	
+
+	/**
+	 * Returns the handlers, in registration order, for the given event type and source type.
+	 * Resolved once per pair and cached until another handler is registered.
+	 */
+	EventHandlerMethod[] resolveHandlers(Class<? extends StoreEvent> eventType, Class<?> sourceType) {
+		ConcurrentMap<Class<?>, EventHandlerMethod[]> bySource = resolvedHandlers.get(eventType);
+		if (bySource == null) {
+			bySource = resolvedHandlers.computeIfAbsent(eventType, k -> new ConcurrentHashMap<>());
+		}
+		EventHandlerMethod[] handlers = bySource.get(sourceType);
+		if (handlers == null) {
+			handlers = bySource.computeIfAbsent(sourceType, k -> findHandlers(eventType, sourceType));
+		}
+		return handlers;
+	}
+
+	private EventHandlerMethod[] findHandlers(Class<? extends StoreEvent> eventType, Class<?> sourceType) {
+		synchronized (handlerMethods) {
+			List<EventHandlerMethod> candidates = handlerMethods.get(eventType);
+			if (candidates == null) {
+				return NO_HANDLERS;
+			}
+			List<EventHandlerMethod> handlers = new ArrayList<>(candidates.size());
+			for (EventHandlerMethod candidate : candidates) {
+				if (ClassUtils.isAssignable(candidate.targetType, sourceType)) {
+					handlers.add(candidate);
+				}
+			}
+			return handlers.isEmpty() ? NO_HANDLERS : handlers.toArray(new EventHandlerMethod[handlers.size()]);
+		}
+	}
+
 	<H extends Annotation, E> void findHandler(Object bean, Method method, Class<H> handler, Class<? extends StoreEvent>  eventType) {
 		H annotation = AnnotationUtils.findAnnotation(method, handler);
 
@@ -130,16 +218,24 @@ public class AnnotatedStoreEventInvoker
 
 		EventHandlerMethod handlerMethod = new EventHandlerMethod(parameterTypes[0], bean, method);
 
-		logger.debug(String.format("Annotated handler method found: {%s}", handlerMethod));
+		if (logger.isDebugEnabled()) {
+			logger.debug(String.format("Annotated handler method found: {%s}", handlerMethod));
+		}
 
-		handlerMethods.add(eventType, handlerMethod);
+		synchronized (handlerMethods) {
+			handlerMethods.add(eventType, handlerMethod);
+			resolvedHandlers.clear();
+		}
 	}
 
 	static class EventHandlerMethod {
 
+		private static final MethodType HANDLER_TYPE = MethodType.methodType(void.class, Object.class);
+
 		final Class<?> targetType;
 		final Method method;
 		final Object handler;
+		final MethodHandle handle;
 
 		private EventHandlerMethod(Class<?> targetType, Object handler, Method method) {
 
@@ -148,6 +244,27 @@ public class AnnotatedStoreEventInvoker
 			this.handler = handler;
 
 			ReflectionUtils.makeAccessible(this.method);
+			this.handle = bind(handler, method);
+		}
+
+		void invoke(Object src) {
+			try {
+				handle.invokeExact(src);
+			} catch (Throwable t) {
+				ReflectionUtils.rethrowRuntimeException(t);
+			}
+		}
+
+		private static MethodHandle bind(Object handler, Method method) {
+			if (method.getParameterCount() != 1) {
+				return null;
+			}
+			try {
+				return MethodHandles.lookup().unreflect(method).bindTo(handler).asType(HANDLER_TYPE);
+			} catch (Exception e) {
+				logger.debug(String.format("Unable to bind handler method %s, falling back to reflection", method), e);
+				return null;
+			}
 		}
 
 		@Override
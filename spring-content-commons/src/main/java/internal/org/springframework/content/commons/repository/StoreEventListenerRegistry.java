@@ -0,0 +1,240 @@
+package internal.org.springframework.content.commons.repository;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.content.commons.annotations.StoreEventHandler;
+import org.springframework.content.commons.repository.StoreEvent;
+import org.springframework.content.commons.repository.events.AbstractStoreEventListener;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ApplicationListenerMethodAdapter;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.context.event.GenericApplicationListener;
+import org.springframework.context.event.GenericApplicationListenerAdapter;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Answers whether publishing a given store event would reach any listener, so that stores can
+ * avoid creating and multicasting events that nobody handles.
+ * <p>
+ * Events are only skipped when the {@literal spring.content.events.skip-unheard} property is
+ * {@literal true}; by default every event is reported as having listeners.  The listeners are
+ * then collected once, when the application context has been refreshed, through the public API
+ * of the context and its ancestors: the {@link ApplicationListener} beans, the listeners added
+ * to the contexts before the refresh, the {@link EventListener} methods of beans and the
+ * {@link StoreEventHandler} beans.  The event multicaster is left as the application configured
+ * it, so listeners added to it after the refresh are not seen.  Until the refresh, or when the
+ * listeners cannot be determined with certainty (a listener or handler bean that is lazy or not
+ * a singleton, or a context that does not expose its listeners), every event is reported as
+ * having listeners.
+ * <p>
+ * {@link AbstractStoreEventListener}s and the {@link AnnotatedStoreEventInvoker} are asked
+ * whether they handle the event type and content entity type; any other listener that supports
+ * the event type is assumed to be interested.
+ */
+public class StoreEventListenerRegistry implements ApplicationContextAware, ApplicationListener<ContextRefreshedEvent> {
+
+	private static final Log logger = LogFactory.getLog(StoreEventListenerRegistry.class);
+
+	static final String SKIP_UNHEARD_PROPERTY = "spring.content.events.skip-unheard";
+
+	private static final String BOOT_DELEGATING_LISTENER = "org.springframework.boot.context.config.DelegatingApplicationListener";
+	private static final String BOOT_DELEGATING_LISTENER_PROPERTY = "context.listener.classes";
+
+	private ApplicationContext context;
+
+	private volatile Snapshot snapshot = null;
+
+	@Override
+	public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+		this.context = applicationContext;
+	}
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		if (event.getApplicationContext() != context) {
+			return;
+		}
+		if (!context.getEnvironment().getProperty(SKIP_UNHEARD_PROPERTY, Boolean.class, false)) {
+			return;
+		}
+
+		Snapshot snapshot = resolveListeners(context);
+		if (logger.isDebugEnabled()) {
+			logger.debug(snapshot.listeners == null ? "Store event listeners could not be determined, all store events will be published"
+													: String.format("Found %d application listeners", snapshot.listeners.size()));
+		}
+		this.snapshot = snapshot;
+	}
+
+	/**
+	 * Returns whether an event of the given type, for a content entity of the given type, would
+	 * be handled by at least one listener.
+	 *
+	 * @param eventType the type of event
+	 * @param sourceType the type of content entity the event is for
+	 * @return false only if no listener would handle the event
+	 */
+	public boolean hasListeners(Class<? extends StoreEvent> eventType, Class<?> sourceType) {
+		Snapshot snapshot = this.snapshot;
+		if (snapshot == null || snapshot.listeners == null) {
+			return true;
+		}
+		Collection<ApplicationListener<?>> listeners = snapshot.listeners;
+
+		ListenerKey key = new ListenerKey(eventType, sourceType);
+		Boolean result = snapshot.cache.get(key);
+		if (result == null) {
+			result = snapshot.cache.computeIfAbsent(key, k -> computeHasListeners(listeners, eventType, sourceType));
+		}
+		return result;
+	}
+
+	private boolean computeHasListeners(Collection<ApplicationListener<?>> listeners, Class<? extends StoreEvent> eventType, Class<?> sourceType) {
+		ResolvableType resolvableEventType = ResolvableType.forClass(eventType);
+
+		for (ApplicationListener<?> listener : listeners) {
+			GenericApplicationListener adapter = (listener instanceof GenericApplicationListener ?
+					(GenericApplicationListener) listener : new GenericApplicationListenerAdapter(listener));
+			if (!adapter.supportsEventType(resolvableEventType) || !adapter.supportsSourceType(sourceType)) {
+				continue;
+			}
+
+			if (listener instanceof AbstractStoreEventListener) {
+				if (((AbstractStoreEventListener<?>) listener).handles(eventType, sourceType)) {
+					return true;
+				}
+			} else if (listener instanceof AnnotatedStoreEventInvoker) {
+				if (((AnnotatedStoreEventInvoker) listener).handles(eventType, sourceType)) {
+					return true;
+				}
+			} else if (!isIdle(listener)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isIdle(ApplicationListener<?> listener) {
+		return BOOT_DELEGATING_LISTENER.equals(listener.getClass().getName()) &&
+				!StringUtils.hasText(context.getEnvironment().getProperty(BOOT_DELEGATING_LISTENER_PROPERTY));
+	}
+
+	private static Snapshot resolveListeners(ApplicationContext context) {
+		List<AbstractApplicationContext> contexts = new ArrayList<>();
+
+		// events are also published to ancestor contexts, whose listeners have to be collected too
+		for (ApplicationContext current = context; current != null; current = current.getParent()) {
+			if (!(current instanceof AbstractApplicationContext)) {
+				return Snapshot.UNKNOWN;
+			}
+			contexts.add((AbstractApplicationContext) current);
+		}
+
+		Set<ApplicationListener<?>> listeners = Collections.newSetFromMap(new IdentityHashMap<ApplicationListener<?>, Boolean>());
+		for (AbstractApplicationContext current : contexts) {
+			listeners.addAll(current.getApplicationListeners());
+
+			ConfigurableListableBeanFactory beanFactory = current.getBeanFactory();
+			for (String name : beanFactory.getBeanNamesForType(ApplicationListener.class, true, false)) {
+				if (!beanFactory.containsSingleton(name)) {
+					// lazy, scoped or prototype listener that could yet be created
+					return Snapshot.UNKNOWN;
+				}
+				listeners.add(beanFactory.getBean(name, ApplicationListener.class));
+			}
+			for (String name : beanFactory.getBeanNamesForAnnotation(StoreEventHandler.class)) {
+				if (!beanFactory.containsSingleton(name)) {
+					// the invoker only knows the handlers of the beans created so far
+					return Snapshot.UNKNOWN;
+				}
+			}
+			for (String name : beanFactory.getBeanDefinitionNames()) {
+				listeners.addAll(eventListenerMethods(beanFactory, name));
+			}
+		}
+		return new Snapshot(listeners);
+	}
+
+	/*
+	 * Returns the listeners the event listener methods of a bean are registered as, for asking
+	 * which events they support.
+	 */
+	private static List<ApplicationListener<?>> eventListenerMethods(ConfigurableListableBeanFactory beanFactory, String name) {
+		List<ApplicationListener<?>> listeners = new ArrayList<>();
+		if (beanFactory.getBeanDefinition(name).isAbstract()) {
+			return listeners;
+		}
+		Class<?> type = beanFactory.getType(name);
+		if (type == null) {
+			return listeners;
+		}
+		Class<?> targetType = ClassUtils.getUserClass(type);
+		Map<Method, EventListener> methods = MethodIntrospector.selectMethods(targetType,
+				(MethodIntrospector.MetadataLookup<EventListener>) method -> AnnotatedElementUtils.findMergedAnnotation(method, EventListener.class));
+		for (Method method : methods.keySet()) {
+			listeners.add(new ApplicationListenerMethodAdapter(name, targetType, method));
+		}
+		return listeners;
+	}
+
+	private static final class Snapshot {
+
+		private static final Snapshot UNKNOWN = new Snapshot(null);
+
+		private final Collection<ApplicationListener<?>> listeners;
+		private final ConcurrentMap<ListenerKey, Boolean> cache = new ConcurrentHashMap<>();
+
+		Snapshot(Collection<ApplicationListener<?>> listeners) {
+			this.listeners = listeners;
+		}
+	}
+
+	private static final class ListenerKey {
+
+		private final Class<?> eventType;
+		private final Class<?> sourceType;
+
+		ListenerKey(Class<?> eventType, Class<?> sourceType) {
+			this.eventType = eventType;
+			this.sourceType = sourceType;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ListenerKey)) {
+				return false;
+			}
+			ListenerKey that = (ListenerKey) other;
+			return eventType == that.eventType && sourceType == that.sourceType;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * eventType.hashCode() + sourceType.hashCode();
+		}
+	}
+}
@@ -20,12 +20,18 @@ public class StoreInvokerImpl implements StoreInvoker {
 
 	private Class<? extends Serializable> contentIdClass = null;
 
+	private Class<?> storeInterface = null;
+
 	private Method getContentMethod = null;
 
 	private MethodInvocation invocation = null;
 
 
 	public StoreInvokerImpl(Class<?> domainClass, Class<? extends Serializable> contentIdClass, MethodInvocation invocation) {
+		this(domainClass, contentIdClass, null, invocation);
+	}
+
+	public StoreInvokerImpl(Class<?> domainClass, Class<? extends Serializable> contentIdClass, Class<?> storeInterface, MethodInvocation invocation) {
 		Assert.notNull(domainClass, "domainClass must not be null");
 		this.domainClass = domainClass;
 
@@ -35,6 +41,8 @@ public class StoreInvokerImpl implements StoreInvoker {
 		Assert.notNull(invocation, "invocation must not be null");
 		this.invocation = invocation;
 
+		this.storeInterface = storeInterface;
+
 		try {
 			Class<?> storeClazz  = ContentStore.class;
 			getContentMethod = storeClazz.getMethod("getContent", Object.class);
@@ -53,6 +61,11 @@ public class StoreInvokerImpl implements StoreInvoker {
 		return contentIdClass;
 	}
 
+	@Override
+	public Class<?> getStoreInterface() {
+		return storeInterface;
+	}
+
 	@Override
 	public InputStream invokeGetContent() {
 		try {
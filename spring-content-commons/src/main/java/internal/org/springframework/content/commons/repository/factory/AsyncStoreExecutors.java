@@ -0,0 +1,45 @@
+package internal.org.springframework.content.commons.repository.factory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Holds the executor used for asynchronous store operations when the application does not
+ * provide one.  Operations run on a new virtual thread each when the runtime supports them,
+ * otherwise on a cached pool of daemon threads.
+ */
+final class AsyncStoreExecutors {
+
+	private static final Log logger = LogFactory.getLog(AsyncStoreExecutors.class);
+
+	private AsyncStoreExecutors() {
+	}
+
+	static Executor defaultExecutor() {
+		return Holder.EXECUTOR;
+	}
+
+	private static Executor createDefaultExecutor() {
+		Method virtualThreadPerTask = ReflectionUtils.findMethod(Executors.class, "newVirtualThreadPerTaskExecutor");
+		if (virtualThreadPerTask != null) {
+			try {
+				return (Executor) virtualThreadPerTask.invoke(null);
+			} catch (Exception e) {
+				logger.debug("Unable to create a virtual thread executor, falling back to platform threads", e);
+			}
+		}
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("content-store-async-");
+		threadFactory.setDaemon(true);
+		return Executors.newCachedThreadPool(threadFactory);
+	}
+
+	private static final class Holder {
+		static final Executor EXECUTOR = createDefaultExecutor();
+	}
+}
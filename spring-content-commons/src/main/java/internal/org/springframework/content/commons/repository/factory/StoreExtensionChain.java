@@ -0,0 +1,99 @@
+package internal.org.springframework.content.commons.repository.factory;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.content.commons.repository.StoreExtension;
+import org.springframework.content.commons.repository.StoreExtensionException;
+import org.springframework.content.commons.repository.StoreInvoker;
+
+/**
+ * Extensions of the same store method, in order.  Each extension proceeds to the next and the
+ * last to the store implementation, so extensions that are only enabled for some stores can
+ * share a method.
+ */
+public class StoreExtensionChain implements StoreExtension {
+
+	private final List<StoreExtension> extensions;
+
+	public StoreExtensionChain(List<StoreExtension> extensions) {
+		this.extensions = extensions;
+	}
+
+	@Override
+	public Set<Method> getMethods() {
+		Set<Method> methods = new HashSet<>();
+		for (StoreExtension extension : extensions) {
+			methods.addAll(extension.getMethods());
+		}
+		return methods;
+	}
+
+	@Override
+	public Object invoke(MethodInvocation invocation, StoreInvoker invoker) {
+		return extensions.get(0).invoke(new ChainedInvocation(invocation, invoker, 1), invoker);
+	}
+
+	/**
+	 * Proceeds with an invocation, to the next extension or the store, rethrowing what it throws
+	 * unchecked.
+	 *
+	 * @param invocation the invocation
+	 * @return the result of the invocation
+	 * @throws StoreExtensionException if the invocation throws a checked exception
+	 */
+	public static Object proceed(MethodInvocation invocation) {
+		try {
+			return invocation.proceed();
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new StoreExtensionException(String.format("Unable to invoke %s", invocation.getMethod().getName()), t);
+		}
+	}
+
+	private class ChainedInvocation implements MethodInvocation {
+
+		private final MethodInvocation invocation;
+		private final StoreInvoker invoker;
+		private final int next;
+
+		ChainedInvocation(MethodInvocation invocation, StoreInvoker invoker, int next) {
+			this.invocation = invocation;
+			this.invoker = invoker;
+			this.next = next;
+		}
+
+		@Override
+		public Method getMethod() {
+			return invocation.getMethod();
+		}
+
+		@Override
+		public Object[] getArguments() {
+			return invocation.getArguments();
+		}
+
+		@Override
+		public Object proceed() throws Throwable {
+			if (next < extensions.size()) {
+				return extensions.get(next).invoke(new ChainedInvocation(invocation, invoker, next + 1), invoker);
+			}
+			return invocation.proceed();
+		}
+
+		@Override
+		public Object getThis() {
+			return invocation.getThis();
+		}
+
+		@Override
+		public AccessibleObject getStaticPart() {
+			return invocation.getStaticPart();
+		}
+	}
+}
@@ -2,61 +2,154 @@ package internal.org.springframework.content.commons.repository.factory;
 
 import java.io.InputStream;
 import java.io.Serializable;
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
+import org.reactivestreams.Publisher;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.content.commons.annotations.ContentId;
 import org.springframework.content.commons.repository.AssociativeStore;
+import org.springframework.content.commons.repository.AsyncContentStore;
 import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.ReactiveContentStore;
 import org.springframework.content.commons.repository.Store;
 import org.springframework.content.commons.repository.StoreAccessException;
 import org.springframework.content.commons.repository.StoreEvent;
 import org.springframework.content.commons.repository.StoreExtension;
 import org.springframework.content.commons.repository.events.AfterGetContentEvent;
 import org.springframework.content.commons.repository.events.AfterSetContentEvent;
+import org.springframework.content.commons.repository.events.AfterSetContentsEvent;
 import org.springframework.content.commons.repository.events.AfterUnsetContentEvent;
+import org.springframework.content.commons.repository.events.AfterUnsetContentsEvent;
+import org.springframework.content.commons.repository.events.BatchStoreEvent;
 import org.springframework.content.commons.repository.events.BeforeGetContentEvent;
 import org.springframework.content.commons.repository.events.BeforeSetContentEvent;
+import org.springframework.content.commons.repository.events.BeforeSetContentsEvent;
 import org.springframework.content.commons.repository.events.BeforeUnsetContentEvent;
+import org.springframework.content.commons.repository.events.BeforeUnsetContentsEvent;
+import org.springframework.content.commons.utils.BeanUtils;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.util.Assert;
 import org.springframework.util.ReflectionUtils;
 
+import internal.org.springframework.content.commons.io.InputStreamPublisher;
+import internal.org.springframework.content.commons.io.PublisherInputStream;
+import internal.org.springframework.content.commons.repository.StoreEventListenerRegistry;
 import internal.org.springframework.content.commons.repository.StoreInvokerImpl;
 
+/**
+ * Dispatches store proxy invocations to extensions or to the store implementation, publishing
+ * store events around content operations.
+ * <p>
+ * Extensions replace the methods they extend altogether, events included.  When extensions are
+ * set to run inside events, extensions of the {@link ContentStore} content methods, bulk ones
+ * included, run inside that method's events, in place of the store implementation, instead.
+ * <p>
+ * Each method is resolved once to its handler.  When a {@link StoreEventListenerRegistry} is
+ * given events that no listener would handle are neither created nor published.
+ * {@link AsyncContentStore} methods perform their {@link ContentStore} equivalent on an executor,
+ * as do {@link ReactiveContentStore} methods when the store does not implement them itself or
+ * their {@link ContentStore} equivalent is extended.
+ * Bulk content operations publish the events of each entity around a single call to the store,
+ * and batch events around those.
+ */
+@SuppressWarnings("unchecked")
 public class StoreMethodInterceptor implements MethodInterceptor {
 
 	private Map<Method,StoreExtension> extensions;
 	private ContentStore<Object, Serializable> store = null;
 	private ApplicationEventPublisher publisher;
+	private StoreEventListenerRegistry listeners;
+	private final ConcurrentMap<Method, StoreMethod> dispatch = new ConcurrentHashMap<>();
+	private Executor executor;
+	private boolean extensionsInsideEvents = false;
 	
 	private static Method getContentMethod; 
+	private static Method getContentRangeMethod;
 	private static Method setContentMethod; 
 	private static Method unsetContentMethod;
+	private static Method setContentsMethod;
+	private static Method unsetContentsMethod;
+	private static Method getResourcesMethod;
 	private static Method getResourceMethod;
+	private static Method copyMethod;
+	private static Method moveMethod;
+	private static Method getMetadataMethod;
+	private static Method getMetadatasMethod;
+	private static Method listMethod;
 	private static Method associateResourceMethod;
 	private static Method unassociateResourceMethod;
+	private static Method readContentMethod;
+	private static Method writeContentMethod;
+	private static Map<Method, Method> asyncMethods = new HashMap<>();
     private Class<?> domainClass = null;
     private Class<? extends Serializable> contentIdClass = null;
+    private Class<?> storeInterface = null;
 	
 	static {
 		getContentMethod = ReflectionUtils.findMethod(ContentStore.class, "getContent", Object.class);
 		Assert.notNull(getContentMethod);
+		getContentRangeMethod = ReflectionUtils.findMethod(ContentStore.class, "getContent", Object.class, long.class, long.class);
+		Assert.notNull(getContentRangeMethod);
 		setContentMethod = ReflectionUtils.findMethod(ContentStore.class, "setContent", Object.class, InputStream.class);
 		Assert.notNull(setContentMethod);
 		unsetContentMethod = ReflectionUtils.findMethod(ContentStore.class, "unsetContent", Object.class);
 		Assert.notNull(unsetContentMethod);
+		setContentsMethod = ReflectionUtils.findMethod(ContentStore.class, "setContents", Map.class);
+		Assert.notNull(setContentsMethod);
+		unsetContentsMethod = ReflectionUtils.findMethod(ContentStore.class, "unsetContents", Collection.class);
+		Assert.notNull(unsetContentsMethod);
 		getResourceMethod = ReflectionUtils.findMethod(Store.class, "getResource", Serializable.class);
 		Assert.notNull(getResourceMethod);
+		getResourcesMethod = ReflectionUtils.findMethod(Store.class, "getResources", Collection.class);
+		Assert.notNull(getResourcesMethod);
+		copyMethod = ReflectionUtils.findMethod(Store.class, "copy", Serializable.class, Serializable.class);
+		Assert.notNull(copyMethod);
+		moveMethod = ReflectionUtils.findMethod(Store.class, "move", Serializable.class, Serializable.class);
+		Assert.notNull(moveMethod);
+		getMetadataMethod = ReflectionUtils.findMethod(Store.class, "getMetadata", Serializable.class);
+		Assert.notNull(getMetadataMethod);
+		getMetadatasMethod = ReflectionUtils.findMethod(Store.class, "getMetadata", Collection.class);
+		Assert.notNull(getMetadatasMethod);
+		listMethod = ReflectionUtils.findMethod(Store.class, "list", String.class);
+		Assert.notNull(listMethod);
 		associateResourceMethod = ReflectionUtils.findMethod(AssociativeStore.class, "associate", Object.class, Serializable.class);
 		Assert.notNull(getResourceMethod);
 		unassociateResourceMethod = ReflectionUtils.findMethod(AssociativeStore.class, "unassociate", Object.class);
 		Assert.notNull(getResourceMethod);
+		asyncMethods.put(ReflectionUtils.findMethod(AsyncContentStore.class, "getContentAsync", Object.class), getContentMethod);
+		asyncMethods.put(ReflectionUtils.findMethod(AsyncContentStore.class, "setContentAsync", Object.class, InputStream.class), setContentMethod);
+		asyncMethods.put(ReflectionUtils.findMethod(AsyncContentStore.class, "unsetContentAsync", Object.class), unsetContentMethod);
+		Assert.isTrue(!asyncMethods.containsKey(null));
+		readContentMethod = ReflectionUtils.findMethod(ReactiveContentStore.class, "readContent", Object.class);
+		Assert.notNull(readContentMethod);
+		writeContentMethod = ReflectionUtils.findMethod(ReactiveContentStore.class, "writeContent", Object.class, Publisher.class);
+		Assert.notNull(writeContentMethod);
 	}
 	
 	public StoreMethodInterceptor(ContentStore<Object, Serializable> store, Class<?> domainClass, Class<? extends Serializable> contentIdClass, Map<Method,StoreExtension> extensions, ApplicationEventPublisher publisher) {
+		this(store, domainClass, contentIdClass, extensions, publisher, null);
+	}
+
+	public StoreMethodInterceptor(ContentStore<Object, Serializable> store, Class<?> domainClass, Class<? extends Serializable> contentIdClass, Map<Method,StoreExtension> extensions, ApplicationEventPublisher publisher, StoreEventListenerRegistry listeners) {
 		if (extensions == null) {
 			extensions = Collections.<Method, StoreExtension>emptyMap();
 		}
@@ -65,66 +158,350 @@ public class StoreMethodInterceptor implements MethodInterceptor {
         this.contentIdClass = contentIdClass;
 		this.extensions = extensions;
 		this.publisher = publisher;
+		this.listeners = listeners;
+	}
+
+	/**
+	 * Sets the executor that {@link AsyncContentStore} operations, and {@link ReactiveContentStore}
+	 * operations the store does not implement natively, run on.
+	 * 
+	 * @param executor the executor, or null for the default
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
 	}
 	
+	/**
+	 * Sets the store interface the proxy implements, which is made available to extensions.
+	 *
+	 * @param storeInterface the store interface
+	 */
+	public void setStoreInterface(Class<?> storeInterface) {
+		this.storeInterface = storeInterface;
+	}
+
+	/**
+	 * Sets whether extensions of the {@link ContentStore} content methods run inside the events of
+	 * the method they extend, rather than replacing the method and its events.
+	 *
+	 * @param extensionsInsideEvents whether content method events are published around extensions
+	 */
+	public void setExtensionsInsideEvents(boolean extensionsInsideEvents) {
+		this.extensionsInsideEvents = extensionsInsideEvents;
+	}
+
 	@Override
 	public Object invoke(MethodInvocation invocation) throws Throwable {
-		Method method = invocation.getMethod();
+		return storeMethod(invocation.getMethod()).invoke(invocation);
+	}
+
+	private StoreMethod resolve(Method method) {
 		StoreExtension extension = extensions.get(method);
-		if (extension != null) {
-			return extension.invoke(invocation, new StoreInvokerImpl(domainClass, contentIdClass, invocation));
-		} else {
-			if (!isStoreMethod(invocation)) {
-				throw new StoreAccessException(String.format("No implementation found for %s", method.getName()));
-			}
+		if (extension != null && (!extensionsInsideEvents || !isContentMethod(method))) {
+			return invocation -> extension.invoke(invocation, new StoreInvokerImpl(domainClass, contentIdClass, storeInterface, invocation));
 		}
-		
-		StoreEvent before = null;
-		StoreEvent after = null;
-		
-		if (getContentMethod.equals(invocation.getMethod())) {
-			if (invocation.getArguments().length > 0) {
-				before = new BeforeGetContentEvent(invocation.getArguments()[0], store);
-				after = new AfterGetContentEvent(invocation.getArguments()[0], store);
-			}
-		} else if (setContentMethod.equals(invocation.getMethod())) {
-			if (invocation.getArguments().length > 0) {
-				before = new BeforeSetContentEvent(invocation.getArguments()[0], store);
-				after = new AfterSetContentEvent(invocation.getArguments()[0], store);
+		Method syncMethod = asyncMethods.get(method);
+		if (syncMethod != null) {
+			return invocation -> runAsync(() -> invokeStoreMethod(syncMethod, invocation.getArguments()));
+		}
+		// an extended content method is only honoured by streaming through the ContentStore method
+		if (readContentMethod.equals(method)) {
+			if (store instanceof ReactiveContentStore && !extensions.containsKey(getContentMethod)) {
+				return new EventPublishingStoreMethod(BeforeGetContentEvent.class, BeforeGetContentEvent::new, AfterGetContentEvent.class, AfterGetContentEvent::new, false);
 			}
-		} else if (unsetContentMethod.equals(invocation.getMethod())) {
-			if (invocation.getArguments().length > 0 && invocation.getArguments()[0] != null) {
-				before = new BeforeUnsetContentEvent(invocation.getArguments()[0], store);
-				after = new AfterUnsetContentEvent(invocation.getArguments()[0], store);
+			return invocation -> new InputStreamPublisher(() -> (InputStream) invokeStoreMethod(getContentMethod, invocation.getArguments()), executor());
+		}
+		if (writeContentMethod.equals(method)) {
+			if (store instanceof ReactiveContentStore && !extensions.containsKey(setContentMethod)) {
+				return new EventPublishingStoreMethod(BeforeSetContentEvent.class, BeforeSetContentEvent::new, AfterSetContentEvent.class, AfterSetContentEvent::new, false);
 			}
+			return invocation -> {
+				Object[] args = invocation.getArguments();
+				return runAsync(() -> {
+					try (InputStream content = new PublisherInputStream((Publisher<ByteBuffer>) args[1])) {
+						return invokeStoreMethod(setContentMethod, new Object[] { args[0], content });
+					}
+				});
+			};
+		}
+		if (getContentMethod.equals(method) || getContentRangeMethod.equals(method)) {
+			return new EventPublishingStoreMethod(BeforeGetContentEvent.class, BeforeGetContentEvent::new, AfterGetContentEvent.class, AfterGetContentEvent::new, false);
+		}
+		if (setContentMethod.equals(method)) {
+			return new EventPublishingStoreMethod(BeforeSetContentEvent.class, BeforeSetContentEvent::new, AfterSetContentEvent.class, AfterSetContentEvent::new, false);
+		}
+		if (unsetContentMethod.equals(method)) {
+			return new EventPublishingStoreMethod(BeforeUnsetContentEvent.class, BeforeUnsetContentEvent::new, AfterUnsetContentEvent.class, (AfterEventFactory) AfterUnsetContentEvent::new);
+		}
+		if (setContentsMethod.equals(method)) {
+			return new BatchEventPublishingStoreMethod(
+					new EventPublishingStoreMethod(BeforeSetContentEvent.class, BeforeSetContentEvent::new, AfterSetContentEvent.class, AfterSetContentEvent::new, false),
+					contents -> ((Map<?, ?>) contents).keySet(),
+					BeforeSetContentsEvent.class, BeforeSetContentsEvent::new, AfterSetContentsEvent.class, AfterSetContentsEvent::new);
 		}
+		if (unsetContentsMethod.equals(method)) {
+			return new BatchEventPublishingStoreMethod(
+					new EventPublishingStoreMethod(BeforeUnsetContentEvent.class, BeforeUnsetContentEvent::new, AfterUnsetContentEvent.class, (AfterEventFactory) AfterUnsetContentEvent::new),
+					properties -> (Collection<?>) properties,
+					BeforeUnsetContentsEvent.class, BeforeUnsetContentsEvent::new, AfterUnsetContentsEvent.class, AfterUnsetContentsEvent::new);
+		}
+		if (getResourceMethod.equals(method) ||
+			getResourcesMethod.equals(method) ||
+			copyMethod.equals(method) ||
+			moveMethod.equals(method) ||
+			getMetadataMethod.equals(method) ||
+			getMetadatasMethod.equals(method) ||
+			listMethod.equals(method) ||
+			associateResourceMethod.equals(method) ||
+			unassociateResourceMethod.equals(method)) {
+			return MethodInvocation::proceed;
+		}
+		return invocation -> {
+			throw new StoreAccessException(String.format("No implementation found for %s", method.getName()));
+		};
+	}
+
+	private boolean isContentMethod(Method method) {
+		return getContentMethod.equals(method) || getContentRangeMethod.equals(method) ||
+			   setContentMethod.equals(method) || unsetContentMethod.equals(method) ||
+			   setContentsMethod.equals(method) || unsetContentsMethod.equals(method);
+	}
 
-		if (before != null) {
-			publisher.publishEvent(before);
+	/**
+	 * Proceeds with a content method, through its extension when there is one and extensions run
+	 * inside the method's events.
+	 */
+	private Object proceed(MethodInvocation invocation) throws Throwable {
+		StoreExtension extension = extensions.get(invocation.getMethod());
+		if (extension != null && extensionsInsideEvents && isContentMethod(invocation.getMethod())) {
+			return extension.invoke(invocation, new StoreInvokerImpl(domainClass, contentIdClass, storeInterface, invocation));
 		}
-		Object result;
+		return invocation.proceed();
+	}
+
+	private boolean hasListeners(Class<? extends StoreEvent> eventType, Object source) {
+		// a null source is left to the event to reject
+		return listeners == null || source == null || listeners.hasListeners(eventType, source.getClass());
+	}
+
+	private boolean hasBatchListeners(Class<? extends BatchStoreEvent> eventType) {
+		return listeners == null || domainClass == null || listeners.hasListeners(eventType, domainClass);
+	}
+
+	private Executor executor() {
+		return (executor != null ? executor : AsyncStoreExecutors.defaultExecutor());
+	}
+
+	private CompletableFuture<Object> runAsync(Callable<Object> task) {
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		try {
+			executor().execute(() -> {
+				try {
+					future.complete(task.call());
+				} catch (Throwable t) {
+					future.completeExceptionally(t);
+				}
+			});
+		} catch (RejectedExecutionException ree) {
+			future.completeExceptionally(ree);
+		}
+		return future;
+	}
+
+	/**
+	 * Invokes a {@link ContentStore} method, with its events, outside of the proxy's own invocation.
+	 */
+	private Object invokeStoreMethod(Method method, Object[] args) throws Exception {
 		try {
-			result = invocation.proceed();
-		} catch (Exception e) {
+			return storeMethod(method).invoke(new StoreMethodInvocation(method, args));
+		} catch (Exception | Error e) {
 			throw e;
+		} catch (Throwable t) {
+			throw new UndeclaredThrowableException(t);
+		}
+	}
+
+	private StoreMethod storeMethod(Method method) {
+		StoreMethod storeMethod = dispatch.get(method);
+		if (storeMethod == null) {
+			storeMethod = dispatch.computeIfAbsent(method, this::resolve);
+		}
+		return storeMethod;
+	}
+
+	@FunctionalInterface
+	private interface StoreMethod {
+		Object invoke(MethodInvocation invocation) throws Throwable;
+	}
+
+	@FunctionalInterface
+	private interface AfterEventFactory {
+		StoreEvent create(Object entity, Object contentId, ContentStore<Object, Serializable> store);
+	}
+
+	/**
+	 * Publishes the events of a content method.  Methods that reset the entity's content id pass
+	 * the id the entity had beforehand to their {@literal after} event.
+	 */
+	private class EventPublishingStoreMethod implements StoreMethod {
+
+		private final Class<? extends StoreEvent> beforeType;
+		private final BiFunction<Object, ContentStore<Object, Serializable>, StoreEvent> before;
+		private final Class<? extends StoreEvent> afterType;
+		private final AfterEventFactory after;
+		private final boolean requiresEntity;
+		private final boolean resetsContentId;
+
+		EventPublishingStoreMethod(Class<? extends StoreEvent> beforeType, BiFunction<Object, ContentStore<Object, Serializable>, StoreEvent> before,
+								   Class<? extends StoreEvent> afterType, BiFunction<Object, ContentStore<Object, Serializable>, StoreEvent> after,
+								   boolean requiresEntity) {
+			this.beforeType = beforeType;
+			this.before = before;
+			this.afterType = afterType;
+			this.after = (entity, contentId, store) -> after.apply(entity, store);
+			this.requiresEntity = requiresEntity;
+			this.resetsContentId = false;
+		}
+
+		EventPublishingStoreMethod(Class<? extends StoreEvent> beforeType, BiFunction<Object, ContentStore<Object, Serializable>, StoreEvent> before,
+								   Class<? extends StoreEvent> afterType, AfterEventFactory after) {
+			this.beforeType = beforeType;
+			this.before = before;
+			this.afterType = afterType;
+			this.after = after;
+			this.requiresEntity = true;
+			this.resetsContentId = true;
+		}
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			Object[] args = invocation.getArguments();
+			if (args.length == 0 || (requiresEntity && args[0] == null)) {
+				return invocation.proceed();
+			}
+
+			Object entity = args[0];
+			Object contentId = publishBefore(entity);
+
+			Object result = proceed(invocation);
+
+			if (result instanceof CompletableFuture) {
+				// content is stored when the future completes
+				return ((CompletableFuture<?>) result).thenRun(() -> publishAfter(entity, contentId));
+			}
+			publishAfter(entity, contentId);
+			return result;
 		}
 
-		if (after != null) {
-			publisher.publishEvent(after);
+		/*
+		 * Returns the content id the entity had, for the after event of a method that resets it.
+		 */
+		private Object publishBefore(Object entity) {
+			if (hasListeners(beforeType, entity)) {
+				publisher.publishEvent(before.apply(entity, store));
+			}
+			return (resetsContentId && hasListeners(afterType, entity) ? BeanUtils.getFieldWithAnnotation(entity, ContentId.class) : null);
+		}
+
+		private void publishAfter(Object entity, Object contentId) {
+			if (hasListeners(afterType, entity)) {
+				publisher.publishEvent(after.create(entity, contentId, store));
+			}
 		}
-		return result;
 	}
 
-	private boolean isStoreMethod(MethodInvocation invocation) {
-		if (getContentMethod.equals(invocation.getMethod()) || 
-			setContentMethod.equals(invocation.getMethod()) || 
-			unsetContentMethod.equals(invocation.getMethod()) || 
-			getResourceMethod.equals(invocation.getMethod()) ||
-			associateResourceMethod.equals(invocation.getMethod()) || 
-			unassociateResourceMethod.equals(invocation.getMethod())) {
-			return true;
+	@FunctionalInterface
+	private interface BatchEventFactory {
+		BatchStoreEvent create(Collection<?> entities, Class<?> domainClass, ContentStore<Object, Serializable> store);
+	}
+
+	private class BatchEventPublishingStoreMethod implements StoreMethod {
+
+		private final EventPublishingStoreMethod entityEvents;
+		private final Function<Object, Collection<?>> entitiesOf;
+		private final Class<? extends BatchStoreEvent> beforeType;
+		private final BatchEventFactory before;
+		private final Class<? extends BatchStoreEvent> afterType;
+		private final BatchEventFactory after;
+
+		BatchEventPublishingStoreMethod(EventPublishingStoreMethod entityEvents, Function<Object, Collection<?>> entitiesOf,
+										Class<? extends BatchStoreEvent> beforeType, BatchEventFactory before,
+										Class<? extends BatchStoreEvent> afterType, BatchEventFactory after) {
+			this.entityEvents = entityEvents;
+			this.entitiesOf = entitiesOf;
+			this.beforeType = beforeType;
+			this.before = before;
+			this.afterType = afterType;
+			this.after = after;
+		}
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			Object[] args = invocation.getArguments();
+			if (args.length == 0 || args[0] == null) {
+				return invocation.proceed();
+			}
+
+			List<Object> entities = new ArrayList<>(entitiesOf.apply(args[0]));
+			if (hasBatchListeners(beforeType)) {
+				publisher.publishEvent(before.create(entities, domainClass, store));
+			}
+			List<Object> contentIds = new ArrayList<>(entities.size());
+			for (Object entity : entities) {
+				contentIds.add(entity != null ? entityEvents.publishBefore(entity) : null);
+			}
+
+			Object result = proceed(invocation);
+
+			for (int i = 0; i < entities.size(); i++) {
+				if (entities.get(i) != null) {
+					entityEvents.publishAfter(entities.get(i), contentIds.get(i));
+				}
+			}
+			if (hasBatchListeners(afterType)) {
+				publisher.publishEvent(after.create(entities, domainClass, store));
+			}
+			return result;
 		}
-		return false;
 	}
-}
 
+	/**
+	 * Invocation of a {@link ContentStore} method on the store implementation, outside of the
+	 * proxy's own invocation.
+	 */
+	private class StoreMethodInvocation implements MethodInvocation {
+
+		private final Method method;
+		private final Object[] arguments;
+
+		StoreMethodInvocation(Method method, Object[] arguments) {
+			this.method = method;
+			this.arguments = arguments;
+		}
+
+		@Override
+		public Method getMethod() {
+			return method;
+		}
+
+		@Override
+		public Object[] getArguments() {
+			return arguments;
+		}
+
+		@Override
+		public Object proceed() throws Throwable {
+			return AopUtils.invokeJoinpointUsingReflection(store, method, arguments);
+		}
+
+		@Override
+		public Object getThis() {
+			return store;
+		}
+
+		@Override
+		public AccessibleObject getStaticPart() {
+			return method;
+		}
+	}
+}
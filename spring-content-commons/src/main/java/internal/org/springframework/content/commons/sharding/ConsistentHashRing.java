@@ -0,0 +1,91 @@
+package internal.org.springframework.content.commons.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.util.Assert;
+
+/**
+ * A consistent-hash ring of named members.  Each member is placed on the ring at a number of
+ * virtual nodes hashed from its name, so a key keeps its member when other members are added
+ * or removed unless one of them takes its place on the ring.
+ *
+ * @param <T> the type of the members
+ */
+public class ConsistentHashRing<T> {
+
+	private final NavigableMap<Long, T> ring = new TreeMap<>();
+	private final int members;
+
+	public ConsistentHashRing(Map<String, T> members, int virtualNodes) {
+		Assert.notEmpty(members, "members must not be empty");
+		Assert.isTrue(virtualNodes > 0, "virtualNodes must be greater than 0");
+		for (Map.Entry<String, T> member : members.entrySet()) {
+			for (int i = 0; i < virtualNodes; i++) {
+				ring.put(hash(member.getKey() + "#" + i), member.getValue());
+			}
+		}
+		this.members = members.size();
+	}
+
+	/**
+	 * Returns the member that owns the key.
+	 *
+	 * @param key the key
+	 * @return the member
+	 */
+	public T get(Object key) {
+		Map.Entry<Long, T> entry = ring.ceilingEntry(hash(key.toString()));
+		return (entry != null ? entry : ring.firstEntry()).getValue();
+	}
+
+	/**
+	 * Returns every member in the order they are found walking the ring from the key, starting
+	 * with the member that owns it.  Had the owner not been on the ring the key would have
+	 * belonged to the second member, and so on.
+	 *
+	 * @param key the key
+	 * @return the members
+	 */
+	public List<T> members(Object key) {
+		long hash = hash(key.toString());
+		Set<T> found = new LinkedHashSet<>();
+		collect(ring.tailMap(hash, true), found);
+		collect(ring.headMap(hash, false), found);
+		return new ArrayList<>(found);
+	}
+
+	public int size() {
+		return members;
+	}
+
+	private void collect(Map<Long, T> nodes, Set<T> found) {
+		for (T member : nodes.values()) {
+			if (found.size() == members) {
+				return;
+			}
+			found.add(member);
+		}
+	}
+
+	private static long hash(String key) {
+		try {
+			byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+			long hash = 0L;
+			for (int i = 0; i < 8; i++) {
+				hash = (hash << 8) | (digest[i] & 0xff);
+			}
+			return hash;
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("MD5 is not available", e);
+		}
+	}
+}
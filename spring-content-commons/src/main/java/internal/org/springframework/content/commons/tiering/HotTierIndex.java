@@ -0,0 +1,100 @@
+package internal.org.springframework.content.commons.tiering;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The content held in a hot tier, least recently used first, and its total length.
+ */
+public class HotTierIndex {
+
+	private final LinkedHashMap<Serializable, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long size = 0L;
+
+	/**
+	 * Records that content was used, adding it when it is not yet indexed.
+	 *
+	 * @param contentId the content id
+	 * @param length the content length, used when the content is added
+	 * @param now the current time in milliseconds
+	 */
+	public synchronized void touch(Serializable contentId, long length, long now) {
+		Entry entry = entries.get(contentId);
+		if (entry == null) {
+			put(contentId, length, now);
+		} else {
+			entry.lastUsed = now;
+		}
+	}
+
+	/**
+	 * Indexes content that was written, replacing its length.
+	 *
+	 * @param contentId the content id
+	 * @param length the content length
+	 * @param now the current time in milliseconds
+	 */
+	public synchronized void put(Serializable contentId, long length, long now) {
+		Entry replaced = entries.put(contentId, new Entry(length, now));
+		if (replaced != null) {
+			size -= replaced.length;
+		}
+		size += length;
+	}
+
+	public synchronized boolean contains(Serializable contentId) {
+		return entries.containsKey(contentId);
+	}
+
+	public synchronized void remove(Serializable contentId) {
+		Entry removed = entries.remove(contentId);
+		if (removed != null) {
+			size -= removed.length;
+		}
+	}
+
+	public synchronized long getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the content to move out of the tier, least recently used first: the content unused
+	 * for longer than maxAge, and then as much more as brings the tier within capacity.
+	 *
+	 * @param capacity the most bytes of content to keep, or a negative number for no limit
+	 * @param maxAge the milliseconds after which unused content is moved, or a negative number
+	 * @param now the current time in milliseconds
+	 * @return the content ids
+	 */
+	public synchronized List<Serializable> candidates(long capacity, long maxAge, long now) {
+		List<Serializable> candidates = new ArrayList<>();
+		long remaining = size;
+		Iterator<Map.Entry<Serializable, Entry>> iterator = entries.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Serializable, Entry> entry = iterator.next();
+			boolean expired = maxAge >= 0 && now - entry.getValue().lastUsed > maxAge;
+			boolean over = capacity >= 0 && remaining > capacity;
+			if (!expired && !over) {
+				break;
+			}
+			candidates.add(entry.getKey());
+			remaining -= entry.getValue().length;
+		}
+		return candidates;
+	}
+
+	private static class Entry {
+
+		private final long length;
+		private long lastUsed;
+
+		Entry(long length, long lastUsed) {
+			this.length = length;
+			this.lastUsed = lastUsed;
+		}
+	}
+}
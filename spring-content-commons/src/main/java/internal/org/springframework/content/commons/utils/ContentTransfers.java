@@ -0,0 +1,75 @@
+package internal.org.springframework.content.commons.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.content.commons.io.DeletableResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.WritableResource;
+
+/**
+ * Copies content between the resources of stores, and stripes locks by content id, for the store
+ * extensions that move content from one store to another.
+ */
+public final class ContentTransfers {
+
+	private static final Log logger = LogFactory.getLog(ContentTransfers.class);
+
+	private ContentTransfers() {}
+
+	/**
+	 * Copies content from one resource to another.  Failures are logged rather than thrown, so
+	 * that a background transfer can carry on with other content.
+	 *
+	 * @param from the resource to copy from
+	 * @param to the resource to copy to
+	 * @param contentId the id of the content, for logging
+	 * @return the bytes copied, or -1 if the content could not be copied, in which case a partial
+	 * copy is deleted
+	 */
+	public static long copy(Resource from, Resource to, Serializable contentId) {
+		if (!(to instanceof WritableResource)) {
+			logger.error(String.format("Unable to copy content %s to %s that is not writable", contentId.toString(), (to != null ? to.getDescription() : null)));
+			return -1L;
+		}
+		try (InputStream in = from.getInputStream(); OutputStream out = ((WritableResource) to).getOutputStream()) {
+			return IOUtils.copyLarge(in, out);
+		} catch (IOException | RuntimeException e) {
+			logger.error(String.format("Unexpected error copying content %s from %s to %s", contentId.toString(), from.getDescription(), to.getDescription()), e);
+			if (to.exists() && to instanceof DeletableResource) {
+				((DeletableResource) to).delete();
+			}
+			return -1L;
+		}
+	}
+
+	/**
+	 * Returns a number of locks, to be striped by content id.
+	 *
+	 * @param count the number of locks
+	 * @return the locks
+	 */
+	public static Object[] locks(int count) {
+		Object[] locks = new Object[count];
+		for (int i = 0; i < locks.length; i++) {
+			locks[i] = new Object();
+		}
+		return locks;
+	}
+
+	/**
+	 * Returns the lock of a content id.
+	 *
+	 * @param locks the locks
+	 * @param contentId the content id
+	 * @return the lock
+	 */
+	public static Object lock(Object[] locks, Serializable contentId) {
+		return locks[(contentId.hashCode() & 0x7fffffff) % locks.length];
+	}
+}
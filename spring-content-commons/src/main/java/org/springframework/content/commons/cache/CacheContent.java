@@ -0,0 +1,33 @@
+package org.springframework.content.commons.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caches the content read through a store interface in the application's {@link ContentCache}.
+ * Sizes left unset use the cache's defaults and every attribute can be overridden with
+ * {@literal spring.content.cache.stores.<StoreInterfaceSimpleName>.*} properties.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CacheContent {
+
+	/**
+	 * The most bytes of content to cache on disk.
+	 */
+	long maxDiskSize() default -1L;
+
+	/**
+	 * The most bytes of content to also cache in memory; 0 disables the in-memory tier.
+	 */
+	long maxHeapSize() default -1L;
+
+	/**
+	 * The largest content, in bytes, that is cached in memory.
+	 */
+	long maxHeapObjectSize() default -1L;
+}
@@ -0,0 +1,308 @@
+package org.springframework.content.commons.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToLongFunction;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.Store;
+import org.springframework.content.commons.repository.StoreEvent;
+import org.springframework.content.commons.repository.StoreExtension;
+import org.springframework.content.commons.repository.StoreInvoker;
+import org.springframework.content.commons.repository.events.AfterSetContentEvent;
+import org.springframework.content.commons.repository.events.AfterUnsetContentEvent;
+import org.springframework.content.commons.repository.events.BeforeUnsetContentEvent;
+import org.springframework.content.commons.utils.BeanUtils;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.event.GenericApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+import internal.org.springframework.content.commons.cache.CacheRegion;
+import internal.org.springframework.content.commons.repository.factory.StoreExtensionChain;
+
+/**
+ * A read-through cache of the content of stores.
+ * <p>
+ * Declaring a bean of this type caches the content read through every store interface annotated
+ * with {@link CacheContent}, or enabled with the
+ * {@literal spring.content.cache.stores.<StoreInterfaceSimpleName>.enabled} property.  Content is
+ * cached on local disk and, optionally, small content is also kept in memory; each tier is
+ * bounded by the total size of the content it holds and evicts the least recently used content
+ * first.  Content ranges are served from the cache but do not populate it.
+ * <p>
+ * Cached content is invalidated when content is set, unset, copied over or moved through the
+ * store.  Hits, misses, evictions and cached sizes of each store are exposed as managed
+ * attributes.
+ * <p>
+ * Defaults are taken from the {@literal spring.content.cache.directory},
+ * {@literal spring.content.cache.max-disk-size}, {@literal spring.content.cache.max-heap-size}
+ * and {@literal spring.content.cache.max-heap-object-size} properties, in bytes, when set.
+ */
+@ManagedResource(description = "Content cache")
+public class ContentCache implements StoreExtension, GenericApplicationListener, EnvironmentAware, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(ContentCache.class);
+
+	public static final long DEFAULT_MAX_DISK_SIZE = 1024L * 1024L * 1024L;
+	public static final long DEFAULT_MAX_HEAP_SIZE = 0L;
+	public static final long DEFAULT_MAX_HEAP_OBJECT_SIZE = 64L * 1024L;
+
+	static final String PROPERTY_PREFIX = "spring.content.cache.";
+
+	private static final Method getContentMethod = ReflectionUtils.findMethod(ContentStore.class, "getContent", Object.class);
+	private static final Method getContentRangeMethod = ReflectionUtils.findMethod(ContentStore.class, "getContent", Object.class, long.class, long.class);
+	private static final Method copyMethod = ReflectionUtils.findMethod(Store.class, "copy", Serializable.class, Serializable.class);
+	private static final Method moveMethod = ReflectionUtils.findMethod(Store.class, "move", Serializable.class, Serializable.class);
+
+	private File directory = new File(System.getProperty("java.io.tmpdir"));
+	private long maxDiskSize = DEFAULT_MAX_DISK_SIZE;
+	private long maxHeapSize = DEFAULT_MAX_HEAP_SIZE;
+	private long maxHeapObjectSize = DEFAULT_MAX_HEAP_OBJECT_SIZE;
+	private Environment env;
+
+	private final ConcurrentMap<Object, Optional<CacheRegion>> regions = new ConcurrentHashMap<>();
+	private Path root;
+
+	/**
+	 * Sets the directory the disk tier is kept in.  The cache creates, and on shutdown removes,
+	 * its own directory within it.
+	 *
+	 * @param directory the directory
+	 */
+	public void setDirectory(File directory) {
+		Assert.notNull(directory, "directory must not be null");
+		this.directory = directory;
+	}
+
+	public void setMaxDiskSize(long maxDiskSize) {
+		this.maxDiskSize = maxDiskSize;
+	}
+
+	public void setMaxHeapSize(long maxHeapSize) {
+		this.maxHeapSize = maxHeapSize;
+	}
+
+	public void setMaxHeapObjectSize(long maxHeapObjectSize) {
+		this.maxHeapObjectSize = maxHeapObjectSize;
+	}
+
+	@Override
+	public void setEnvironment(Environment env) {
+		this.env = env;
+		String directory = env.getProperty(PROPERTY_PREFIX + "directory");
+		if (directory != null) {
+			setDirectory(new File(directory));
+		}
+		maxDiskSize = env.getProperty(PROPERTY_PREFIX + "max-disk-size", Long.class, maxDiskSize);
+		maxHeapSize = env.getProperty(PROPERTY_PREFIX + "max-heap-size", Long.class, maxHeapSize);
+		maxHeapObjectSize = env.getProperty(PROPERTY_PREFIX + "max-heap-object-size", Long.class, maxHeapObjectSize);
+	}
+
+	@Override
+	public Set<Method> getMethods() {
+		Set<Method> methods = new HashSet<>();
+		methods.add(getContentMethod);
+		methods.add(getContentRangeMethod);
+		methods.add(copyMethod);
+		methods.add(moveMethod);
+		return methods;
+	}
+
+	@Override
+	public Object invoke(MethodInvocation invocation, StoreInvoker invoker) {
+		Object[] args = invocation.getArguments();
+		CacheRegion region = region(invocation.getThis(), invoker.getStoreInterface());
+		if (copyMethod.equals(invocation.getMethod()) || moveMethod.equals(invocation.getMethod())) {
+			Object result = StoreExtensionChain.proceed(invocation);
+			if (region != null) {
+				region.invalidate(args[1]);
+				if (moveMethod.equals(invocation.getMethod())) {
+					region.invalidate(args[0]);
+				}
+			}
+			return result;
+		}
+
+		Object contentId = null;
+		if (region != null && args.length > 0 && args[0] != null) {
+			contentId = BeanUtils.getFieldWithAnnotation(args[0], ContentId.class);
+		}
+		if (contentId == null) {
+			return StoreExtensionChain.proceed(invocation);
+		}
+
+		if (getContentRangeMethod.equals(invocation.getMethod())) {
+			InputStream cached = region.get(contentId, (Long) args[1], (Long) args[2]);
+			return (cached != null ? cached : StoreExtensionChain.proceed(invocation));
+		}
+
+		InputStream cached = region.get(contentId);
+		if (cached != null) {
+			return cached;
+		}
+		InputStream content = (InputStream) StoreExtensionChain.proceed(invocation);
+		return (content != null ? region.cache(contentId, content) : null);
+	}
+
+	@Override
+	public boolean supportsEventType(ResolvableType eventType) {
+		Class<?> type = eventType.getRawClass();
+		return type != null && (AfterSetContentEvent.class.isAssignableFrom(type) ||
+								BeforeUnsetContentEvent.class.isAssignableFrom(type) ||
+								AfterUnsetContentEvent.class.isAssignableFrom(type));
+	}
+
+	@Override
+	public boolean supportsSourceType(Class<?> sourceType) {
+		return true;
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE;
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationEvent event) {
+		if (!(event instanceof StoreEvent)) {
+			return;
+		}
+		StoreEvent storeEvent = (StoreEvent) event;
+		Optional<CacheRegion> region = (storeEvent.getStore() != null ? regions.get(storeEvent.getStore()) : null);
+		if (region == null || !region.isPresent()) {
+			return;
+		}
+		// the content id is reset once content is unset, so it is invalidated before as well
+		Object contentId = BeanUtils.getFieldWithAnnotation(storeEvent.getSource(), ContentId.class);
+		if (contentId != null) {
+			region.get().invalidate(contentId);
+		}
+	}
+
+	/**
+	 * Removes all cached content.
+	 */
+	public void clear() {
+		for (Optional<CacheRegion> region : regions.values()) {
+			region.ifPresent(CacheRegion::clear);
+		}
+	}
+
+	@ManagedAttribute(description = "Cache hits of each store")
+	public Map<String, Long> getHits() {
+		return statistic(CacheRegion::getHits);
+	}
+
+	@ManagedAttribute(description = "Cache misses of each store")
+	public Map<String, Long> getMisses() {
+		return statistic(CacheRegion::getMisses);
+	}
+
+	@ManagedAttribute(description = "Evictions of each store")
+	public Map<String, Long> getEvictions() {
+		return statistic(CacheRegion::getEvictions);
+	}
+
+	@ManagedAttribute(description = "Bytes of content cached on disk for each store")
+	public Map<String, Long> getDiskSizes() {
+		return statistic(CacheRegion::getDiskSize);
+	}
+
+	@ManagedAttribute(description = "Bytes of content cached in memory for each store")
+	public Map<String, Long> getHeapSizes() {
+		return statistic(CacheRegion::getHeapSize);
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		clear();
+		synchronized (this) {
+			if (root != null) {
+				FileUtils.deleteDirectory(root.toFile());
+				root = null;
+			}
+		}
+	}
+
+	private Map<String, Long> statistic(ToLongFunction<CacheRegion> statistic) {
+		Map<String, Long> statistics = new TreeMap<>();
+		for (Optional<CacheRegion> region : regions.values()) {
+			region.ifPresent(r -> statistics.put(r.getName(), statistic.applyAsLong(r)));
+		}
+		return statistics;
+	}
+
+	private CacheRegion region(Object store, Class<?> storeInterface) {
+		if (store == null || storeInterface == null) {
+			return null;
+		}
+		Optional<CacheRegion> region = regions.get(store);
+		if (region == null) {
+			region = regions.computeIfAbsent(store, s -> Optional.ofNullable(createRegion(storeInterface)));
+		}
+		return region.orElse(null);
+	}
+
+	private CacheRegion createRegion(Class<?> storeInterface) {
+		String prefix = PROPERTY_PREFIX + "stores." + storeInterface.getSimpleName() + ".";
+		CacheContent annotation = AnnotationUtils.findAnnotation(storeInterface, CacheContent.class);
+		if (!property(prefix + "enabled", Boolean.class, annotation != null)) {
+			return null;
+		}
+
+		long disk = property(prefix + "max-disk-size", Long.class, annotated(annotation != null ? annotation.maxDiskSize() : -1L, maxDiskSize));
+		long heap = property(prefix + "max-heap-size", Long.class, annotated(annotation != null ? annotation.maxHeapSize() : -1L, maxHeapSize));
+		long heapObject = property(prefix + "max-heap-object-size", Long.class, annotated(annotation != null ? annotation.maxHeapObjectSize() : -1L, maxHeapObjectSize));
+
+		try {
+			Path directory = Files.createTempDirectory(root(), storeInterface.getSimpleName());
+			return new CacheRegion(storeInterface.getName(), directory, disk, heap, heapObject);
+		} catch (IOException ioe) {
+			logger.error(String.format("Unable to create content cache for %s, its content will not be cached", storeInterface.getName()), ioe);
+			return null;
+		}
+	}
+
+	private synchronized Path root() throws IOException {
+		if (root == null) {
+			Files.createDirectories(directory.toPath());
+			root = Files.createTempDirectory(directory.toPath(), "content-cache");
+			logger.info(String.format("Caching content in %s", root));
+		}
+		return root;
+	}
+
+	private <T> T property(String key, Class<T> type, T defaultValue) {
+		return (env != null ? env.getProperty(key, type, defaultValue) : defaultValue);
+	}
+
+	private static long annotated(long value, long defaultValue) {
+		return (value >= 0 ? value : defaultValue);
+	}
+}
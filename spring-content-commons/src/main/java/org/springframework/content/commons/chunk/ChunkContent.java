@@ -0,0 +1,34 @@
+package org.springframework.content.commons.chunk;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Stores the content set through a store interface as content-defined chunks with the
+ * application's {@link ContentChunker}.  Sizes left unset use the chunker's defaults and every
+ * attribute can be overridden with
+ * {@literal spring.content.chunking.stores.<StoreInterfaceSimpleName>.*} properties.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ChunkContent {
+
+	/**
+	 * The smallest chunk, in bytes, other than the last chunk of a content.
+	 */
+	int minSize() default -1;
+
+	/**
+	 * The size, in bytes, chunks are normalized towards.
+	 */
+	int avgSize() default -1;
+
+	/**
+	 * The largest chunk, in bytes.
+	 */
+	int maxSize() default -1;
+}
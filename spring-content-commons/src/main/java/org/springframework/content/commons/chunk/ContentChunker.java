@@ -0,0 +1,586 @@
+package org.springframework.content.commons.chunk;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.dedup.DedupIndex;
+import org.springframework.content.commons.io.DeletableResource;
+import org.springframework.content.commons.repository.ContentMetadata;
+import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.Store;
+import org.springframework.content.commons.repository.StoreAccessException;
+import org.springframework.content.commons.repository.StoreExtension;
+import org.springframework.content.commons.repository.StoreInvoker;
+import org.springframework.content.commons.utils.BeanUtils;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.WritableResource;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+import internal.org.springframework.content.commons.chunk.ChunkManifest;
+import internal.org.springframework.content.commons.chunk.ChunkedResource;
+import internal.org.springframework.content.commons.chunk.FastCdcChunker;
+import internal.org.springframework.content.commons.dedup.JournaledDedupIndex;
+import internal.org.springframework.content.commons.dedup.NotIdCondition;
+import internal.org.springframework.content.commons.repository.factory.StoreExtensionChain;
+
+/**
+ * Stores content as content-defined chunks, each distinct chunk once.
+ * <p>
+ * Declaring a bean of this type chunks the content set through every store interface annotated
+ * with {@link ChunkContent}, or enabled with the
+ * {@literal spring.content.chunking.stores.<StoreInterfaceSimpleName>.enabled} property.  Content
+ * is split with FastCDC, so an edit to a large content only changes the chunks around it, and
+ * only chunks the store does not already hold are written.  Each content id holds a manifest of
+ * its chunks, which are read back in order; a range only reads the chunks that overlap it.
+ * {@link Store#getResource} returns the chunked content rather than the manifest.  Copying or
+ * moving content only copies or moves its manifest.
+ * <p>
+ * Chunks and manifests are written through the store's resources, so the store's resources must
+ * be writable and deletable, as those of the filesystem and S3 stores are.  Chunk references are
+ * counted in a {@link DedupIndex} that is journaled in the
+ * {@literal spring.content.chunking.directory}, which must be set unless
+ * {@literal spring.content.chunking.in-memory} is {@literal true}.  An index held only in memory
+ * is lost when the application stops, after which chunks still in use could be deleted.  Content
+ * set before chunking was enabled is still read, and unset, as it was stored.
+ * <p>
+ * Defaults are taken from the {@literal spring.content.chunking.min-size},
+ * {@literal spring.content.chunking.avg-size} and {@literal spring.content.chunking.max-size}
+ * properties, in bytes, when set.
+ */
+@ManagedResource(description = "Content chunking")
+public class ContentChunker implements StoreExtension, EnvironmentAware, InitializingBean, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(ContentChunker.class);
+
+	public static final int DEFAULT_MIN_SIZE = 64 * 1024;
+	public static final int DEFAULT_AVG_SIZE = 256 * 1024;
+	public static final int DEFAULT_MAX_SIZE = 1024 * 1024;
+
+	static final String PROPERTY_PREFIX = "spring.content.chunking.";
+
+	private static final Method getContentMethod = ReflectionUtils.findMethod(ContentStore.class, "getContent", Object.class);
+	private static final Method getContentRangeMethod = ReflectionUtils.findMethod(ContentStore.class, "getContent", Object.class, long.class, long.class);
+	private static final Method setContentMethod = ReflectionUtils.findMethod(ContentStore.class, "setContent", Object.class, InputStream.class);
+	private static final Method unsetContentMethod = ReflectionUtils.findMethod(ContentStore.class, "unsetContent", Object.class);
+	private static final Method setContentsMethod = ReflectionUtils.findMethod(ContentStore.class, "setContents", Map.class);
+	private static final Method unsetContentsMethod = ReflectionUtils.findMethod(ContentStore.class, "unsetContents", Collection.class);
+	private static final Method getResourceMethod = ReflectionUtils.findMethod(Store.class, "getResource", Serializable.class);
+	private static final Method getResourcesMethod = ReflectionUtils.findMethod(Store.class, "getResources", Collection.class);
+	private static final Method getMetadataMethod = ReflectionUtils.findMethod(Store.class, "getMetadata", Serializable.class);
+	private static final Method getMetadatasMethod = ReflectionUtils.findMethod(Store.class, "getMetadata", Collection.class);
+	private static final Method listMethod = ReflectionUtils.findMethod(Store.class, "list", String.class);
+	private static final Method copyMethod = ReflectionUtils.findMethod(Store.class, "copy", Serializable.class, Serializable.class);
+	private static final Method moveMethod = ReflectionUtils.findMethod(Store.class, "move", Serializable.class, Serializable.class);
+
+	// chunks with the same digest are written and deleted under the same lock
+	private final Object[] locks = new Object[64];
+
+	private File directory;
+	private boolean inMemory;
+	private int minSize = DEFAULT_MIN_SIZE;
+	private int avgSize = DEFAULT_AVG_SIZE;
+	private int maxSize = DEFAULT_MAX_SIZE;
+	private Environment env;
+
+	private final ConversionService conversion = new DefaultConversionService();
+	private final ConcurrentMap<Object, Optional<Chunking>> chunkings = new ConcurrentHashMap<>();
+
+	public ContentChunker() {
+		for (int i = 0; i < locks.length; i++) {
+			locks[i] = new Object();
+		}
+	}
+
+	/**
+	 * Sets the directory each store's chunk index is journaled in.
+	 *
+	 * @param directory the directory
+	 */
+	public void setDirectory(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Sets whether each store's chunk index may be held only in memory when no directory is set.
+	 * After a restart, chunks released by one content would then be deleted even when other
+	 * content still uses them.
+	 *
+	 * @param inMemory whether an index held only in memory is allowed
+	 */
+	public void setInMemory(boolean inMemory) {
+		this.inMemory = inMemory;
+	}
+
+	public void setMinSize(int minSize) {
+		this.minSize = minSize;
+	}
+
+	public void setAvgSize(int avgSize) {
+		this.avgSize = avgSize;
+	}
+
+	public void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	@Override
+	public void setEnvironment(Environment env) {
+		this.env = env;
+		String directory = env.getProperty(PROPERTY_PREFIX + "directory");
+		if (directory != null) {
+			setDirectory(new File(directory));
+		}
+		inMemory = env.getProperty(PROPERTY_PREFIX + "in-memory", Boolean.class, inMemory);
+		minSize = env.getProperty(PROPERTY_PREFIX + "min-size", Integer.class, minSize);
+		avgSize = env.getProperty(PROPERTY_PREFIX + "avg-size", Integer.class, avgSize);
+		maxSize = env.getProperty(PROPERTY_PREFIX + "max-size", Integer.class, maxSize);
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		assertIndexKept();
+	}
+
+	@Override
+	public Set<Method> getMethods() {
+		Set<Method> methods = new HashSet<>();
+		methods.add(getContentMethod);
+		methods.add(getContentRangeMethod);
+		methods.add(setContentMethod);
+		methods.add(unsetContentMethod);
+		methods.add(setContentsMethod);
+		methods.add(unsetContentsMethod);
+		methods.add(getResourceMethod);
+		methods.add(getResourcesMethod);
+		methods.add(getMetadataMethod);
+		methods.add(getMetadatasMethod);
+		methods.add(listMethod);
+		methods.add(copyMethod);
+		methods.add(moveMethod);
+		return methods;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Object invoke(MethodInvocation invocation, StoreInvoker invoker) {
+		Object[] args = invocation.getArguments();
+		Chunking chunking = chunking(invocation.getThis(), invoker.getStoreInterface());
+		Store<Serializable> store = (Store<Serializable>) invocation.getThis();
+		Method method = invocation.getMethod();
+		if (chunking != null && listMethod.equals(method)) {
+			// chunks are stored alongside the manifests that reference them
+			return ((Stream<ContentMetadata>) StoreExtensionChain.proceed(invocation))
+					.filter(metadata -> !metadata.getContentId().toString().startsWith(ChunkManifest.CHUNKS))
+					.map(metadata -> chunked(store, metadata));
+		}
+		if (chunking == null || args.length == 0 || args[0] == null) {
+			return StoreExtensionChain.proceed(invocation);
+		}
+
+		if (getResourceMethod.equals(method)) {
+			return chunked(store, (Resource) StoreExtensionChain.proceed(invocation));
+		}
+		if (getResourcesMethod.equals(method)) {
+			Map<Object, Resource> resources = new LinkedHashMap<>((Map<Object, Resource>) StoreExtensionChain.proceed(invocation));
+			for (Map.Entry<Object, Resource> resource : resources.entrySet()) {
+				resource.setValue(chunked(store, resource.getValue()));
+			}
+			return resources;
+		}
+		if (getMetadataMethod.equals(method)) {
+			return chunked(store, (ContentMetadata) StoreExtensionChain.proceed(invocation));
+		}
+		if (getMetadatasMethod.equals(method)) {
+			Map<Object, ContentMetadata> metadata = new LinkedHashMap<>((Map<Object, ContentMetadata>) StoreExtensionChain.proceed(invocation));
+			for (Map.Entry<Object, ContentMetadata> entry : metadata.entrySet()) {
+				entry.setValue(chunked(store, entry.getValue()));
+			}
+			return metadata;
+		}
+		if (getContentMethod.equals(method) || getContentRangeMethod.equals(method)) {
+			return getContent(store, invocation);
+		}
+		if (copyMethod.equals(method) || moveMethod.equals(method)) {
+			transfer(store, chunking, invocation);
+			return null;
+		}
+		if (setContentMethod.equals(method)) {
+			setContent(store, chunking, args[0], (InputStream) args[1]);
+			return null;
+		}
+		if (setContentsMethod.equals(method)) {
+			for (Map.Entry<Object, InputStream> content : ((Map<Object, InputStream>) args[0]).entrySet()) {
+				setContent(store, chunking, content.getKey(), content.getValue());
+			}
+			return null;
+		}
+		if (unsetContentMethod.equals(method)) {
+			return (unsetContent(store, chunking, args[0]) ? null : StoreExtensionChain.proceed(invocation));
+		}
+
+		// content stored before chunking was enabled is unset by the store
+		List<Object> unchunked = new ArrayList<>();
+		for (Object entity : (Collection<Object>) args[0]) {
+			if (!unsetContent(store, chunking, entity)) {
+				unchunked.add(entity);
+			}
+		}
+		if (unchunked.isEmpty()) {
+			return null;
+		}
+		args[0] = unchunked;
+		return StoreExtensionChain.proceed(invocation);
+	}
+
+	@ManagedAttribute(description = "Bytes of content referenced by each store, counting shared chunks once per reference")
+	public Map<String, Long> getLogicalSizes() {
+		Map<String, Long> sizes = new TreeMap<>();
+		for (Optional<Chunking> chunking : chunkings.values()) {
+			chunking.ifPresent(c -> sizes.put(c.name, c.index.getLogicalSize()));
+		}
+		return sizes;
+	}
+
+	@ManagedAttribute(description = "Bytes of chunks stored by each store")
+	public Map<String, Long> getStoredSizes() {
+		Map<String, Long> sizes = new TreeMap<>();
+		for (Optional<Chunking> chunking : chunkings.values()) {
+			chunking.ifPresent(c -> sizes.put(c.name, c.index.getStoredSize()));
+		}
+		return sizes;
+	}
+
+	@ManagedAttribute(description = "Ratio of logical to stored content of each store")
+	public Map<String, Double> getDedupRatios() {
+		Map<String, Double> ratios = new TreeMap<>();
+		for (Optional<Chunking> chunking : chunkings.values()) {
+			chunking.ifPresent(c -> {
+				long stored = c.index.getStoredSize();
+				ratios.put(c.name, (stored > 0 ? (double) c.index.getLogicalSize() / stored : 1.0d));
+			});
+		}
+		return ratios;
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		for (Optional<Chunking> chunking : chunkings.values()) {
+			if (chunking.isPresent() && chunking.get().index instanceof Closeable) {
+				((Closeable) chunking.get().index).close();
+			}
+		}
+	}
+
+	private Resource chunked(Store<Serializable> store, Resource resource) {
+		try {
+			ChunkManifest manifest = ChunkManifest.read(resource);
+			return (manifest != null ? new ChunkedResource(resource, manifest, store::getResource) : resource);
+		} catch (IOException ioe) {
+			throw new StoreAccessException(String.format("Unexpected error reading %s", resource.getDescription()), ioe);
+		}
+	}
+
+	// the store's metadata of chunked content is that of its manifest, so its length is the
+	// manifest's length of the content
+	private ContentMetadata chunked(Store<Serializable> store, ContentMetadata metadata) {
+		if (!metadata.exists()) {
+			return metadata;
+		}
+		Resource resource = chunked(store, store.getResource(metadata.getContentId()));
+		if (!(resource instanceof ChunkedResource)) {
+			return metadata;
+		}
+		try {
+			return new ContentMetadata(metadata.getContentId(), resource.contentLength(), metadata.getLastModified(), metadata.getChecksum());
+		} catch (IOException ioe) {
+			throw new StoreAccessException(String.format("Unexpected error reading %s", resource.getDescription()), ioe);
+		}
+	}
+
+	private Object getContent(Store<Serializable> store, MethodInvocation invocation) {
+		Object[] args = invocation.getArguments();
+		Object contentId = BeanUtils.getFieldWithAnnotation(args[0], ContentId.class);
+		if (contentId == null) {
+			return null;
+		}
+		Resource resource = chunked(store, store.getResource((Serializable) contentId));
+		if (!(resource instanceof ChunkedResource)) {
+			return StoreExtensionChain.proceed(invocation);
+		}
+		try {
+			if (getContentRangeMethod.equals(invocation.getMethod())) {
+				return ((ChunkedResource) resource).getInputStream((Long) args[1], (Long) args[2]);
+			}
+			return resource.getInputStream();
+		} catch (IOException ioe) {
+			logger.error(String.format("Unexpected error getting content %s", contentId.toString()), ioe);
+		}
+		return null;
+	}
+
+	private void setContent(Store<Serializable> store, Chunking chunking, Object entity, InputStream content) {
+		Object contentId = BeanUtils.getFieldWithAnnotation(entity, ContentId.class);
+		if (contentId == null) {
+			contentId = newContentId(entity);
+			BeanUtils.setFieldWithAnnotation(entity, ContentId.class, contentId);
+		}
+
+		Resource resource = store.getResource((Serializable) contentId);
+		ChunkManifest replaced;
+		ChunkManifest manifest = new ChunkManifest();
+		List<String> referenced = new ArrayList<>();
+		try {
+			replaced = ChunkManifest.read(resource);
+
+			FastCdcChunker chunker = new FastCdcChunker(content, chunking.minSize, chunking.avgSize, chunking.maxSize);
+			byte[] chunk;
+			while ((chunk = chunker.next()) != null) {
+				String digest = digest(chunk);
+				retain(store, chunking.index, digest, chunk);
+				referenced.add(digest);
+				manifest.add(digest, chunk.length);
+			}
+
+			try (OutputStream out = ((WritableResource) resource).getOutputStream()) {
+				manifest.write(out);
+			}
+		} catch (IOException | RuntimeException e) {
+			for (String digest : referenced) {
+				release(store, chunking.index, digest);
+			}
+			throw new StoreAccessException(String.format("Unexpected error setting content %s", contentId.toString()), e);
+		}
+
+		if (replaced != null) {
+			for (String digest : replaced.getDigests()) {
+				release(store, chunking.index, digest);
+			}
+		}
+		BeanUtils.setFieldWithAnnotation(entity, ContentLength.class, manifest.getLength());
+	}
+
+	/*
+	 * Returns false, leaving the entity untouched, when its content is not chunked.
+	 */
+	private boolean unsetContent(Store<Serializable> store, Chunking chunking, Object entity) {
+		Object contentId = (entity != null ? BeanUtils.getFieldWithAnnotation(entity, ContentId.class) : null);
+		if (contentId == null) {
+			return true;
+		}
+		Resource resource = store.getResource((Serializable) contentId);
+		ChunkManifest manifest;
+		try {
+			manifest = ChunkManifest.read(resource);
+		} catch (IOException ioe) {
+			throw new StoreAccessException(String.format("Unexpected error unsetting content %s", contentId.toString()), ioe);
+		}
+		if (manifest == null) {
+			return false;
+		}
+
+		((DeletableResource) resource).delete();
+		for (String digest : manifest.getDigests()) {
+			release(store, chunking.index, digest);
+		}
+
+		BeanUtils.setFieldWithAnnotationConditionally(entity, ContentId.class, null, NotIdCondition.INSTANCE);
+		BeanUtils.setFieldWithAnnotation(entity, ContentLength.class, 0L);
+		return true;
+	}
+
+	/*
+	 * Copies or moves content with the store, which only copies or moves its manifest; a copied
+	 * manifest references each of its chunks once more and the manifest it replaces releases its
+	 * chunks.
+	 */
+	private void transfer(Store<Serializable> store, Chunking chunking, MethodInvocation invocation) {
+		Object[] args = invocation.getArguments();
+		if (args[0].equals(args[1])) {
+			return;
+		}
+		ChunkManifest copied = null;
+		ChunkManifest replaced;
+		try {
+			if (copyMethod.equals(invocation.getMethod())) {
+				copied = ChunkManifest.read(store.getResource((Serializable) args[0]));
+			}
+			replaced = ChunkManifest.read(store.getResource((Serializable) args[1]));
+		} catch (IOException ioe) {
+			throw new StoreAccessException(String.format("Unexpected error reading %s", args[0]), ioe);
+		}
+
+		List<String> referenced = new ArrayList<>();
+		try {
+			if (copied != null) {
+				for (String digest : copied.getDigests()) {
+					synchronized (lock(digest)) {
+						if (chunking.index.retain(digest) == null) {
+							throw new StoreAccessException(String.format("Chunk %s of %s is not stored", digest, args[0]));
+						}
+					}
+					referenced.add(digest);
+				}
+			}
+			StoreExtensionChain.proceed(invocation);
+		} catch (RuntimeException e) {
+			for (String digest : referenced) {
+				release(store, chunking.index, digest);
+			}
+			throw e;
+		}
+
+		if (replaced != null) {
+			for (String digest : replaced.getDigests()) {
+				release(store, chunking.index, digest);
+			}
+		}
+	}
+
+	private void retain(Store<Serializable> store, DedupIndex index, String digest, byte[] chunk) throws IOException {
+		synchronized (lock(digest)) {
+			if (index.retain(digest) != null) {
+				return;
+			}
+			String location = ChunkManifest.location(digest);
+			try (OutputStream out = ((WritableResource) store.getResource(location)).getOutputStream()) {
+				out.write(chunk);
+			}
+			index.add(digest, location, chunk.length);
+		}
+	}
+
+	private void release(Store<Serializable> store, DedupIndex index, String digest) {
+		synchronized (lock(digest)) {
+			String location = ChunkManifest.location(digest);
+			if (index.release(location) == 0) {
+				((DeletableResource) store.getResource(location)).delete();
+			}
+		}
+	}
+
+	private Object lock(String digest) {
+		return locks[(digest.hashCode() & 0x7fffffff) % locks.length];
+	}
+
+	private Object newContentId(Object entity) {
+		Object contentId = UUID.randomUUID();
+		TypeDescriptor type = TypeDescriptor.valueOf(BeanUtils.getFieldWithAnnotationType(entity, ContentId.class));
+		if (conversion.canConvert(TypeDescriptor.forObject(contentId), type)) {
+			return conversion.convert(contentId, TypeDescriptor.forObject(contentId), type);
+		}
+		return contentId.toString();
+	}
+
+	private static String digest(byte[] chunk) {
+		try {
+			return String.format("%064x", new BigInteger(1, MessageDigest.getInstance("SHA-256").digest(chunk)));
+		} catch (NoSuchAlgorithmException nsae) {
+			throw new IllegalStateException(nsae);
+		}
+	}
+
+	private Chunking chunking(Object store, Class<?> storeInterface) {
+		if (!(store instanceof Store) || storeInterface == null) {
+			return null;
+		}
+		Optional<Chunking> chunking = chunkings.get(store);
+		if (chunking == null) {
+			chunking = chunkings.computeIfAbsent(store, s -> Optional.ofNullable(createChunking(storeInterface)));
+		}
+		return chunking.orElse(null);
+	}
+
+	private Chunking createChunking(Class<?> storeInterface) {
+		String prefix = PROPERTY_PREFIX + "stores." + storeInterface.getSimpleName() + ".";
+		ChunkContent annotation = AnnotationUtils.findAnnotation(storeInterface, ChunkContent.class);
+		if (!property(prefix + "enabled", Boolean.class, annotation != null)) {
+			return null;
+		}
+
+		int min = property(prefix + "min-size", Integer.class, annotated(annotation != null ? annotation.minSize() : -1, minSize));
+		int avg = property(prefix + "avg-size", Integer.class, annotated(annotation != null ? annotation.avgSize() : -1, avgSize));
+		int max = property(prefix + "max-size", Integer.class, annotated(annotation != null ? annotation.maxSize() : -1, maxSize));
+
+		assertIndexKept();
+		DedupIndex index;
+		if (directory == null) {
+			index = new JournaledDedupIndex();
+		} else {
+			try {
+				Files.createDirectories(directory.toPath());
+				index = new JournaledDedupIndex(directory.toPath().resolve(storeInterface.getName() + ".chunks"));
+			} catch (IOException ioe) {
+				throw new StoreAccessException(String.format("Unable to open the chunk index of %s", storeInterface.getName()), ioe);
+			}
+		}
+		return new Chunking(storeInterface.getName(), index, min, avg, max);
+	}
+
+	// chunks in use are deleted once their references are lost, so they are only held in memory on request
+	private void assertIndexKept() {
+		Assert.state(directory != null || inMemory, String.format("Set %sdirectory to keep the chunk references of chunked stores, or %sin-memory to only hold them in memory", PROPERTY_PREFIX, PROPERTY_PREFIX));
+	}
+
+	private <T> T property(String key, Class<T> type, T defaultValue) {
+		return (env != null ? env.getProperty(key, type, defaultValue) : defaultValue);
+	}
+
+	private static int annotated(int value, int defaultValue) {
+		return (value > 0 ? value : defaultValue);
+	}
+
+	private static class Chunking {
+
+		private final String name;
+		private final DedupIndex index;
+		private final int minSize;
+		private final int avgSize;
+		private final int maxSize;
+
+		Chunking(String name, DedupIndex index, int minSize, int avgSize, int maxSize) {
+			this.name = name;
+			this.index = index;
+			this.minSize = minSize;
+			this.avgSize = avgSize;
+			this.maxSize = maxSize;
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package org.springframework.content.commons.compression;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Compresses the content set through a store interface with the application's
+ * {@link ContentCompressor}.  Attributes left unset use the compressor's defaults and every
+ * attribute can be overridden with
+ * {@literal spring.content.compression.stores.<StoreInterfaceSimpleName>.*} properties.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CompressContent {
+
+	/**
+	 * The mime types, which may be wildcards such as {@literal text/*} or
+	 * {@literal application/*+json}, of the content to compress.
+	 */
+	String[] mimeTypes() default {};
+
+	/**
+	 * The content-coding to compress with.
+	 */
+	String encoding() default "";
+}
@@ -0,0 +1,38 @@
+package org.springframework.content.commons.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Encodes content as it is set and decodes it as it is read.
+ * <p>
+ * The {@link ContentCompressor} records which content a codec encoded, so encoded content must
+ * remain readable by standard decoders of the encoding but needs no marker of its own.
+ */
+public interface ContentCodec {
+
+	/**
+	 * Returns the HTTP content-coding of encoded content, such as {@literal gzip}.
+	 *
+	 * @return the content-coding
+	 */
+	String getEncoding();
+
+	/**
+	 * Returns a stream of content encoded as it is read.
+	 *
+	 * @param content the content
+	 * @return the encoded content
+	 * @throws IOException if the encoding cannot be started
+	 */
+	InputStream encode(InputStream content) throws IOException;
+
+	/**
+	 * Returns a stream of encoded content decoded as it is read.
+	 *
+	 * @param encoded the encoded content
+	 * @return the content
+	 * @throws IOException if the encoded content cannot be read
+	 */
+	InputStream decode(InputStream encoded) throws IOException;
+}
@@ -0,0 +1,553 @@
+package org.springframework.content.commons.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.commons.io.input.CountingInputStream;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.annotations.MimeType;
+import org.springframework.content.commons.io.BoundedInputStream;
+import org.springframework.content.commons.io.DeletableResource;
+import org.springframework.content.commons.repository.ContentMetadata;
+import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.Store;
+import org.springframework.content.commons.repository.StoreAccessException;
+import org.springframework.content.commons.repository.StoreExtension;
+import org.springframework.content.commons.repository.StoreInvoker;
+import org.springframework.content.commons.utils.BeanUtils;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.WritableResource;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.ReflectionUtils;
+
+import internal.org.springframework.content.commons.compression.DecodingInputStream;
+import internal.org.springframework.content.commons.compression.DecodingResource;
+import internal.org.springframework.content.commons.compression.EncodingMarker;
+import internal.org.springframework.content.commons.compression.GzipContentCodec;
+import internal.org.springframework.content.commons.repository.factory.StoreExtensionChain;
+
+/**
+ * Compresses content as it is set and decompresses it as it is read.
+ * <p>
+ * Declaring a bean of this type compresses the content set through every store interface
+ * annotated with {@link CompressContent}, or enabled with the
+ * {@literal spring.content.compression.stores.<StoreInterfaceSimpleName>.enabled} property,
+ * whose {@link MimeType} is one of the store's compressed mime types.  The content is compressed
+ * while it streams to the store and {@link ContentLength} is set to the uncompressed length.
+ * <p>
+ * The encoding, uncompressed length and compressed length of each compressed content are
+ * recorded in a marker stored alongside it, which is copied, moved and deleted with the content.
+ * Content without a marker, stored before compression was enabled or because of its mime type,
+ * is read as it was stored and its resources are the store's own.  The metadata of compressed
+ * content is answered from its marker, without reading the content.  Markers are written through
+ * the store's resources, so the store's resources must be writable and deletable, as those of the
+ * filesystem and S3 stores are.
+ * <p>
+ * For compressed content {@link Store#getResource} returns a
+ * {@link org.springframework.content.commons.io.ContentEncodedResource} and
+ * {@link ContentStore#getContent(Object)} a
+ * {@link org.springframework.content.commons.io.ContentEncodedInputStream}, from which the
+ * compressed content can also be read as it is stored.  Compressed content cannot be read from an
+ * offset, so its resources are neither rangeable nor file channel resources, and a range of it is
+ * decompressed from the start of the content.
+ * <p>
+ * Content is compressed with {@literal gzip} unless another {@link ContentCodec} is added and
+ * selected.  Defaults are taken from the {@literal spring.content.compression.mime-types} and
+ * {@literal spring.content.compression.encoding} properties, when set.
+ */
+@ManagedResource(description = "Content compression")
+public class ContentCompressor implements StoreExtension, EnvironmentAware {
+
+	public static final List<String> DEFAULT_MIME_TYPES = Collections.unmodifiableList(Arrays.asList(
+			"text/*",
+			"application/json", "application/*+json",
+			"application/xml", "application/*+xml",
+			"application/javascript",
+			"application/msword", "application/vnd.ms-excel", "application/vnd.ms-powerpoint", "application/rtf"));
+
+	static final String PROPERTY_PREFIX = "spring.content.compression.";
+
+	private static final Method getContentMethod = ReflectionUtils.findMethod(ContentStore.class, "getContent", Object.class);
+	private static final Method getContentRangeMethod = ReflectionUtils.findMethod(ContentStore.class, "getContent", Object.class, long.class, long.class);
+	private static final Method setContentMethod = ReflectionUtils.findMethod(ContentStore.class, "setContent", Object.class, InputStream.class);
+	private static final Method setContentsMethod = ReflectionUtils.findMethod(ContentStore.class, "setContents", Map.class);
+	private static final Method unsetContentMethod = ReflectionUtils.findMethod(ContentStore.class, "unsetContent", Object.class);
+	private static final Method unsetContentsMethod = ReflectionUtils.findMethod(ContentStore.class, "unsetContents", Collection.class);
+	private static final Method getResourceMethod = ReflectionUtils.findMethod(Store.class, "getResource", Serializable.class);
+	private static final Method getResourcesMethod = ReflectionUtils.findMethod(Store.class, "getResources", Collection.class);
+	private static final Method getMetadataMethod = ReflectionUtils.findMethod(Store.class, "getMetadata", Serializable.class);
+	private static final Method getMetadatasMethod = ReflectionUtils.findMethod(Store.class, "getMetadata", Collection.class);
+	private static final Method listMethod = ReflectionUtils.findMethod(Store.class, "list", String.class);
+	private static final Method copyMethod = ReflectionUtils.findMethod(Store.class, "copy", Serializable.class, Serializable.class);
+	private static final Method moveMethod = ReflectionUtils.findMethod(Store.class, "move", Serializable.class, Serializable.class);
+
+	private final List<ContentCodec> codecs = new CopyOnWriteArrayList<>();
+	private List<String> mimeTypes = DEFAULT_MIME_TYPES;
+	private String encoding = GzipContentCodec.ENCODING;
+	private Environment env;
+
+	private final ConcurrentMap<Object, Optional<Compression>> compressions = new ConcurrentHashMap<>();
+
+	public ContentCompressor() {
+		codecs.add(new GzipContentCodec());
+	}
+
+	/**
+	 * Adds a codec, replacing the codec of the same encoding.  Content encoded by any added codec
+	 * is decoded as it is read.
+	 *
+	 * @param codec the codec
+	 */
+	public void addCodec(ContentCodec codec) {
+		codecs.removeIf(c -> c.getEncoding().equalsIgnoreCase(codec.getEncoding()));
+		codecs.add(codec);
+	}
+
+	/**
+	 * Sets the mime types compressed by stores that do not set their own.
+	 *
+	 * @param mimeTypes the mime types, which may be wildcards
+	 */
+	public void setMimeTypes(List<String> mimeTypes) {
+		this.mimeTypes = mimeTypes;
+	}
+
+	/**
+	 * Sets the encoding content is compressed with by stores that do not set their own.
+	 *
+	 * @param encoding the content-coding of an added codec
+	 */
+	public void setEncoding(String encoding) {
+		this.encoding = encoding;
+	}
+
+	@Override
+	public void setEnvironment(Environment env) {
+		this.env = env;
+		String[] mimeTypes = env.getProperty(PROPERTY_PREFIX + "mime-types", String[].class);
+		if (mimeTypes != null) {
+			setMimeTypes(Arrays.asList(mimeTypes));
+		}
+		encoding = env.getProperty(PROPERTY_PREFIX + "encoding", encoding);
+	}
+
+	@Override
+	public Set<Method> getMethods() {
+		Set<Method> methods = new HashSet<>();
+		methods.add(getContentMethod);
+		methods.add(getContentRangeMethod);
+		methods.add(setContentMethod);
+		methods.add(setContentsMethod);
+		methods.add(unsetContentMethod);
+		methods.add(unsetContentsMethod);
+		methods.add(getResourceMethod);
+		methods.add(getResourcesMethod);
+		methods.add(getMetadataMethod);
+		methods.add(getMetadatasMethod);
+		methods.add(listMethod);
+		methods.add(copyMethod);
+		methods.add(moveMethod);
+		return methods;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Object invoke(MethodInvocation invocation, StoreInvoker invoker) {
+		Object[] args = invocation.getArguments();
+		Compression compression = compression(invocation.getThis(), invoker.getStoreInterface());
+		Store<Serializable> store = (Store<Serializable>) invocation.getThis();
+		Method method = invocation.getMethod();
+		if (compression != null && listMethod.equals(method)) {
+			return list(store, invocation);
+		}
+		if (compression == null || args.length == 0 || args[0] == null) {
+			return StoreExtensionChain.proceed(invocation);
+		}
+
+		if (getResourceMethod.equals(method)) {
+			return decoded(store, args[0], (Resource) StoreExtensionChain.proceed(invocation));
+		}
+		if (getResourcesMethod.equals(method)) {
+			Map<Object, Resource> resources = new LinkedHashMap<>((Map<Object, Resource>) StoreExtensionChain.proceed(invocation));
+			for (Map.Entry<Object, Resource> resource : resources.entrySet()) {
+				resource.setValue(decoded(store, resource.getKey(), resource.getValue()));
+			}
+			return resources;
+		}
+		if (getMetadataMethod.equals(method)) {
+			return decoded(store, (ContentMetadata) StoreExtensionChain.proceed(invocation));
+		}
+		if (getMetadatasMethod.equals(method)) {
+			Map<Object, ContentMetadata> metadata = new LinkedHashMap<>((Map<Object, ContentMetadata>) StoreExtensionChain.proceed(invocation));
+			for (Map.Entry<Object, ContentMetadata> entry : metadata.entrySet()) {
+				entry.setValue(decoded(store, entry.getValue()));
+			}
+			return metadata;
+		}
+		if (getContentMethod.equals(method)) {
+			return getContent(store, invocation);
+		}
+		if (getContentRangeMethod.equals(method)) {
+			return getContentRange(store, invocation);
+		}
+		if (copyMethod.equals(method) || moveMethod.equals(method)) {
+			return transfer(store, invocation);
+		}
+		if (unsetContentMethod.equals(method) || unsetContentsMethod.equals(method)) {
+			List<Object> contentIds = new ArrayList<>();
+			for (Object entity : (unsetContentMethod.equals(method) ? Collections.singleton(args[0]) : (Collection<?>) args[0])) {
+				contentIds.add(entity != null ? BeanUtils.getFieldWithAnnotation(entity, ContentId.class) : null);
+			}
+			Object result = StoreExtensionChain.proceed(invocation);
+			for (Object contentId : contentIds) {
+				unmark(store, contentId);
+			}
+			return result;
+		}
+
+		List<Object> entities = new ArrayList<>();
+		Map<Object, Counted> counted = new LinkedHashMap<>();
+		if (setContentMethod.equals(method)) {
+			entities.add(args[0]);
+			args[1] = compress(compression, args[0], (InputStream) args[1], counted);
+		} else {
+			Map<Object, InputStream> contents = new LinkedHashMap<>();
+			for (Map.Entry<Object, InputStream> content : ((Map<Object, InputStream>) args[0]).entrySet()) {
+				entities.add(content.getKey());
+				contents.put(content.getKey(), compress(compression, content.getKey(), content.getValue(), counted));
+			}
+			args[0] = contents;
+		}
+		Object result = StoreExtensionChain.proceed(invocation);
+		for (Object entity : entities) {
+			Object contentId = BeanUtils.getFieldWithAnnotation(entity, ContentId.class);
+			Counted content = counted.get(entity);
+			if (content == null) {
+				// content stored as it is replaces any encoded content
+				unmark(store, contentId);
+				continue;
+			}
+			long length = content.logical.getByteCount();
+			long stored = content.stored.getByteCount();
+			BeanUtils.setFieldWithAnnotation(entity, ContentLength.class, length);
+			mark(store, contentId, new EncodingMarker(compression.codec.getEncoding(), length, stored));
+			compression.logicalSize.addAndGet(length);
+			compression.storedSize.addAndGet(stored);
+		}
+		return result;
+	}
+
+	@ManagedAttribute(description = "Bytes of content compressed by each store since startup")
+	public Map<String, Long> getLogicalSizes() {
+		Map<String, Long> sizes = new TreeMap<>();
+		for (Optional<Compression> compression : compressions.values()) {
+			compression.ifPresent(c -> sizes.put(c.name, c.logicalSize.get()));
+		}
+		return sizes;
+	}
+
+	@ManagedAttribute(description = "Bytes of compressed content stored by each store since startup")
+	public Map<String, Long> getStoredSizes() {
+		Map<String, Long> sizes = new TreeMap<>();
+		for (Optional<Compression> compression : compressions.values()) {
+			compression.ifPresent(c -> sizes.put(c.name, c.storedSize.get()));
+		}
+		return sizes;
+	}
+
+	@ManagedAttribute(description = "Ratio of uncompressed to compressed content of each store since startup")
+	public Map<String, Double> getCompressionRatios() {
+		Map<String, Double> ratios = new TreeMap<>();
+		for (Optional<Compression> compression : compressions.values()) {
+			compression.ifPresent(c -> {
+				long stored = c.storedSize.get();
+				ratios.put(c.name, (stored > 0 ? (double) c.logicalSize.get() / stored : 1.0d));
+			});
+		}
+		return ratios;
+	}
+
+	/*
+	 * Markers are stored alongside the content they describe.  They are listed once, so only the
+	 * markers of encoded content are read, as the content is listed.
+	 */
+	@SuppressWarnings("unchecked")
+	private Stream<ContentMetadata> list(Store<Serializable> store, MethodInvocation invocation) {
+		String prefix = (String) invocation.getArguments()[0];
+		Set<String> encoded = new HashSet<>();
+		try (Stream<ContentMetadata> markers = store.list(EncodingMarker.ENCODINGS + (prefix != null ? prefix : ""))) {
+			markers.forEach(marker -> encoded.add(EncodingMarker.contentId(marker.getContentId().toString())));
+		}
+		return ((Stream<ContentMetadata>) StoreExtensionChain.proceed(invocation))
+				.filter(metadata -> !metadata.getContentId().toString().startsWith(EncodingMarker.ENCODINGS))
+				.map(metadata -> (encoded.contains(metadata.getContentId().toString()) ? decoded(store, metadata) : metadata));
+	}
+
+	// the store's metadata of encoded content has the encoded length, so the decoded length is
+	// taken from the content's marker
+	private ContentMetadata decoded(Store<Serializable> store, ContentMetadata metadata) {
+		if (!metadata.exists()) {
+			return metadata;
+		}
+		EncodingMarker marker = marker(store, metadata.getContentId());
+		if (marker == null) {
+			return metadata;
+		}
+		return new ContentMetadata(metadata.getContentId(), marker.getLength(), metadata.getLastModified(), metadata.getChecksum());
+	}
+
+	// the store's own resource is returned for content stored as it is, so that it can still be
+	// read from an offset or through a file channel
+	private Resource decoded(Store<Serializable> store, Object contentId, Resource resource) {
+		if (resource == null) {
+			return null;
+		}
+		Resource markerResource = store.getResource(EncodingMarker.location(contentId));
+		EncodingMarker marker = read(markerResource, contentId);
+		return (marker != null ? new DecodingResource(resource, codec(marker, contentId), marker, markerResource) : resource);
+	}
+
+	private Object getContent(Store<Serializable> store, MethodInvocation invocation) {
+		Object contentId = BeanUtils.getFieldWithAnnotation(invocation.getArguments()[0], ContentId.class);
+		EncodingMarker marker = (contentId != null ? marker(store, contentId) : null);
+		InputStream content = (InputStream) StoreExtensionChain.proceed(invocation);
+		if (marker == null || content == null) {
+			return content;
+		}
+		return new DecodingInputStream(content, codec(marker, contentId), marker.getEncodedLength());
+	}
+
+	/*
+	 * Encoded content cannot be read from an offset, so the rest of the chain is asked for the
+	 * whole content in place of the range, which is then decoded from the start.  Content stored
+	 * as it is is read from the offset by the store.
+	 */
+	private Object getContentRange(Store<Serializable> store, MethodInvocation invocation) {
+		Object[] args = invocation.getArguments();
+		Object contentId = BeanUtils.getFieldWithAnnotation(args[0], ContentId.class);
+		EncodingMarker marker = (contentId != null ? marker(store, contentId) : null);
+		if (marker == null) {
+			return StoreExtensionChain.proceed(invocation);
+		}
+		long offset = (Long) args[1];
+		long length = (Long) args[2];
+		args[1] = 0L;
+		args[2] = Long.MAX_VALUE;
+		InputStream content = (InputStream) StoreExtensionChain.proceed(invocation);
+		if (content == null) {
+			return null;
+		}
+		try {
+			return BoundedInputStream.range(codec(marker, contentId).decode(content), offset, length);
+		} catch (IOException ioe) {
+			closeQuietly(content);
+			throw new StoreAccessException(String.format("Unexpected error getting content range %d-%d", offset, offset + length - 1), ioe);
+		}
+	}
+
+	/*
+	 * Content keeps its encoding when it is copied or moved, so its marker is copied or moved
+	 * with it.
+	 */
+	private Object transfer(Store<Serializable> store, MethodInvocation invocation) {
+		Object[] args = invocation.getArguments();
+		if (args[1] == null || args[0].equals(args[1])) {
+			return StoreExtensionChain.proceed(invocation);
+		}
+		EncodingMarker marker = marker(store, args[0]);
+		Object result = StoreExtensionChain.proceed(invocation);
+		if (marker != null) {
+			mark(store, args[1], marker);
+			if (moveMethod.equals(invocation.getMethod())) {
+				unmark(store, args[0]);
+			}
+		} else {
+			unmark(store, args[1]);
+		}
+		return result;
+	}
+
+	private EncodingMarker marker(Store<Serializable> store, Object contentId) {
+		return read(store.getResource(EncodingMarker.location(contentId)), contentId);
+	}
+
+	private EncodingMarker read(Resource markerResource, Object contentId) {
+		try {
+			return EncodingMarker.read(markerResource);
+		} catch (IOException ioe) {
+			throw new StoreAccessException(String.format("Unexpected error reading the encoding of content %s", contentId), ioe);
+		}
+	}
+
+	private void mark(Store<Serializable> store, Object contentId, EncodingMarker marker) {
+		Resource resource = store.getResource(EncodingMarker.location(contentId));
+		if (!(resource instanceof WritableResource)) {
+			throw new StoreAccessException(String.format("Unable to record the encoding of content %s", contentId));
+		}
+		try (OutputStream out = ((WritableResource) resource).getOutputStream()) {
+			marker.write(out);
+		} catch (IOException ioe) {
+			throw new StoreAccessException(String.format("Unexpected error recording the encoding of content %s", contentId), ioe);
+		}
+	}
+
+	private void unmark(Store<Serializable> store, Object contentId) {
+		if (contentId == null) {
+			return;
+		}
+		Resource resource = store.getResource(EncodingMarker.location(contentId));
+		if (resource instanceof DeletableResource && resource.exists()) {
+			((DeletableResource) resource).delete();
+		}
+	}
+
+	private ContentCodec codec(EncodingMarker marker, Object contentId) {
+		for (ContentCodec codec : codecs) {
+			if (codec.getEncoding().equalsIgnoreCase(marker.getEncoding())) {
+				return codec;
+			}
+		}
+		throw new StoreAccessException(String.format("No codec for encoding %s of content %s", marker.getEncoding(), contentId));
+	}
+
+	private InputStream compress(Compression compression, Object entity, InputStream content, Map<Object, Counted> counted) {
+		if (content == null || !compression.compresses(BeanUtils.getFieldWithAnnotation(entity, MimeType.class))) {
+			return content;
+		}
+		CountingInputStream logical = new CountingInputStream(content);
+		try {
+			CountingInputStream stored = new CountingInputStream(compression.codec.encode(logical));
+			counted.put(entity, new Counted(logical, stored));
+			return stored;
+		} catch (IOException ioe) {
+			throw new StoreAccessException("Unexpected error compressing content", ioe);
+		}
+	}
+
+	private static void closeQuietly(InputStream in) {
+		try {
+			in.close();
+		} catch (IOException ioe) {
+			// ignore
+		}
+	}
+
+	private Compression compression(Object store, Class<?> storeInterface) {
+		if (store == null || storeInterface == null) {
+			return null;
+		}
+		Optional<Compression> compression = compressions.get(store);
+		if (compression == null) {
+			compression = compressions.computeIfAbsent(store, s -> Optional.ofNullable(createCompression(storeInterface)));
+		}
+		return compression.orElse(null);
+	}
+
+	private Compression createCompression(Class<?> storeInterface) {
+		String prefix = PROPERTY_PREFIX + "stores." + storeInterface.getSimpleName() + ".";
+		CompressContent annotation = AnnotationUtils.findAnnotation(storeInterface, CompressContent.class);
+		if (!property(prefix + "enabled", Boolean.class, annotation != null)) {
+			return null;
+		}
+
+		List<String> mimeTypes = this.mimeTypes;
+		if (annotation != null && annotation.mimeTypes().length > 0) {
+			mimeTypes = Arrays.asList(annotation.mimeTypes());
+		}
+		String[] configured = property(prefix + "mime-types", String[].class, null);
+		if (configured != null) {
+			mimeTypes = Arrays.asList(configured);
+		}
+
+		String encoding = property(prefix + "encoding", String.class, (annotation != null && !annotation.encoding().isEmpty() ? annotation.encoding() : this.encoding));
+		ContentCodec codec = null;
+		for (ContentCodec candidate : codecs) {
+			if (candidate.getEncoding().equalsIgnoreCase(encoding)) {
+				codec = candidate;
+			}
+		}
+		Assert.state(codec != null, String.format("No codec for encoding %s of %s", encoding, storeInterface.getName()));
+
+		List<org.springframework.util.MimeType> parsed = new ArrayList<>();
+		for (String mimeType : mimeTypes) {
+			parsed.add(MimeTypeUtils.parseMimeType(mimeType.trim()));
+		}
+		return new Compression(storeInterface.getName(), parsed, codec);
+	}
+
+	private <T> T property(String key, Class<T> type, T defaultValue) {
+		T value = (env != null ? env.getProperty(key, type) : null);
+		return (value != null ? value : defaultValue);
+	}
+
+	private static class Counted {
+
+		private final CountingInputStream logical;
+		private final CountingInputStream stored;
+
+		Counted(CountingInputStream logical, CountingInputStream stored) {
+			this.logical = logical;
+			this.stored = stored;
+		}
+	}
+
+	private static class Compression {
+
+		private final String name;
+		private final List<org.springframework.util.MimeType> mimeTypes;
+		private final ContentCodec codec;
+		private final AtomicLong logicalSize = new AtomicLong();
+		private final AtomicLong storedSize = new AtomicLong();
+
+		Compression(String name, List<org.springframework.util.MimeType> mimeTypes, ContentCodec codec) {
+			this.name = name;
+			this.mimeTypes = mimeTypes;
+			this.codec = codec;
+		}
+
+		boolean compresses(Object mimeType) {
+			if (mimeType == null) {
+				return false;
+			}
+			try {
+				org.springframework.util.MimeType type = MimeTypeUtils.parseMimeType(mimeType.toString());
+				for (org.springframework.util.MimeType compressed : mimeTypes) {
+					if (compressed.includes(type)) {
+						return true;
+					}
+				}
+			} catch (InvalidMimeTypeException imte) {
+				// content of an unknown type is stored as it is
+			}
+			return false;
+		}
+	}
+}
@@ -22,6 +22,7 @@ import org.springframework.util.ClassUtils;
 
 import internal.org.springframework.content.commons.renditions.RenditionServiceImpl;
 import internal.org.springframework.content.commons.repository.AnnotatedStoreEventInvoker;
+import internal.org.springframework.content.commons.repository.StoreEventListenerRegistry;
 import internal.org.springframework.content.commons.storeservice.ContentStoreServiceImpl;
 import internal.org.springframework.content.commons.utils.StoreUtils;
 
@@ -76,6 +77,9 @@ public abstract class AbstractStoreBeanDefinitionRegistrar implements ImportBean
 		BeanDefinition annotatedStoreEventHandlerDef = createBeanDefinition(AnnotatedStoreEventInvoker.class);
 		registry.registerBeanDefinition("annotatedStoreEventHandler", annotatedStoreEventHandlerDef);
 
+		BeanDefinition storeEventListenerRegistryDef = createBeanDefinition(StoreEventListenerRegistry.class);
+		registry.registerBeanDefinition("storeEventListenerRegistry", storeEventListenerRegistryDef);
+
 		BeanDefinition renditionServiceBeanDef = createBeanDefinition(RenditionServiceImpl.class);
 		registry.registerBeanDefinition("renditionService", renditionServiceBeanDef);
 
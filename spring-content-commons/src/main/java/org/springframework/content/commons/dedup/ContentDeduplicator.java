@@ -0,0 +1,458 @@
+package org.springframework.content.commons.dedup;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.StoreAccessException;
+import org.springframework.content.commons.repository.StoreExtension;
+import org.springframework.content.commons.repository.StoreInvoker;
+import org.springframework.content.commons.utils.BeanUtils;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.core.env.Environment;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+import internal.org.springframework.content.commons.dedup.JournaledDedupIndex;
+import internal.org.springframework.content.commons.dedup.NotIdCondition;
+import internal.org.springframework.content.commons.repository.factory.StoreExtensionChain;
+
+/**
+ * Stores each distinct content of a store once.
+ * <p>
+ * Declaring a bean of this type deduplicates the content set through every store interface
+ * annotated with {@link DeduplicateContent}, or enabled with the
+ * {@literal spring.content.dedup.stores.<StoreInterfaceSimpleName>.enabled} property.  Content
+ * is hashed with SHA-256 as it is set; content already stored is not stored again, instead the
+ * entity's content id is set to that of the stored content and a reference to it is counted.
+ * Unsetting content only deletes it from the store once its last reference is released.  The
+ * store implementation is unchanged, so this works with any store.
+ * <p>
+ * Content references are counted in a {@link DedupIndex}.  By default each store's index is
+ * journaled to a file in the {@literal spring.content.dedup.directory}, which must be set unless
+ * {@literal spring.content.dedup.in-memory} is {@literal true}.  An index held only in memory
+ * forgets which content is shared when the application stops, after which unsetting shared
+ * content would delete it for every entity.  Logical and stored sizes, and their ratio, are
+ * exposed for each store as managed attributes.
+ * <p>
+ * Entities whose content id is also their id cannot be pointed at shared content and are stored
+ * as usual.
+ */
+@ManagedResource(description = "Content deduplication")
+public class ContentDeduplicator implements StoreExtension, EnvironmentAware, InitializingBean, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(ContentDeduplicator.class);
+
+	static final String PROPERTY_PREFIX = "spring.content.dedup.";
+
+	private static final Method setContentMethod = ReflectionUtils.findMethod(ContentStore.class, "setContent", Object.class, InputStream.class);
+	private static final Method unsetContentMethod = ReflectionUtils.findMethod(ContentStore.class, "unsetContent", Object.class);
+	private static final Method setContentsMethod = ReflectionUtils.findMethod(ContentStore.class, "setContents", Map.class);
+	private static final Method unsetContentsMethod = ReflectionUtils.findMethod(ContentStore.class, "unsetContents", Collection.class);
+
+	private File directory;
+	private boolean inMemory;
+	private Function<Class<?>, DedupIndex> indexFactory;
+	private Environment env;
+
+	private final ConversionService conversion = new DefaultConversionService();
+	private final ConcurrentMap<Object, Optional<StoreIndex>> indexes = new ConcurrentHashMap<>();
+
+	/**
+	 * Sets the directory each store's index is journaled in.
+	 *
+	 * @param directory the directory
+	 */
+	public void setDirectory(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Sets whether each store's index may be held only in memory when no directory is set.  After
+	 * a restart, unsetting content that was shared would then delete it for every entity.
+	 *
+	 * @param inMemory whether an index held only in memory is allowed
+	 */
+	public void setInMemory(boolean inMemory) {
+		this.inMemory = inMemory;
+	}
+
+	/**
+	 * Sets the factory of the index of each store, given the store interface, in place of the
+	 * default journaled index.
+	 *
+	 * @param indexFactory the index factory
+	 */
+	public void setIndexFactory(Function<Class<?>, DedupIndex> indexFactory) {
+		Assert.notNull(indexFactory, "indexFactory must not be null");
+		this.indexFactory = indexFactory;
+	}
+
+	@Override
+	public void setEnvironment(Environment env) {
+		this.env = env;
+		String directory = env.getProperty(PROPERTY_PREFIX + "directory");
+		if (directory != null) {
+			setDirectory(new File(directory));
+		}
+		inMemory = env.getProperty(PROPERTY_PREFIX + "in-memory", Boolean.class, inMemory);
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (indexFactory == null) {
+			assertIndexKept();
+		}
+	}
+
+	@Override
+	public Set<Method> getMethods() {
+		Set<Method> methods = new HashSet<>();
+		methods.add(setContentMethod);
+		methods.add(unsetContentMethod);
+		methods.add(setContentsMethod);
+		methods.add(unsetContentsMethod);
+		return methods;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Object invoke(MethodInvocation invocation, StoreInvoker invoker) {
+		Object[] args = invocation.getArguments();
+		StoreIndex index = index(invocation.getThis(), invoker.getStoreInterface());
+		if (index == null || args.length == 0 || args[0] == null) {
+			return StoreExtensionChain.proceed(invocation);
+		}
+
+		ContentStore<Object, Serializable> store = (ContentStore<Object, Serializable>) invocation.getThis();
+		Method method = invocation.getMethod();
+		if (setContentMethod.equals(method)) {
+			set(store, index.index, Collections.singletonMap(args[0], (InputStream) args[1]), false);
+		} else if (setContentsMethod.equals(method)) {
+			set(store, index.index, (Map<Object, InputStream>) args[0], true);
+		} else if (unsetContentMethod.equals(method)) {
+			unset(store, index.index, Collections.singletonList(args[0]), false);
+		} else {
+			unset(store, index.index, (Collection<Object>) args[0], true);
+		}
+		return null;
+	}
+
+	@ManagedAttribute(description = "Bytes of content referenced by each store, counting shared content once per reference")
+	public Map<String, Long> getLogicalSizes() {
+		Map<String, Long> sizes = new TreeMap<>();
+		for (Optional<StoreIndex> index : indexes.values()) {
+			index.ifPresent(i -> sizes.put(i.name, i.index.getLogicalSize()));
+		}
+		return sizes;
+	}
+
+	@ManagedAttribute(description = "Bytes of content stored by each store")
+	public Map<String, Long> getStoredSizes() {
+		Map<String, Long> sizes = new TreeMap<>();
+		for (Optional<StoreIndex> index : indexes.values()) {
+			index.ifPresent(i -> sizes.put(i.name, i.index.getStoredSize()));
+		}
+		return sizes;
+	}
+
+	@ManagedAttribute(description = "Ratio of logical to stored content of each store")
+	public Map<String, Double> getDedupRatios() {
+		Map<String, Double> ratios = new TreeMap<>();
+		for (Optional<StoreIndex> index : indexes.values()) {
+			index.ifPresent(i -> {
+				long stored = i.index.getStoredSize();
+				ratios.put(i.name, (stored > 0 ? (double) i.index.getLogicalSize() / stored : 1.0d));
+			});
+		}
+		return ratios;
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		for (Optional<StoreIndex> index : indexes.values()) {
+			if (index.isPresent() && index.get().index instanceof Closeable) {
+				((Closeable) index.get().index).close();
+			}
+		}
+	}
+
+	/*
+	 * Content already stored is shared rather than written; the rest, including distinct content
+	 * repeated within the same call, is written once, in one call to the store.
+	 */
+	private void set(ContentStore<Object, Serializable> store, DedupIndex index, Map<Object, InputStream> contents, boolean bulk) {
+		Map<Object, InputStream> writes = new LinkedHashMap<>();
+		Map<Object, Spill> written = new LinkedHashMap<>();
+		Map<String, Object> writers = new HashMap<>();
+		Map<Object, Spill> sharers = new LinkedHashMap<>();
+		List<Spill> spills = new ArrayList<>();
+		List<InputStream> opened = new ArrayList<>();
+		try {
+			for (Map.Entry<Object, InputStream> content : contents.entrySet()) {
+				Object entity = content.getKey();
+				if (entity == null || content.getValue() == null || !isDeduplicable(entity)) {
+					writes.put(entity, content.getValue());
+					continue;
+				}
+
+				Spill spill = spill(content.getValue());
+				spills.add(spill);
+				String contentId = contentId(entity);
+
+				String shared = index.retain(spill.digest);
+				if (shared != null) {
+					if (shared.equals(contentId)) {
+						// the same content again
+						index.release(shared);
+					} else {
+						release(store, index, entity, contentId);
+						BeanUtils.setFieldWithAnnotation(entity, ContentId.class, conversion.convert(shared, BeanUtils.getFieldWithAnnotationType(entity, ContentId.class)));
+					}
+					BeanUtils.setFieldWithAnnotation(entity, ContentLength.class, spill.length);
+					continue;
+				}
+
+				if (writers.containsKey(spill.digest)) {
+					release(store, index, entity, contentId);
+					sharers.put(entity, spill);
+					continue;
+				}
+
+				if (contentId != null && index.release(contentId) > 0) {
+					// still shared, so it must not be overwritten
+					BeanUtils.setFieldWithAnnotation(entity, ContentId.class, null);
+				}
+				InputStream in = spill.open();
+				opened.add(in);
+				writers.put(spill.digest, entity);
+				written.put(entity, spill);
+				writes.put(entity, in);
+			}
+
+			if (!bulk && writes.size() == 1) {
+				Map.Entry<Object, InputStream> write = writes.entrySet().iterator().next();
+				store.setContent(write.getKey(), write.getValue());
+			} else if (!writes.isEmpty()) {
+				store.setContents(writes);
+			}
+
+			for (Map.Entry<Object, Spill> write : written.entrySet()) {
+				String contentId = contentId(write.getKey());
+				if (contentId != null) {
+					index.add(write.getValue().digest, contentId, write.getValue().length);
+				}
+			}
+			for (Map.Entry<Object, Spill> sharer : sharers.entrySet()) {
+				Object entity = sharer.getKey();
+				String shared = index.retain(sharer.getValue().digest);
+				if (shared == null) {
+					// the content was unset concurrently, so store it after all
+					try (InputStream in = sharer.getValue().open()) {
+						store.setContent(entity, in);
+					}
+					index.add(sharer.getValue().digest, contentId(entity), sharer.getValue().length);
+					continue;
+				}
+				BeanUtils.setFieldWithAnnotation(entity, ContentId.class, conversion.convert(shared, BeanUtils.getFieldWithAnnotationType(entity, ContentId.class)));
+				BeanUtils.setFieldWithAnnotation(entity, ContentLength.class, sharer.getValue().length);
+			}
+		} catch (IOException ioe) {
+			throw new StoreAccessException("Unexpected error deduplicating content", ioe);
+		} finally {
+			for (InputStream in : opened) {
+				IOUtils.closeQuietly(in);
+			}
+			for (Spill spill : spills) {
+				spill.delete();
+			}
+		}
+	}
+
+	private void unset(ContentStore<Object, Serializable> store, DedupIndex index, Collection<Object> entities, boolean bulk) {
+		List<Object> deletes = new ArrayList<>();
+		for (Object entity : entities) {
+			String contentId = (entity != null ? contentId(entity) : null);
+			if (contentId != null && index.release(contentId) > 0) {
+				reset(entity);
+			} else {
+				deletes.add(entity);
+			}
+		}
+		if (!bulk) {
+			for (Object entity : deletes) {
+				store.unsetContent(entity);
+			}
+		} else if (!deletes.isEmpty()) {
+			store.unsetContents(deletes);
+		}
+	}
+
+	/*
+	 * Releases an entity's reference to its current content, deleting the content from the store
+	 * when it was the last.
+	 */
+	private void release(ContentStore<Object, Serializable> store, DedupIndex index, Object entity, String contentId) {
+		if (contentId == null) {
+			return;
+		}
+		if (index.release(contentId) > 0) {
+			reset(entity);
+		} else {
+			store.unsetContent(entity);
+		}
+	}
+
+	private void reset(Object entity) {
+		BeanUtils.setFieldWithAnnotationConditionally(entity, ContentId.class, null, NotIdCondition.INSTANCE);
+		BeanUtils.setFieldWithAnnotation(entity, ContentLength.class, 0L);
+	}
+
+	private boolean isDeduplicable(Object entity) {
+		Field field = BeanUtils.findFieldWithAnnotation(entity, ContentId.class);
+		return field != null && NotIdCondition.INSTANCE.matches(field);
+	}
+
+	private String contentId(Object entity) {
+		Object contentId = BeanUtils.getFieldWithAnnotation(entity, ContentId.class);
+		return (contentId != null ? contentId.toString() : null);
+	}
+
+	private Spill spill(InputStream content) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException nsae) {
+			throw new IllegalStateException(nsae);
+		}
+
+		Path file = Files.createTempFile("content-dedup", null);
+		long length = 0L;
+		try (OutputStream out = Files.newOutputStream(file)) {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = content.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+				out.write(buffer, 0, read);
+				length += read;
+			}
+		} catch (IOException ioe) {
+			Files.deleteIfExists(file);
+			throw ioe;
+		}
+		return new Spill(file, String.format("%064x", new BigInteger(1, digest.digest())), length);
+	}
+
+	private StoreIndex index(Object store, Class<?> storeInterface) {
+		if (store == null || storeInterface == null) {
+			return null;
+		}
+		Optional<StoreIndex> index = indexes.get(store);
+		if (index == null) {
+			index = indexes.computeIfAbsent(store, s -> Optional.ofNullable(enabled(storeInterface) ? createIndex(storeInterface) : null)
+					.map(i -> new StoreIndex(storeInterface.getName(), i)));
+		}
+		return index.orElse(null);
+	}
+
+	private boolean enabled(Class<?> storeInterface) {
+		boolean annotated = AnnotationUtils.findAnnotation(storeInterface, DeduplicateContent.class) != null;
+		String property = PROPERTY_PREFIX + "stores." + storeInterface.getSimpleName() + ".enabled";
+		return (env != null ? env.getProperty(property, Boolean.class, annotated) : annotated);
+	}
+
+	private DedupIndex createIndex(Class<?> storeInterface) {
+		if (indexFactory != null) {
+			return indexFactory.apply(storeInterface);
+		}
+		assertIndexKept();
+		if (directory == null) {
+			return new JournaledDedupIndex();
+		}
+		try {
+			Files.createDirectories(directory.toPath());
+			return new JournaledDedupIndex(directory.toPath().resolve(storeInterface.getName() + ".journal"));
+		} catch (IOException ioe) {
+			throw new StoreAccessException(String.format("Unable to open the deduplication index of %s", storeInterface.getName()), ioe);
+		}
+	}
+
+	// shared content is deleted once its references are lost, so they are only held in memory on request
+	private void assertIndexKept() {
+		Assert.state(directory != null || inMemory, String.format("Set %sdirectory to keep the content references of deduplicated stores, or %sin-memory to only hold them in memory", PROPERTY_PREFIX, PROPERTY_PREFIX));
+	}
+
+	private static class StoreIndex {
+
+		private final String name;
+		private final DedupIndex index;
+
+		StoreIndex(String name, DedupIndex index) {
+			this.name = name;
+			this.index = index;
+		}
+	}
+
+	private static class Spill {
+
+		private final Path file;
+		private final String digest;
+		private final long length;
+
+		Spill(Path file, String digest, long length) {
+			this.file = file;
+			this.digest = digest;
+			this.length = length;
+		}
+
+		InputStream open() throws IOException {
+			return Files.newInputStream(file);
+		}
+
+		void delete() {
+			try {
+				Files.deleteIfExists(file);
+			} catch (IOException ioe) {
+				logger.warn(String.format("Unable to delete %s", file), ioe);
+			}
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package org.springframework.content.commons.dedup;
+
+/**
+ * The index of a deduplicating store: the content stored for each digest and the number of
+ * references to each stored content.
+ * <p>
+ * Implementations must make each operation atomic.  Once the references to a content are
+ * released it must no longer be returned for its digest.
+ */
+public interface DedupIndex {
+
+	/**
+	 * Adds a reference to the content stored for the given digest.
+	 *
+	 * @param digest the content digest
+	 * @return the id of the stored content, or null if no content is stored for the digest
+	 */
+	String retain(String digest);
+
+	/**
+	 * Indexes newly stored content with a single reference.
+	 *
+	 * @param digest the content digest
+	 * @param contentId the id of the stored content
+	 * @param length the content length
+	 */
+	void add(String digest, String contentId, long length);
+
+	/**
+	 * Removes a reference to the stored content with the given id.
+	 *
+	 * @param contentId the id of the stored content
+	 * @return the remaining references, or -1 if the content is not indexed
+	 */
+	long release(String contentId);
+
+	/**
+	 * Returns the bytes of content referenced, counting shared content once per reference.
+	 *
+	 * @return the logical size
+	 */
+	long getLogicalSize();
+
+	/**
+	 * Returns the bytes of content stored.
+	 *
+	 * @return the stored size
+	 */
+	long getStoredSize();
+}
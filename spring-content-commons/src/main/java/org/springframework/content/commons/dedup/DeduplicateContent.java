@@ -0,0 +1,20 @@
+package org.springframework.content.commons.dedup;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Deduplicates the content set through a store interface with the application's
+ * {@link ContentDeduplicator}.
+ * <p>
+ * Deduplication should be enabled before a store's first content is set; content set before it
+ * is not shared.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DeduplicateContent {
+}
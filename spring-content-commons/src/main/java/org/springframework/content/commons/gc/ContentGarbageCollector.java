@@ -0,0 +1,589 @@
+package org.springframework.content.commons.gc;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.io.DeletableResource;
+import org.springframework.content.commons.repository.ContentMetadata;
+import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.Store;
+import org.springframework.content.commons.storeservice.ContentStoreInfo;
+import org.springframework.content.commons.storeservice.ContentStoreService;
+import org.springframework.content.commons.utils.BeanUtils;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * Reclaims content that no entity references.
+ * <p>
+ * Content is left behind when an entity is deleted without its content being unset, or when
+ * setting content fails once the content is stored.  Declaring a bean of this type collects the
+ * content of every content store whose domain class a {@link ContentReferences} bean finds the
+ * references of.  The stores are listed with
+ * {@link org.springframework.content.commons.repository.Store#list(String)}, several at a time,
+ * and the content ids listed are checked in batches against the entities of every such domain
+ * class, so content shared by stores of the same location is kept while any of them references
+ * it.  Unreferenced content last modified longer than the grace period ago is deleted through the
+ * store's resources, a batch at a time, so no entity is made up for it and no content event is
+ * published.  Content whose store does not record when it was last modified is deleted when it is
+ * still unreferenced by a collection at least the grace period after the collection that first
+ * found it so.
+ * <p>
+ * Stores list content by location, which is taken to be its content id.  Before content is
+ * deleted the store is asked for it by that id, and a store that does not find the content it
+ * listed, for example because it converts content ids to locations with a converter of its own,
+ * or whose resources cannot be deleted, is not collected any further.
+ * <p>
+ * A dry run reports the content it would reclaim without deleting it.  The rate content is
+ * reclaimed at across all the stores can be limited.  The report of the last collection of each
+ * store is exposed as managed attributes.
+ * <p>
+ * Defaults are taken from the {@literal spring.content.gc.interval} and
+ * {@literal spring.content.gc.grace-period} properties, in seconds, and the
+ * {@literal spring.content.gc.dry-run}, {@literal spring.content.gc.batch-size},
+ * {@literal spring.content.gc.max-rate}, in contents a second, and
+ * {@literal spring.content.gc.parallelism} properties, when set.  A store is not collected
+ * when the {@literal spring.content.gc.stores.<StoreInterfaceSimpleName>.enabled} property is
+ * {@code false}.
+ */
+@ManagedResource(description = "Content garbage collection")
+public class ContentGarbageCollector implements EnvironmentAware, ApplicationContextAware, SmartInitializingSingleton, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(ContentGarbageCollector.class);
+
+	public static final long DEFAULT_INTERVAL = 24L * 60L * 60L;
+	public static final long DEFAULT_GRACE_PERIOD = 24L * 60L * 60L;
+	public static final int DEFAULT_BATCH_SIZE = 500;
+
+	static final String PROPERTY_PREFIX = "spring.content.gc.";
+
+	private long interval = DEFAULT_INTERVAL;
+	private long gracePeriod = DEFAULT_GRACE_PERIOD;
+	private boolean dryRun = false;
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private double maxRate = -1.0d;
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+	private Environment env;
+	private ApplicationContext context;
+	private ContentStoreService storeService;
+	private List<ContentReferences> references;
+	private ScheduledExecutorService executor;
+
+	private final ConversionService conversion = new DefaultConversionService();
+	private final ConcurrentMap<String, GarbageCollectionReport> reports = new ConcurrentHashMap<>();
+	// the unreferenced content of each store without a last modified time, and when it was
+	// first found unreferenced
+	private final ConcurrentMap<String, Map<String, Long>> suspects = new ConcurrentHashMap<>();
+
+	/**
+	 * Sets the seconds between collections.  Content is only collected on demand when it is not
+	 * positive.
+	 *
+	 * @param interval the interval
+	 */
+	public void setInterval(long interval) {
+		this.interval = interval;
+	}
+
+	/**
+	 * Sets the seconds unreferenced content is kept for, so that content whose entity is being
+	 * saved is not reclaimed.
+	 *
+	 * @param gracePeriod the grace period
+	 */
+	public void setGracePeriod(long gracePeriod) {
+		this.gracePeriod = gracePeriod;
+	}
+
+	public void setDryRun(boolean dryRun) {
+		this.dryRun = dryRun;
+	}
+
+	/**
+	 * Sets the number of content ids checked against the entities, and deleted, at a time.
+	 *
+	 * @param batchSize the batch size
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Sets the maximum number of contents reclaimed a second across all the stores.  The rate is
+	 * not limited when it is not positive.
+	 *
+	 * @param maxRate the maximum rate
+	 */
+	public void setMaxRate(double maxRate) {
+		this.maxRate = maxRate;
+	}
+
+	/**
+	 * Sets the maximum number of stores collected at a time.
+	 *
+	 * @param parallelism the parallelism
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Sets the stores to collect.  By default those of the application context's store service.
+	 *
+	 * @param storeService the store service
+	 */
+	public void setStoreService(ContentStoreService storeService) {
+		this.storeService = storeService;
+	}
+
+	/**
+	 * Sets the references of the stores' entities.  By default the application context's beans.
+	 *
+	 * @param references the references
+	 */
+	public void setReferences(List<ContentReferences> references) {
+		this.references = references;
+	}
+
+	/**
+	 * Sets the executor collections are scheduled on.  By default a single daemon thread is used.
+	 *
+	 * @param executor the executor
+	 */
+	public void setExecutor(ScheduledExecutorService executor) {
+		this.executor = executor;
+	}
+
+	@Override
+	public void setEnvironment(Environment env) {
+		this.env = env;
+		interval = env.getProperty(PROPERTY_PREFIX + "interval", Long.class, interval);
+		gracePeriod = env.getProperty(PROPERTY_PREFIX + "grace-period", Long.class, gracePeriod);
+		dryRun = env.getProperty(PROPERTY_PREFIX + "dry-run", Boolean.class, dryRun);
+		batchSize = env.getProperty(PROPERTY_PREFIX + "batch-size", Integer.class, batchSize);
+		maxRate = env.getProperty(PROPERTY_PREFIX + "max-rate", Double.class, maxRate);
+		parallelism = env.getProperty(PROPERTY_PREFIX + "parallelism", Integer.class, parallelism);
+	}
+
+	@Override
+	public void setApplicationContext(ApplicationContext context) {
+		this.context = context;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		if (interval > 0) {
+			executor().scheduleWithFixedDelay(() -> {
+				try {
+					collect();
+				} catch (RuntimeException e) {
+					logger.error("Unexpected error collecting content", e);
+				}
+			}, interval, interval, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Collects the content of every store now.
+	 *
+	 * @return the report of each store collected
+	 */
+	@ManagedOperation(description = "Collects the content of every store now")
+	public synchronized List<GarbageCollectionReport> collect() {
+		ContentStoreService stores = storeService();
+		if (stores == null) {
+			return Collections.emptyList();
+		}
+
+		// the domain classes whose entities may reference the content of any store
+		Map<Class<?>, ContentReferences> domainClasses = new LinkedHashMap<>();
+		List<ContentStoreInfo> collectable = new ArrayList<>();
+		for (ContentStoreInfo info : stores.getStores(ContentStore.class)) {
+			Class<?> domainClass = info.getDomainObjectClass();
+			if (domainClass == null) {
+				continue;
+			}
+			if (!domainClasses.containsKey(domainClass)) {
+				ContentReferences found = references(domainClass);
+				if (found == null) {
+					logger.warn(String.format("No content references of %s; the content of %s is not collected", domainClass.getName(), info.getInterface().getName()));
+					continue;
+				}
+				domainClasses.put(domainClass, found);
+			}
+			if (property(PROPERTY_PREFIX + "stores." + info.getInterface().getSimpleName() + ".enabled", Boolean.class, true)) {
+				collectable.add(info);
+			}
+		}
+		if (collectable.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		Throttle throttle = new Throttle(maxRate);
+		AtomicInteger threads = new AtomicInteger();
+		ExecutorService collectors = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, collectable.size())), r -> {
+			Thread thread = new Thread(r, "content-gc-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		List<GarbageCollectionReport> collected = new ArrayList<>();
+		try {
+			List<Future<GarbageCollectionReport>> futures = new ArrayList<>();
+			for (ContentStoreInfo info : collectable) {
+				futures.add(collectors.submit(() -> new Sweep(info, domainClasses, throttle).run()));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					collected.add(futures.get(i).get());
+				} catch (ExecutionException e) {
+					logger.error(String.format("Unexpected error collecting content of %s", collectable.get(i).getInterface().getName()), e.getCause());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			collectors.shutdownNow();
+		}
+		return collected;
+	}
+
+	@ManagedAttribute(description = "Contents listed by the last collection of each store")
+	public Map<String, Long> getListed() {
+		return collect(GarbageCollectionReport::getListed);
+	}
+
+	@ManagedAttribute(description = "Contents no entity referenced in the last collection of each store")
+	public Map<String, Long> getUnreferenced() {
+		return collect(GarbageCollectionReport::getUnreferenced);
+	}
+
+	@ManagedAttribute(description = "Contents reclaimed by the last collection of each store")
+	public Map<String, Long> getReclaimed() {
+		return collect(GarbageCollectionReport::getReclaimed);
+	}
+
+	@ManagedAttribute(description = "Bytes of content reclaimed by the last collection of each store")
+	public Map<String, Long> getReclaimedBytes() {
+		return collect(GarbageCollectionReport::getReclaimedBytes);
+	}
+
+	@ManagedAttribute(description = "Milliseconds spent by the last collection of each store")
+	public Map<String, Long> getCollectionMillis() {
+		return collect(r -> r.getFinished() - r.getStarted());
+	}
+
+	@ManagedAttribute(description = "Whether content is only reported, and not reclaimed")
+	public boolean isDryRun() {
+		return dryRun;
+	}
+
+	@Override
+	public synchronized void destroy() throws Exception {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	private synchronized ScheduledExecutorService executor() {
+		if (executor == null) {
+			executor = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "content-gc");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return executor;
+	}
+
+	private ContentStoreService storeService() {
+		if (storeService == null && context != null) {
+			try {
+				storeService = context.getBean(ContentStoreService.class);
+			} catch (NoSuchBeanDefinitionException e) {
+				return null;
+			}
+		}
+		return storeService;
+	}
+
+	private ContentReferences references(Class<?> domainClass) {
+		if (references == null) {
+			references = (context != null ? new ArrayList<>(context.getBeansOfType(ContentReferences.class).values()) : Collections.emptyList());
+		}
+		for (ContentReferences found : references) {
+			if (found.supports(domainClass)) {
+				return found;
+			}
+		}
+		return null;
+	}
+
+	private <T> Map<String, T> collect(Function<GarbageCollectionReport, T> value) {
+		Map<String, T> values = new TreeMap<>();
+		for (GarbageCollectionReport report : reports.values()) {
+			values.put(report.getStore(), value.apply(report));
+		}
+		return values;
+	}
+
+	private <T> T property(String key, Class<T> type, T defaultValue) {
+		T value = (env != null ? env.getProperty(key, type) : null);
+		return (value != null ? value : defaultValue);
+	}
+
+	/*
+	 * Converts a location to a content id of the type, or returns null when it is not one.
+	 */
+	private Object contentId(String location, Class<?> type) {
+		if (!conversion.canConvert(String.class, type)) {
+			return null;
+		}
+		try {
+			return conversion.convert(location, type);
+		} catch (ConversionException e) {
+			return null;
+		}
+	}
+
+	/*
+	 * Collects the content of one store.
+	 */
+	private class Sweep {
+
+		private final String name;
+		private final ContentStore<Object, Serializable> store;
+		private final Class<?> domainClass;
+		private final Map<Class<?>, ContentReferences> domainClasses;
+		private final Throttle throttle;
+		private final GarbageCollectionReport report;
+
+		private final long now = System.currentTimeMillis();
+		private final long cutoff = now - TimeUnit.SECONDS.toMillis(gracePeriod);
+		private final Map<String, Long> previous;
+		private final Map<String, Long> current = new HashMap<>();
+		private final List<ContentMetadata> batch = new ArrayList<>();
+		private boolean skipped = false;
+
+		@SuppressWarnings("unchecked")
+		Sweep(ContentStoreInfo info, Map<Class<?>, ContentReferences> domainClasses, Throttle throttle) {
+			this.name = info.getInterface().getName();
+			this.store = (ContentStore<Object, Serializable>) info.getImplementation(ContentStore.class);
+			this.domainClass = info.getDomainObjectClass();
+			this.domainClasses = domainClasses;
+			this.throttle = throttle;
+			this.report = new GarbageCollectionReport(name, dryRun);
+			this.previous = suspects.getOrDefault(name, Collections.emptyMap());
+		}
+
+		@SuppressWarnings("unchecked")
+		GarbageCollectionReport run() throws InterruptedException {
+			Stream<ContentMetadata> listed = null;
+			try {
+				listed = (store instanceof Store ? ((Store<Serializable>) store).list(null) : null);
+			} catch (UnsupportedOperationException e) {
+				// listed below
+			}
+			if (listed == null) {
+				logger.warn(String.format("%s cannot list its content; its content is not collected", name));
+				report.finished();
+				return report;
+			}
+			try {
+				Iterator<ContentMetadata> content = listed.iterator();
+				while (content.hasNext() && !skipped) {
+					ContentMetadata metadata = content.next();
+					report.listed(metadata.getLength());
+					batch.add(metadata);
+					if (batch.size() >= batchSize) {
+						sweep();
+					}
+				}
+				if (!skipped) {
+					sweep();
+				}
+			} finally {
+				listed.close();
+				suspects.put(name, current);
+				report.finished();
+				reports.put(name, report);
+			}
+			logger.info(report);
+			return report;
+		}
+
+		@SuppressWarnings("unchecked")
+		private void sweep() throws InterruptedException {
+			if (batch.isEmpty()) {
+				return;
+			}
+			Set<String> referenced = referenced();
+			Map<Serializable, ContentMetadata> unreferenced = new LinkedHashMap<>();
+			for (ContentMetadata metadata : batch) {
+				String location = metadata.getContentId().toString();
+				if (referenced.contains(location)) {
+					continue;
+				}
+				report.unreferenced();
+				if (!expired(metadata, location)) {
+					continue;
+				}
+				Object contentId = contentId(location, BeanUtils.findFieldWithAnnotation(domainClass, ContentId.class).getType());
+				if (contentId == null) {
+					continue;
+				}
+				unreferenced.put((Serializable) contentId, metadata);
+			}
+			batch.clear();
+
+			if (unreferenced.isEmpty()) {
+				return;
+			}
+			if (!roundTrips(unreferenced)) {
+				logger.warn(String.format("%s does not find the content it lists by the content ids of its locations; its content is not collected", name));
+				skipped = true;
+				return;
+			}
+			long bytes = 0L;
+			for (ContentMetadata content : unreferenced.values()) {
+				bytes += content.getLength();
+			}
+			if (!dryRun) {
+				Map<Serializable, Resource> resources = ((Store<Serializable>) store).getResources(unreferenced.keySet());
+				for (Resource resource : resources.values()) {
+					if (resource != null && !(resource instanceof DeletableResource)) {
+						logger.warn(String.format("%s cannot delete %s; its content is not collected", name, resource.getDescription()));
+						skipped = true;
+						return;
+					}
+				}
+				throttle.acquire(unreferenced.size());
+				for (Resource resource : resources.values()) {
+					if (resource != null) {
+						((DeletableResource) resource).delete();
+					}
+				}
+			}
+			report.reclaimed(unreferenced.size(), bytes);
+		}
+
+		/*
+		 * Returns the locations of the batch an entity of any of the domain classes references.
+		 */
+		private Set<String> referenced() {
+			Set<String> referenced = new HashSet<>();
+			for (Map.Entry<Class<?>, ContentReferences> references : domainClasses.entrySet()) {
+				Class<?> type = BeanUtils.findFieldWithAnnotation(references.getKey(), ContentId.class).getType();
+				List<Object> contentIds = new ArrayList<>();
+				for (ContentMetadata metadata : batch) {
+					Object contentId = contentId(metadata.getContentId().toString(), type);
+					if (contentId != null) {
+						contentIds.add(contentId);
+					}
+				}
+				if (contentIds.isEmpty()) {
+					continue;
+				}
+				String property = BeanUtils.findFieldWithAnnotation(references.getKey(), ContentId.class).getName();
+				for (Object contentId : references.getValue().findReferenced(references.getKey(), property, contentIds)) {
+					referenced.add(conversion.convert(contentId, String.class));
+				}
+			}
+			return referenced;
+		}
+
+		/*
+		 * Returns whether the store finds the content it listed by the content ids its locations
+		 * were converted to, so that deleting them deletes that content and nothing else.
+		 */
+		@SuppressWarnings("unchecked")
+		private boolean roundTrips(Map<Serializable, ContentMetadata> listed) {
+			Map<Serializable, ContentMetadata> found = ((Store<Serializable>) store).getMetadata(listed.keySet());
+			for (Map.Entry<Serializable, ContentMetadata> content : listed.entrySet()) {
+				ContentMetadata expected = content.getValue();
+				ContentMetadata actual = found.get(content.getKey());
+				if (actual == null || !actual.exists() ||
+					actual.getLength() != expected.getLength() || actual.getLastModified() != expected.getLastModified() ||
+					(actual.getChecksum() != null && expected.getChecksum() != null && !actual.getChecksum().equals(expected.getChecksum()))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean expired(ContentMetadata metadata, String location) {
+			if (metadata.getLastModified() > 0) {
+				return metadata.getLastModified() <= cutoff;
+			}
+			Long since = previous.get(location);
+			if (since == null) {
+				since = now;
+			}
+			current.put(location, since);
+			return since <= cutoff;
+		}
+	}
+
+	/*
+	 * Paces reclamation to at most a rate of contents a second across the stores being collected.
+	 */
+	private static class Throttle {
+
+		private final double rate;
+		private long next = System.nanoTime();
+
+		Throttle(double rate) {
+			this.rate = rate;
+		}
+
+		void acquire(int permits) throws InterruptedException {
+			if (rate <= 0) {
+				return;
+			}
+			long wait;
+			synchronized (this) {
+				long now = System.nanoTime();
+				long start = Math.max(next, now);
+				next = start + (long) (permits * TimeUnit.SECONDS.toNanos(1) / rate);
+				wait = start - now;
+			}
+			if (wait > 0) {
+				TimeUnit.NANOSECONDS.sleep(wait);
+			}
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package org.springframework.content.commons.gc;
+
+import java.util.Collection;
+
+/**
+ * Finds which content ids the entities of a domain class reference through their
+ * {@link org.springframework.content.commons.annotations.ContentId} fields, so the
+ * {@link ContentGarbageCollector} can tell referenced content from content left behind.
+ */
+public interface ContentReferences {
+
+	/**
+	 * Returns whether this finds the references of entities of the domain class.
+	 *
+	 * @param domainClass the domain class
+	 * @return true if it does
+	 */
+	boolean supports(Class<?> domainClass);
+
+	/**
+	 * Returns those of the content ids that an entity of the domain class references.
+	 *
+	 * @param domainClass the domain class
+	 * @param contentIdProperty the name of the domain class's content id property
+	 * @param contentIds the content ids, of the content id property's type
+	 * @return the referenced content ids
+	 */
+	Collection<?> findReferenced(Class<?> domainClass, String contentIdProperty, Collection<?> contentIds);
+}
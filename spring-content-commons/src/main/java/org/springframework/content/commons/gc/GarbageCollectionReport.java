@@ -0,0 +1,104 @@
+package org.springframework.content.commons.gc;
+
+import java.io.Serializable;
+
+/**
+ * What a garbage collection of a store found and reclaimed.  The content of a dry run is
+ * counted as reclaimed but is left in the store.
+ */
+public class GarbageCollectionReport implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String store;
+	private final boolean dryRun;
+	private final long started;
+	private long finished;
+
+	private long listed;
+	private long listedBytes;
+	private long unreferenced;
+	private long reclaimed;
+	private long reclaimedBytes;
+
+	GarbageCollectionReport(String store, boolean dryRun) {
+		this.store = store;
+		this.dryRun = dryRun;
+		this.started = System.currentTimeMillis();
+	}
+
+	public String getStore() {
+		return store;
+	}
+
+	public boolean isDryRun() {
+		return dryRun;
+	}
+
+	/**
+	 * Returns when the collection started, in milliseconds since the epoch.
+	 *
+	 * @return the start time
+	 */
+	public long getStarted() {
+		return started;
+	}
+
+	/**
+	 * Returns when the collection finished, in milliseconds since the epoch, or 0 while it runs.
+	 *
+	 * @return the finish time
+	 */
+	public long getFinished() {
+		return finished;
+	}
+
+	public long getListed() {
+		return listed;
+	}
+
+	public long getListedBytes() {
+		return listedBytes;
+	}
+
+	/**
+	 * Returns the number of contents no entity referenced, including those not yet older than
+	 * the grace period.
+	 *
+	 * @return the number of unreferenced contents
+	 */
+	public long getUnreferenced() {
+		return unreferenced;
+	}
+
+	public long getReclaimed() {
+		return reclaimed;
+	}
+
+	public long getReclaimedBytes() {
+		return reclaimedBytes;
+	}
+
+	void listed(long length) {
+		listed++;
+		listedBytes += length;
+	}
+
+	void unreferenced() {
+		unreferenced++;
+	}
+
+	void reclaimed(int count, long bytes) {
+		reclaimed += count;
+		reclaimedBytes += bytes;
+	}
+
+	void finished() {
+		finished = System.currentTimeMillis();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("GarbageCollectionReport[store=%s, dryRun=%s, listed=%d, listedBytes=%d, unreferenced=%d, reclaimed=%d, reclaimedBytes=%d, millis=%d]", store, dryRun, listed, listedBytes, unreferenced, reclaimed, reclaimedBytes, (finished > 0 ? finished - started : 0L));
+	}
+}
@@ -0,0 +1,100 @@
+package org.springframework.content.commons.io;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An {@link InputStream} that reads at most a given number of bytes from another stream.
+ * Closing it closes the other stream.
+ */
+public class BoundedInputStream extends FilterInputStream {
+
+	private long remaining;
+	private long mark = -1L;
+
+	public BoundedInputStream(InputStream in, long length) {
+		super(in);
+		this.remaining = Math.max(length, 0L);
+	}
+
+	/**
+	 * Returns a stream of at most length bytes of in starting at offset, skipping the content
+	 * before offset.
+	 *
+	 * @param in the content
+	 * @param offset the offset of the first byte
+	 * @param length the maximum number of bytes
+	 * @return the range of content
+	 * @throws IOException if the content cannot be skipped
+	 */
+	public static BoundedInputStream range(InputStream in, long offset, long length) throws IOException {
+		skipFully(in, offset);
+		return new BoundedInputStream(in, length);
+	}
+
+	private static void skipFully(InputStream in, long n) throws IOException {
+		while (n > 0) {
+			long skipped = in.skip(n);
+			if (skipped <= 0) {
+				// skip is allowed to skip nothing before the end of the stream
+				if (in.read() == -1) {
+					return;
+				}
+				skipped = 1;
+			}
+			n -= skipped;
+		}
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (remaining <= 0) {
+			return -1;
+		}
+		int b = in.read();
+		if (b != -1) {
+			remaining--;
+		}
+		return b;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (remaining <= 0) {
+			return -1;
+		}
+		int read = in.read(b, off, (int) Math.min(len, remaining));
+		if (read > 0) {
+			remaining -= read;
+		}
+		return read;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long skipped = in.skip(Math.min(n, remaining));
+		remaining -= skipped;
+		return skipped;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return (int) Math.min(in.available(), remaining);
+	}
+
+	@Override
+	public synchronized void mark(int readlimit) {
+		in.mark(readlimit);
+		mark = remaining;
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		if (mark == -1L) {
+			throw new IOException("Mark not set");
+		}
+		in.reset();
+		remaining = mark;
+	}
+}
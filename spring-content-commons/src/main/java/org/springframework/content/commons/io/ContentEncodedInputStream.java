@@ -0,0 +1,38 @@
+package org.springframework.content.commons.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Implemented by content streams whose content is stored encoded, such as compressed, and is
+ * decoded as it is read.  Until it is read the encoded content can be taken from the stream
+ * instead, as it is stored, for instance to be sent to a client that accepts the encoding.
+ */
+public interface ContentEncodedInputStream {
+
+	/**
+	 * Returns the HTTP content-coding of the stored content, such as {@literal gzip}.
+	 *
+	 * @return the content-coding
+	 */
+	String getContentEncoding();
+
+	/**
+	 * Returns the length of the content as it is stored.
+	 *
+	 * @return the encoded length, or -1 if it is not known
+	 */
+	default long getEncodedLength() {
+		return -1L;
+	}
+
+	/**
+	 * Returns the content as it is stored, in place of this stream.  Closing either stream closes
+	 * both.
+	 *
+	 * @return the encoded content
+	 * @throws IOException if the content cannot be read
+	 * @throws IllegalStateException if this stream has already been read
+	 */
+	InputStream getEncodedInputStream() throws IOException;
+}
@@ -0,0 +1,38 @@
+package org.springframework.content.commons.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * A {@link Resource} whose content may be stored encoded, such as compressed, and is decoded as
+ * it is read.  The encoded content can be read as it is stored, for instance to be sent to a client
+ * that accepts the encoding.
+ */
+public interface ContentEncodedResource extends Resource {
+
+	/**
+	 * Returns the HTTP content-coding of the stored content, such as {@literal gzip}.
+	 *
+	 * @return the content-coding, or null if the content is stored as it is
+	 * @throws IOException if the content cannot be read
+	 */
+	String getContentEncoding() throws IOException;
+
+	/**
+	 * Returns a stream of the content as it is stored.
+	 *
+	 * @return the encoded content
+	 * @throws IOException if the content cannot be read
+	 */
+	InputStream getEncodedInputStream() throws IOException;
+
+	/**
+	 * Returns the length of the content as it is stored.
+	 *
+	 * @return the encoded length
+	 * @throws IOException if the length cannot be determined
+	 */
+	long getEncodedLength() throws IOException;
+}
@@ -0,0 +1,22 @@
+package org.springframework.content.commons.io;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * A {@link Resource} whose content is the whole of the file returned by {@link #getFile()}, so
+ * it can be sent with {@link FileChannel#transferTo} or sendfile without being copied through
+ * the heap.
+ */
+public interface FileChannelResource extends Resource {
+
+	/**
+	 * Opens a read only channel of the content.
+	 *
+	 * @return the channel
+	 * @throws IOException if the content cannot be read
+	 */
+	FileChannel getFileChannel() throws IOException;
+}
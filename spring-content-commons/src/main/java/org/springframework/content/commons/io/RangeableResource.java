@@ -0,0 +1,23 @@
+package org.springframework.content.commons.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * A {@link Resource} whose content can be read from an offset without reading the content
+ * before it.
+ */
+public interface RangeableResource extends Resource {
+
+	/**
+	 * Returns a stream of at most length bytes of content starting at offset.
+	 *
+	 * @param offset the offset of the first byte
+	 * @param length the maximum number of bytes
+	 * @return the content
+	 * @throws IOException if the content cannot be read
+	 */
+	InputStream getInputStream(long offset, long length) throws IOException;
+}
@@ -0,0 +1,808 @@
+package org.springframework.content.commons.replication;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.io.BoundedInputStream;
+import org.springframework.content.commons.io.DeletableResource;
+import org.springframework.content.commons.io.RangeableResource;
+import org.springframework.content.commons.repository.ContentMetadata;
+import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.Store;
+import org.springframework.content.commons.repository.StoreAccessException;
+import org.springframework.content.commons.repository.StoreExtension;
+import org.springframework.content.commons.repository.StoreInvoker;
+import org.springframework.content.commons.utils.BeanUtils;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import internal.org.springframework.content.commons.replication.LatencyTracker;
+import internal.org.springframework.content.commons.repository.factory.StoreExtensionChain;
+import internal.org.springframework.content.commons.utils.ContentTransfers;
+
+/**
+ * Copies the content of a store to other stores and reads it from whichever answers first.
+ * <p>
+ * Declaring a bean of this type replicates the content of every store interface annotated with
+ * {@link ReplicatedContent}, or enabled with the
+ * {@literal spring.content.replication.stores.<StoreInterfaceSimpleName>.enabled} property.  The
+ * store itself is the primary replica and the stores named as its replicas, for example an S3
+ * store replicating a filesystem store, hold copies of its content under the same content ids.
+ * Content is written to the primary and then copied to every replica, either before the write
+ * returns or, for asynchronous stores, after it.  Content copied or moved within the store is
+ * copied or moved by each replica's own store.
+ * <p>
+ * Content is read from the replica with the lowest mean latency.  When it has not answered
+ * within its 95th percentile latency, or {@literal spring.content.replication.hedge-delay}
+ * milliseconds until enough reads are recorded, the content is also read from the next fastest
+ * replica and the first answer is used.  Content that could not be copied, or that a replica was
+ * found to be missing, is queued for repair; the queue is repaired every
+ * {@literal spring.content.replication.repair-interval} seconds and {@link #repair(Class, Iterable)}
+ * reconciles the replicas of any content.  Latencies, hedged reads and repairs are exposed as
+ * managed attributes.
+ * <p>
+ * Content is copied through the stores' resources, so the resources of every replica must be
+ * writable and deletable.  Reads are made on the replication's executor, so the stores must
+ * not depend on the calling thread, as a JPA store does on its transaction.
+ */
+@ManagedResource(description = "Content replication")
+public class ContentReplication implements StoreExtension, EnvironmentAware, ApplicationContextAware, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(ContentReplication.class);
+
+	public static final long DEFAULT_HEDGE_DELAY = 100L;
+	public static final long DEFAULT_REPAIR_INTERVAL = 60L;
+
+	static final String PROPERTY_PREFIX = "spring.content.replication.";
+
+	// reads recorded for each replica, and needed before its own latencies decide when to hedge
+	private static final int LATENCY_SAMPLES = 256;
+	private static final int MIN_LATENCY_SAMPLES = 20;
+
+	private static final Method getContentMethod = ReflectionUtils.findMethod(ContentStore.class, "getContent", Object.class);
+	private static final Method getContentRangeMethod = ReflectionUtils.findMethod(ContentStore.class, "getContent", Object.class, long.class, long.class);
+	private static final Method setContentMethod = ReflectionUtils.findMethod(ContentStore.class, "setContent", Object.class, InputStream.class);
+	private static final Method unsetContentMethod = ReflectionUtils.findMethod(ContentStore.class, "unsetContent", Object.class);
+	private static final Method setContentsMethod = ReflectionUtils.findMethod(ContentStore.class, "setContents", Map.class);
+	private static final Method unsetContentsMethod = ReflectionUtils.findMethod(ContentStore.class, "unsetContents", Collection.class);
+	private static final Method getResourceMethod = ReflectionUtils.findMethod(Store.class, "getResource", Serializable.class);
+	private static final Method getMetadataMethod = ReflectionUtils.findMethod(Store.class, "getMetadata", Serializable.class);
+	private static final Method getMetadatasMethod = ReflectionUtils.findMethod(Store.class, "getMetadata", Collection.class);
+	private static final Method copyMethod = ReflectionUtils.findMethod(Store.class, "copy", Serializable.class, Serializable.class);
+	private static final Method moveMethod = ReflectionUtils.findMethod(Store.class, "move", Serializable.class, Serializable.class);
+
+	// content is copied and deleted under the lock of its id
+	private final Object[] locks = ContentTransfers.locks(256);
+
+	private long hedgeDelay = DEFAULT_HEDGE_DELAY;
+	private long repairInterval = DEFAULT_REPAIR_INTERVAL;
+	private Environment env;
+	private ApplicationContext context;
+	private ExecutorService executor;
+	private ScheduledExecutorService scheduler;
+
+	private final ConcurrentMap<Object, Optional<Replication>> replications = new ConcurrentHashMap<>();
+
+	/**
+	 * Sets the milliseconds after which content is also read from a second replica, until
+	 * enough reads of the first are recorded to use its own latencies.
+	 *
+	 * @param hedgeDelay the delay
+	 */
+	public void setHedgeDelay(long hedgeDelay) {
+		this.hedgeDelay = hedgeDelay;
+	}
+
+	/**
+	 * Sets the seconds between repairs of the content queued for repair.
+	 *
+	 * @param repairInterval the interval
+	 */
+	public void setRepairInterval(long repairInterval) {
+		this.repairInterval = repairInterval;
+	}
+
+	/**
+	 * Sets the executor content is read and copied on.  By default a pool of daemon threads is
+	 * used.
+	 *
+	 * @param executor the executor
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	@Override
+	public void setEnvironment(Environment env) {
+		this.env = env;
+		hedgeDelay = env.getProperty(PROPERTY_PREFIX + "hedge-delay", Long.class, hedgeDelay);
+		repairInterval = env.getProperty(PROPERTY_PREFIX + "repair-interval", Long.class, repairInterval);
+	}
+
+	@Override
+	public void setApplicationContext(ApplicationContext context) {
+		this.context = context;
+	}
+
+	@Override
+	public Set<Method> getMethods() {
+		Set<Method> methods = new HashSet<>();
+		methods.add(getContentMethod);
+		methods.add(getContentRangeMethod);
+		methods.add(setContentMethod);
+		methods.add(unsetContentMethod);
+		methods.add(setContentsMethod);
+		methods.add(unsetContentsMethod);
+		methods.add(getResourceMethod);
+		methods.add(getMetadataMethod);
+		methods.add(getMetadatasMethod);
+		methods.add(copyMethod);
+		methods.add(moveMethod);
+		return methods;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Object invoke(MethodInvocation invocation, StoreInvoker invoker) {
+		Object[] args = invocation.getArguments();
+		Replication replication = replication(invocation.getThis(), invoker.getStoreInterface());
+		if (replication == null || args.length == 0 || args[0] == null) {
+			return StoreExtensionChain.proceed(invocation);
+		}
+
+		Method method = invocation.getMethod();
+		if (getResourceMethod.equals(method)) {
+			return getResource(replication, (Serializable) args[0], invocation);
+		}
+		if (getMetadataMethod.equals(method)) {
+			return getMetadata(replication, (ContentMetadata) StoreExtensionChain.proceed(invocation));
+		}
+		if (getMetadatasMethod.equals(method)) {
+			Map<Object, ContentMetadata> metadata = new LinkedHashMap<>((Map<Object, ContentMetadata>) StoreExtensionChain.proceed(invocation));
+			for (Map.Entry<Object, ContentMetadata> entry : metadata.entrySet()) {
+				entry.setValue(getMetadata(replication, entry.getValue()));
+			}
+			return metadata;
+		}
+		if (getContentMethod.equals(method) || getContentRangeMethod.equals(method)) {
+			Serializable contentId = (Serializable) BeanUtils.getFieldWithAnnotation(args[0], ContentId.class);
+			return (contentId != null ? read(replication, contentId, invocation) : StoreExtensionChain.proceed(invocation));
+		}
+		if (copyMethod.equals(method) || moveMethod.equals(method)) {
+			Object result = StoreExtensionChain.proceed(invocation);
+			transfer(replication, (Serializable) args[0], (Serializable) args[1], moveMethod.equals(method));
+			return result;
+		}
+
+		Collection<Object> entities;
+		if (setContentMethod.equals(method) || unsetContentMethod.equals(method)) {
+			entities = Collections.singletonList(args[0]);
+		} else {
+			entities = (setContentsMethod.equals(method) ? ((Map<Object, InputStream>) args[0]).keySet() : (Collection<Object>) args[0]);
+		}
+		if (setContentMethod.equals(method) || setContentsMethod.equals(method)) {
+			Object result = StoreExtensionChain.proceed(invocation);
+			replicate(replication, contentIds(entities), false);
+			return result;
+		}
+		List<Serializable> contentIds = contentIds(entities);
+		Object result = StoreExtensionChain.proceed(invocation);
+		replicate(replication, contentIds, true);
+		return result;
+	}
+
+	/**
+	 * Repairs the content queued for repair.
+	 */
+	@ManagedOperation(description = "Repairs the content queued for repair now")
+	public void repair() {
+		for (Optional<Replication> replication : replications.values()) {
+			replication.ifPresent(this::repairPending);
+		}
+	}
+
+	/**
+	 * Copies content to every replica of a store that is missing it, from the first replica that
+	 * has it, starting with the primary.
+	 *
+	 * @param storeInterface the replicated store interface
+	 * @param contentIds the ids of the content of the store
+	 * @return the number of contents repaired
+	 */
+	public long repair(Class<?> storeInterface, Iterable<? extends Serializable> contentIds) {
+		Assert.state(context != null, "Unable to repair a store without an application context");
+		Object store = context.getBean(storeInterface);
+		if (store instanceof Advised) {
+			try {
+				store = ((Advised) store).getTargetSource().getTarget();
+			} catch (Exception e) {
+				throw new IllegalStateException(String.format("Unable to get the implementation of %s", storeInterface.getName()), e);
+			}
+		}
+		Replication replication = replication(store, storeInterface);
+		Assert.state(replication != null, String.format("%s is not replicated", storeInterface.getName()));
+
+		long repaired = 0L;
+		for (Serializable contentId : contentIds) {
+			if (contentId != null && repair(replication, contentId)) {
+				repaired++;
+			}
+		}
+		return repaired;
+	}
+
+	@ManagedAttribute(description = "Reads answered by each replica of each store")
+	public Map<String, Long> getReplicaReads() {
+		return collectReplicas(r -> r.reads.get());
+	}
+
+	@ManagedAttribute(description = "Mean read latency in milliseconds of each replica of each store")
+	public Map<String, Double> getReadLatencies() {
+		return collectReplicas(r -> r.latency.mean() / 1000000.0d);
+	}
+
+	@ManagedAttribute(description = "95th percentile read latency in milliseconds of each replica of each store")
+	public Map<String, Double> getReadLatencyP95s() {
+		return collectReplicas(r -> r.latency.percentile(0.95d) / 1000000.0d);
+	}
+
+	@ManagedAttribute(description = "Reads of each store sent to a second replica")
+	public Map<String, Long> getHedgedReads() {
+		return collect(r -> r.hedgedReads.get());
+	}
+
+	@ManagedAttribute(description = "Contents of each store that could not be copied to a replica")
+	public Map<String, Long> getReplicationFailures() {
+		return collect(r -> r.failures.get());
+	}
+
+	@ManagedAttribute(description = "Contents of each store queued for repair")
+	public Map<String, Integer> getPendingRepairs() {
+		return collect(r -> r.pending.size());
+	}
+
+	@ManagedAttribute(description = "Contents of each store copied to a replica missing them by repair")
+	public Map<String, Long> getRepairs() {
+		return collect(r -> r.repairs.get());
+	}
+
+	@Override
+	public synchronized void destroy() throws Exception {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	private Object getResource(Replication replication, Serializable contentId, MethodInvocation invocation) {
+		Resource resource = (Resource) StoreExtensionChain.proceed(invocation);
+		if (resource != null && resource.exists()) {
+			return resource;
+		}
+		for (Replica replica : replication.byLatency()) {
+			if (replica.primary) {
+				continue;
+			}
+			Resource copy = replica.resource(contentId);
+			if (copy != null && copy.exists()) {
+				replication.pending.add(contentId);
+				return copy;
+			}
+		}
+		return resource;
+	}
+
+	private ContentMetadata getMetadata(Replication replication, ContentMetadata metadata) {
+		if (metadata.exists()) {
+			return metadata;
+		}
+		for (Replica replica : replication.byLatency()) {
+			if (replica.primary) {
+				continue;
+			}
+			ContentMetadata copy = replica.metadata(metadata.getContentId());
+			if (copy.exists()) {
+				replication.pending.add(metadata.getContentId());
+				return copy;
+			}
+		}
+		return metadata;
+	}
+
+	/*
+	 * Reads from the fastest replica and, when it is slower than usual, also from the next; the
+	 * first content found is returned and the other is closed once it arrives.
+	 */
+	private Object read(Replication replication, Serializable contentId, MethodInvocation invocation) {
+		List<Replica> replicas = replication.byLatency();
+		CompletionService<Read> reads = new ExecutorCompletionService<>(executor());
+		int submitted = 0;
+		int completed = 0;
+		Read found = null;
+		RuntimeException failure = null;
+		boolean missing = false;
+		try {
+			reads.submit(() -> read(replicas.get(0), contentId, invocation));
+			submitted++;
+			while (completed < submitted) {
+				Future<Read> next;
+				if (submitted < replicas.size()) {
+					next = reads.poll(hedgeDelay(replicas.get(submitted - 1)), TimeUnit.NANOSECONDS);
+					if (next == null) {
+						Replica hedge = replicas.get(submitted);
+						reads.submit(() -> read(hedge, contentId, invocation));
+						submitted++;
+						replication.hedgedReads.incrementAndGet();
+						continue;
+					}
+				} else {
+					next = reads.take();
+				}
+				completed++;
+				Read read = next.get();
+				if (read.content != null) {
+					found = read;
+					break;
+				}
+				if (read.failure != null) {
+					failure = (failure != null ? failure : read.failure);
+				} else {
+					missing = true;
+				}
+				if (completed == submitted && submitted < replicas.size()) {
+					Replica fallback = replicas.get(submitted);
+					reads.submit(() -> read(fallback, contentId, invocation));
+					submitted++;
+				}
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new StoreAccessException(String.format("Interrupted reading content %s", contentId.toString()), ie);
+		} catch (ExecutionException ee) {
+			throw new StoreAccessException(String.format("Unexpected error reading content %s", contentId.toString()), ee.getCause());
+		} finally {
+			int outstanding = submitted - completed;
+			if (outstanding > 0) {
+				executor().execute(() -> discard(reads, outstanding));
+			}
+		}
+
+		if (found == null) {
+			if (failure != null) {
+				throw failure;
+			}
+			return null;
+		}
+		found.replica.reads.incrementAndGet();
+		if (missing) {
+			replication.pending.add(contentId);
+		}
+		return found.content;
+	}
+
+	private Read read(Replica replica, Serializable contentId, MethodInvocation invocation) {
+		long started = System.nanoTime();
+		try {
+			Object content;
+			if (replica.primary) {
+				content = StoreExtensionChain.proceed(invocation);
+			} else {
+				content = null;
+				Resource resource = replica.resource(contentId);
+				if (resource != null && resource.exists()) {
+					Object[] args = invocation.getArguments();
+					if (!getContentRangeMethod.equals(invocation.getMethod())) {
+						content = resource.getInputStream();
+					} else if (resource instanceof RangeableResource) {
+						content = ((RangeableResource) resource).getInputStream((Long) args[1], (Long) args[2]);
+					} else {
+						content = BoundedInputStream.range(resource.getInputStream(), (Long) args[1], (Long) args[2]);
+					}
+				}
+			}
+			if (content != null) {
+				replica.latency.record(System.nanoTime() - started);
+			}
+			return new Read(replica, content, null);
+		} catch (IOException ioe) {
+			return new Read(replica, null, new StoreAccessException(String.format("Unexpected error reading content %s from %s", contentId.toString(), replica.name), ioe));
+		} catch (RuntimeException e) {
+			return new Read(replica, null, e);
+		}
+	}
+
+	private void discard(CompletionService<Read> reads, int outstanding) {
+		for (int i = 0; i < outstanding; i++) {
+			try {
+				Read read = reads.take().get();
+				if (read.content instanceof InputStream) {
+					IOUtils.closeQuietly((InputStream) read.content);
+				}
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException ee) {
+				logger.error("Unexpected error discarding a hedged read", ee.getCause());
+			}
+		}
+	}
+
+	private long hedgeDelay(Replica replica) {
+		if (replica.latency.getCount() >= MIN_LATENCY_SAMPLES) {
+			return replica.latency.percentile(0.95d);
+		}
+		return TimeUnit.MILLISECONDS.toNanos(hedgeDelay);
+	}
+
+	/*
+	 * Copies content to, or deletes it from, every replica other than the primary, waiting for
+	 * them unless the store is asynchronous.
+	 */
+	private void replicate(Replication replication, List<Serializable> contentIds, boolean delete) {
+		List<Future<?>> copies = new ArrayList<>();
+		for (Serializable contentId : contentIds) {
+			if (delete) {
+				replication.pending.remove(contentId);
+			}
+			for (Replica replica : replication.replicas) {
+				if (replica.primary) {
+					continue;
+				}
+				copies.add(executor().submit(() -> {
+					if (delete) {
+						delete(replication, replica, contentId);
+					} else {
+						copy(replication, replica, contentId);
+					}
+				}));
+			}
+		}
+		await(replication, copies);
+	}
+
+	/*
+	 * Copies or moves content on every replica other than the primary with the replica's store,
+	 * waiting for them unless the store is asynchronous.  A replica that fails is repaired.
+	 */
+	private void transfer(Replication replication, Serializable from, Serializable to, boolean move) {
+		if (from.equals(to)) {
+			return;
+		}
+		if (move) {
+			replication.pending.remove(from);
+		}
+		List<Future<?>> transfers = new ArrayList<>();
+		for (Replica replica : replication.replicas) {
+			if (replica.primary) {
+				continue;
+			}
+			transfers.add(executor().submit(() -> transfer(replication, replica, from, to, move)));
+		}
+		await(replication, transfers);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void transfer(Replication replication, Replica replica, Serializable from, Serializable to, boolean move) {
+		boolean failed = false;
+		synchronized (ContentTransfers.lock(locks, to)) {
+			try {
+				if (move) {
+					((Store<Serializable>) replica.store).move(from, to);
+				} else {
+					((Store<Serializable>) replica.store).copy(from, to);
+				}
+			} catch (RuntimeException e) {
+				logger.error(String.format("Unexpected error %s content %s to %s on %s", (move ? "moving" : "copying"), from.toString(), to.toString(), replica.name), e);
+				replication.failures.incrementAndGet();
+				replication.pending.add(to);
+				failed = true;
+			}
+		}
+		if (failed && move) {
+			delete(replication, replica, from);
+		}
+	}
+
+	private void await(Replication replication, List<Future<?>> futures) {
+		if (replication.async) {
+			return;
+		}
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				throw new StoreAccessException("Interrupted replicating content", ie);
+			} catch (ExecutionException ee) {
+				logger.error("Unexpected error replicating content", ee.getCause());
+			}
+		}
+	}
+
+	private void copy(Replication replication, Replica replica, Serializable contentId) {
+		synchronized (ContentTransfers.lock(locks, contentId)) {
+			Resource from = replication.primary.resource(contentId);
+			if (from == null || !from.exists()) {
+				return;
+			}
+			if (ContentTransfers.copy(from, replica.resource(contentId), contentId) < 0) {
+				replication.failures.incrementAndGet();
+				replication.pending.add(contentId);
+			}
+		}
+	}
+
+	private void delete(Replication replication, Replica replica, Serializable contentId) {
+		synchronized (ContentTransfers.lock(locks, contentId)) {
+			Resource resource = replica.resource(contentId);
+			if (resource == null || !resource.exists()) {
+				return;
+			}
+			if (!(resource instanceof DeletableResource)) {
+				logger.error(String.format("Unable to delete content %s from %s that is not deletable", contentId.toString(), resource.getDescription()));
+				return;
+			}
+			try {
+				((DeletableResource) resource).delete();
+			} catch (RuntimeException e) {
+				logger.error(String.format("Unexpected error deleting content %s from %s", contentId.toString(), replica.name), e);
+			}
+		}
+	}
+
+	private void repairPending(Replication replication) {
+		for (Serializable contentId : new ArrayList<>(replication.pending)) {
+			replication.pending.remove(contentId);
+			try {
+				repair(replication, contentId);
+			} catch (RuntimeException e) {
+				logger.error(String.format("Unexpected error repairing content %s of %s", contentId.toString(), replication.name), e);
+				replication.pending.add(contentId);
+			}
+		}
+	}
+
+	private boolean repair(Replication replication, Serializable contentId) {
+		synchronized (ContentTransfers.lock(locks, contentId)) {
+			Resource source = null;
+			List<Resource> missing = new ArrayList<>();
+			for (Replica replica : replication.replicas) {
+				Resource resource = replica.resource(contentId);
+				if (resource != null && resource.exists()) {
+					source = (source != null ? source : resource);
+				} else {
+					missing.add(resource);
+				}
+			}
+			if (source == null || missing.isEmpty()) {
+				return false;
+			}
+			boolean repaired = false;
+			for (Resource resource : missing) {
+				if (ContentTransfers.copy(source, resource, contentId) >= 0) {
+					replication.repairs.incrementAndGet();
+					repaired = true;
+				} else {
+					replication.pending.add(contentId);
+				}
+			}
+			return repaired;
+		}
+	}
+
+	private static List<Serializable> contentIds(Collection<Object> entities) {
+		List<Serializable> contentIds = new ArrayList<>();
+		for (Object entity : entities) {
+			Object contentId = (entity != null ? BeanUtils.getFieldWithAnnotation(entity, ContentId.class) : null);
+			if (contentId != null) {
+				contentIds.add((Serializable) contentId);
+			}
+		}
+		return contentIds;
+	}
+
+	private synchronized ExecutorService executor() {
+		if (executor == null) {
+			executor = Executors.newCachedThreadPool(r -> {
+				Thread thread = new Thread(r, "content-replication");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return executor;
+	}
+
+	private synchronized ScheduledExecutorService scheduler() {
+		if (scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "content-replication-repair");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return scheduler;
+	}
+
+	private <T> Map<String, T> collect(Function<Replication, T> value) {
+		Map<String, T> values = new TreeMap<>();
+		for (Optional<Replication> replication : replications.values()) {
+			replication.ifPresent(r -> values.put(r.name, value.apply(r)));
+		}
+		return values;
+	}
+
+	private <T> Map<String, T> collectReplicas(Function<Replica, T> value) {
+		Map<String, T> values = new TreeMap<>();
+		for (Optional<Replication> replication : replications.values()) {
+			replication.ifPresent(r -> {
+				for (Replica replica : r.replicas) {
+					values.put(r.name + "/" + replica.name, value.apply(replica));
+				}
+			});
+		}
+		return values;
+	}
+
+	private Replication replication(Object store, Class<?> storeInterface) {
+		if (!(store instanceof Store) || storeInterface == null) {
+			return null;
+		}
+		Optional<Replication> replication = replications.get(store);
+		if (replication == null) {
+			replication = replications.computeIfAbsent(store, s -> Optional.ofNullable(createReplication(s, storeInterface)));
+		}
+		return replication.orElse(null);
+	}
+
+	private Replication createReplication(Object store, Class<?> storeInterface) {
+		String prefix = PROPERTY_PREFIX + "stores." + storeInterface.getSimpleName() + ".";
+		ReplicatedContent annotation = AnnotationUtils.findAnnotation(storeInterface, ReplicatedContent.class);
+		if (!property(prefix + "enabled", Boolean.class, annotation != null)) {
+			return null;
+		}
+
+		List<Class<?>> replicaInterfaces = new ArrayList<>();
+		String[] replicaNames = property(prefix + "replicas", String[].class, null);
+		if (replicaNames != null) {
+			for (String replicaName : replicaNames) {
+				replicaInterfaces.add(ClassUtils.resolveClassName(replicaName.trim(), storeInterface.getClassLoader()));
+			}
+		} else if (annotation != null) {
+			Collections.addAll(replicaInterfaces, annotation.replicas());
+		}
+
+		List<Replica> replicas = new ArrayList<>();
+		replicas.add(new Replica(storeInterface.getName(), store, true));
+		for (Class<?> replicaInterface : replicaInterfaces) {
+			Assert.state(context != null, String.format("Unable to find the replicas of %s without an application context", storeInterface.getName()));
+			Object replica = context.getBean(replicaInterface);
+			Assert.state(replica instanceof Store, String.format("Replica %s of %s is not a store", replicaInterface.getName(), storeInterface.getName()));
+			replicas.add(new Replica(replicaInterface.getName(), replica, false));
+		}
+
+		boolean async = property(prefix + "async", Boolean.class, annotation != null && annotation.async());
+		Replication replication = new Replication(storeInterface.getName(), replicas, async);
+		if (repairInterval > 0) {
+			scheduler().scheduleWithFixedDelay(() -> repairPending(replication), repairInterval, repairInterval, TimeUnit.SECONDS);
+		}
+		return replication;
+	}
+
+	private <T> T property(String key, Class<T> type, T defaultValue) {
+		T value = (env != null ? env.getProperty(key, type) : null);
+		return (value != null ? value : defaultValue);
+	}
+
+	private static class Replication {
+
+		private final String name;
+		private final Replica primary;
+		private final List<Replica> replicas;
+		private final boolean async;
+
+		private final Set<Serializable> pending = ConcurrentHashMap.newKeySet();
+		private final AtomicLong hedgedReads = new AtomicLong();
+		private final AtomicLong failures = new AtomicLong();
+		private final AtomicLong repairs = new AtomicLong();
+
+		Replication(String name, List<Replica> replicas, boolean async) {
+			this.name = name;
+			this.primary = replicas.get(0);
+			this.replicas = replicas;
+			this.async = async;
+		}
+
+		/*
+		 * The replicas fastest first; replicas without recorded reads are tried first so that
+		 * every replica's latency is learned.
+		 */
+		List<Replica> byLatency() {
+			List<Replica> sorted = new ArrayList<>(replicas);
+			sorted.sort(Comparator.comparingLong(r -> r.latency.mean()));
+			return sorted;
+		}
+	}
+
+	private static class Replica {
+
+		private final String name;
+		private final Object store;
+		private final boolean primary;
+
+		private final LatencyTracker latency = new LatencyTracker(LATENCY_SAMPLES);
+		private final AtomicLong reads = new AtomicLong();
+
+		Replica(String name, Object store, boolean primary) {
+			this.name = name;
+			this.store = store;
+			this.primary = primary;
+		}
+
+		@SuppressWarnings("unchecked")
+		Resource resource(Serializable contentId) {
+			return ((Store<Serializable>) store).getResource(contentId);
+		}
+
+		@SuppressWarnings("unchecked")
+		ContentMetadata metadata(Serializable contentId) {
+			return ((Store<Serializable>) store).getMetadata(contentId);
+		}
+	}
+
+	private static class Read {
+
+		private final Replica replica;
+		private final Object content;
+		private final RuntimeException failure;
+
+		Read(Replica replica, Object content, RuntimeException failure) {
+			this.replica = replica;
+			this.content = content;
+			this.failure = failure;
+		}
+	}
+}
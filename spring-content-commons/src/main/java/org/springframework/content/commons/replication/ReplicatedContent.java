@@ -0,0 +1,28 @@
+package org.springframework.content.commons.replication;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Copies the content of a store interface to other stores, its replicas, with the application's
+ * {@link ContentReplication}.  Every attribute can be overridden with
+ * {@literal spring.content.replication.stores.<StoreInterfaceSimpleName>.*} properties.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReplicatedContent {
+
+	/**
+	 * The store interfaces of the replicas.
+	 */
+	Class<?>[] replicas() default {};
+
+	/**
+	 * Whether content is copied to the replicas after the write returns, rather than before.
+	 */
+	boolean async() default false;
+}
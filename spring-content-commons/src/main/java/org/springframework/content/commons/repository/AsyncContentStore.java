@@ -0,0 +1,51 @@
+package org.springframework.content.commons.repository;
+
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link ContentStore} whose operations can also be performed asynchronously.
+ * <p>
+ * Store interfaces extend this interface instead of {@link ContentStore}.  The asynchronous
+ * variants are implemented by the store proxy, which performs the corresponding
+ * {@link ContentStore} operation on the store's executor; store events are published as for
+ * the synchronous operation, on the executor's thread.
+ * <p>
+ * The executor is the bean named {@value #EXECUTOR_BEAN_NAME}, if there is one.  Otherwise a
+ * shared executor is used that runs each operation on a new virtual thread, when the runtime
+ * supports them, or a pooled daemon thread.
+ *
+ * @param <S> the content entity type
+ * @param <SID> the content id type
+ */
+public interface AsyncContentStore<S, SID extends Serializable> extends ContentStore<S, SID> {
+
+	String EXECUTOR_BEAN_NAME = "asyncContentStoreExecutor";
+
+	/**
+	 * Asynchronously sets the content of property.  The stream is read on the executor's
+	 * thread.
+	 *
+	 * @param property the content entity
+	 * @param content the content
+	 * @return a future completed when the content has been stored
+	 */
+	CompletableFuture<Void> setContentAsync(S property, InputStream content);
+
+	/**
+	 * Asynchronously unsets the content of property.
+	 *
+	 * @param property the content entity
+	 * @return a future completed when the content has been removed
+	 */
+	CompletableFuture<Void> unsetContentAsync(S property);
+
+	/**
+	 * Asynchronously gets the content of property.
+	 *
+	 * @param property the content entity
+	 * @return a future completed with the content, or null if there is none
+	 */
+	CompletableFuture<InputStream> getContentAsync(S property);
+}
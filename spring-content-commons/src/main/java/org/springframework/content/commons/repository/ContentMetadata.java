@@ -0,0 +1,83 @@
+package org.springframework.content.commons.repository;
+
+import java.io.Serializable;
+
+/**
+ * What a store knows about the content of a content id without reading it: whether it exists,
+ * its length, when it was last modified and, when the store records one, its checksum.
+ */
+public class ContentMetadata implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Serializable contentId;
+	private final boolean exists;
+	private final long length;
+	private final long lastModified;
+	private final String checksum;
+
+	public ContentMetadata(Serializable contentId, long length, long lastModified, String checksum) {
+		this(contentId, true, length, lastModified, checksum);
+	}
+
+	private ContentMetadata(Serializable contentId, boolean exists, long length, long lastModified, String checksum) {
+		this.contentId = contentId;
+		this.exists = exists;
+		this.length = length;
+		this.lastModified = lastModified;
+		this.checksum = checksum;
+	}
+
+	/**
+	 * Returns the metadata of a content id without content.
+	 *
+	 * @param contentId the content id
+	 * @return the metadata
+	 */
+	public static ContentMetadata missing(Serializable contentId) {
+		return new ContentMetadata(contentId, false, 0L, 0L, null);
+	}
+
+	public Serializable getContentId() {
+		return contentId;
+	}
+
+	public boolean exists() {
+		return exists;
+	}
+
+	/**
+	 * Returns the length of the content, in bytes.
+	 *
+	 * @return the length
+	 */
+	public long getLength() {
+		return length;
+	}
+
+	/**
+	 * Returns when the content was last modified, in milliseconds since the epoch, or 0 when
+	 * the store does not record it.
+	 *
+	 * @return the last modified time
+	 */
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * Returns the checksum the store records for the content, for example the ETag of an S3
+	 * object or the MD5 of a GridFS file, or null when it does not record one.  It changes
+	 * whenever the content does, so it can be used as an entity tag.
+	 *
+	 * @return the checksum
+	 */
+	public String getChecksum() {
+		return checksum;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ContentMetadata[contentId=%s, exists=%s, length=%d, lastModified=%d, checksum=%s]", contentId, exists, length, lastModified, checksum);
+	}
+}
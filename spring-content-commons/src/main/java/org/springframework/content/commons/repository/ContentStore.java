@@ -1,7 +1,12 @@
 package org.springframework.content.commons.repository;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+
+import org.springframework.content.commons.io.BoundedInputStream;
 
 public interface ContentStore<S, SID extends Serializable> extends ContentRepository<S, SID> {
 	
@@ -9,4 +14,55 @@ public interface ContentStore<S, SID extends Serializable> extends ContentReposi
 	void unsetContent(S property);
 	InputStream getContent(S property);
 
+	/**
+	 * Returns at most length bytes of the content of property starting at offset, or null if
+	 * property has no content.  Stores that can read from an offset override this to do so; by
+	 * default the content before offset is read and discarded.
+	 *
+	 * @param property the content entity
+	 * @param offset the offset of the first byte
+	 * @param length the maximum number of bytes
+	 * @return the range of content
+	 */
+	default InputStream getContent(S property, long offset, long length) {
+		InputStream content = getContent(property);
+		if (content == null) {
+			return null;
+		}
+		try {
+			return BoundedInputStream.range(content, offset, length);
+		} catch (IOException e) {
+			try {
+				content.close();
+			} catch (IOException ioe) {
+				// ignore
+			}
+			throw new StoreAccessException(String.format("Unexpected error getting content range %d-%d", offset, offset + length - 1), e);
+		}
+	}
+
+	/**
+	 * Sets the content of each property to its mapped content.  Stores that can write content in
+	 * bulk override this to do so; by default each content is set in turn.
+	 *
+	 * @param contents the content of each property
+	 */
+	default void setContents(Map<S, InputStream> contents) {
+		for (Map.Entry<S, InputStream> content : contents.entrySet()) {
+			setContent(content.getKey(), content.getValue());
+		}
+	}
+
+	/**
+	 * Unsets the content of each property.  Stores that can delete content in bulk override this
+	 * to do so; by default each content is unset in turn.
+	 *
+	 * @param properties the properties
+	 */
+	default void unsetContents(Collection<S> properties) {
+		for (S property : properties) {
+			unsetContent(property);
+		}
+	}
+
 }
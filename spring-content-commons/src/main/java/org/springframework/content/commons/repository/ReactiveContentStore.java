@@ -0,0 +1,41 @@
+package org.springframework.content.commons.repository;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+import org.reactivestreams.Publisher;
+
+/**
+ * A {@link ContentStore} whose content can also be streamed as Reactive Streams
+ * {@link Publisher}s of {@link ByteBuffer}s.
+ * <p>
+ * Store interfaces extend this interface instead of {@link ContentStore}.  Demand is carried
+ * through to the backend: content is only read as fast as the subscriber requests it, and
+ * written content is only requested as fast as the backend stores it.  Stores that implement
+ * these operations natively do so without blocking; for the others they are performed with the
+ * store's blocking operations on the {@link AsyncContentStore} executor.
+ *
+ * @param <S> the content entity type
+ * @param <SID> the content id type
+ */
+public interface ReactiveContentStore<S, SID extends Serializable> extends ContentStore<S, SID> {
+
+	/**
+	 * Returns the content of property.  Content is read when subscribed to; a property without
+	 * content is published as empty content.
+	 *
+	 * @param property the content entity
+	 * @return the content
+	 */
+	Publisher<ByteBuffer> readContent(S property);
+
+	/**
+	 * Sets the content of property to the published content.
+	 *
+	 * @param property the content entity
+	 * @param content the content
+	 * @return a future completed when the content has been stored and property updated
+	 */
+	CompletableFuture<Void> writeContent(S property, Publisher<ByteBuffer> content);
+}
@@ -1,11 +1,128 @@
 package org.springframework.content.commons.repository;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
 
+import org.apache.commons.io.IOUtils;
+import org.springframework.content.commons.io.DeletableResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.WritableResource;
 
 public interface Store<SID extends Serializable> {
 
 	Resource getResource(SID id);
-	
+
+	/**
+	 * Returns the resource of each id, in the order of ids.
+	 *
+	 * @param ids the ids
+	 * @return the resources, keyed by id
+	 */
+	default Map<SID, Resource> getResources(Collection<SID> ids) {
+		Map<SID, Resource> resources = new LinkedHashMap<>();
+		for (SID id : ids) {
+			resources.put(id, getResource(id));
+		}
+		return resources;
+	}
+
+	/**
+	 * Returns the metadata of the content of an id without reading the content.  By default it is
+	 * taken from the id's resource; stores that can look it up more cheaply do so instead.
+	 *
+	 * @param id the id
+	 * @return the metadata
+	 */
+	default ContentMetadata getMetadata(SID id) {
+		Resource resource = getResource(id);
+		if (resource == null || !resource.exists()) {
+			return ContentMetadata.missing(id);
+		}
+		try {
+			return new ContentMetadata(id, resource.contentLength(), resource.lastModified(), null);
+		} catch (IOException ioe) {
+			throw new StoreAccessException(String.format("Unexpected error getting metadata of content %s", id.toString()), ioe);
+		}
+	}
+
+	/**
+	 * Returns the metadata of the content of each id, in the order of ids.
+	 *
+	 * @param ids the ids
+	 * @return the metadata, keyed by id
+	 */
+	default Map<SID, ContentMetadata> getMetadata(Collection<SID> ids) {
+		Map<SID, ContentMetadata> metadata = new LinkedHashMap<>();
+		for (SID id : ids) {
+			metadata.put(id, getMetadata(id));
+		}
+		return metadata;
+	}
+
+	/**
+	 * Returns the metadata of the content whose location starts with a prefix.  The stream is read
+	 * lazily, a page at a time, so it can list stores of any size; it should be closed once read.
+	 * The content id of each metadata is the content's location in the store, in no particular
+	 * order.  Stores that can list in parallel return streams that split, so
+	 * {@link Stream#parallel()} lists them in parallel.
+	 *
+	 * @param prefix the prefix, or null to list all the content
+	 * @return the metadata
+	 * @throws UnsupportedOperationException if the store cannot list its content
+	 */
+	default Stream<ContentMetadata> list(String prefix) {
+		throw new UnsupportedOperationException(String.format("%s cannot list its content", getClass().getName()));
+	}
+
+	/**
+	 * Copies the content of one id to another, replacing any content of the other.  By default
+	 * the content is read and written through the store's resources; stores that can copy
+	 * content without it passing through the application do so instead.
+	 *
+	 * @param from the id of the content to copy
+	 * @param to the id to copy it to
+	 */
+	default void copy(SID from, SID to) {
+		if (from.equals(to)) {
+			return;
+		}
+		Resource source = getResource(from);
+		if (source == null || !source.exists()) {
+			throw new StoreAccessException(String.format("No content %s to copy", from.toString()));
+		}
+		Resource target = getResource(to);
+		if (!(target instanceof WritableResource)) {
+			throw new StoreAccessException(String.format("Unable to copy content to %s that is not writable", to.toString()));
+		}
+		try (InputStream in = source.getInputStream(); OutputStream out = ((WritableResource) target).getOutputStream()) {
+			IOUtils.copyLarge(in, out);
+		} catch (IOException ioe) {
+			throw new StoreAccessException(String.format("Unexpected error copying content %s to %s", from.toString(), to.toString()), ioe);
+		}
+	}
+
+	/**
+	 * Moves the content of one id to another, replacing any content of the other.  By default
+	 * the content is copied and then deleted; stores that can rename content do so instead.
+	 *
+	 * @param from the id of the content to move
+	 * @param to the id to move it to
+	 */
+	default void move(SID from, SID to) {
+		if (from.equals(to)) {
+			return;
+		}
+		copy(from, to);
+		Resource source = getResource(from);
+		if (!(source instanceof DeletableResource)) {
+			throw new StoreAccessException(String.format("Unable to move content %s that is not deletable", from.toString()));
+		}
+		((DeletableResource) source).delete();
+	}
 }
@@ -5,6 +5,19 @@ import java.util.Set;
 
 import org.aopalliance.intercept.MethodInvocation;
 
+/**
+ * Implements methods of store interfaces, such as those of a store's custom fragments, or
+ * replaces the store's own implementation of its methods.
+ * <p>
+ * An extension replaces the store method it extends altogether, so no store events are published
+ * for it.  When the {@literal spring.content.events.around-extensions} property is
+ * {@literal true}, an extension of a {@link ContentStore} content method, such as
+ * {@code getContent}, {@code setContent} or {@code unsetContent}, or their bulk equivalents,
+ * instead runs inside that method's events: its before event is published first, and its after
+ * event once the extension returns, exactly as for the store's own implementation.  A before
+ * event handler that throws then stops the extension from being invoked.  Extensions of any other
+ * method are always invoked without publishing events.
+ */
 public interface StoreExtension {
 	Set<Method> getMethods();
 	Object invoke(MethodInvocation invocation, StoreInvoker invoker);
@@ -9,6 +9,17 @@ public interface StoreInvoker {
 
     Class<? extends Serializable> getContentIdClass();
 
+    /**
+     * Returns the store interface the invoked store proxy implements.  Extensions that are
+     * configured per store, by annotations on its interface or by properties named after it,
+     * are not enabled for invokers that do not know it.
+     *
+     * @return the store interface, or null when it is not known
+     */
+    default Class<?> getStoreInterface() {
+        return null;
+    }
+
 	InputStream invokeGetContent();
 
 }
@@ -2,27 +2,96 @@ package org.springframework.content.commons.repository.events;
 
 import static org.springframework.core.GenericTypeResolver.resolveTypeArgument;
 
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.content.commons.repository.StoreEvent;
 import org.springframework.context.ApplicationListener;
 
 public abstract class AbstractStoreEventListener<T>
 		implements ApplicationListener<StoreEvent> {
 
+	private static final Map<Class<? extends StoreEvent>, String> HANDLER_NAMES = new HashMap<>();
+
+	static {
+		HANDLER_NAMES.put(BeforeGetContentEvent.class, "onBeforeGetContent");
+		HANDLER_NAMES.put(AfterGetContentEvent.class, "onAfterGetContent");
+		HANDLER_NAMES.put(BeforeSetContentEvent.class, "onBeforeSetContent");
+		HANDLER_NAMES.put(AfterSetContentEvent.class, "onAfterSetContent");
+		HANDLER_NAMES.put(BeforeUnsetContentEvent.class, "onBeforeUnsetContent");
+		HANDLER_NAMES.put(AfterUnsetContentEvent.class, "onAfterUnsetContent");
+		HANDLER_NAMES.put(BeforeSetContentsEvent.class, "onBeforeSetContents");
+		HANDLER_NAMES.put(AfterSetContentsEvent.class, "onAfterSetContents");
+		HANDLER_NAMES.put(BeforeUnsetContentsEvent.class, "onBeforeUnsetContents");
+		HANDLER_NAMES.put(AfterUnsetContentsEvent.class, "onAfterUnsetContents");
+	}
+
 	private final Class<?> INTERESTED_TYPE = resolveTypeArgument(getClass(), AbstractStoreEventListener.class);
 
+	private final Set<String> overriddenHandlers = findOverriddenHandlers(getClass());
+
+	private AsyncStoreEventDispatcher dispatcher;
+
+	/**
+	 * Delivers {@literal after} events through the given dispatcher, rather than on the thread
+	 * that published them.
+	 * 
+	 * @param dispatcher the dispatcher, or null for synchronous delivery
+	 */
+	@Autowired(required=false)
+	public void setAsyncStoreEventDispatcher(AsyncStoreEventDispatcher dispatcher) {
+		this.dispatcher = dispatcher;
+	}
+
+	/**
+	 * Returns whether this listener overrides a handler for the given event type and is interested
+	 * in content entities of the given type.
+	 * 
+	 * @param eventType the type of event
+	 * @param sourceType the type of content entity the event is for
+	 * @return true if an event of this type would be handled
+	 */
+	public boolean handles(Class<? extends StoreEvent> eventType, Class<?> sourceType) {
+		if (null != INTERESTED_TYPE && !INTERESTED_TYPE.isAssignableFrom(sourceType)) {
+			return false;
+		}
+		for (Map.Entry<Class<? extends StoreEvent>, String> handler : HANDLER_NAMES.entrySet()) {
+			if (handler.getKey().isAssignableFrom(eventType) && overriddenHandlers.contains(handler.getValue())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.springframework.context.ApplicationListener#onApplicationEvent(org.springframework.context.ApplicationEvent)
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	public final void onApplicationEvent(StoreEvent event) {
 
 		Class<?> srcType = event.getSource().getClass();
+		if (event instanceof BatchStoreEvent) {
+			srcType = ((BatchStoreEvent) event).getDomainClass();
+		}
 
-		if (null != INTERESTED_TYPE && !INTERESTED_TYPE.isAssignableFrom(srcType)) {
+		if (null != INTERESTED_TYPE && null != srcType && !INTERESTED_TYPE.isAssignableFrom(srcType)) {
 			return;
 		}
 
+		if (dispatcher != null && AsyncStoreEventDispatcher.isAsync(event)) {
+			dispatcher.dispatch(event, () -> handleEvent(event));
+		} else {
+			handleEvent(event);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void handleEvent(StoreEvent event) {
 		if (event instanceof BeforeGetContentEvent) {
 			onBeforeGetContent((BeforeGetContentEvent) event);
 			onBeforeGetContent((T) event.getSource());
@@ -41,6 +110,18 @@ public abstract class AbstractStoreEventListener<T>
 		} else if (event instanceof AfterUnsetContentEvent) {
 			onAfterUnsetContent((AfterUnsetContentEvent) event);
 			onAfterUnsetContent((T) event.getSource());
+		} else if (event instanceof BeforeSetContentsEvent) {
+			onBeforeSetContents((BeforeSetContentsEvent) event);
+			onBeforeSetContents((Collection<T>) event.getSource());
+		} else if (event instanceof AfterSetContentsEvent) {
+			onAfterSetContents((AfterSetContentsEvent) event);
+			onAfterSetContents((Collection<T>) event.getSource());
+		} else if (event instanceof BeforeUnsetContentsEvent) {
+			onBeforeUnsetContents((BeforeUnsetContentsEvent) event);
+			onBeforeUnsetContents((Collection<T>) event.getSource());
+		} else if (event instanceof AfterUnsetContentsEvent) {
+			onAfterUnsetContents((AfterUnsetContentsEvent) event);
+			onAfterUnsetContents((Collection<T>) event.getSource());
 		}
 	}
 	
@@ -127,4 +208,72 @@ public abstract class AbstractStoreEventListener<T>
 	 * @param entity The content entity being removed.
 	 */
 	protected void onAfterUnsetContent(T entity) {}
+
+	/**
+	 * Override this method if you are interested in {@literal beforeSetContents} events.
+	 * 
+	 * @param event The content event
+	 */
+	protected void onBeforeSetContents(BeforeSetContentsEvent event) {}
+
+	/**
+	 * Override this method if you are interested in {@literal beforeSetContents} events.
+	 * 
+	 * @param entities The content entities being updated.
+	 */
+	protected void onBeforeSetContents(Collection<T> entities) {}
+
+	/**
+	 * Override this method if you are interested in {@literal afterSetContents} events.
+	 * 
+	 * @param event The content event
+	 */
+	protected void onAfterSetContents(AfterSetContentsEvent event) {}
+
+	/**
+	 * Override this method if you are interested in {@literal afterSetContents} events.
+	 * 
+	 * @param entities The content entities being updated.
+	 */
+	protected void onAfterSetContents(Collection<T> entities) {}
+
+	/**
+	 * Override this method if you are interested in {@literal beforeUnsetContents} events.
+	 * 
+	 * @param event The content event
+	 */
+	protected void onBeforeUnsetContents(BeforeUnsetContentsEvent event) {}
+
+	/**
+	 * Override this method if you are interested in {@literal beforeUnsetContents} events.
+	 * 
+	 * @param entities The content entities being removed.
+	 */
+	protected void onBeforeUnsetContents(Collection<T> entities) {}
+
+	/**
+	 * Override this method if you are interested in {@literal afterUnsetContents} events.
+	 * 
+	 * @param event The content event
+	 */
+	protected void onAfterUnsetContents(AfterUnsetContentsEvent event) {}
+
+	/**
+	 * Override this method if you are interested in {@literal afterUnsetContents} events.
+	 * 
+	 * @param entities The content entities being removed.
+	 */
+	protected void onAfterUnsetContents(Collection<T> entities) {}
+
+	private static Set<String> findOverriddenHandlers(Class<?> listenerType) {
+		Set<String> handlers = new HashSet<>();
+		for (Class<?> type = listenerType; type != null && type != AbstractStoreEventListener.class; type = type.getSuperclass()) {
+			for (Method method : type.getDeclaredMethods()) {
+				if (HANDLER_NAMES.containsValue(method.getName())) {
+					handlers.add(method.getName());
+				}
+			}
+		}
+		return handlers;
+	}
 }
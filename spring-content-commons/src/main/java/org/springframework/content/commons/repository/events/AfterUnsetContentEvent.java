@@ -9,8 +9,24 @@ public class AfterUnsetContentEvent extends StoreEvent {
 
 	private static final long serialVersionUID = 3984922393423249069L;
 
+	private final Object contentId;
+
 	public AfterUnsetContentEvent(Object source, ContentStore<Object,Serializable> store) {
+		this(source, null, store);
+	}
+
+	public AfterUnsetContentEvent(Object source, Object contentId, ContentStore<Object,Serializable> store) {
 		super(source, store);
+		this.contentId = contentId;
 	}
 
+	/**
+	 * Returns the id of the content that was unset, as the entity's content id is reset when its
+	 * content is unset.
+	 *
+	 * @return the content id, or null if not known
+	 */
+	public Object getContentId() {
+		return contentId;
+	}
 }
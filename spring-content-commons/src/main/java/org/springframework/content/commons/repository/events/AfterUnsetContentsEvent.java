@@ -0,0 +1,16 @@
+package org.springframework.content.commons.repository.events;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+import org.springframework.content.commons.repository.ContentStore;
+
+public class AfterUnsetContentsEvent extends BatchStoreEvent {
+
+	private static final long serialVersionUID = 1946225383049612570L;
+
+	public AfterUnsetContentsEvent(Collection<?> entities, Class<?> domainClass, ContentStore<Object,Serializable> store) {
+		super(entities, domainClass, store);
+	}
+
+}
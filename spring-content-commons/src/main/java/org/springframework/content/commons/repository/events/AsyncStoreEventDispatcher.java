@@ -0,0 +1,253 @@
+package org.springframework.content.commons.repository.events;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.repository.StoreEvent;
+import org.springframework.content.commons.utils.BeanUtils;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Delivers {@literal after} store events asynchronously.
+ * <p>
+ * Declaring a bean of this type switches {@link AbstractStoreEventListener}s and annotated
+ * {@link org.springframework.content.commons.annotations.StoreEventHandler}s to asynchronous
+ * delivery of {@link AfterGetContentEvent}s, {@link AfterSetContentEvent}s and
+ * {@link AfterUnsetContentEvent}s.  {@literal Before} events are always delivered on the
+ * caller's thread so that handlers can still veto the operation by throwing.
+ * <p>
+ * Events are striped by the content id of their entity (or the entity itself when it has no
+ * content id), or by the content id an entity had when its content was unset, and each stripe
+ * delivers its events one at a time, in the order they were dispatched, so events for the same
+ * content are never re-ordered.  Events are queued up to a fixed capacity, after which they are
+ * dropped and counted.  Queue depth, delivery lag and drops are exposed as managed attributes.
+ * <p>
+ * Any {@link Executor} can be supplied, for example one creating a virtual thread per task where
+ * the runtime offers them.  By default a fixed pool of daemon threads, one per stripe, is used.
+ */
+@ManagedResource(description = "Asynchronous store event delivery")
+public class AsyncStoreEventDispatcher implements DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(AsyncStoreEventDispatcher.class);
+
+	public static final int DEFAULT_CAPACITY = 10000;
+	public static final int DEFAULT_STRIPES = Runtime.getRuntime().availableProcessors();
+
+	// events delivered per executor task before a stripe yields its thread
+	private static final int BATCH_SIZE = 64;
+
+	private final Executor executor;
+	private final boolean ownsExecutor;
+	private final int capacity;
+	private final Stripe[] stripes;
+
+	private final AtomicInteger depth = new AtomicInteger();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong delivered = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private volatile long lastLag = 0L;
+	private volatile long maxLag = 0L;
+
+	public AsyncStoreEventDispatcher() {
+		this(DEFAULT_CAPACITY, DEFAULT_STRIPES);
+	}
+
+	public AsyncStoreEventDispatcher(int capacity, int stripes) {
+		this(defaultExecutor(stripes), true, capacity, stripes);
+	}
+
+	public AsyncStoreEventDispatcher(Executor executor, int capacity, int stripes) {
+		this(executor, false, capacity, stripes);
+	}
+
+	private AsyncStoreEventDispatcher(Executor executor, boolean ownsExecutor, int capacity, int stripes) {
+		Assert.notNull(executor, "executor must not be null");
+		Assert.isTrue(capacity > 0, "capacity must be greater than 0");
+		Assert.isTrue(stripes > 0, "stripes must be greater than 0");
+		this.executor = executor;
+		this.ownsExecutor = ownsExecutor;
+		this.capacity = capacity;
+		this.stripes = new Stripe[stripes];
+		for (int i = 0; i < stripes; i++) {
+			this.stripes[i] = new Stripe();
+		}
+	}
+
+	/**
+	 * Returns whether the given event is delivered asynchronously.
+	 *
+	 * @param event the event
+	 * @return true for {@literal after} events
+	 */
+	public static boolean isAsync(StoreEvent event) {
+		return event instanceof AfterGetContentEvent ||
+			   event instanceof AfterSetContentEvent ||
+			   event instanceof AfterUnsetContentEvent;
+	}
+
+	/**
+	 * Queues delivery of an event.
+	 *
+	 * @param event the event being delivered
+	 * @param delivery delivers the event to its handlers
+	 * @return false if the queue was full and the event was dropped
+	 */
+	public boolean dispatch(StoreEvent event, Runnable delivery) {
+		if (depth.incrementAndGet() > capacity) {
+			depth.decrementAndGet();
+			dropped.incrementAndGet();
+			logger.warn(String.format("Store event queue full, dropping %s for %s", event.getClass().getSimpleName(), event.getSource()));
+			return false;
+		}
+		stripeFor(event).enqueue(new Delivery(event.getTimestamp(), delivery));
+		return true;
+	}
+
+	@ManagedAttribute(description = "Events queued for delivery")
+	public int getQueueDepth() {
+		return depth.get();
+	}
+
+	@ManagedAttribute(description = "Maximum number of queued events")
+	public int getCapacity() {
+		return capacity;
+	}
+
+	@ManagedAttribute(description = "Events dropped because the queue was full")
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	@ManagedAttribute(description = "Events delivered")
+	public long getDeliveredCount() {
+		return delivered.get();
+	}
+
+	@ManagedAttribute(description = "Events whose handlers threw an exception")
+	public long getFailedCount() {
+		return failed.get();
+	}
+
+	@ManagedAttribute(description = "Milliseconds between publication and delivery of the last event")
+	public long getLastLag() {
+		return lastLag;
+	}
+
+	@ManagedAttribute(description = "Largest number of milliseconds between publication and delivery of an event")
+	public long getMaxLag() {
+		return maxLag;
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		if (ownsExecutor) {
+			ExecutorService service = (ExecutorService) executor;
+			service.shutdown();
+			if (!service.awaitTermination(10, TimeUnit.SECONDS)) {
+				logger.warn(String.format("Timed out waiting for %d store events to be delivered", depth.get()));
+			}
+		}
+	}
+
+	private Stripe stripeFor(StoreEvent event) {
+		Object contentId = (event instanceof AfterUnsetContentEvent ? ((AfterUnsetContentEvent) event).getContentId() : null);
+		if (contentId == null) {
+			contentId = BeanUtils.getFieldWithAnnotation(event.getSource(), ContentId.class);
+		}
+		int hash = (contentId != null ? contentId.hashCode() : System.identityHashCode(event.getSource()));
+		hash ^= (hash >>> 16);
+		return stripes[Math.floorMod(hash, stripes.length)];
+	}
+
+	private void recordLag(long lag) {
+		lastLag = lag;
+		if (lag > maxLag) {
+			maxLag = lag;
+		}
+	}
+
+	private static ExecutorService defaultExecutor(int stripes) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("store-event-");
+		threadFactory.setDaemon(true);
+		return Executors.newFixedThreadPool(stripes, threadFactory);
+	}
+
+	private static final class Delivery {
+
+		private final long timestamp;
+		private final Runnable runnable;
+
+		Delivery(long timestamp, Runnable runnable) {
+			this.timestamp = timestamp;
+			this.runnable = runnable;
+		}
+	}
+
+	private final class Stripe implements Runnable {
+
+		private final Queue<Delivery> queue = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		void enqueue(Delivery delivery) {
+			queue.add(delivery);
+			schedule();
+		}
+
+		private void schedule() {
+			if (!scheduled.compareAndSet(false, true)) {
+				return;
+			}
+			try {
+				executor.execute(this);
+			} catch (RejectedExecutionException ree) {
+				scheduled.set(false);
+				int count = 0;
+				while (queue.poll() != null) {
+					depth.decrementAndGet();
+					dropped.incrementAndGet();
+					count++;
+				}
+				logger.error(String.format("Store event executor rejected delivery, dropped %d events", count), ree);
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				Delivery delivery;
+				int count = 0;
+				while (count++ < BATCH_SIZE && (delivery = queue.poll()) != null) {
+					depth.decrementAndGet();
+					recordLag(System.currentTimeMillis() - delivery.timestamp);
+					try {
+						delivery.runnable.run();
+						delivered.incrementAndGet();
+					} catch (Throwable t) {
+						failed.incrementAndGet();
+						logger.error("Store event handler failed", t);
+					}
+				}
+			} finally {
+				scheduled.set(false);
+				if (!queue.isEmpty()) {
+					schedule();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package org.springframework.content.commons.repository.events;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.StoreEvent;
+
+/**
+ * An event for a bulk content operation.  Its source is the collection of content entities the
+ * operation is for.
+ * <p>
+ * Batch events are published in addition to the events for each entity, and only when a listener
+ * handles them.
+ */
+public abstract class BatchStoreEvent extends StoreEvent {
+
+	private static final long serialVersionUID = 2468053562380527395L;
+
+	private final Class<?> domainClass;
+
+	public BatchStoreEvent(Collection<?> entities, Class<?> domainClass, ContentStore<Object,Serializable> store) {
+		super(Collections.unmodifiableCollection(entities), store);
+		this.domainClass = domainClass;
+	}
+
+	@SuppressWarnings("unchecked")
+	public Collection<Object> getEntities() {
+		return (Collection<Object>) getSource();
+	}
+
+	/**
+	 * Returns the content entity type of the store, or null if it is not known.
+	 *
+	 * @return the content entity type
+	 */
+	public Class<?> getDomainClass() {
+		return domainClass;
+	}
+}
@@ -0,0 +1,16 @@
+package org.springframework.content.commons.repository.events;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+import org.springframework.content.commons.repository.ContentStore;
+
+public class BeforeSetContentsEvent extends BatchStoreEvent {
+
+	private static final long serialVersionUID = -3390716046371874123L;
+
+	public BeforeSetContentsEvent(Collection<?> entities, Class<?> domainClass, ContentStore<Object,Serializable> store) {
+		super(entities, domainClass, store);
+	}
+
+}
@@ -0,0 +1,16 @@
+package org.springframework.content.commons.repository.events;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+import org.springframework.content.commons.repository.ContentStore;
+
+public class BeforeUnsetContentsEvent extends BatchStoreEvent {
+
+	private static final long serialVersionUID = -8163470941233514952L;
+
+	public BeforeUnsetContentsEvent(Collection<?> entities, Class<?> domainClass, ContentStore<Object,Serializable> store) {
+		super(entities, domainClass, store);
+	}
+
+}
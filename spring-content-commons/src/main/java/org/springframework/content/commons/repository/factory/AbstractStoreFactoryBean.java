@@ -4,9 +4,12 @@ import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -15,29 +18,47 @@ import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.content.commons.repository.AsyncContentStore;
 import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.ReactiveContentStore;
 import org.springframework.content.commons.repository.Store;
 import org.springframework.content.commons.repository.StoreExtension;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.core.env.Environment;
 import org.springframework.util.Assert;
 
+import internal.org.springframework.content.commons.repository.StoreEventListenerRegistry;
+import internal.org.springframework.content.commons.repository.factory.StoreExtensionChain;
 import internal.org.springframework.content.commons.repository.factory.StoreMethodInterceptor;
 
 public abstract class AbstractStoreFactoryBean
-	implements InitializingBean, FactoryBean<Store<? extends Serializable>>, BeanClassLoaderAware, ApplicationEventPublisherAware, StoreFactory {
+	implements InitializingBean, FactoryBean<Store<? extends Serializable>>, BeanClassLoaderAware, ApplicationEventPublisherAware, EnvironmentAware, StoreFactory {
 
 	private static Log logger = LogFactory.getLog(AbstractStoreFactoryBean.class);
+
+	private static final String EVENTS_AROUND_EXTENSIONS_PROPERTY = "spring.content.events.around-extensions";
 	
 	private Class<? extends Store<Serializable>> storeInterface;
 	private ClassLoader classLoader;
 	private ApplicationEventPublisher publisher;
+	private Environment environment;
 	
 	private Store<? extends Serializable> store;
 	
     @Autowired(required=false)
     private Set<StoreExtension> extensions;
 
+    @Autowired(required=false)
+    private StoreEventListenerRegistry listeners;
+
+    @Autowired(required=false)
+    @Qualifier(AsyncContentStore.EXECUTOR_BEAN_NAME)
+    private Executor asyncExecutor;
+
 	@Autowired
 	public void setStoreInterface(Class<? extends Store<Serializable>> storeInterface) {
 		Assert.notNull(storeInterface);
@@ -74,6 +95,14 @@ public abstract class AbstractStoreFactoryBean
 	public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
 		this.publisher = applicationEventPublisher;
 	}
+
+	/* (non-Javadoc)
+	 * @see org.springframework.context.EnvironmentAware#setEnvironment(org.springframework.core.env.Environment)
+	 */
+	@Override
+	public void setEnvironment(Environment environment) {
+		this.environment = environment;
+	}
 	
 	/*
 	 * (non-Javadoc)
@@ -126,10 +155,17 @@ public abstract class AbstractStoreFactoryBean
 		
 		Map<Method, StoreExtension> extensionsMap = new HashMap<>();
 		try {
-            for (StoreExtension extension : extensions) {
+			// extensions of the same method are chained, in order
+			List<StoreExtension> ordered = new ArrayList<>(extensions);
+			AnnotationAwareOrderComparator.sort(ordered);
+			Map<Method, List<StoreExtension>> chains = new HashMap<>();
+            for (StoreExtension extension : ordered) {
                 for (Method method : extension.getMethods()) {
-                    extensionsMap.put(method, extension);
+                    chains.computeIfAbsent(method, m -> new ArrayList<>()).add(extension);
                 }
+            }
+            for (Map.Entry<Method, List<StoreExtension>> chain : chains.entrySet()) {
+                extensionsMap.put(chain.getKey(), chain.getValue().size() == 1 ? chain.getValue().get(0) : new StoreExtensionChain(chain.getValue()));
             }
 		} catch (Exception e) {
 			logger.error("Failed to setup extensions", e);
@@ -138,7 +174,13 @@ public abstract class AbstractStoreFactoryBean
 																								getDomainClass(storeInterface), 
 																								getContentIdClass(storeInterface), 
 																								extensionsMap, 
-																								publisher);
+																								publisher,
+																								listeners);
+		intercepter.setExecutor(asyncExecutor);
+		intercepter.setStoreInterface(storeInterface);
+		if (environment != null) {
+			intercepter.setExtensionsInsideEvents(environment.getProperty(EVENTS_AROUND_EXTENSIONS_PROPERTY, Boolean.class, false));
+		}
 		result.addAdvice(intercepter);
 
 		return (Store<? extends Serializable>)result.getProxy(classLoader);
@@ -159,7 +201,9 @@ public abstract class AbstractStoreFactoryBean
         for ( Type t : types ) {
             if (t instanceof ParameterizedType) {
                 ParameterizedType pt = (ParameterizedType) t;
-                if (pt.getRawType().getTypeName().equals(ContentStore.class.getCanonicalName())) {
+                if (pt.getRawType().getTypeName().equals(ContentStore.class.getCanonicalName()) ||
+                    pt.getRawType().getTypeName().equals(AsyncContentStore.class.getCanonicalName()) ||
+                    pt.getRawType().getTypeName().equals(ReactiveContentStore.class.getCanonicalName())) {
                     types = pt.getActualTypeArguments();
                     if (types.length != 2) {
                         throw new IllegalStateException(String.format("ContentRepository class %s must have domain and contentId types", repositoryClass.getCanonicalName()));
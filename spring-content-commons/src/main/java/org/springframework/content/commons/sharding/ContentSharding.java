@@ -0,0 +1,660 @@
+package org.springframework.content.commons.sharding;
+
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.io.DeletableResource;
+import org.springframework.content.commons.repository.ContentMetadata;
+import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.Store;
+import org.springframework.content.commons.repository.StoreAccessException;
+import org.springframework.content.commons.repository.StoreExtension;
+import org.springframework.content.commons.repository.StoreInvoker;
+import org.springframework.content.commons.utils.BeanUtils;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import internal.org.springframework.content.commons.repository.factory.StoreExtensionChain;
+import internal.org.springframework.content.commons.sharding.ConsistentHashRing;
+import internal.org.springframework.content.commons.utils.ContentTransfers;
+
+/**
+ * Spreads the content of a store across several stores.
+ * <p>
+ * Declaring a bean of this type shards the content of every store interface annotated with
+ * {@link ShardedContent}, or enabled with the
+ * {@literal spring.content.sharding.stores.<StoreInterfaceSimpleName>.enabled} property.  The
+ * store itself and the stores named as its shards, for example stores of several buckets,
+ * databases or filesystem roots, are placed on a consistent-hash ring with virtual nodes and
+ * each content is kept in the shard its content id hashes to.  Content ids are generated before
+ * content is set, so the entity's {@link ContentId} must be convertible from a {@link UUID}; JPA
+ * stores, whose content ids are generated by the database, cannot be sharded.
+ * <p>
+ * When a shard is added only the content that hashes to it changes shard.  Until that content is
+ * moved with {@link #rebalance(Class)} it is found by looking in the other shards, in the order of
+ * the ring, so the store can be used while it is rebalanced.  Content set in the meantime is set
+ * in the shard it hashes to, where it is found first, and rebalancing deletes the older copy.
+ * Content unset in the meantime is deleted from every shard, so rebalancing does not bring it
+ * back.  The store is rebalanced by listing it, so its content must be listed by content id.
+ * Content is moved, and copied or moved to an id of another shard, through the shards'
+ * resources, which must be writable and deletable; the GridFS resources of MongoDB stores are
+ * neither, so their content cannot change shard.  Operations of each shard and contents moved are
+ * exposed as managed attributes.
+ * <p>
+ * A content is set, unset and moved by one operation at a time.  Operations on other content do
+ * not wait for it.
+ * <p>
+ * The virtual nodes of each shard are taken from the
+ * {@literal spring.content.sharding.virtual-nodes} property, when set.
+ */
+@ManagedResource(description = "Content sharding")
+public class ContentSharding implements StoreExtension, EnvironmentAware, ApplicationContextAware {
+
+	public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+	static final String PROPERTY_PREFIX = "spring.content.sharding.";
+
+	private static final Method getContentMethod = ReflectionUtils.findMethod(ContentStore.class, "getContent", Object.class);
+	private static final Method getContentRangeMethod = ReflectionUtils.findMethod(ContentStore.class, "getContent", Object.class, long.class, long.class);
+	private static final Method setContentMethod = ReflectionUtils.findMethod(ContentStore.class, "setContent", Object.class, InputStream.class);
+	private static final Method unsetContentMethod = ReflectionUtils.findMethod(ContentStore.class, "unsetContent", Object.class);
+	private static final Method setContentsMethod = ReflectionUtils.findMethod(ContentStore.class, "setContents", Map.class);
+	private static final Method unsetContentsMethod = ReflectionUtils.findMethod(ContentStore.class, "unsetContents", Collection.class);
+	private static final Method getResourceMethod = ReflectionUtils.findMethod(Store.class, "getResource", Serializable.class);
+	private static final Method getResourcesMethod = ReflectionUtils.findMethod(Store.class, "getResources", Collection.class);
+	private static final Method getMetadataMethod = ReflectionUtils.findMethod(Store.class, "getMetadata", Serializable.class);
+	private static final Method getMetadatasMethod = ReflectionUtils.findMethod(Store.class, "getMetadata", Collection.class);
+	private static final Method listMethod = ReflectionUtils.findMethod(Store.class, "list", String.class);
+	private static final Method copyMethod = ReflectionUtils.findMethod(Store.class, "copy", Serializable.class, Serializable.class);
+	private static final Method moveMethod = ReflectionUtils.findMethod(Store.class, "move", Serializable.class, Serializable.class);
+
+	// the content being set, unset or moved, by id, each released once the operation is done
+	private final ConcurrentMap<Serializable, CountDownLatch> claims = new ConcurrentHashMap<>();
+
+	private int virtualNodes = DEFAULT_VIRTUAL_NODES;
+	private Environment env;
+	private ApplicationContext context;
+
+	private final ConversionService conversion = new DefaultConversionService();
+	private final ConcurrentMap<Object, Optional<Sharding>> shardings = new ConcurrentHashMap<>();
+
+	public void setVirtualNodes(int virtualNodes) {
+		this.virtualNodes = virtualNodes;
+	}
+
+	@Override
+	public void setEnvironment(Environment env) {
+		this.env = env;
+		virtualNodes = env.getProperty(PROPERTY_PREFIX + "virtual-nodes", Integer.class, virtualNodes);
+	}
+
+	@Override
+	public void setApplicationContext(ApplicationContext context) {
+		this.context = context;
+	}
+
+	@Override
+	public Set<Method> getMethods() {
+		Set<Method> methods = new HashSet<>();
+		methods.add(getContentMethod);
+		methods.add(getContentRangeMethod);
+		methods.add(setContentMethod);
+		methods.add(unsetContentMethod);
+		methods.add(setContentsMethod);
+		methods.add(unsetContentsMethod);
+		methods.add(getResourceMethod);
+		methods.add(getResourcesMethod);
+		methods.add(getMetadataMethod);
+		methods.add(getMetadatasMethod);
+		methods.add(listMethod);
+		methods.add(copyMethod);
+		methods.add(moveMethod);
+		return methods;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Object invoke(MethodInvocation invocation, StoreInvoker invoker) {
+		Object[] args = invocation.getArguments();
+		Sharding sharding = sharding(invocation.getThis(), invoker.getStoreInterface());
+		Method method = invocation.getMethod();
+		if (sharding != null && listMethod.equals(method)) {
+			return list(sharding, invocation);
+		}
+		if (sharding == null || args.length == 0 || args[0] == null) {
+			return StoreExtensionChain.proceed(invocation);
+		}
+
+		if (getResourceMethod.equals(method)) {
+			Shard shard = locate(sharding, (Serializable) args[0]);
+			return (shard.local ? StoreExtensionChain.proceed(invocation) : shard.store().getResource((Serializable) args[0]));
+		}
+		if (getResourcesMethod.equals(method)) {
+			return getResources(sharding, invocation);
+		}
+		if (getMetadataMethod.equals(method)) {
+			return getMetadata(sharding, invocation, (Serializable) args[0]);
+		}
+		if (getMetadatasMethod.equals(method)) {
+			return getMetadatas(sharding, invocation);
+		}
+		if (copyMethod.equals(method) || moveMethod.equals(method)) {
+			return transfer(sharding, invocation);
+		}
+		if (setContentsMethod.equals(method) || unsetContentsMethod.equals(method)) {
+			return invokeAll(sharding, invocation);
+		}
+
+		boolean set = setContentMethod.equals(method);
+		Serializable contentId = (set ? assign(args[0]) : (Serializable) BeanUtils.getFieldWithAnnotation(args[0], ContentId.class));
+		if (contentId == null) {
+			return StoreExtensionChain.proceed(invocation);
+		}
+		if (getContentMethod.equals(method) || getContentRangeMethod.equals(method)) {
+			return invoke(locate(sharding, contentId), invocation, args);
+		}
+		CountDownLatch claim = claim(contentId);
+		try {
+			Shard shard = (set ? sharding.ring.get(contentId) : locate(sharding, contentId));
+			Object result = invoke(shard, invocation, args);
+			if (!set) {
+				purge(sharding, contentId, shard);
+			}
+			return result;
+		} finally {
+			release(contentId, claim);
+		}
+	}
+
+	/**
+	 * Moves the content of a store to the shard it hashes to, for example after a shard was added,
+	 * deleting any other copy of it.  The content is found by listing the store.  Content already
+	 * in its shard is left where it is, so only content that changed shard is moved.  The store can
+	 * be used while it is rebalanced.
+	 *
+	 * @param storeInterface the sharded store interface
+	 * @return the number of contents moved
+	 * @throws UnsupportedOperationException if a shard cannot list its content
+	 */
+	@SuppressWarnings("unchecked")
+	public long rebalance(Class<?> storeInterface) {
+		Assert.state(context != null, "Unable to rebalance a store without an application context");
+		Object store = context.getBean(storeInterface);
+		Sharding sharding = sharding(target(store, storeInterface), storeInterface);
+		Assert.state(sharding != null, String.format("%s is not sharded", storeInterface.getName()));
+		Assert.state(store instanceof Store, String.format("%s is not a store", storeInterface.getName()));
+
+		long moved = 0L;
+		try (Stream<ContentMetadata> listed = ((Store<Serializable>) store).list(null)) {
+			Iterator<ContentMetadata> contents = listed.iterator();
+			while (contents.hasNext()) {
+				Serializable contentId = contents.next().getContentId();
+				if (contentId != null && rebalance(sharding, contentId)) {
+					moved++;
+				}
+			}
+		}
+		return moved;
+	}
+
+	@ManagedAttribute(description = "Shards of each store")
+	public Map<String, Integer> getShardCounts() {
+		Map<String, Integer> counts = new TreeMap<>();
+		for (Optional<Sharding> sharding : shardings.values()) {
+			sharding.ifPresent(s -> counts.put(s.name, s.ring.size()));
+		}
+		return counts;
+	}
+
+	@ManagedAttribute(description = "Content operations routed to each shard of each store")
+	public Map<String, Long> getShardOperations() {
+		return collect(shard -> shard.operations.get());
+	}
+
+	@ManagedAttribute(description = "Contents moved to each shard of each store by rebalancing")
+	public Map<String, Long> getRebalancedContents() {
+		return collect(shard -> shard.rebalanced.get());
+	}
+
+	@ManagedAttribute(description = "Bytes of content moved to each shard of each store by rebalancing")
+	public Map<String, Long> getRebalancedBytes() {
+		return collect(shard -> shard.rebalancedBytes.get());
+	}
+
+	private boolean rebalance(Sharding sharding, Serializable contentId) {
+		CountDownLatch claim = claim(contentId);
+		try {
+			List<Shard> shards = sharding.ring.members(contentId);
+			Shard owner = shards.get(0);
+			Resource target = owner.resource(contentId);
+			boolean moved = false;
+			for (Shard shard : shards.subList(1, shards.size())) {
+				Resource resource = shard.resource(contentId);
+				if (resource == null || !resource.exists()) {
+					continue;
+				}
+				if (!target.exists()) {
+					long length = ContentTransfers.copy(resource, target, contentId);
+					if (length < 0) {
+						continue;
+					}
+					owner.rebalanced.incrementAndGet();
+					owner.rebalancedBytes.addAndGet(length);
+					moved = true;
+				}
+				Assert.isInstanceOf(DeletableResource.class, resource, String.format("Unable to delete %s", resource.getDescription()));
+				((DeletableResource) resource).delete();
+			}
+			return moved;
+		} finally {
+			release(contentId, claim);
+		}
+	}
+
+	/*
+	 * Returns the shard the content is in, looking in the shards in the order of the ring when
+	 * it is not yet in the shard it hashes to, or the shard it hashes to if it is in none.
+	 */
+	private Shard locate(Sharding sharding, Serializable contentId) {
+		List<Shard> shards = sharding.ring.members(contentId);
+		for (Shard shard : shards) {
+			Resource resource = shard.resource(contentId);
+			if (resource != null && resource.exists()) {
+				return shard;
+			}
+		}
+		return shards.get(0);
+	}
+
+	/*
+	 * Deletes the copies of unset content in every shard but the one it was unset from, so that
+	 * rebalancing does not copy it back.  The older copies of content that is set are left for
+	 * rebalancing to delete, as the content set is found before them.
+	 */
+	private void purge(Sharding sharding, Serializable contentId, Shard except) {
+		for (Shard shard : sharding.shards) {
+			if (shard == except) {
+				continue;
+			}
+			Resource resource = shard.resource(contentId);
+			if (resource != null && resource.exists()) {
+				Assert.isInstanceOf(DeletableResource.class, resource, String.format("Unable to delete %s", resource.getDescription()));
+				((DeletableResource) resource).delete();
+			}
+		}
+	}
+
+	private Object invoke(Shard shard, MethodInvocation invocation, Object[] args) {
+		shard.operations.incrementAndGet();
+		if (shard.local) {
+			return StoreExtensionChain.proceed(invocation);
+		}
+		return ReflectionUtils.invokeMethod(invocation.getMethod(), shard.store, args);
+	}
+
+	/*
+	 * Copies or moves content with the store of its shard when the other id hashes to the same
+	 * shard, and otherwise through the resources of the two shards.
+	 */
+	private Object transfer(Sharding sharding, MethodInvocation invocation) {
+		Object[] args = invocation.getArguments();
+		Serializable from = (Serializable) args[0];
+		Serializable to = (Serializable) args[1];
+		if (from.equals(to)) {
+			return null;
+		}
+		CountDownLatch claim = claim(to);
+		try {
+			Shard source = locate(sharding, from);
+			Shard target = sharding.ring.get(to);
+			if (source == target) {
+				return invoke(source, invocation, args);
+			}
+
+			Resource resource = source.resource(from);
+			if (resource == null || !resource.exists()) {
+				throw new StoreAccessException(String.format("No content %s to copy", from.toString()));
+			}
+			target.operations.incrementAndGet();
+			if (ContentTransfers.copy(resource, target.resource(to), to) < 0) {
+				throw new StoreAccessException(String.format("Unable to copy content %s to %s", from.toString(), to.toString()));
+			}
+			if (moveMethod.equals(invocation.getMethod())) {
+				Assert.isInstanceOf(DeletableResource.class, resource, String.format("Unable to delete %s", resource.getDescription()));
+				((DeletableResource) resource).delete();
+			}
+			return null;
+		} finally {
+			release(to, claim);
+		}
+	}
+
+	/*
+	 * Gets the resources of each shard in one call to the shard, in the order of the ids.
+	 */
+	@SuppressWarnings("unchecked")
+	private Object getResources(Sharding sharding, MethodInvocation invocation) {
+		Object[] args = invocation.getArguments();
+		Collection<Serializable> ids = (Collection<Serializable>) args[0];
+		Map<Shard, List<Serializable>> groups = new LinkedHashMap<>();
+		for (Serializable id : ids) {
+			groups.computeIfAbsent(locate(sharding, id), s -> new ArrayList<>()).add(id);
+		}
+
+		Map<Serializable, Resource> found = new LinkedHashMap<>();
+		for (Map.Entry<Shard, List<Serializable>> group : groups.entrySet()) {
+			args[0] = group.getValue();
+			try {
+				found.putAll((Map<Serializable, Resource>) invoke(group.getKey(), invocation, args));
+			} finally {
+				args[0] = ids;
+			}
+		}
+		Map<Serializable, Resource> resources = new LinkedHashMap<>();
+		for (Serializable id : ids) {
+			resources.put(id, found.get(id));
+		}
+		return resources;
+	}
+
+	/*
+	 * Returns the metadata of the content from the shard it hashes to or, when that shard does not
+	 * have it, from the first other shard that does, rather than locating the content first.
+	 */
+	private ContentMetadata getMetadata(Sharding sharding, MethodInvocation invocation, Serializable contentId) {
+		List<Shard> shards = sharding.ring.members(contentId);
+		ContentMetadata metadata = (ContentMetadata) invoke(shards.get(0), invocation, invocation.getArguments());
+		return (metadata.exists() ? metadata : elsewhere(shards, metadata));
+	}
+
+	/*
+	 * Gets the metadata from each shard in one call to the shard, grouping the ids by the shard
+	 * they hash to, in the order of the ids.
+	 */
+	@SuppressWarnings("unchecked")
+	private Object getMetadatas(Sharding sharding, MethodInvocation invocation) {
+		Object[] args = invocation.getArguments();
+		Collection<Serializable> ids = (Collection<Serializable>) args[0];
+		Map<Shard, List<Serializable>> groups = new LinkedHashMap<>();
+		for (Serializable id : ids) {
+			groups.computeIfAbsent(sharding.ring.get(id), s -> new ArrayList<>()).add(id);
+		}
+
+		Map<Serializable, ContentMetadata> found = new LinkedHashMap<>();
+		for (Map.Entry<Shard, List<Serializable>> group : groups.entrySet()) {
+			args[0] = group.getValue();
+			try {
+				found.putAll((Map<Serializable, ContentMetadata>) invoke(group.getKey(), invocation, args));
+			} finally {
+				args[0] = ids;
+			}
+		}
+		Map<Serializable, ContentMetadata> metadata = new LinkedHashMap<>();
+		for (Serializable id : ids) {
+			ContentMetadata m = found.get(id);
+			if (m == null) {
+				m = ContentMetadata.missing(id);
+			}
+			metadata.put(id, (m.exists() ? m : elsewhere(sharding.ring.members(id), m)));
+		}
+		return metadata;
+	}
+
+	/*
+	 * Lists each shard in turn, so only one shard's listing is read at a time.  Content being
+	 * rebalanced may be listed by both the shard it is leaving and the one it hashes to.
+	 */
+	@SuppressWarnings("unchecked")
+	private Stream<ContentMetadata> list(Sharding sharding, MethodInvocation invocation) {
+		Stream<ContentMetadata> listed = Stream.empty();
+		for (Shard shard : sharding.shards) {
+			listed = Stream.concat(listed, (Stream<ContentMetadata>) invoke(shard, invocation, invocation.getArguments()));
+		}
+		return listed;
+	}
+
+	// content not yet rebalanced to the shard it hashes to is in one of the others
+	private ContentMetadata elsewhere(List<Shard> shards, ContentMetadata missing) {
+		for (Shard shard : shards.subList(1, shards.size())) {
+			shard.operations.incrementAndGet();
+			ContentMetadata metadata = shard.store().getMetadata(missing.getContentId());
+			if (metadata.exists()) {
+				return metadata;
+			}
+		}
+		return missing;
+	}
+
+	/*
+	 * Sets or unsets the content of each shard in one call to the shard, and then deletes the
+	 * copies of unset content in the other shards.
+	 */
+	@SuppressWarnings("unchecked")
+	private Object invokeAll(Sharding sharding, MethodInvocation invocation) {
+		Object[] args = invocation.getArguments();
+		boolean set = setContentsMethod.equals(invocation.getMethod());
+		Map<Shard, Object> groups = new LinkedHashMap<>();
+		Map<Serializable, Shard> purges = new LinkedHashMap<>();
+		Collection<Object> entities = (set ? ((Map<Object, InputStream>) args[0]).keySet() : (Collection<Object>) args[0]);
+		for (Object entity : entities) {
+			Serializable contentId = (entity == null ? null : (set ? assign(entity) : (Serializable) BeanUtils.getFieldWithAnnotation(entity, ContentId.class)));
+			Shard shard = (contentId == null ? sharding.local : (set ? sharding.ring.get(contentId) : locate(sharding, contentId)));
+			if (contentId != null && !set) {
+				purges.put(contentId, shard);
+			}
+			if (set) {
+				((Map<Object, InputStream>) groups.computeIfAbsent(shard, s -> new LinkedHashMap<>())).put(entity, ((Map<Object, InputStream>) args[0]).get(entity));
+			} else {
+				((List<Object>) groups.computeIfAbsent(shard, s -> new ArrayList<>())).add(entity);
+			}
+		}
+
+		Object all = args[0];
+		try {
+			for (Map.Entry<Shard, Object> group : groups.entrySet()) {
+				args[0] = group.getValue();
+				invoke(group.getKey(), invocation, args);
+			}
+		} finally {
+			args[0] = all;
+		}
+		for (Map.Entry<Serializable, Shard> purge : purges.entrySet()) {
+			CountDownLatch claim = claim(purge.getKey());
+			try {
+				purge(sharding, purge.getKey(), purge.getValue());
+			} finally {
+				release(purge.getKey(), claim);
+			}
+		}
+		return null;
+	}
+
+	/*
+	 * Content is sharded by its id, so content without one is given one before it is set.
+	 */
+	private Serializable assign(Object entity) {
+		Object contentId = BeanUtils.getFieldWithAnnotation(entity, ContentId.class);
+		if (contentId == null) {
+			Class<?> type = BeanUtils.getFieldWithAnnotationType(entity, ContentId.class);
+			Assert.state(type != null && conversion.canConvert(UUID.class, type), String.format("Unable to generate a content id for %s", entity.getClass().getName()));
+			contentId = conversion.convert(UUID.randomUUID(), type);
+			BeanUtils.setFieldWithAnnotation(entity, ContentId.class, contentId);
+		}
+		return (Serializable) contentId;
+	}
+
+	/*
+	 * Waits until no other operation has the content and claims it, so that content is set, unset
+	 * and moved by one operation at a time without holding up operations on other content.
+	 */
+	private CountDownLatch claim(Serializable contentId) {
+		CountDownLatch claim = new CountDownLatch(1);
+		CountDownLatch other;
+		while ((other = claims.putIfAbsent(contentId, claim)) != null) {
+			try {
+				other.await();
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				throw new StoreAccessException(String.format("Interrupted waiting for content %s", contentId.toString()), ie);
+			}
+		}
+		return claim;
+	}
+
+	private void release(Serializable contentId, CountDownLatch claim) {
+		claims.remove(contentId, claim);
+		claim.countDown();
+	}
+
+	private <T> Map<String, T> collect(Function<Shard, T> value) {
+		Map<String, T> values = new TreeMap<>();
+		for (Optional<Sharding> sharding : shardings.values()) {
+			sharding.ifPresent(s -> {
+				for (Shard shard : s.shards) {
+					values.put(s.name + "/" + shard.name, value.apply(shard));
+				}
+			});
+		}
+		return values;
+	}
+
+	private Sharding sharding(Object store, Class<?> storeInterface) {
+		if (!(store instanceof Store) || storeInterface == null) {
+			return null;
+		}
+		Optional<Sharding> sharding = shardings.get(store);
+		if (sharding == null) {
+			sharding = shardings.computeIfAbsent(store, s -> Optional.ofNullable(createSharding(s, storeInterface)));
+		}
+		return sharding.orElse(null);
+	}
+
+	private Sharding createSharding(Object store, Class<?> storeInterface) {
+		String prefix = PROPERTY_PREFIX + "stores." + storeInterface.getSimpleName() + ".";
+		ShardedContent annotation = AnnotationUtils.findAnnotation(storeInterface, ShardedContent.class);
+		if (!property(prefix + "enabled", Boolean.class, annotation != null)) {
+			return null;
+		}
+
+		List<Class<?>> shardInterfaces = new ArrayList<>();
+		String[] shardNames = property(prefix + "shards", String[].class, null);
+		if (shardNames != null) {
+			for (String shardName : shardNames) {
+				shardInterfaces.add(ClassUtils.resolveClassName(shardName.trim(), storeInterface.getClassLoader()));
+			}
+		} else if (annotation != null) {
+			for (Class<?> shardInterface : annotation.shards()) {
+				shardInterfaces.add(shardInterface);
+			}
+		}
+
+		Map<String, Shard> shards = new LinkedHashMap<>();
+		Shard local = new Shard(storeInterface.getName(), store, true);
+		shards.put(local.name, local);
+		for (Class<?> shardInterface : shardInterfaces) {
+			if (shardInterface.equals(storeInterface)) {
+				continue;
+			}
+			Assert.state(context != null, String.format("Unable to find the shards of %s without an application context", storeInterface.getName()));
+			Object shard = target(context.getBean(shardInterface), shardInterface);
+			Assert.state(shard instanceof ContentStore && shard instanceof Store, String.format("Shard %s of %s is not a content store", shardInterface.getName(), storeInterface.getName()));
+			shards.put(shardInterface.getName(), new Shard(shardInterface.getName(), shard, false));
+		}
+
+		int nodes = property(prefix + "virtual-nodes", Integer.class, (annotation != null && annotation.virtualNodes() > 0 ? annotation.virtualNodes() : virtualNodes));
+		return new Sharding(storeInterface.getName(), local, shards, nodes);
+	}
+
+	/*
+	 * Returns the implementation of a store, so that calling a shard does not run its extensions
+	 * or publish its events a second time.
+	 */
+	private Object target(Object store, Class<?> storeInterface) {
+		if (store instanceof Advised) {
+			try {
+				return ((Advised) store).getTargetSource().getTarget();
+			} catch (Exception e) {
+				throw new IllegalStateException(String.format("Unable to get the implementation of %s", storeInterface.getName()), e);
+			}
+		}
+		return store;
+	}
+
+		private <T> T property(String key, Class<T> type, T defaultValue) {
+		T value = (env != null ? env.getProperty(key, type) : null);
+		return (value != null ? value : defaultValue);
+	}
+
+	private static class Sharding {
+
+		private final String name;
+		private final Shard local;
+		private final Collection<Shard> shards;
+		private final ConsistentHashRing<Shard> ring;
+
+		Sharding(String name, Shard local, Map<String, Shard> shards, int virtualNodes) {
+			this.name = name;
+			this.local = local;
+			this.shards = shards.values();
+			this.ring = new ConsistentHashRing<>(shards, virtualNodes);
+		}
+	}
+
+	private static class Shard {
+
+		private final String name;
+		private final Object store;
+		private final boolean local;
+
+		private final AtomicLong operations = new AtomicLong();
+		private final AtomicLong rebalanced = new AtomicLong();
+		private final AtomicLong rebalancedBytes = new AtomicLong();
+
+		Shard(String name, Object store, boolean local) {
+			this.name = name;
+			this.store = store;
+			this.local = local;
+		}
+
+		@SuppressWarnings("unchecked")
+		Store<Serializable> store() {
+			return (Store<Serializable>) store;
+		}
+
+		Resource resource(Serializable contentId) {
+			return store().getResource(contentId);
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package org.springframework.content.commons.sharding;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Spreads the content of a store interface across the store and other stores, its shards, with
+ * the application's {@link ContentSharding}.  Every attribute can be overridden with
+ * {@literal spring.content.sharding.stores.<StoreInterfaceSimpleName>.*} properties.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ShardedContent {
+
+	/**
+	 * The store interfaces of the shards other than the store itself.
+	 */
+	Class<?>[] shards() default {};
+
+	/**
+	 * The virtual nodes of each shard on the hash ring.
+	 */
+	int virtualNodes() default -1;
+}
@@ -0,0 +1,647 @@
+package org.springframework.content.commons.tiering;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.io.BoundedInputStream;
+import org.springframework.content.commons.io.DeletableResource;
+import org.springframework.content.commons.io.RangeableResource;
+import org.springframework.content.commons.repository.ContentMetadata;
+import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.Store;
+import org.springframework.content.commons.repository.StoreAccessException;
+import org.springframework.content.commons.repository.StoreExtension;
+import org.springframework.content.commons.repository.StoreInvoker;
+import org.springframework.content.commons.utils.BeanUtils;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import internal.org.springframework.content.commons.repository.factory.StoreExtensionChain;
+import internal.org.springframework.content.commons.tiering.HotTierIndex;
+import internal.org.springframework.content.commons.utils.ContentTransfers;
+
+/**
+ * Keeps content in a hot tier while it is used and moves it to a cold tier once it is not.
+ * <p>
+ * Declaring a bean of this type tiers the content of every store interface annotated with
+ * {@link TieredContent}, or enabled with the
+ * {@literal spring.content.tiering.stores.<StoreInterfaceSimpleName>.enabled} property.  The
+ * store itself is the hot tier and the store named as its cold store is the cold tier.  Content
+ * is set in the hot tier and keeps its content id in either tier.  Content read from the cold
+ * tier is served from it and promoted to the hot tier in the background.  Content copied or
+ * moved stays in the tier it is in.  A background mover demotes content unused for longer than
+ * the maximum age and, least recently used first, the content over the hot tier's capacity.
+ * <p>
+ * Content is moved through the stores' resources, so the resources of both stores must be
+ * writable and deletable, as those of the filesystem, S3 and in-memory stores are.  The hot tier
+ * only tracks content set or used since startup; content left in it from before is tracked
+ * once it is used.  Hit and migration counts of each store are exposed as managed attributes.
+ * <p>
+ * Defaults are taken from the {@literal spring.content.tiering.capacity}, in bytes, and the
+ * {@literal spring.content.tiering.max-age} and {@literal spring.content.tiering.interval}
+ * properties, in seconds, when set.
+ */
+@ManagedResource(description = "Content tiering")
+public class ContentTiering implements StoreExtension, EnvironmentAware, ApplicationContextAware, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(ContentTiering.class);
+
+	public static final long DEFAULT_CAPACITY = 10L * 1024L * 1024L * 1024L;
+	public static final long DEFAULT_INTERVAL = 60L;
+
+	static final String PROPERTY_PREFIX = "spring.content.tiering.";
+
+	private static final Method getContentMethod = ReflectionUtils.findMethod(ContentStore.class, "getContent", Object.class);
+	private static final Method getContentRangeMethod = ReflectionUtils.findMethod(ContentStore.class, "getContent", Object.class, long.class, long.class);
+	private static final Method setContentMethod = ReflectionUtils.findMethod(ContentStore.class, "setContent", Object.class, InputStream.class);
+	private static final Method unsetContentMethod = ReflectionUtils.findMethod(ContentStore.class, "unsetContent", Object.class);
+	private static final Method setContentsMethod = ReflectionUtils.findMethod(ContentStore.class, "setContents", Map.class);
+	private static final Method unsetContentsMethod = ReflectionUtils.findMethod(ContentStore.class, "unsetContents", Collection.class);
+	private static final Method getResourceMethod = ReflectionUtils.findMethod(Store.class, "getResource", Serializable.class);
+	private static final Method getMetadataMethod = ReflectionUtils.findMethod(Store.class, "getMetadata", Serializable.class);
+	private static final Method getMetadatasMethod = ReflectionUtils.findMethod(Store.class, "getMetadata", Collection.class);
+	private static final Method listMethod = ReflectionUtils.findMethod(Store.class, "list", String.class);
+	private static final Method copyMethod = ReflectionUtils.findMethod(Store.class, "copy", Serializable.class, Serializable.class);
+	private static final Method moveMethod = ReflectionUtils.findMethod(Store.class, "move", Serializable.class, Serializable.class);
+
+	// content is moved, set and unset under the lock of its id
+	private final Object[] locks = ContentTransfers.locks(256);
+
+	private long capacity = DEFAULT_CAPACITY;
+	private long maxAge = -1L;
+	private long interval = DEFAULT_INTERVAL;
+	private Environment env;
+	private ApplicationContext context;
+	private ScheduledExecutorService executor;
+
+	private final ConcurrentMap<Object, Optional<Tiering>> tierings = new ConcurrentHashMap<>();
+
+	public void setCapacity(long capacity) {
+		this.capacity = capacity;
+	}
+
+	public void setMaxAge(long maxAge) {
+		this.maxAge = maxAge;
+	}
+
+	/**
+	 * Sets the seconds between runs of the background mover.
+	 *
+	 * @param interval the interval
+	 */
+	public void setInterval(long interval) {
+		this.interval = interval;
+	}
+
+	/**
+	 * Sets the executor content is moved on.  By default a single daemon thread is used.
+	 *
+	 * @param executor the executor
+	 */
+	public void setExecutor(ScheduledExecutorService executor) {
+		this.executor = executor;
+	}
+
+	@Override
+	public void setEnvironment(Environment env) {
+		this.env = env;
+		capacity = env.getProperty(PROPERTY_PREFIX + "capacity", Long.class, capacity);
+		maxAge = env.getProperty(PROPERTY_PREFIX + "max-age", Long.class, maxAge);
+		interval = env.getProperty(PROPERTY_PREFIX + "interval", Long.class, interval);
+	}
+
+	@Override
+	public void setApplicationContext(ApplicationContext context) {
+		this.context = context;
+	}
+
+	@Override
+	public Set<Method> getMethods() {
+		Set<Method> methods = new HashSet<>();
+		methods.add(getContentMethod);
+		methods.add(getContentRangeMethod);
+		methods.add(setContentMethod);
+		methods.add(unsetContentMethod);
+		methods.add(setContentsMethod);
+		methods.add(unsetContentsMethod);
+		methods.add(getResourceMethod);
+		methods.add(getMetadataMethod);
+		methods.add(getMetadatasMethod);
+		methods.add(listMethod);
+		methods.add(copyMethod);
+		methods.add(moveMethod);
+		return methods;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Object invoke(MethodInvocation invocation, StoreInvoker invoker) {
+		Object[] args = invocation.getArguments();
+		Tiering tiering = tiering(invocation.getThis(), invoker.getStoreInterface());
+		Method method = invocation.getMethod();
+		if (tiering != null && listMethod.equals(method)) {
+			// content is deleted from one tier once it is copied to the other
+			return Stream.concat((Stream<ContentMetadata>) StoreExtensionChain.proceed(invocation), tiering.cold.list((String) args[0]));
+		}
+		if (tiering == null || args.length == 0 || args[0] == null) {
+			return StoreExtensionChain.proceed(invocation);
+		}
+
+		if (getResourceMethod.equals(method)) {
+			return getResource(tiering, (Serializable) args[0], invocation);
+		}
+		if (getMetadataMethod.equals(method)) {
+			ContentMetadata hot = (ContentMetadata) StoreExtensionChain.proceed(invocation);
+			return (hot.exists() ? hot : tiering.cold.getMetadata((Serializable) args[0]));
+		}
+		if (getMetadatasMethod.equals(method)) {
+			return getMetadata(tiering, invocation);
+		}
+		if (getContentMethod.equals(method) || getContentRangeMethod.equals(method)) {
+			return getContent(tiering, invocation);
+		}
+		if (copyMethod.equals(method) || moveMethod.equals(method)) {
+			return transfer(tiering, invocation);
+		}
+		if (setContentMethod.equals(method) || unsetContentMethod.equals(method)) {
+			Serializable contentId = (Serializable) BeanUtils.getFieldWithAnnotation(args[0], ContentId.class);
+			if (contentId == null) {
+				Object result = StoreExtensionChain.proceed(invocation);
+				if (setContentMethod.equals(method)) {
+					written(tiering, args[0]);
+				}
+				return result;
+			}
+			synchronized (ContentTransfers.lock(locks, contentId)) {
+				Object result = StoreExtensionChain.proceed(invocation);
+				if (setContentMethod.equals(method)) {
+					written(tiering, args[0]);
+				} else {
+					unset(tiering, contentId);
+				}
+				return result;
+			}
+		}
+
+		Collection<Object> entities = (setContentsMethod.equals(method) ? ((Map<Object, InputStream>) args[0]).keySet() : (Collection<Object>) args[0]);
+		List<Serializable> unset = new ArrayList<>();
+		if (unsetContentsMethod.equals(method)) {
+			for (Object entity : entities) {
+				Serializable contentId = (entity != null ? (Serializable) BeanUtils.getFieldWithAnnotation(entity, ContentId.class) : null);
+				if (contentId != null) {
+					unset.add(contentId);
+				}
+			}
+		}
+		Object result = StoreExtensionChain.proceed(invocation);
+		if (setContentsMethod.equals(method)) {
+			for (Object entity : entities) {
+				written(tiering, entity);
+			}
+		}
+		for (Serializable contentId : unset) {
+			synchronized (ContentTransfers.lock(locks, contentId)) {
+				unset(tiering, contentId);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Promotes the content read from the cold tier and demotes the content due to be demoted,
+	 * waiting for a move in progress to finish first.
+	 */
+	@ManagedOperation(description = "Moves content between tiers now")
+	public void migrate() {
+		for (Optional<Tiering> tiering : tierings.values()) {
+			tiering.ifPresent(this::move);
+		}
+	}
+
+	@ManagedAttribute(description = "Bytes of content tracked in the hot tier of each store")
+	public Map<String, Long> getHotSizes() {
+		return collect(t -> t.hot.getSize());
+	}
+
+	@ManagedAttribute(description = "Ratio of reads served by the hot tier to reads served by either tier of each store")
+	public Map<String, Double> getHotHitRatios() {
+		return collect(t -> {
+			long hits = t.hotHits.get() + t.coldHits.get();
+			return (hits > 0 ? (double) t.hotHits.get() / hits : 1.0d);
+		});
+	}
+
+	@ManagedAttribute(description = "Reads served by the cold tier of each store")
+	public Map<String, Long> getColdHits() {
+		return collect(t -> t.coldHits.get());
+	}
+
+	@ManagedAttribute(description = "Contents promoted to the hot tier of each store")
+	public Map<String, Long> getPromotions() {
+		return collect(t -> t.promotions.get());
+	}
+
+	@ManagedAttribute(description = "Bytes of content promoted to the hot tier of each store")
+	public Map<String, Long> getPromotedBytes() {
+		return collect(t -> t.promotedBytes.get());
+	}
+
+	@ManagedAttribute(description = "Contents demoted to the cold tier of each store")
+	public Map<String, Long> getDemotions() {
+		return collect(t -> t.demotions.get());
+	}
+
+	@ManagedAttribute(description = "Bytes of content demoted to the cold tier of each store")
+	public Map<String, Long> getDemotedBytes() {
+		return collect(t -> t.demotedBytes.get());
+	}
+
+	@ManagedAttribute(description = "Milliseconds spent moving content between the tiers of each store")
+	public Map<String, Long> getMigrationMillis() {
+		return collect(t -> TimeUnit.NANOSECONDS.toMillis(t.migrationNanos.get()));
+	}
+
+	@Override
+	public synchronized void destroy() throws Exception {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	private Object getResource(Tiering tiering, Serializable contentId, MethodInvocation invocation) {
+		Resource hot = (Resource) StoreExtensionChain.proceed(invocation);
+		if (hot != null && hot.exists()) {
+			hit(tiering, contentId, hot);
+			return hot;
+		}
+		Resource cold = tiering.cold.getResource(contentId);
+		if (cold != null && cold.exists()) {
+			tiering.coldHits.incrementAndGet();
+			schedulePromotion(tiering, contentId);
+			return cold;
+		}
+		return hot;
+	}
+
+	/*
+	 * Returns the metadata of the hot tier's content, and of the rest from the cold tier with one
+	 * call.  Reading metadata is not a hit, so no content is promoted.
+	 */
+	@SuppressWarnings("unchecked")
+	private Object getMetadata(Tiering tiering, MethodInvocation invocation) {
+		Map<Serializable, ContentMetadata> metadata = new LinkedHashMap<>((Map<Serializable, ContentMetadata>) StoreExtensionChain.proceed(invocation));
+		List<Serializable> cold = new ArrayList<>();
+		for (ContentMetadata hot : metadata.values()) {
+			if (!hot.exists()) {
+				cold.add(hot.getContentId());
+			}
+		}
+		if (!cold.isEmpty()) {
+			metadata.putAll(tiering.cold.getMetadata(cold));
+		}
+		return metadata;
+	}
+
+	private Object getContent(Tiering tiering, MethodInvocation invocation) {
+		Object[] args = invocation.getArguments();
+		Serializable contentId = (Serializable) BeanUtils.getFieldWithAnnotation(args[0], ContentId.class);
+		if (contentId == null) {
+			return StoreExtensionChain.proceed(invocation);
+		}
+		Resource hot = tiering.store.getResource(contentId);
+		if (hot != null && hot.exists()) {
+			hit(tiering, contentId, hot);
+			return StoreExtensionChain.proceed(invocation);
+		}
+
+		// the cold content is opened under its lock, and before its promotion is scheduled, so that
+		// a promotion cannot delete it in between
+		boolean inCold = false;
+		InputStream content = null;
+		synchronized (ContentTransfers.lock(locks, contentId)) {
+			Resource cold = tiering.cold.getResource(contentId);
+			if (cold != null && cold.exists()) {
+				inCold = true;
+				content = getContent(cold, contentId, invocation);
+			}
+		}
+		if (!inCold) {
+			// in neither tier, or promoted since the hot tier was looked at
+			return StoreExtensionChain.proceed(invocation);
+		}
+
+		tiering.coldHits.incrementAndGet();
+		if (content != null) {
+			schedulePromotion(tiering, contentId);
+		}
+		return content;
+	}
+
+	private InputStream getContent(Resource cold, Serializable contentId, MethodInvocation invocation) {
+		Object[] args = invocation.getArguments();
+		try {
+			if (!getContentRangeMethod.equals(invocation.getMethod())) {
+				return cold.getInputStream();
+			}
+			if (cold instanceof RangeableResource) {
+				return ((RangeableResource) cold).getInputStream((Long) args[1], (Long) args[2]);
+			}
+			return BoundedInputStream.range(cold.getInputStream(), (Long) args[1], (Long) args[2]);
+		} catch (IOException ioe) {
+			logger.error(String.format("Unexpected error getting content %s from the cold tier", contentId.toString()), ioe);
+		}
+		return null;
+	}
+
+	/*
+	 * Copies or moves content within the tier it is in, deleting any copy of the other id's
+	 * content in the other tier.  Content is not migrated meanwhile.
+	 */
+	private Object transfer(Tiering tiering, MethodInvocation invocation) {
+		Object[] args = invocation.getArguments();
+		Serializable from = (Serializable) args[0];
+		Serializable to = (Serializable) args[1];
+		if (from.equals(to)) {
+			return null;
+		}
+		boolean move = moveMethod.equals(invocation.getMethod());
+		tiering.moving.lock();
+		try {
+			synchronized (ContentTransfers.lock(locks, to)) {
+				Resource hot = tiering.store.getResource(from);
+				if (hot != null && hot.exists()) {
+					long length = length(hot);
+					Object result = StoreExtensionChain.proceed(invocation);
+					tiering.hot.put(to, length, System.currentTimeMillis());
+					if (move) {
+						tiering.hot.remove(from);
+					}
+					delete(tiering.cold.getResource(to));
+					moveIfOverCapacity(tiering);
+					return result;
+				}
+				Resource cold = tiering.cold.getResource(from);
+				if (cold == null || !cold.exists()) {
+					return StoreExtensionChain.proceed(invocation);
+				}
+				if (move) {
+					tiering.cold.move(from, to);
+				} else {
+					tiering.cold.copy(from, to);
+				}
+				tiering.hot.remove(to);
+				delete(tiering.store.getResource(to));
+				return null;
+			}
+		} finally {
+			tiering.moving.unlock();
+		}
+	}
+
+	private void hit(Tiering tiering, Serializable contentId, Resource hot) {
+		tiering.hotHits.incrementAndGet();
+		if (!tiering.hot.contains(contentId)) {
+			tiering.hot.touch(contentId, length(hot), System.currentTimeMillis());
+			moveIfOverCapacity(tiering);
+		} else {
+			tiering.hot.touch(contentId, 0L, System.currentTimeMillis());
+		}
+	}
+
+	/*
+	 * Content set in the hot tier replaces any copy in the cold tier.
+	 */
+	private void written(Tiering tiering, Object entity) {
+		Serializable contentId = (Serializable) BeanUtils.getFieldWithAnnotation(entity, ContentId.class);
+		if (contentId == null) {
+			return;
+		}
+		Object length = BeanUtils.getFieldWithAnnotation(entity, ContentLength.class);
+		tiering.hot.put(contentId, (length != null ? Long.parseLong(length.toString()) : length(tiering.store.getResource(contentId))), System.currentTimeMillis());
+		delete(tiering.cold.getResource(contentId));
+		moveIfOverCapacity(tiering);
+	}
+
+	private void unset(Tiering tiering, Serializable contentId) {
+		tiering.hot.remove(contentId);
+		delete(tiering.cold.getResource(contentId));
+	}
+
+	private void schedulePromotion(Tiering tiering, Serializable contentId) {
+		if (tiering.promoting.add(contentId)) {
+			tiering.pending.add(contentId);
+			executor().execute(() -> move(tiering));
+		}
+	}
+
+	private void moveIfOverCapacity(Tiering tiering) {
+		if (tiering.capacity >= 0 && tiering.hot.getSize() > tiering.capacity) {
+			executor().execute(() -> move(tiering));
+		}
+	}
+
+	private void move(Tiering tiering) {
+		tiering.moving.lock();
+		try {
+			Serializable contentId;
+			while ((contentId = tiering.pending.poll()) != null) {
+				try {
+					promote(tiering, contentId, System.nanoTime());
+				} finally {
+					tiering.promoting.remove(contentId);
+				}
+			}
+			for (Serializable candidate : tiering.hot.candidates(tiering.capacity, tiering.maxAge, System.currentTimeMillis())) {
+				demote(tiering, candidate, System.nanoTime());
+			}
+		} catch (RuntimeException e) {
+			logger.error(String.format("Unexpected error moving content of %s", tiering.name), e);
+		} finally {
+			tiering.moving.unlock();
+		}
+	}
+
+	private void promote(Tiering tiering, Serializable contentId, long started) {
+		synchronized (ContentTransfers.lock(locks, contentId)) {
+			Resource hot = tiering.store.getResource(contentId);
+			Resource cold = tiering.cold.getResource(contentId);
+			if (hot.exists() || !cold.exists()) {
+				return;
+			}
+			long length = ContentTransfers.copy(cold, hot, contentId);
+			if (length < 0) {
+				return;
+			}
+			delete(cold);
+			tiering.hot.put(contentId, length, System.currentTimeMillis());
+			tiering.promotions.incrementAndGet();
+			tiering.promotedBytes.addAndGet(length);
+			tiering.migrationNanos.addAndGet(System.nanoTime() - started);
+		}
+	}
+
+	private void demote(Tiering tiering, Serializable contentId, long started) {
+		synchronized (ContentTransfers.lock(locks, contentId)) {
+			Resource hot = tiering.store.getResource(contentId);
+			if (!hot.exists()) {
+				tiering.hot.remove(contentId);
+				return;
+			}
+			long length = ContentTransfers.copy(hot, tiering.cold.getResource(contentId), contentId);
+			if (length < 0) {
+				return;
+			}
+			delete(hot);
+			tiering.hot.remove(contentId);
+			tiering.demotions.incrementAndGet();
+			tiering.demotedBytes.addAndGet(length);
+			tiering.migrationNanos.addAndGet(System.nanoTime() - started);
+		}
+	}
+
+	private static void delete(Resource resource) {
+		if (resource != null && resource.exists()) {
+			Assert.isInstanceOf(DeletableResource.class, resource, String.format("Unable to delete %s", resource.getDescription()));
+			((DeletableResource) resource).delete();
+		}
+	}
+
+	private static long length(Resource resource) {
+		try {
+			return resource.contentLength();
+		} catch (IOException ioe) {
+			throw new StoreAccessException(String.format("Unexpected error getting the length of %s", resource.getDescription()), ioe);
+		}
+	}
+
+	private synchronized ScheduledExecutorService executor() {
+		if (executor == null) {
+			executor = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "content-tiering");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return executor;
+	}
+
+	private <T> Map<String, T> collect(Function<Tiering, T> value) {
+		Map<String, T> values = new TreeMap<>();
+		for (Optional<Tiering> tiering : tierings.values()) {
+			tiering.ifPresent(t -> values.put(t.name, value.apply(t)));
+		}
+		return values;
+	}
+
+	private Tiering tiering(Object store, Class<?> storeInterface) {
+		if (!(store instanceof Store) || storeInterface == null) {
+			return null;
+		}
+		Optional<Tiering> tiering = tierings.get(store);
+		if (tiering == null) {
+			tiering = tierings.computeIfAbsent(store, s -> Optional.ofNullable(createTiering(s, storeInterface)));
+		}
+		return tiering.orElse(null);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Tiering createTiering(Object store, Class<?> storeInterface) {
+		String prefix = PROPERTY_PREFIX + "stores." + storeInterface.getSimpleName() + ".";
+		TieredContent annotation = AnnotationUtils.findAnnotation(storeInterface, TieredContent.class);
+		if (!property(prefix + "enabled", Boolean.class, annotation != null)) {
+			return null;
+		}
+
+		Class<?> coldStore = (annotation != null && annotation.coldStore() != void.class ? annotation.coldStore() : null);
+		String coldStoreName = property(prefix + "cold-store", String.class, null);
+		if (coldStoreName != null) {
+			coldStore = ClassUtils.resolveClassName(coldStoreName, storeInterface.getClassLoader());
+		}
+		Assert.state(coldStore != null, String.format("No cold store set for %s", storeInterface.getName()));
+		Assert.state(context != null, String.format("Unable to find the cold store of %s without an application context", storeInterface.getName()));
+		Object cold = context.getBean(coldStore);
+		Assert.state(cold instanceof Store, String.format("Cold store %s of %s is not a store", coldStore.getName(), storeInterface.getName()));
+
+		long capacity = property(prefix + "capacity", Long.class, (annotation != null && annotation.capacity() >= 0 ? annotation.capacity() : this.capacity));
+		long maxAge = property(prefix + "max-age", Long.class, (annotation != null && annotation.maxAge() >= 0 ? annotation.maxAge() : this.maxAge));
+
+		Tiering tiering = new Tiering(storeInterface.getName(), (Store<Serializable>) store, (Store<Serializable>) cold, capacity, (maxAge >= 0 ? maxAge * 1000L : -1L));
+		if (interval > 0) {
+			executor().scheduleWithFixedDelay(() -> move(tiering), interval, interval, TimeUnit.SECONDS);
+		}
+		return tiering;
+	}
+
+	private <T> T property(String key, Class<T> type, T defaultValue) {
+		T value = (env != null ? env.getProperty(key, type) : null);
+		return (value != null ? value : defaultValue);
+	}
+
+	private static class Tiering {
+
+		private final String name;
+		private final Store<Serializable> store;
+		private final Store<Serializable> cold;
+		private final long capacity;
+		private final long maxAge;
+
+		private final HotTierIndex hot = new HotTierIndex();
+		private final Set<Serializable> promoting = ConcurrentHashMap.newKeySet();
+		private final Queue<Serializable> pending = new ConcurrentLinkedQueue<>();
+		private final ReentrantLock moving = new ReentrantLock();
+
+		private final AtomicLong hotHits = new AtomicLong();
+		private final AtomicLong coldHits = new AtomicLong();
+		private final AtomicLong promotions = new AtomicLong();
+		private final AtomicLong promotedBytes = new AtomicLong();
+		private final AtomicLong demotions = new AtomicLong();
+		private final AtomicLong demotedBytes = new AtomicLong();
+		private final AtomicLong migrationNanos = new AtomicLong();
+
+		Tiering(String name, Store<Serializable> store, Store<Serializable> cold, long capacity, long maxAge) {
+			this.name = name;
+			this.store = store;
+			this.cold = cold;
+			this.capacity = capacity;
+			this.maxAge = maxAge;
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package org.springframework.content.commons.tiering;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Keeps the content of a store interface in the store while it is used, as its hot tier, and
+ * moves it to another store, its cold tier, with the application's {@link ContentTiering}.
+ * Attributes left unset use the defaults of the {@link ContentTiering} and every attribute can
+ * be overridden with {@literal spring.content.tiering.stores.<StoreInterfaceSimpleName>.*}
+ * properties.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface TieredContent {
+
+	/**
+	 * The store interface of the cold tier.
+	 */
+	Class<?> coldStore() default void.class;
+
+	/**
+	 * The most bytes of content kept in the hot tier.
+	 */
+	long capacity() default -1L;
+
+	/**
+	 * The seconds since content was last used after which it is moved to the cold tier.
+	 */
+	long maxAge() default -1L;
+}
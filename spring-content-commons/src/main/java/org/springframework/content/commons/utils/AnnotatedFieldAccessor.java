@@ -0,0 +1,153 @@
+package org.springframework.content.commons.utils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Resolved accessor for the field of a class carrying a given annotation.
+ * <p>
+ * Getters and setters are bound once, as {@link MethodHandle}s, to the property's read and
+ * write methods when the field is exposed as a bean property, or to the field itself when it
+ * is not.  The fields of a proxy are empty, so a proxy's field is bound to the non-public getter
+ * and setter its entity declares, when there are any.  Instances are immutable and are cached
+ * per class by {@link ContentEntityMetadata}.
+ */
+final class AnnotatedFieldAccessor {
+
+	private static final Log logger = LogFactory.getLog(AnnotatedFieldAccessor.class);
+
+	static final AnnotatedFieldAccessor NONE = new AnnotatedFieldAccessor(null, null, null, null);
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final Field field;
+	private final Class<?> valueType;
+	private final MethodHandle getter;
+	private final MethodHandle setter;
+
+	private AnnotatedFieldAccessor(Field field, Class<?> valueType, MethodHandle getter, MethodHandle setter) {
+		this.field = field;
+		this.valueType = valueType;
+		this.getter = getter;
+		this.setter = setter;
+	}
+
+	static AnnotatedFieldAccessor forField(Class<?> beanClass, Field field, Class<? extends Annotation> annotationClass, boolean proxy) {
+		if (field == null || field.getAnnotation(annotationClass) == null) {
+			return NONE;
+		}
+
+		MethodHandle getter = null;
+		MethodHandle setter = null;
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			PropertyDescriptor descriptor = org.springframework.beans.BeanUtils.getPropertyDescriptor(beanClass, field.getName());
+			if (descriptor != null) {
+				// a property without one of its accessors is left to the bean wrapper so that it reports the error
+				Method readMethod = descriptor.getReadMethod();
+				if (readMethod != null) {
+					ReflectionUtils.makeAccessible(readMethod);
+					getter = lookup.unreflect(readMethod).asType(GETTER_TYPE);
+				}
+				Method writeMethod = descriptor.getWriteMethod();
+				if (writeMethod != null) {
+					ReflectionUtils.makeAccessible(writeMethod);
+					setter = lookup.unreflect(writeMethod).asType(SETTER_TYPE);
+				}
+			} else {
+				Method readMethod = (proxy ? findAccessor(beanClass, (boolean.class.equals(field.getType()) ? "is" : "get") + StringUtils.capitalize(field.getName())) : null);
+				Method writeMethod = (proxy ? findAccessor(beanClass, "set" + StringUtils.capitalize(field.getName()), field.getType()) : null);
+				ReflectionUtils.makeAccessible(field);
+				if (readMethod != null) {
+					ReflectionUtils.makeAccessible(readMethod);
+					getter = lookup.unreflect(readMethod).asType(GETTER_TYPE);
+				} else {
+					getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+				}
+				if (writeMethod != null) {
+					ReflectionUtils.makeAccessible(writeMethod);
+					setter = lookup.unreflect(writeMethod).asType(SETTER_TYPE);
+				} else {
+					setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+				}
+			}
+		} catch (Exception e) {
+			logger.debug(String.format("Unable to bind accessors for %s.%s, falling back to reflection", beanClass.getName(), field.getName()), e);
+			getter = null;
+			setter = null;
+		}
+
+		return new AnnotatedFieldAccessor(field, ClassUtils.resolvePrimitiveIfNecessary(field.getType()), getter, setter);
+	}
+
+	/*
+	 * Returns a method a proxy can intercept, that is one that is neither private nor final.
+	 */
+	private static Method findAccessor(Class<?> beanClass, String name, Class<?>... paramTypes) {
+		Method method = ReflectionUtils.findMethod(beanClass, name, paramTypes);
+		if (method == null || Modifier.isPrivate(method.getModifiers()) || Modifier.isFinal(method.getModifiers()) || Modifier.isStatic(method.getModifiers())) {
+			return null;
+		}
+		return method;
+	}
+
+	boolean isPresent() {
+		return field != null;
+	}
+
+	Field getField() {
+		return field;
+	}
+
+	Class<?> getType() {
+		return field != null ? field.getType() : null;
+	}
+
+	boolean canGet() {
+		return getter != null;
+	}
+
+	/**
+	 * Whether {@code value} can be set through the bound setter without type conversion.
+	 * Values that need converting are left to the caller.
+	 */
+	boolean canSet(Object value) {
+		if (setter == null) {
+			return false;
+		}
+		if (value == null) {
+			return !field.getType().isPrimitive();
+		}
+		return valueType.isInstance(value);
+	}
+
+	Object get(Object bean) {
+		try {
+			return (Object) getter.invokeExact(bean);
+		} catch (Throwable t) {
+			ReflectionUtils.rethrowRuntimeException(t);
+			return null;
+		}
+	}
+
+	void set(Object bean, Object value) {
+		try {
+			setter.invokeExact(bean, value);
+		} catch (Throwable t) {
+			ReflectionUtils.rethrowRuntimeException(t);
+		}
+	}
+}
@@ -26,12 +26,7 @@ public final class BeanUtils {
 	public static boolean hasFieldWithAnnotation(Object domainObj, Class<? extends Annotation> annotationClass)
 			throws SecurityException, BeansException {
 
-        Field field = findFieldWithAnnotation(domainObj, annotationClass);
-        if (field != null && field.getAnnotation(annotationClass) != null) {
-            return true;
-        }
-
-		return false;
+		return accessor(domainObj, annotationClass).isPresent();
 	}
 
 	public static Field findFieldWithAnnotation(Object domainObj, Class<? extends Annotation> annotationClass)
@@ -42,24 +37,7 @@ public final class BeanUtils {
 	public static Field findFieldWithAnnotation(Class<?> domainObjClass, Class<? extends Annotation> annotationClass)
 			throws SecurityException, BeansException {
 
-		BeanWrapper wrapper = new BeanWrapperImpl(domainObjClass);
-		PropertyDescriptor[] descriptors = wrapper.getPropertyDescriptors();
-		for (PropertyDescriptor descriptor : descriptors) {
-			Field candidate = getField(domainObjClass, descriptor.getName());
-			if (candidate != null) {
-				if (candidate.getAnnotation(annotationClass) != null) {
-					return candidate;
-				}
-			}
-		}
-		
-		for (Field field : getAllFields(domainObjClass)) {
-			if (field.getAnnotation(annotationClass) != null) {
-				return field;
-			}
-		}
-		
-		return null;
+		return ContentEntityMetadata.forClass(domainObjClass).getAccessor(annotationClass).getField();
 	}
 	
 	protected static List<Field> getAllFields(Class<?> type) {
@@ -94,22 +72,26 @@ public final class BeanUtils {
 
 	public static Class<?> getFieldWithAnnotationType(Object domainObj, Class<? extends Annotation> annotationClass)
 			throws SecurityException, BeansException {
-		Class<?> type = null;
-
-        Field field = findFieldWithAnnotation(domainObj, annotationClass);
-        if (field != null && field.getAnnotation(annotationClass) != null) {
-            type = field.getType();
-        }
-
-		return type;
+		return accessor(domainObj, annotationClass).getType();
 	}
 
 	public static Object getFieldWithAnnotation(Object domainObj, Class<? extends Annotation> annotationClass)
 			throws SecurityException, BeansException {
 		Object value = null;
 
-        Field field = findFieldWithAnnotation(domainObj, annotationClass);
-        if (field != null && field.getAnnotation(annotationClass) != null) {
+		ContentEntityMetadata metadata = ContentEntityMetadata.forClass(domainObj.getClass());
+		ContentEntityAccessor<Object> generated = metadata.getGeneratedAccessor();
+		if (generated != null && generated.supports(annotationClass)) {
+			return generated.get(domainObj, annotationClass);
+		}
+
+		AnnotatedFieldAccessor accessor = metadata.getAccessor(annotationClass);
+		if (accessor.canGet()) {
+			return accessor.get(domainObj);
+		}
+
+        Field field = accessor.getField();
+        if (field != null) {
             try {
                 PropertyDescriptor descriptor = org.springframework.beans.BeanUtils.getPropertyDescriptor(domainObj.getClass(), field.getName());
                 if (descriptor != null) {
@@ -153,8 +135,20 @@ public final class BeanUtils {
 	 */
 	public static void setFieldWithAnnotationConditionally(Object domainObj, Class<? extends Annotation> annotationClass, Object value, Condition condition) {
 
-		Field field = findFieldWithAnnotation(domainObj, annotationClass);
-		if (field != null && field.getAnnotation(annotationClass) != null && condition.matches(field)) {
+		ContentEntityMetadata metadata = ContentEntityMetadata.forClass(domainObj.getClass());
+		AnnotatedFieldAccessor accessor = metadata.getAccessor(annotationClass);
+		Field field = accessor.getField();
+		if (field != null && condition.matches(field)) {
+			ContentEntityAccessor<Object> generated = metadata.getGeneratedAccessor();
+			if (generated != null && generated.supports(annotationClass) && generated.set(domainObj, annotationClass, value)) {
+				return;
+			}
+			if (accessor.canSet(value)) {
+				accessor.set(domainObj, value);
+				return;
+			}
+
+			// values that need type conversion go through the bean wrapper
 			try {
 			    PropertyDescriptor descriptor = org.springframework.beans.BeanUtils.getPropertyDescriptor(domainObj.getClass(), field.getName());
 			    if (descriptor != null) {
@@ -168,4 +162,8 @@ public final class BeanUtils {
 			} catch (IllegalArgumentException iae) {}
 		}
 	}
+
+	private static AnnotatedFieldAccessor accessor(Object domainObj, Class<? extends Annotation> annotationClass) {
+		return ContentEntityMetadata.forClass(domainObj.getClass()).getAccessor(annotationClass);
+	}
 }
@@ -0,0 +1,53 @@
+package org.springframework.content.commons.utils;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Typed access to the content annotated fields of an entity
+ * ({@link org.springframework.content.commons.annotations.ContentId},
+ * {@link org.springframework.content.commons.annotations.ContentLength},
+ * {@link org.springframework.content.commons.annotations.MimeType} and
+ * {@link org.springframework.content.commons.annotations.OriginalFileName}).
+ * <p>
+ * Implementations are generated at compile-time by the {@code spring-content-processor} annotation
+ * processor, as {@code <EntityName>_ContentEntityAccessor} in the entity's package.  When one is
+ * present {@link BeanUtils} uses it in place of reflection.
+ *
+ * @param <S> the entity type
+ */
+public interface ContentEntityAccessor<S> {
+
+	/**
+	 * Suffix appended to the entity's simple name, nested names joined by {@code _}, to form the
+	 * generated accessor's name.
+	 */
+	String SUFFIX = "_ContentEntityAccessor";
+
+	/**
+	 * Whether this accessor can both get and set the field annotated with annotationClass.
+	 *
+	 * @param annotationClass the annotation
+	 * @return true if supported
+	 */
+	boolean supports(Class<? extends Annotation> annotationClass);
+
+	/**
+	 * Returns the value of entity's field annotated with annotationClass.
+	 *
+	 * @param entity the entity
+	 * @param annotationClass a supported annotation
+	 * @return the value
+	 */
+	Object get(S entity, Class<? extends Annotation> annotationClass);
+
+	/**
+	 * Sets entity's field annotated with annotationClass to value.
+	 *
+	 * @param entity the entity
+	 * @param annotationClass a supported annotation
+	 * @param value the value to set
+	 * @return false if value is not assignable to the field without conversion, in which case
+	 * 			the field is left unchanged
+	 */
+	boolean set(S entity, Class<? extends Annotation> annotationClass, Object value);
+}
@@ -0,0 +1,168 @@
+package org.springframework.content.commons.utils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.annotations.MimeType;
+import org.springframework.content.commons.annotations.OriginalFileName;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ConcurrentReferenceHashMap.ReferenceType;
+
+/**
+ * Per-class cache of {@link AnnotatedFieldAccessor}s.
+ * <p>
+ * The content annotations ({@link ContentId}, {@link ContentLength}, {@link MimeType} and
+ * {@link OriginalFileName}) are resolved eagerly the first time a class is seen, any other
+ * annotation is resolved on first use.  Metadata holds the fields and method handles of its
+ * class, so it is cached in a map that only references it weakly; metadata kept strongly would
+ * keep its class, and the class loader of a redeployed application, alive.  Metadata that is
+ * collected is resolved again when the class is next seen.
+ * <p>
+ * Also holds the class's compile-time generated {@link ContentEntityAccessor}, if there is one.
+ * A proxy subclass, such as a CGLIB or lazy-loading Hibernate proxy, has none: the accessor of
+ * its entity class reads fields without a public getter directly, and a proxy's own fields are
+ * empty.  Its content fields are read and written through their accessor methods instead.
+ */
+final class ContentEntityMetadata {
+
+	private static final Log logger = LogFactory.getLog(ContentEntityMetadata.class);
+
+	private static final ConcurrentMap<Class<?>, ContentEntityMetadata> METADATA = new ConcurrentReferenceHashMap<>(256, ReferenceType.WEAK);
+
+	@SuppressWarnings("unchecked")
+	private static final Class<? extends Annotation>[] CONTENT_ANNOTATIONS = new Class[] {
+		ContentId.class, ContentLength.class, MimeType.class, OriginalFileName.class
+	};
+
+	private final Class<?> type;
+	private final boolean proxy;
+	private final ConcurrentMap<Class<? extends Annotation>, AnnotatedFieldAccessor> accessors = new ConcurrentHashMap<>();
+	private final ContentEntityAccessor<Object> generatedAccessor;
+
+	private ContentEntityMetadata(Class<?> type) {
+		this.type = type;
+		this.proxy = isProxy(type);
+		this.generatedAccessor = (proxy ? null : findGeneratedAccessor(type));
+		for (Class<? extends Annotation> annotationClass : CONTENT_ANNOTATIONS) {
+			accessors.put(annotationClass, resolve(annotationClass));
+		}
+	}
+
+	static ContentEntityMetadata forClass(Class<?> type) {
+		ContentEntityMetadata metadata = METADATA.get(type);
+		if (metadata == null) {
+			metadata = new ContentEntityMetadata(type);
+			ContentEntityMetadata existing = METADATA.putIfAbsent(type, metadata);
+			if (existing != null) {
+				metadata = existing;
+			}
+		}
+		return metadata;
+	}
+
+	/**
+	 * Returns the generated accessor for this class, or for its nearest superclass that has one
+	 * when no class in between declares content annotated fields of its own.
+	 *
+	 * @return the generated accessor or null
+	 */
+	ContentEntityAccessor<Object> getGeneratedAccessor() {
+		return generatedAccessor;
+	}
+
+	AnnotatedFieldAccessor getAccessor(Class<? extends Annotation> annotationClass) {
+		AnnotatedFieldAccessor accessor = accessors.get(annotationClass);
+		if (accessor == null) {
+			accessor = accessors.computeIfAbsent(annotationClass, this::resolve);
+		}
+		return accessor;
+	}
+
+	private AnnotatedFieldAccessor resolve(Class<? extends Annotation> annotationClass) {
+		return AnnotatedFieldAccessor.forField(type, findField(annotationClass), annotationClass, proxy);
+	}
+
+	private Field findField(Class<? extends Annotation> annotationClass) {
+		List<Field> fields = BeanUtils.getAllFields(type);
+
+		// bean properties take precedence
+		for (PropertyDescriptor descriptor : org.springframework.beans.BeanUtils.getPropertyDescriptors(type)) {
+			for (Field candidate : fields) {
+				if (candidate.getName().equals(descriptor.getName())) {
+					if (candidate.getAnnotation(annotationClass) != null) {
+						return candidate;
+					}
+					break;
+				}
+			}
+		}
+
+		for (Field field : fields) {
+			if (field.getAnnotation(annotationClass) != null) {
+				return field;
+			}
+		}
+
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ContentEntityAccessor<Object> findGeneratedAccessor(Class<?> type) {
+		for (Class<?> candidate = type; candidate != null && candidate != Object.class; candidate = candidate.getSuperclass()) {
+			String accessorName = generatedAccessorName(candidate);
+			try {
+				Class<?> accessorClass = ClassUtils.forName(accessorName, candidate.getClassLoader());
+				if (ContentEntityAccessor.class.isAssignableFrom(accessorClass)) {
+					return (ContentEntityAccessor<Object>) org.springframework.beans.BeanUtils.instantiateClass(accessorClass);
+				}
+			} catch (ClassNotFoundException | LinkageError e) {
+				// not generated for this class
+			} catch (Exception e) {
+				logger.warn(String.format("Unable to instantiate content entity accessor %s", accessorName), e);
+			}
+			if (declaresContentFields(candidate)) {
+				// a superclass's accessor does not know of these fields
+				return null;
+			}
+		}
+		return null;
+	}
+
+	private static boolean isProxy(Class<?> type) {
+		if (ClassUtils.getUserClass(type) != type) {
+			return true;
+		}
+		for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+			if ("org.hibernate.proxy.HibernateProxy".equals(candidate.getName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean declaresContentFields(Class<?> type) {
+		for (Field field : type.getDeclaredFields()) {
+			for (Class<? extends Annotation> annotationClass : CONTENT_ANNOTATIONS) {
+				if (field.getAnnotation(annotationClass) != null) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	static String generatedAccessorName(Class<?> type) {
+		String packageName = ClassUtils.getPackageName(type);
+		String name = ClassUtils.getShortName(type).replace('.', '_') + ContentEntityAccessor.SUFFIX;
+		return packageName.isEmpty() ? name : packageName + "." + name;
+	}
+}
@@ -0,0 +1,97 @@
+package internal.org.springframework.content.commons.chunk;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.BeforeEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Context;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Describe;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.It;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+
+@RunWith(Ginkgo4jRunner.class)
+@Ginkgo4jConfiguration(threads = 1)
+public class FastCdcChunkerTest {
+
+	private byte[] content;
+	private List<byte[]> chunks;
+
+	{
+		Describe("FastCdcChunker", () -> {
+			BeforeEach(() -> {
+				content = new byte[1024 * 1024];
+				new Random(42L).nextBytes(content);
+				chunks = chunk(content);
+			});
+			It("should cut chunks between the minimum and maximum sizes", () -> {
+				for (int i = 0; i < chunks.size() - 1; i++) {
+					assertThat(chunks.get(i).length, is(greaterThan(4 * 1024 - 1)));
+					assertThat(chunks.get(i).length, is(lessThanOrEqualTo(64 * 1024)));
+				}
+			});
+			It("should chunk the whole content", () -> {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				for (byte[] chunk : chunks) {
+					out.write(chunk);
+				}
+				assertThat(out.toByteArray(), is(content));
+			});
+			Context("given an edit in the middle of the content", () -> {
+				It("should only change the chunks around it", () -> {
+					byte[] edited = new byte[content.length + 10];
+					System.arraycopy(content, 0, edited, 0, content.length / 2);
+					System.arraycopy(content, content.length / 2, edited, content.length / 2 + 10, content.length / 2);
+
+					Set<String> before = new HashSet<>();
+					for (byte[] chunk : chunks) {
+						before.add(new String(chunk, "ISO-8859-1"));
+					}
+					List<byte[]> after = chunk(edited);
+					int changed = 0;
+					for (byte[] chunk : after) {
+						if (!before.contains(new String(chunk, "ISO-8859-1"))) {
+							changed++;
+						}
+					}
+					assertThat(changed, is(lessThanOrEqualTo(3)));
+					assertThat(after.size(), is(greaterThan(10)));
+				});
+			});
+			Context("given empty content", () -> {
+				It("should return no chunks", () -> {
+					assertThat(new FastCdcChunker(new ByteArrayInputStream(new byte[0]), 4 * 1024, 16 * 1024, 64 * 1024).next(), is(nullValue()));
+				});
+			});
+		});
+	}
+
+	@Test
+	public void noop() {
+	}
+
+	private static List<byte[]> chunk(byte[] content) throws IOException {
+		FastCdcChunker chunker = new FastCdcChunker(new ByteArrayInputStream(content), 4 * 1024, 16 * 1024, 64 * 1024);
+		List<byte[]> chunks = new ArrayList<>();
+		byte[] chunk;
+		while ((chunk = chunker.next()) != null) {
+			chunks.add(chunk);
+		}
+		return chunks;
+	}
+}
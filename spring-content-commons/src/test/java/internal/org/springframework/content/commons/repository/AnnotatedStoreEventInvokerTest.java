@@ -52,6 +52,7 @@ public class AnnotatedStoreEventInvokerTest {
 	private AnnotatedStoreEventInvoker invoker;
 	
 	private StoreEvent event;
+	private TypedEventHandler typedHandler;
 	
 	// mocks
 	private ReflectionService reflectionService;
@@ -173,6 +174,82 @@ public class AnnotatedStoreEventInvokerTest {
 				});
 			});
 		});
+
+		Describe("#onApplicationEvent with method handle invocation", () -> {
+			BeforeEach(() -> {
+				store = mock(ContentStore.class);
+				typedHandler = new TypedEventHandler();
+				invoker = new AnnotatedStoreEventInvoker();
+				invoker.postProcessAfterInitialization(typedHandler, "typed-bean");
+			});
+			JustBeforeEach(() -> {
+				invoker.onApplicationEvent(event);
+			});
+			Context("given an event whose source matches the handler's type", () -> {
+				BeforeEach(() -> {
+					event = new BeforeGetContentEvent(new EventSource(), store);
+				});
+				It("should invoke the handler with the event source", () -> {
+					assertThat(typedHandler.invocations, is(1));
+					assertThat(typedHandler.lastSource, is(event.getSource()));
+				});
+				It("should invoke the handler again for subsequent events", () -> {
+					invoker.onApplicationEvent(new BeforeGetContentEvent(new EventSource(), store));
+					assertThat(typedHandler.invocations, is(2));
+				});
+			});
+			Context("given an event whose source does not match the handler's type", () -> {
+				BeforeEach(() -> {
+					event = new BeforeGetContentEvent(new Object(), store);
+				});
+				It("should not invoke the handler", () -> {
+					assertThat(typedHandler.invocations, is(0));
+				});
+			});
+			Context("given a handler registered after events have been handled", () -> {
+				BeforeEach(() -> {
+					event = new BeforeGetContentEvent(new EventSource(), store);
+				});
+				It("should invoke the new handler", () -> {
+					TypedEventHandler lateHandler = new TypedEventHandler();
+					invoker.postProcessAfterInitialization(lateHandler, "late-bean");
+					invoker.onApplicationEvent(new BeforeGetContentEvent(new EventSource(), store));
+					assertThat(typedHandler.invocations, is(2));
+					assertThat(lateHandler.invocations, is(1));
+				});
+			});
+			Context("given a handler that throws", () -> {
+				BeforeEach(() -> {
+					event = new BeforeGetContentEvent(new EventSource(), store);
+				});
+				It("should propagate the exception", () -> {
+					typedHandler.failure = new IllegalStateException("badness");
+					try {
+						invoker.onApplicationEvent(new BeforeGetContentEvent(new EventSource(), store));
+						fail("expected exception");
+					} catch (IllegalStateException ise) {
+						assertThat(ise.getMessage(), is("badness"));
+					}
+				});
+			});
+		});
+	}
+	
+	@StoreEventHandler
+	public class TypedEventHandler {
+
+		int invocations = 0;
+		Object lastSource;
+		RuntimeException failure;
+
+		@HandleBeforeGetContent
+		public void beforeGetContent(EventSource contentObject) {
+			invocations++;
+			lastSource = contentObject;
+			if (failure != null) {
+				throw failure;
+			}
+		}
 	}
 	
 	@StoreEventHandler
@@ -0,0 +1,194 @@
+package internal.org.springframework.content.commons.repository;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.AfterEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.BeforeEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Context;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Describe;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.It;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.JustBeforeEach;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.content.commons.annotations.HandleBeforeGetContent;
+import org.springframework.content.commons.annotations.StoreEventHandler;
+import org.springframework.content.commons.repository.events.AbstractStoreEventListener;
+import org.springframework.content.commons.repository.events.AfterGetContentEvent;
+import org.springframework.content.commons.repository.events.AfterSetContentEvent;
+import org.springframework.content.commons.repository.events.BeforeGetContentEvent;
+import org.springframework.content.commons.repository.events.BeforeSetContentEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.EventListener;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+
+@RunWith(Ginkgo4jRunner.class)
+@Ginkgo4jConfiguration(threads = 1)
+public class StoreEventListenerRegistryTest {
+
+	private GenericApplicationContext context;
+	private StoreEventListenerRegistry registry;
+
+	{
+		Describe("#hasListeners", () -> {
+			BeforeEach(() -> {
+				context = new GenericApplicationContext();
+				context.setEnvironment(new MockEnvironment().withProperty(StoreEventListenerRegistry.SKIP_UNHEARD_PROPERTY, "true"));
+				context.registerBeanDefinition("storeEventListenerRegistry", new RootBeanDefinition(StoreEventListenerRegistry.class));
+				context.registerBeanDefinition("annotatedStoreEventHandler", new RootBeanDefinition(AnnotatedStoreEventInvoker.class));
+			});
+			JustBeforeEach(() -> {
+				context.refresh();
+				registry = context.getBean(StoreEventListenerRegistry.class);
+			});
+			AfterEach(() -> {
+				context.close();
+			});
+			Context("given the context has not been refreshed", () -> {
+				It("should report listeners for every event", () -> {
+					StoreEventListenerRegistry unrefreshed = new StoreEventListenerRegistry();
+					assertThat(unrefreshed.hasListeners(AfterSetContentEvent.class, Document.class), is(true));
+				});
+			});
+			Context("given unheard events are not skipped", () -> {
+				BeforeEach(() -> {
+					context.setEnvironment(new MockEnvironment());
+				});
+				It("should report listeners for every event", () -> {
+					assertThat(registry.hasListeners(BeforeSetContentEvent.class, Document.class), is(true));
+				});
+			});
+			Context("given a store event listener", () -> {
+				BeforeEach(() -> {
+					context.registerBeanDefinition("listener", new RootBeanDefinition(AfterSetContentListener.class));
+				});
+				It("should report listeners for the events it handles", () -> {
+					assertThat(registry.hasListeners(AfterSetContentEvent.class, Document.class), is(true));
+				});
+				It("should not report listeners for other events", () -> {
+					assertThat(registry.hasListeners(BeforeSetContentEvent.class, Document.class), is(false));
+					assertThat(registry.hasListeners(AfterGetContentEvent.class, Document.class), is(false));
+				});
+				It("should not report listeners for other entity types", () -> {
+					assertThat(registry.hasListeners(AfterSetContentEvent.class, Object.class), is(false));
+				});
+			});
+			Context("given an annotated store event handler", () -> {
+				BeforeEach(() -> {
+					context.registerBeanDefinition("handler", new RootBeanDefinition(BeforeGetContentHandler.class));
+				});
+				It("should report listeners for the events it handles", () -> {
+					assertThat(registry.hasListeners(BeforeGetContentEvent.class, Document.class), is(true));
+				});
+				It("should not report listeners for other events", () -> {
+					assertThat(registry.hasListeners(AfterGetContentEvent.class, Document.class), is(false));
+				});
+			});
+			Context("given a listener for all application events", () -> {
+				BeforeEach(() -> {
+					context.registerBeanDefinition("listener", new RootBeanDefinition(AnyEventListener.class));
+				});
+				It("should report listeners for every event", () -> {
+					assertThat(registry.hasListeners(BeforeSetContentEvent.class, Document.class), is(true));
+					assertThat(registry.hasListeners(AfterGetContentEvent.class, Object.class), is(true));
+				});
+			});
+			Context("given an event listener method", () -> {
+				BeforeEach(() -> {
+					context.registerBeanDefinition("listener", new RootBeanDefinition(AfterSetContentEventListener.class));
+				});
+				It("should report listeners for the events it handles", () -> {
+					assertThat(registry.hasListeners(AfterSetContentEvent.class, Document.class), is(true));
+				});
+				It("should not report listeners for other events", () -> {
+					assertThat(registry.hasListeners(BeforeGetContentEvent.class, Document.class), is(false));
+				});
+			});
+			Context("given an application event multicaster has been defined", () -> {
+				BeforeEach(() -> {
+					context.registerBeanDefinition(AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME, new RootBeanDefinition(CountingEventMulticaster.class));
+				});
+				It("should leave it as it is", () -> {
+					assertThat(context.getBean(AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME), is(instanceOf(CountingEventMulticaster.class)));
+					CountingEventMulticaster.events.set(0);
+					context.publishEvent(new AfterSetContentEvent(new Document(), null));
+					assertThat(CountingEventMulticaster.events.get(), is(1));
+				});
+			});
+			Context("given a lazy annotated store event handler", () -> {
+				BeforeEach(() -> {
+					RootBeanDefinition definition = new RootBeanDefinition(BeforeGetContentHandler.class);
+					definition.setLazyInit(true);
+					context.registerBeanDefinition("handler", definition);
+				});
+				It("should report listeners for every event", () -> {
+					assertThat(registry.hasListeners(AfterGetContentEvent.class, Document.class), is(true));
+				});
+			});
+			Context("given a lazy listener", () -> {
+				BeforeEach(() -> {
+					RootBeanDefinition definition = new RootBeanDefinition(AfterSetContentListener.class);
+					definition.setLazyInit(true);
+					context.registerBeanDefinition("listener", definition);
+				});
+				It("should report listeners for every event", () -> {
+					assertThat(registry.hasListeners(BeforeSetContentEvent.class, Document.class), is(true));
+				});
+			});
+		});
+	}
+
+	@Test
+	public void noop() {
+	}
+
+	public static class Document {}
+
+	public static class AfterSetContentListener extends AbstractStoreEventListener<Document> {
+		@Override
+		protected void onAfterSetContent(Document entity) {
+		}
+	}
+
+	@StoreEventHandler
+	public static class BeforeGetContentHandler {
+		@HandleBeforeGetContent
+		public void beforeGet(Document document) {
+		}
+	}
+
+	public static class AfterSetContentEventListener {
+		@EventListener
+		public void onAfterSetContent(AfterSetContentEvent event) {
+		}
+	}
+
+	public static class CountingEventMulticaster extends SimpleApplicationEventMulticaster {
+
+		static final AtomicInteger events = new AtomicInteger();
+
+		@Override
+		public void multicastEvent(ApplicationEvent event, ResolvableType eventType) {
+			events.incrementAndGet();
+			super.multicastEvent(event, eventType);
+		}
+	}
+
+	public static class AnyEventListener implements ApplicationListener<ApplicationEvent> {
+		@Override
+		public void onApplicationEvent(ApplicationEvent event) {
+		}
+	}
+}
@@ -2,12 +2,17 @@ package internal.org.springframework.content.commons.repository.events;
 
 import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.*;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.hamcrest.MockitoHamcrest.argThat;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -18,6 +23,7 @@ import org.springframework.content.commons.repository.events.AbstractStoreEventL
 import org.springframework.content.commons.repository.events.AfterGetContentEvent;
 import org.springframework.content.commons.repository.events.AfterSetContentEvent;
 import org.springframework.content.commons.repository.events.AfterUnsetContentEvent;
+import org.springframework.content.commons.repository.events.AfterUnsetContentsEvent;
 import org.springframework.content.commons.repository.events.BeforeGetContentEvent;
 import org.springframework.content.commons.repository.events.BeforeSetContentEvent;
 import org.springframework.content.commons.repository.events.BeforeUnsetContentEvent;
@@ -25,13 +31,15 @@ import org.springframework.content.commons.repository.events.BeforeUnsetContentE
 import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
 import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
 
-@SuppressWarnings("unchecked")
+@SuppressWarnings({ "unchecked", "rawtypes" })
 @RunWith(Ginkgo4jRunner.class)
 @Ginkgo4jConfiguration(threads = 1)
 public class AbstractStoreEventListenerTest {
 
 	private AbstractStoreEventListener<Object> listener;
 	private StoreEvent event;
+	private List<Object> entities;
+	private AfterUnsetContentsEventListener batchListener;
 	
 	//mocks
 	private TestContentEventConsumer consumer;
@@ -140,6 +148,70 @@ public class AbstractStoreEventListenerTest {
 				});
 			});
 		});
+		Describe("#handles", () -> {
+			Context("given a listener that only handles after set content events", () -> {
+				BeforeEach(() -> {
+					listener = (AbstractStoreEventListener) new AfterSetContentEventListener();
+				});
+				It("should handle after set content events for its entity type", () -> {
+					assertThat(listener.handles(AfterSetContentEvent.class, EventSource.class), is(true));
+				});
+				It("should not handle other events", () -> {
+					assertThat(listener.handles(BeforeSetContentEvent.class, EventSource.class), is(false));
+					assertThat(listener.handles(AfterGetContentEvent.class, EventSource.class), is(false));
+					assertThat(listener.handles(AfterUnsetContentEvent.class, EventSource.class), is(false));
+				});
+				It("should not handle events for other entity types", () -> {
+					assertThat(listener.handles(AfterSetContentEvent.class, Object.class), is(false));
+				});
+			});
+			Context("given a listener that handles all events", () -> {
+				BeforeEach(() -> {
+					listener = new TestContentEventListener(mock(TestContentEventConsumer.class));
+				});
+				It("should handle every event for any entity type", () -> {
+					assertThat(listener.handles(BeforeGetContentEvent.class, Object.class), is(true));
+					assertThat(listener.handles(AfterUnsetContentEvent.class, EventSource.class), is(true));
+				});
+				It("should not handle batch events", () -> {
+					assertThat(listener.handles(AfterUnsetContentsEvent.class, Object.class), is(false));
+				});
+			});
+			Context("given a listener that only handles after unset contents events", () -> {
+				BeforeEach(() -> {
+					listener = (AbstractStoreEventListener) new AfterUnsetContentsEventListener();
+				});
+				It("should handle after unset contents events for its entity type", () -> {
+					assertThat(listener.handles(AfterUnsetContentsEvent.class, EventSource.class), is(true));
+				});
+				It("should not handle the events of each entity", () -> {
+					assertThat(listener.handles(AfterUnsetContentEvent.class, EventSource.class), is(false));
+				});
+			});
+		});
+		Describe("#onApplicationEvent with batch events", () -> {
+			BeforeEach(() -> {
+				store = (ContentStore<Object,Serializable>)mock(ContentStore.class);
+				batchListener = new AfterUnsetContentsEventListener();
+				entities = Arrays.<Object>asList(new EventSource(), new EventSource());
+			});
+			Context("given an after unset contents event for the listener's entity type", () -> {
+				BeforeEach(() -> {
+					batchListener.onApplicationEvent(new AfterUnsetContentsEvent(entities, EventSource.class, store));
+				});
+				It("should call the handler with the entities", () -> {
+					assertThat(new ArrayList<Object>(batchListener.entities), is(entities));
+				});
+			});
+			Context("given an after unset contents event for another entity type", () -> {
+				BeforeEach(() -> {
+					batchListener.onApplicationEvent(new AfterUnsetContentsEvent(entities, Object.class, store));
+				});
+				It("should not call the handler", () -> {
+					assertThat(batchListener.entities, is(nullValue()));
+				});
+			});
+		});
 	}
 	
 	@Test
@@ -215,6 +287,21 @@ public class AbstractStoreEventListenerTest {
 		}
 	}
 	
+	public static class AfterSetContentEventListener extends AbstractStoreEventListener<EventSource> {
+		@Override
+		protected void onAfterSetContent(EventSource entity) {
+		}
+	}
+
+	public static class AfterUnsetContentsEventListener extends AbstractStoreEventListener<EventSource> {
+		private Collection<EventSource> entities;
+
+		@Override
+		protected void onAfterUnsetContents(Collection<EventSource> entities) {
+			this.entities = new ArrayList<>(entities);
+		}
+	}
+
 	public interface TestContentEventConsumer {
 		void onBeforeGetContent(BeforeGetContentEvent event);
 		void onBeforeGetContent(Object entity);
@@ -0,0 +1,174 @@
+package internal.org.springframework.content.commons.repository.events;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.BeforeEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Context;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Describe;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.It;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.events.AbstractStoreEventListener;
+import org.springframework.content.commons.repository.events.AfterSetContentEvent;
+import org.springframework.content.commons.repository.events.AfterUnsetContentEvent;
+import org.springframework.content.commons.repository.events.AsyncStoreEventDispatcher;
+import org.springframework.content.commons.repository.events.BeforeSetContentEvent;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+
+@SuppressWarnings("unchecked")
+@RunWith(Ginkgo4jRunner.class)
+@Ginkgo4jConfiguration(threads = 1)
+public class AsyncStoreEventDispatcherTest {
+
+	private AsyncStoreEventDispatcher dispatcher;
+	private List<Runnable> scheduled;
+	private List<String> delivered;
+
+	private ContentStore<Object,Serializable> store;
+
+	{
+		Describe("#dispatch", () -> {
+			BeforeEach(() -> {
+				store = mock(ContentStore.class);
+				scheduled = new ArrayList<>();
+				delivered = new ArrayList<>();
+				dispatcher = new AsyncStoreEventDispatcher(scheduled::add, 3, 4);
+			});
+			Context("given events for the same content", () -> {
+				BeforeEach(() -> {
+					Entity entity = new Entity("12345");
+					dispatcher.dispatch(new AfterSetContentEvent(entity, store), () -> delivered.add("first"));
+					dispatcher.dispatch(new AfterSetContentEvent(entity, store), () -> delivered.add("second"));
+				});
+				It("should queue them on a single stripe", () -> {
+					assertThat(scheduled.size(), is(1));
+					assertThat(dispatcher.getQueueDepth(), is(2));
+				});
+				It("should deliver them in order", () -> {
+					scheduled.get(0).run();
+					assertThat(delivered, is(Arrays.asList("first", "second")));
+					assertThat(dispatcher.getQueueDepth(), is(0));
+					assertThat(dispatcher.getDeliveredCount(), is(2L));
+				});
+			});
+			Context("given content that is set and then unset", () -> {
+				BeforeEach(() -> {
+					dispatcher = new AsyncStoreEventDispatcher(scheduled::add, 10, 64);
+					Entity entity = new Entity("12345");
+					dispatcher.dispatch(new AfterSetContentEvent(entity, store), () -> delivered.add("set"));
+					entity.contentId = null;
+					dispatcher.dispatch(new AfterUnsetContentEvent(entity, "12345", store), () -> delivered.add("unset"));
+				});
+				It("should queue them on a single stripe, by the content id that was unset", () -> {
+					assertThat(scheduled.size(), is(1));
+					scheduled.get(0).run();
+					assertThat(delivered, is(Arrays.asList("set", "unset")));
+				});
+			});
+			Context("given more events than the queue can hold", () -> {
+				BeforeEach(() -> {
+					for (int i = 0; i < 4; i++) {
+						dispatcher.dispatch(new AfterSetContentEvent(new Entity("id-" + i), store), () -> {});
+					}
+				});
+				It("should drop the overflow", () -> {
+					assertThat(dispatcher.getQueueDepth(), is(3));
+					assertThat(dispatcher.getDroppedCount(), is(1L));
+				});
+			});
+			Context("given a handler that throws", () -> {
+				BeforeEach(() -> {
+					Entity entity = new Entity("12345");
+					dispatcher.dispatch(new AfterSetContentEvent(entity, store), () -> { throw new IllegalStateException("badness"); });
+					dispatcher.dispatch(new AfterSetContentEvent(entity, store), () -> delivered.add("next"));
+					scheduled.get(0).run();
+				});
+				It("should count the failure and continue delivering", () -> {
+					assertThat(dispatcher.getFailedCount(), is(1L));
+					assertThat(delivered, is(Arrays.asList("next")));
+				});
+			});
+		});
+		Describe("AbstractStoreEventListener", () -> {
+			BeforeEach(() -> {
+				store = mock(ContentStore.class);
+				scheduled = new ArrayList<>();
+				dispatcher = new AsyncStoreEventDispatcher(scheduled::add, 10, 1);
+			});
+			Context("given an async dispatcher", () -> {
+				It("should deliver before events synchronously", () -> {
+					EntityConsumer consumer = mock(EntityConsumer.class);
+					TestListener listener = new TestListener(consumer);
+					listener.setAsyncStoreEventDispatcher(dispatcher);
+
+					Entity entity = new Entity("12345");
+					listener.onApplicationEvent(new BeforeSetContentEvent(entity, store));
+
+					verify(consumer).before(entity);
+					assertThat(scheduled.size(), is(0));
+				});
+				It("should deliver after events through the dispatcher", () -> {
+					EntityConsumer consumer = mock(EntityConsumer.class);
+					TestListener listener = new TestListener(consumer);
+					listener.setAsyncStoreEventDispatcher(dispatcher);
+
+					Entity entity = new Entity("12345");
+					listener.onApplicationEvent(new AfterSetContentEvent(entity, store));
+					verify(consumer, never()).after(entity);
+
+					scheduled.get(0).run();
+					verify(consumer).after(entity);
+				});
+			});
+		});
+	}
+
+	@Test
+	public void noop() {
+	}
+
+	public static class Entity {
+		@ContentId
+		private String contentId;
+
+		public Entity(String contentId) {
+			this.contentId = contentId;
+		}
+	}
+
+	public interface EntityConsumer {
+		void before(Entity entity);
+		void after(Entity entity);
+	}
+
+	public static class TestListener extends AbstractStoreEventListener<Entity> {
+		private final EntityConsumer consumer;
+
+		public TestListener(EntityConsumer consumer) {
+			this.consumer = consumer;
+		}
+
+		@Override
+		protected void onBeforeSetContent(Entity entity) {
+			consumer.before(entity);
+		}
+
+		@Override
+		protected void onAfterSetContent(Entity entity) {
+			consumer.after(entity);
+		}
+	}
+}
@@ -1,44 +1,73 @@
 package internal.org.springframework.content.commons.repository.factory;
 
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.AfterEach;
 import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.BeforeEach;
 import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Context;
 import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Describe;
 import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.It;
 import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.JustBeforeEach;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.isA;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.hamcrest.MockitoHamcrest.argThat;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.Serializable;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
+import org.reactivestreams.Publisher;
+import org.springframework.content.commons.annotations.ContentId;
 import org.springframework.content.commons.annotations.MimeType;
 import org.springframework.content.commons.repository.AssociativeStore;
+import org.springframework.content.commons.repository.AsyncContentStore;
 import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.ReactiveContentStore;
 import org.springframework.content.commons.repository.Store;
+import org.springframework.content.commons.repository.StoreAccessException;
 import org.springframework.content.commons.repository.StoreExtension;
 import org.springframework.content.commons.repository.events.AfterGetContentEvent;
 import org.springframework.content.commons.repository.events.AfterSetContentEvent;
+import org.springframework.content.commons.repository.events.AfterSetContentsEvent;
 import org.springframework.content.commons.repository.events.AfterUnsetContentEvent;
+import org.springframework.content.commons.repository.events.AfterUnsetContentsEvent;
 import org.springframework.content.commons.repository.events.BeforeGetContentEvent;
 import org.springframework.content.commons.repository.events.BeforeSetContentEvent;
+import org.springframework.content.commons.repository.events.BeforeSetContentsEvent;
 import org.springframework.content.commons.repository.events.BeforeUnsetContentEvent;
+import org.springframework.content.commons.repository.events.BeforeUnsetContentsEvent;
+import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.util.StreamUtils;
+
+import internal.org.springframework.content.commons.io.InputStreamPublisher;
+import internal.org.springframework.content.commons.io.PublisherInputStream;
+import internal.org.springframework.content.commons.repository.StoreEventListenerRegistry;
 
 import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
 import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
@@ -55,21 +84,30 @@ public class StoreMethodInterceptorTest {
 	private MethodInvocation invocation;
 	private StoreExtension extension;
 	private ApplicationEventPublisher publisher;
+	private StoreEventListenerRegistry listeners;
 
 	private Exception e;
+	private Object result;
+	private InputStream content;
+	private ByteArrayOutputStream written;
 	
 	private Map<Method, StoreExtension> extensions = null;
+	private boolean extensionsInsideEvents;
 	
 	{
 		Describe("#invoke", () -> {
 			BeforeEach(() -> {
 				store = mock(ContentStore.class);
 				publisher = mock(ApplicationEventPublisher.class);
+				listeners = null;
+				extensionsInsideEvents = false;
 			});
 			JustBeforeEach(() -> {
-				interceptor = new StoreMethodInterceptor(store, Object.class, String.class, extensions, publisher);
+				interceptor = new StoreMethodInterceptor(store, Object.class, String.class, extensions, publisher, listeners);
+				interceptor.setExecutor(Runnable::run);
+				interceptor.setExtensionsInsideEvents(extensionsInsideEvents);
 				try {
-				    interceptor.invoke(invocation);
+				    result = interceptor.invoke(invocation);
                 } catch (Exception invokeException) {
 				    e = invokeException;
                 }
@@ -92,6 +130,54 @@ public class StoreMethodInterceptorTest {
 					inOrder.verify(publisher).publishEvent(argThat(isA(AfterGetContentEvent.class)));
 				});
 			});
+			Context("when getContent is invoked and nothing listens for content events", () -> {
+				BeforeEach(() -> {
+					invocation = mock(MethodInvocation.class);
+					listeners = mock(StoreEventListenerRegistry.class);
+
+					Class<?> storeClazz = ContentStore.class;
+					final Method getContentMethod = storeClazz.getMethod("getContent", Object.class);
+
+					when(invocation.getMethod()).thenReturn(getContentMethod);
+					when(invocation.getArguments()).thenReturn(new Object[]{new ContentObject("plain/text")});
+				});
+				It("should proceed without publishing events", () -> {
+					verify(listeners).hasListeners(BeforeGetContentEvent.class, ContentObject.class);
+					verify(invocation).proceed();
+					verify(listeners).hasListeners(AfterGetContentEvent.class, ContentObject.class);
+					verify(publisher, never()).publishEvent(anyObject());
+				});
+				Context("when something listens for after events only", () -> {
+					BeforeEach(() -> {
+						when(listeners.hasListeners(AfterGetContentEvent.class, ContentObject.class)).thenReturn(true);
+					});
+					It("should only publish the after event", () -> {
+						InOrder inOrder = Mockito.inOrder(publisher, invocation);
+
+						inOrder.verify(invocation).proceed();
+						inOrder.verify(publisher).publishEvent(argThat(isA(AfterGetContentEvent.class)));
+						verify(publisher, never()).publishEvent(argThat(isA(BeforeGetContentEvent.class)));
+					});
+				});
+			});
+			Context("when getContent is invoked for a range", () -> {
+				BeforeEach(() -> {
+					invocation = mock(MethodInvocation.class);
+
+					Class<?> storeClazz = ContentStore.class;
+					final Method getContentMethod = storeClazz.getMethod("getContent", Object.class, long.class, long.class);
+
+					when(invocation.getMethod()).thenReturn(getContentMethod);
+					when(invocation.getArguments()).thenReturn(new Object[]{new ContentObject("plain/text"), 10L, 20L});
+				});
+				It("should proceed and publish get content events", () -> {
+					InOrder inOrder = Mockito.inOrder(publisher, invocation);
+
+					inOrder.verify(publisher).publishEvent(argThat(isA(BeforeGetContentEvent.class)));
+					inOrder.verify(invocation).proceed();
+					inOrder.verify(publisher).publishEvent(argThat(isA(AfterGetContentEvent.class)));
+				});
+			});
 			Context("when getContent is invoked with illegal arguments", () -> {
 				BeforeEach(() -> {
 					invocation = mock(MethodInvocation.class);
@@ -168,6 +254,27 @@ public class StoreMethodInterceptorTest {
 					inOrder.verify(publisher).publishEvent(argThat(isA(AfterUnsetContentEvent.class)));
 				});
 			});
+			Context("when unsetContent resets the content id", () -> {
+				BeforeEach(() -> {
+					invocation = mock(MethodInvocation.class);
+
+					final Method unsetContentMethod = ContentStore.class.getMethod("unsetContent", Object.class);
+					IdentifiedContentObject entity = new IdentifiedContentObject("12345");
+
+					when(invocation.getMethod()).thenReturn(unsetContentMethod);
+					when(invocation.getArguments()).thenReturn(new Object[]{entity});
+					when(invocation.proceed()).thenAnswer(proceeding -> {
+						entity.contentId = null;
+						return null;
+					});
+				});
+				It("should publish the content id it had in the after event", () -> {
+					ArgumentCaptor<AfterUnsetContentEvent> captor = ArgumentCaptor.forClass(AfterUnsetContentEvent.class);
+					verify(publisher).publishEvent(argThat(isA(BeforeUnsetContentEvent.class)));
+					verify(publisher, times(2)).publishEvent(captor.capture());
+					assertThat(captor.getValue().getContentId(), is("12345"));
+				});
+			});
 			Context("when unsetContent is invoked with illegal arguments", () -> {
 				BeforeEach(() -> {
 					invocation = mock(MethodInvocation.class);
@@ -188,6 +295,173 @@ public class StoreMethodInterceptorTest {
 					inOrder.verify(publisher, never()).publishEvent(anyObject());
 				});
 			});
+			Context("when setContents is invoked", () -> {
+				BeforeEach(() -> {
+					invocation = mock(MethodInvocation.class);
+
+					final Method setContentsMethod = ContentStore.class.getMethod("setContents", Map.class);
+
+					Map<Object, InputStream> contents = new LinkedHashMap<>();
+					contents.put(new ContentObject("plain/text"), mock(InputStream.class));
+					contents.put(new ContentObject("plain/text"), mock(InputStream.class));
+
+					when(invocation.getMethod()).thenReturn(setContentsMethod);
+					when(invocation.getArguments()).thenReturn(new Object[]{contents});
+				});
+				It("should proceed once, publishing the batch events around the events of each entity", () -> {
+					InOrder inOrder = Mockito.inOrder(publisher, invocation);
+
+					inOrder.verify(publisher).publishEvent(argThat(isA(BeforeSetContentsEvent.class)));
+					inOrder.verify(publisher, times(2)).publishEvent(argThat(isA(BeforeSetContentEvent.class)));
+					inOrder.verify(invocation).proceed();
+					inOrder.verify(publisher, times(2)).publishEvent(argThat(isA(AfterSetContentEvent.class)));
+					inOrder.verify(publisher).publishEvent(argThat(isA(AfterSetContentsEvent.class)));
+				});
+				Context("when nothing listens for batch events", () -> {
+					BeforeEach(() -> {
+						listeners = mock(StoreEventListenerRegistry.class);
+						when(listeners.hasListeners(BeforeSetContentEvent.class, ContentObject.class)).thenReturn(true);
+						when(listeners.hasListeners(AfterSetContentEvent.class, ContentObject.class)).thenReturn(true);
+					});
+					It("should only publish the events of each entity", () -> {
+						verify(publisher, times(2)).publishEvent(argThat(isA(BeforeSetContentEvent.class)));
+						verify(publisher, times(2)).publishEvent(argThat(isA(AfterSetContentEvent.class)));
+						verify(publisher, never()).publishEvent(argThat(isA(BeforeSetContentsEvent.class)));
+						verify(publisher, never()).publishEvent(argThat(isA(AfterSetContentsEvent.class)));
+						verify(invocation).proceed();
+					});
+				});
+			});
+			Context("when unsetContents is invoked", () -> {
+				BeforeEach(() -> {
+					invocation = mock(MethodInvocation.class);
+
+					final Method unsetContentsMethod = ContentStore.class.getMethod("unsetContents", Collection.class);
+
+					when(invocation.getMethod()).thenReturn(unsetContentsMethod);
+					when(invocation.getArguments()).thenReturn(new Object[]{Arrays.asList(new ContentObject("plain/text"), null)});
+				});
+				It("should proceed once, publishing events for each entity that is not null", () -> {
+					InOrder inOrder = Mockito.inOrder(publisher, invocation);
+
+					inOrder.verify(publisher).publishEvent(argThat(isA(BeforeUnsetContentsEvent.class)));
+					inOrder.verify(publisher, times(1)).publishEvent(argThat(isA(BeforeUnsetContentEvent.class)));
+					inOrder.verify(invocation).proceed();
+					inOrder.verify(publisher, times(1)).publishEvent(argThat(isA(AfterUnsetContentEvent.class)));
+					inOrder.verify(publisher).publishEvent(argThat(isA(AfterUnsetContentsEvent.class)));
+				});
+				Context("when only batch events are listened for", () -> {
+					BeforeEach(() -> {
+						listeners = mock(StoreEventListenerRegistry.class);
+						when(listeners.hasListeners(AfterUnsetContentsEvent.class, Object.class)).thenReturn(true);
+					});
+					It("should only publish the after batch event", () -> {
+						verify(publisher).publishEvent(argThat(isA(AfterUnsetContentsEvent.class)));
+						verify(publisher, never()).publishEvent(argThat(isA(BeforeUnsetContentsEvent.class)));
+						verify(publisher, never()).publishEvent(argThat(isA(BeforeUnsetContentEvent.class)));
+						verify(publisher, never()).publishEvent(argThat(isA(AfterUnsetContentEvent.class)));
+						verify(invocation).proceed();
+					});
+				});
+			});
+			Context("when getResources is invoked", () -> {
+				BeforeEach(() -> {
+					invocation = mock(MethodInvocation.class);
+
+					final Method getResourcesMethod = Store.class.getMethod("getResources", Collection.class);
+
+					when(invocation.getMethod()).thenReturn(getResourcesMethod);
+					when(invocation.getArguments()).thenReturn(new Object[]{Arrays.asList("12345", "67890")});
+				});
+				It("should proceed without publishing events", () -> {
+					verify(invocation).proceed();
+					verify(publisher, never()).publishEvent(anyObject());
+				});
+			});
+			Context("when getContentAsync is invoked", () -> {
+				BeforeEach(() -> {
+					invocation = mock(MethodInvocation.class);
+					content = mock(InputStream.class);
+					when(store.getContent(anyObject())).thenReturn(content);
+
+					final Method getContentAsyncMethod = AsyncContentStore.class.getMethod("getContentAsync", Object.class);
+
+					when(invocation.getMethod()).thenReturn(getContentAsyncMethod);
+					when(invocation.getArguments()).thenReturn(new Object[]{new ContentObject("plain/text")});
+				});
+				It("should get the content from the store on the executor and publish events", () -> {
+					InOrder inOrder = Mockito.inOrder(publisher, store);
+
+					inOrder.verify(publisher).publishEvent(argThat(isA(BeforeGetContentEvent.class)));
+					inOrder.verify(store).getContent(argThat(isA(ContentObject.class)));
+					inOrder.verify(publisher).publishEvent(argThat(isA(AfterGetContentEvent.class)));
+
+					verify(invocation, never()).proceed();
+					assertThat(((CompletableFuture<InputStream>) result).get(), is(content));
+				});
+				Context("when the store fails", () -> {
+					BeforeEach(() -> {
+						when(store.getContent(anyObject())).thenThrow(new StoreAccessException("badness"));
+					});
+					It("should complete the future exceptionally", () -> {
+						CompletableFuture<InputStream> future = (CompletableFuture<InputStream>) result;
+						assertThat(future.isCompletedExceptionally(), is(true));
+						verify(publisher, never()).publishEvent(argThat(isA(AfterGetContentEvent.class)));
+					});
+				});
+			});
+			Context("when readContent is invoked on a store that does not implement it", () -> {
+				BeforeEach(() -> {
+					invocation = mock(MethodInvocation.class);
+					when(store.getContent(anyObject())).thenReturn(new ByteArrayInputStream("Hello reactive world!".getBytes()));
+
+					final Method readContentMethod = ReactiveContentStore.class.getMethod("readContent", Object.class);
+
+					when(invocation.getMethod()).thenReturn(readContentMethod);
+					when(invocation.getArguments()).thenReturn(new Object[]{new ContentObject("plain/text")});
+				});
+				It("should not get the content until it is subscribed to", () -> {
+					verify(store, never()).getContent(anyObject());
+					verify(publisher, never()).publishEvent(anyObject());
+				});
+				It("should publish the content from the store's getContent and publish events", () -> {
+					InputStream in = new PublisherInputStream((Publisher<ByteBuffer>) result);
+					assertThat(StreamUtils.copyToString(in, Charset.defaultCharset()), is("Hello reactive world!"));
+
+					InOrder inOrder = Mockito.inOrder(publisher, store);
+					inOrder.verify(publisher).publishEvent(argThat(isA(BeforeGetContentEvent.class)));
+					inOrder.verify(store).getContent(argThat(isA(ContentObject.class)));
+					inOrder.verify(publisher).publishEvent(argThat(isA(AfterGetContentEvent.class)));
+
+					verify(invocation, never()).proceed();
+				});
+			});
+			Context("when writeContent is invoked on a store that does not implement it", () -> {
+				BeforeEach(() -> {
+					invocation = mock(MethodInvocation.class);
+					written = new ByteArrayOutputStream();
+					Mockito.doAnswer(answer -> {
+						StreamUtils.copy((InputStream) answer.getArguments()[1], written);
+						return null;
+					}).when(store).setContent(anyObject(), anyObject());
+
+					final Method writeContentMethod = ReactiveContentStore.class.getMethod("writeContent", Object.class, Publisher.class);
+
+					when(invocation.getMethod()).thenReturn(writeContentMethod);
+					when(invocation.getArguments()).thenReturn(new Object[]{new ContentObject("plain/text"), new InputStreamPublisher(() -> new ByteArrayInputStream("Hello reactive world!".getBytes()), Runnable::run, 4)});
+				});
+				It("should set the content with the store's setContent and publish events", () -> {
+					((CompletableFuture<Void>) result).get();
+					assertThat(new String(written.toByteArray()), is("Hello reactive world!"));
+
+					InOrder inOrder = Mockito.inOrder(publisher, store);
+					inOrder.verify(publisher).publishEvent(argThat(isA(BeforeSetContentEvent.class)));
+					inOrder.verify(store).setContent(argThat(isA(ContentObject.class)), anyObject());
+					inOrder.verify(publisher).publishEvent(argThat(isA(AfterSetContentEvent.class)));
+
+					verify(invocation, never()).proceed();
+				});
+			});
 			Context("when getResource is invoked", () -> {
 				BeforeEach(() -> {
 					invocation = mock(MethodInvocation.class);
@@ -230,6 +504,134 @@ public class StoreMethodInterceptorTest {
 					verify(invocation).proceed();
 				});
 			});
+			Context("when getContent is invoked on a store with a getContent extension", () -> {
+				BeforeEach(() -> {
+					invocation = mock(MethodInvocation.class);
+					extension = mock(StoreExtension.class);
+
+					final Method getContentMethod = ContentStore.class.getMethod("getContent", Object.class);
+					extensions = Collections.singletonMap(getContentMethod, extension);
+
+					when(invocation.getMethod()).thenReturn(getContentMethod);
+					when(invocation.getArguments()).thenReturn(new Object[]{new ContentObject("plain/text")});
+				});
+				AfterEach(() -> {
+					extensions = null;
+				});
+				It("should invoke the extension in place of the method and its events", () -> {
+					verify(extension).invoke(eq(invocation), anyObject());
+					verify(publisher, never()).publishEvent(anyObject());
+					verify(invocation, never()).proceed();
+				});
+			});
+			Context("when setContents is invoked on a store with a setContents extension", () -> {
+				BeforeEach(() -> {
+					invocation = mock(MethodInvocation.class);
+					extension = mock(StoreExtension.class);
+
+					final Method setContentsMethod = ContentStore.class.getMethod("setContents", Map.class);
+					extensions = Collections.singletonMap(setContentsMethod, extension);
+
+					Map<Object, InputStream> contents = new LinkedHashMap<>();
+					contents.put(new ContentObject("plain/text"), mock(InputStream.class));
+
+					when(invocation.getMethod()).thenReturn(setContentsMethod);
+					when(invocation.getArguments()).thenReturn(new Object[]{contents});
+				});
+				AfterEach(() -> {
+					extensions = null;
+				});
+				It("should invoke the extension in place of the method and its events", () -> {
+					verify(extension).invoke(eq(invocation), anyObject());
+					verify(publisher, never()).publishEvent(anyObject());
+				});
+			});
+			Context("given extensions run inside events", () -> {
+				BeforeEach(() -> {
+					extensionsInsideEvents = true;
+				});
+				Context("when getContent is invoked on a store with a getContent extension", () -> {
+					BeforeEach(() -> {
+						invocation = mock(MethodInvocation.class);
+						extension = mock(StoreExtension.class);
+
+						final Method getContentMethod = ContentStore.class.getMethod("getContent", Object.class);
+						extensions = Collections.singletonMap(getContentMethod, extension);
+
+						when(invocation.getMethod()).thenReturn(getContentMethod);
+						when(invocation.getArguments()).thenReturn(new Object[]{new ContentObject("plain/text")});
+					});
+					AfterEach(() -> {
+						extensions = null;
+					});
+					It("should invoke the extension inside the get content events", () -> {
+						InOrder inOrder = Mockito.inOrder(publisher, extension);
+
+						inOrder.verify(publisher).publishEvent(argThat(isA(BeforeGetContentEvent.class)));
+						inOrder.verify(extension).invoke(eq(invocation), anyObject());
+						inOrder.verify(publisher).publishEvent(argThat(isA(AfterGetContentEvent.class)));
+						verify(invocation, never()).proceed();
+					});
+				});
+				Context("when setContents is invoked on a store with a setContents extension", () -> {
+					BeforeEach(() -> {
+						invocation = mock(MethodInvocation.class);
+						extension = mock(StoreExtension.class);
+
+						final Method setContentsMethod = ContentStore.class.getMethod("setContents", Map.class);
+						extensions = Collections.singletonMap(setContentsMethod, extension);
+
+						Map<Object, InputStream> contents = new LinkedHashMap<>();
+						contents.put(new ContentObject("plain/text"), mock(InputStream.class));
+
+						when(invocation.getMethod()).thenReturn(setContentsMethod);
+						when(invocation.getArguments()).thenReturn(new Object[]{contents});
+					});
+					AfterEach(() -> {
+						extensions = null;
+					});
+					It("should invoke the extension inside the batch events", () -> {
+						InOrder inOrder = Mockito.inOrder(publisher, extension);
+
+						inOrder.verify(publisher).publishEvent(argThat(isA(BeforeSetContentsEvent.class)));
+						inOrder.verify(extension).invoke(eq(invocation), anyObject());
+						inOrder.verify(publisher).publishEvent(argThat(isA(AfterSetContentsEvent.class)));
+						verify(invocation, never()).proceed();
+					});
+				});
+				Context("when setContent is invoked on a store with a setContent extension", () -> {
+					BeforeEach(() -> {
+						invocation = mock(MethodInvocation.class);
+						extension = mock(StoreExtension.class);
+
+						final Method setContentMethod = ContentStore.class.getMethod("setContent", Object.class, InputStream.class);
+						extensions = Collections.singletonMap(setContentMethod, extension);
+
+						when(invocation.getMethod()).thenReturn(setContentMethod);
+						when(invocation.getArguments()).thenReturn(new Object[]{new ContentObject("plain/text"), mock(InputStream.class)});
+					});
+					AfterEach(() -> {
+						extensions = null;
+					});
+					It("should publish the set content events, as the store's own setContent does", () -> {
+						ArgumentCaptor<ApplicationEvent> captor = ArgumentCaptor.forClass(ApplicationEvent.class);
+						verify(publisher, times(2)).publishEvent(captor.capture());
+						assertThat(captor.getAllValues().get(0), is(instanceOf(BeforeSetContentEvent.class)));
+						assertThat(captor.getAllValues().get(1), is(instanceOf(AfterSetContentEvent.class)));
+						verify(extension).invoke(eq(invocation), anyObject());
+					});
+					Context("when a before set content handler fails", () -> {
+						BeforeEach(() -> {
+							doThrow(new IllegalStateException("badness")).when(publisher).publishEvent(argThat(isA(BeforeSetContentEvent.class)));
+						});
+						It("should not invoke the extension", () -> {
+							assertThat(e.getMessage(), is("badness"));
+							verify(extension, never()).invoke(anyObject(), anyObject());
+							verify(publisher, never()).publishEvent(argThat(isA(AfterSetContentEvent.class)));
+						});
+					});
+				});
+			});
 			Context("when an extension method is invoked", () -> {
 				BeforeEach(() -> {
 					invocation = mock(MethodInvocation.class);
@@ -271,6 +673,15 @@ public class StoreMethodInterceptorTest {
 		}
 	}
 	
+	public static class IdentifiedContentObject {
+		@ContentId
+		public String contentId;
+
+		public IdentifiedContentObject(String contentId) {
+			this.contentId = contentId;
+		}
+	}
+
 	public interface AContentRepositoryExtension<S> {
 		void getCustomContent(S property);
 	}
@@ -0,0 +1,210 @@
+package org.springframework.content.commons.cache;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.AfterEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.BeforeEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Context;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Describe;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.It;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.StoreInvoker;
+import org.springframework.content.commons.repository.events.AfterSetContentEvent;
+import org.springframework.content.commons.repository.events.BeforeUnsetContentEvent;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StreamUtils;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+
+@SuppressWarnings("unchecked")
+@RunWith(Ginkgo4jRunner.class)
+@Ginkgo4jConfiguration(threads = 1)
+public class ContentCacheTest {
+
+	private ContentCache cache;
+
+	private ContentStore<Object,Serializable> store;
+	private StoreInvoker invoker;
+	private MethodInvocation invocation;
+	private Entity entity;
+
+	{
+		Describe("ContentCache", () -> {
+			BeforeEach(() -> {
+				cache = new ContentCache();
+				store = mock(ContentStore.class);
+				invoker = mock(StoreInvoker.class);
+				when(invoker.getStoreInterface()).thenReturn((Class) CachedStore.class);
+				entity = new Entity("12345");
+				invocation = getContent(entity);
+			});
+			AfterEach(() -> {
+				cache.destroy();
+			});
+			Context("given content that is read to the end", () -> {
+				BeforeEach(() -> {
+					assertThat(read(cache.invoke(invocation, invoker)), is("Hello cached world!"));
+				});
+				It("should serve the next read from the cache", () -> {
+					assertThat(read(cache.invoke(invocation, invoker)), is("Hello cached world!"));
+					verify(invocation, times(1)).proceed();
+					assertThat(cache.getMisses().get(CachedStore.class.getName()), is(1L));
+					assertThat(cache.getHits().get(CachedStore.class.getName()), is(1L));
+					assertThat(cache.getDiskSizes().get(CachedStore.class.getName()), is(19L));
+				});
+				It("should serve ranges from the cache", () -> {
+					MethodInvocation range = getContentRange(entity, 6L, 6L);
+					assertThat(read(cache.invoke(range, invoker)), is("cached"));
+					verify(range, times(0)).proceed();
+				});
+				Context("when the content is set", () -> {
+					BeforeEach(() -> {
+						cache.onApplicationEvent(new AfterSetContentEvent(entity, store));
+					});
+					It("should read the content from the store again", () -> {
+						read(cache.invoke(invocation, invoker));
+						verify(invocation, times(2)).proceed();
+						assertThat(cache.getDiskSizes().get(CachedStore.class.getName()), is(19L));
+					});
+				});
+				Context("when the content is unset", () -> {
+					BeforeEach(() -> {
+						cache.onApplicationEvent(new BeforeUnsetContentEvent(entity, store));
+					});
+					It("should remove the content from the cache", () -> {
+						assertThat(cache.getDiskSizes().get(CachedStore.class.getName()), is(0L));
+					});
+				});
+			});
+			Context("given more content than the disk tier can hold", () -> {
+				BeforeEach(() -> {
+					cache.setMaxDiskSize(30L);
+					read(cache.invoke(invocation, invoker));
+					read(cache.invoke(getContent(new Entity("67890")), invoker));
+				});
+				It("should evict the least recently used content", () -> {
+					assertThat(cache.getEvictions().get(CachedStore.class.getName()), is(1L));
+					assertThat(cache.getDiskSizes().get(CachedStore.class.getName()), is(19L));
+				});
+			});
+			Context("given content that is not read to the end", () -> {
+				BeforeEach(() -> {
+					InputStream content = (InputStream) cache.invoke(invocation, invoker);
+					content.read();
+					content.close();
+				});
+				It("should not cache the content", () -> {
+					read(cache.invoke(invocation, invoker));
+					verify(invocation, times(2)).proceed();
+				});
+			});
+			Context("given a heap tier", () -> {
+				BeforeEach(() -> {
+					cache.setMaxHeapSize(1024L);
+					read(cache.invoke(invocation, invoker));
+				});
+				It("should also cache small content in memory", () -> {
+					assertThat(cache.getHeapSizes().get(CachedStore.class.getName()), is(19L));
+				});
+			});
+			Context("given a store that is not cached", () -> {
+				BeforeEach(() -> {
+					when(invoker.getStoreInterface()).thenReturn((Class) UncachedStore.class);
+				});
+				It("should always read the content from the store", () -> {
+					read(cache.invoke(invocation, invoker));
+					read(cache.invoke(invocation, invoker));
+					verify(invocation, times(2)).proceed();
+					assertThat(cache.getHits().isEmpty(), is(true));
+				});
+				Context("when caching is enabled with a property", () -> {
+					BeforeEach(() -> {
+						MockEnvironment env = new MockEnvironment();
+						env.setProperty("spring.content.cache.stores.UncachedStore.enabled", "true");
+						cache.setEnvironment(env);
+					});
+					It("should cache the content", () -> {
+						read(cache.invoke(invocation, invoker));
+						read(cache.invoke(invocation, invoker));
+						verify(invocation, times(1)).proceed();
+					});
+				});
+			});
+			Context("given an entity without content", () -> {
+				BeforeEach(() -> {
+					entity = new Entity(null);
+					invocation = getContent(entity);
+				});
+				It("should read the content from the store without caching it", () -> {
+					assertThat(read(cache.invoke(invocation, invoker)), is("Hello cached world!"));
+					verify(invocation).proceed();
+					assertThat(cache.getMisses().get(CachedStore.class.getName()), is(0L));
+				});
+			});
+		});
+	}
+
+	@Test
+	public void noop() {
+	}
+
+	private MethodInvocation getContent(Entity entity) {
+		MethodInvocation invocation = mock(MethodInvocation.class);
+		when(invocation.getMethod()).thenReturn(ReflectionUtils.findMethod(ContentStore.class, "getContent", Object.class));
+		when(invocation.getArguments()).thenReturn(new Object[] { entity });
+		when(invocation.getThis()).thenReturn(store);
+		try {
+			when(invocation.proceed()).thenAnswer(answer -> new ByteArrayInputStream("Hello cached world!".getBytes()));
+		} catch (Throwable t) {
+			throw new IllegalStateException(t);
+		}
+		return invocation;
+	}
+
+	private MethodInvocation getContentRange(Entity entity, long offset, long length) {
+		MethodInvocation invocation = mock(MethodInvocation.class);
+		when(invocation.getMethod()).thenReturn(ReflectionUtils.findMethod(ContentStore.class, "getContent", Object.class, long.class, long.class));
+		when(invocation.getArguments()).thenReturn(new Object[] { entity, offset, length });
+		when(invocation.getThis()).thenReturn(store);
+		return invocation;
+	}
+
+	private static String read(Object content) throws Exception {
+		try (InputStream in = (InputStream) content) {
+			return StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+		}
+	}
+
+	@CacheContent
+	public interface CachedStore extends ContentStore<Entity, String> {
+	}
+
+	public interface UncachedStore extends ContentStore<Entity, String> {
+	}
+
+	public static class Entity {
+
+		@ContentId
+		private String contentId;
+
+		public Entity(String contentId) {
+			this.contentId = contentId;
+		}
+	}
+}
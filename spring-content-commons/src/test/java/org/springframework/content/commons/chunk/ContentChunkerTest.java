@@ -0,0 +1,253 @@
+package org.springframework.content.commons.chunk;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.AfterEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.BeforeEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Context;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Describe;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.It;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.Store;
+import org.springframework.content.commons.repository.StoreExtension;
+import org.springframework.content.commons.testsupport.InMemoryStore;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+
+import internal.org.springframework.content.commons.chunk.ChunkedResource;
+import internal.org.springframework.content.commons.repository.factory.StoreMethodInterceptor;
+
+@SuppressWarnings("unchecked")
+@RunWith(Ginkgo4jRunner.class)
+@Ginkgo4jConfiguration(threads = 1)
+public class ContentChunkerTest {
+
+	private ContentChunker chunker;
+
+	private InMemoryStore store;
+	private Entity entity;
+	private Entity other;
+	private byte[] content;
+	private int writes;
+	private ContentStore<Object, Serializable> contents;
+
+	{
+		Describe("ContentChunker", () -> {
+			BeforeEach(() -> {
+				chunker = new ContentChunker();
+				chunker.setInMemory(true);
+				chunker.setMinSize(4 * 1024);
+				chunker.setAvgSize(16 * 1024);
+				chunker.setMaxSize(64 * 1024);
+				store = new InMemoryStore();
+				contents = proxy(ChunkedStore.class);
+				entity = new Entity();
+				other = new Entity();
+				content = new byte[512 * 1024];
+				new Random(7L).nextBytes(content);
+			});
+			AfterEach(() -> {
+				chunker.destroy();
+			});
+			Context("given content is set", () -> {
+				BeforeEach(() -> {
+					contents.setContent(entity, new ByteArrayInputStream(content));
+				});
+				It("should store a manifest and its chunks", () -> {
+					assertThat(entity.contentId, is(not(nullValue())));
+					assertThat(entity.contentLength, is((long) content.length));
+					assertThat(store.count("chunks/"), is(greaterThan(1)));
+				});
+				It("should read the content back", () -> {
+					assertThat(StreamUtils.copyToByteArray(contents.getContent(entity)), is(content));
+				});
+				It("should read a range of the content", () -> {
+					InputStream range = contents.getContent(entity, 100_000L, 200_000L);
+					assertThat(StreamUtils.copyToByteArray(range), is(Arrays.copyOfRange(content, 100_000, 300_000)));
+				});
+				It("should return the chunked content as the resource", () -> {
+					Resource resource = ((Store<Serializable>) contents).getResource(entity.contentId);
+					assertThat(resource, is(instanceOf(ChunkedResource.class)));
+					assertThat(resource.contentLength(), is((long) content.length));
+				});
+				Context("when an edited version is set on another entity", () -> {
+					BeforeEach(() -> {
+						byte[] edited = content.clone();
+						edited[content.length / 2] ^= 0xff;
+						writes = store.getWrites();
+						contents.setContent(other, new ByteArrayInputStream(edited));
+					});
+					It("should only store the changed chunks", () -> {
+						assertThat(store.getWrites() - writes, is(lessThan(4)));
+						assertThat(chunker.getDedupRatios().get(ChunkedStore.class.getName()), is(greaterThan(1.5d)));
+					});
+					Context("when the content of the first entity is unset", () -> {
+						BeforeEach(() -> {
+							contents.unsetContent(entity);
+						});
+						It("should keep the shared chunks", () -> {
+							assertThat(entity.contentId, is(nullValue()));
+							assertThat(entity.contentLength, is(0L));
+							assertThat(StreamUtils.copyToByteArray(contents.getContent(other)).length, is(content.length));
+						});
+						Context("when the content of the other is unset", () -> {
+							BeforeEach(() -> {
+								contents.unsetContents(Arrays.asList(other));
+							});
+							It("should delete every chunk", () -> {
+								assertThat(store.getResources().isEmpty(), is(true));
+							});
+						});
+					});
+				});
+				Context("when it is copied to another id", () -> {
+					BeforeEach(() -> {
+						int chunks = store.count("chunks/");
+						((Store<Serializable>) contents).copy(entity.contentId, "copy");
+						other.contentId = "copy";
+						assertThat(store.count("chunks/"), is(chunks));
+					});
+					It("should share the chunks", () -> {
+						assertThat(StreamUtils.copyToByteArray(contents.getContent(other)), is(content));
+						assertThat(chunker.getDedupRatios().get(ChunkedStore.class.getName()), is(2.0d));
+					});
+					It("should keep the chunks when the original is unset", () -> {
+						contents.unsetContent(entity);
+						assertThat(StreamUtils.copyToByteArray(contents.getContent(other)), is(content));
+						contents.unsetContent(other);
+						assertThat(store.getResources().isEmpty(), is(true));
+					});
+				});
+				Context("when the content is replaced", () -> {
+					BeforeEach(() -> {
+						contents.setContent(entity, new ByteArrayInputStream("replaced".getBytes()));
+					});
+					It("should delete the replaced chunks", () -> {
+						assertThat(store.count("chunks/"), is(1));
+						assertThat(StreamUtils.copyToByteArray(contents.getContent(entity)), is("replaced".getBytes()));
+					});
+				});
+			});
+			Context("given content is set in bulk", () -> {
+				BeforeEach(() -> {
+					Map<Object, InputStream> bulk = new LinkedHashMap<>();
+					bulk.put(entity, new ByteArrayInputStream(content));
+					bulk.put(other, new ByteArrayInputStream(content));
+					contents.setContents(bulk);
+				});
+				It("should store the chunks once", () -> {
+					assertThat(chunker.getDedupRatios().get(ChunkedStore.class.getName()), is(2.0d));
+					assertThat(StreamUtils.copyToByteArray(contents.getContent(other)), is(content));
+				});
+			});
+			Context("given content stored before chunking was enabled", () -> {
+				BeforeEach(() -> {
+					entity.contentId = "legacy";
+					store.getResources().put("legacy", content);
+				});
+				It("should read it as it was stored", () -> {
+					assertThat(StreamUtils.copyToByteArray(contents.getContent(entity)), is(content));
+				});
+				It("should unset it through the store", () -> {
+					contents.unsetContent(entity);
+					assertThat(store.getResources().isEmpty(), is(true));
+				});
+			});
+			Context("given neither a journal directory nor an in-memory index", () -> {
+				BeforeEach(() -> {
+					chunker = new ContentChunker();
+					contents = proxy(ChunkedStore.class);
+				});
+				It("should fail to start", () -> {
+					Exception ex = null;
+					try {
+						chunker.afterPropertiesSet();
+					} catch (Exception e) {
+						ex = e;
+					}
+					assertThat(ex, instanceOf(IllegalStateException.class));
+				});
+				It("should not set content", () -> {
+					Exception ex = null;
+					try {
+						contents.setContent(entity, new ByteArrayInputStream(content));
+					} catch (Exception e) {
+						ex = e;
+					}
+					assertThat(ex, instanceOf(IllegalStateException.class));
+					assertThat(store.getResources().isEmpty(), is(true));
+				});
+			});
+			Context("given a store that is not chunked", () -> {
+				BeforeEach(() -> {
+					contents = proxy(PlainStore.class);
+					contents.setContent(entity, new ByteArrayInputStream(content));
+				});
+				It("should store the content as usual", () -> {
+					assertThat(store.getResources().get(entity.contentId), is(content));
+					assertThat(chunker.getDedupRatios().isEmpty(), is(true));
+				});
+			});
+		});
+	}
+
+	@Test
+	public void noop() {
+	}
+
+	// a store proxy, like a store's bean, that dispatches the chunker's methods to it
+	private ContentStore<Object, Serializable> proxy(Class<?> storeInterface) {
+		Map<Method, StoreExtension> extensions = new HashMap<>();
+		for (Method method : chunker.getMethods()) {
+			extensions.put(method, chunker);
+		}
+		StoreMethodInterceptor interceptor = new StoreMethodInterceptor(store, Entity.class, String.class, extensions, mock(ApplicationEventPublisher.class));
+		interceptor.setStoreInterface(storeInterface);
+		ProxyFactory factory = new ProxyFactory(store);
+		factory.addInterface(storeInterface);
+		factory.addAdvice(interceptor);
+		return (ContentStore<Object, Serializable>) factory.getProxy();
+	}
+
+	@ChunkContent
+	public interface ChunkedStore extends ContentStore<Entity, String> {
+	}
+
+	public interface PlainStore extends ContentStore<Entity, String> {
+	}
+
+	public static class Entity {
+
+		@ContentId
+		private String contentId;
+
+		@ContentLength
+		private long contentLength;
+	}
+}
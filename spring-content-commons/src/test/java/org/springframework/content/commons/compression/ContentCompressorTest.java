@@ -0,0 +1,261 @@
+package org.springframework.content.commons.compression;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.BeforeEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Context;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Describe;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.It;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.annotations.MimeType;
+import org.springframework.content.commons.io.ContentEncodedInputStream;
+import org.springframework.content.commons.io.ContentEncodedResource;
+import org.springframework.content.commons.repository.ContentMetadata;
+import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.Store;
+import org.springframework.content.commons.repository.StoreExtension;
+import org.springframework.content.commons.testsupport.InMemoryStore;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.WritableResource;
+import org.springframework.util.StreamUtils;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+
+import internal.org.springframework.content.commons.compression.EncodingMarker;
+import internal.org.springframework.content.commons.repository.factory.StoreMethodInterceptor;
+
+@SuppressWarnings("unchecked")
+@RunWith(Ginkgo4jRunner.class)
+@Ginkgo4jConfiguration(threads = 1)
+public class ContentCompressorTest {
+
+	private static final String TEXT = new String(new char[1000]).replace("\0", "Hello compressed world! ");
+
+	private ContentCompressor compressor;
+
+	private InMemoryStore store;
+	private Entity entity;
+	private ContentStore<Object, Serializable> contents;
+
+	{
+		Describe("ContentCompressor", () -> {
+			BeforeEach(() -> {
+				compressor = new ContentCompressor();
+				store = new InMemoryStore();
+				contents = proxy(CompressedStore.class);
+				entity = new Entity();
+				entity.mimeType = "text/plain";
+			});
+			Context("given text content is set", () -> {
+				BeforeEach(() -> {
+					contents.setContent(entity, stream(TEXT));
+				});
+				It("should store it compressed as standard gzip", () -> {
+					byte[] stored = store.getResources().get(entity.contentId);
+					assertThat(stored.length, is(lessThan(TEXT.length() / 10)));
+					assertThat(StreamUtils.copyToString(new GZIPInputStream(new ByteArrayInputStream(stored)), StandardCharsets.UTF_8), is(TEXT));
+				});
+				It("should set the uncompressed length", () -> {
+					assertThat(entity.contentLength, is((long) TEXT.length()));
+				});
+				It("should read it decompressed", () -> {
+					assertThat(StreamUtils.copyToString(contents.getContent(entity), StandardCharsets.UTF_8), is(TEXT));
+				});
+				It("should read a range of it decompressed", () -> {
+					InputStream range = contents.getContent(entity, 6L, 10L);
+					assertThat(StreamUtils.copyToString(range, StandardCharsets.UTF_8), is("compressed"));
+				});
+				It("should return content that can also be read as it was stored", () -> {
+					InputStream content = contents.getContent(entity);
+					assertThat(content, is(instanceOf(ContentEncodedInputStream.class)));
+					assertThat(((ContentEncodedInputStream) content).getContentEncoding(), is("gzip"));
+					assertThat(((ContentEncodedInputStream) content).getEncodedLength(), is((long) store.getResources().get(entity.contentId).length));
+					assertThat(StreamUtils.copyToByteArray(((ContentEncodedInputStream) content).getEncodedInputStream()), is(store.getResources().get(entity.contentId)));
+				});
+				It("should return a resource of both the decompressed and the stored content", () -> {
+					Resource resource = ((Store<Serializable>) contents).getResource(entity.contentId);
+					assertThat(resource, is(instanceOf(ContentEncodedResource.class)));
+					assertThat(((ContentEncodedResource) resource).getContentEncoding(), is("gzip"));
+					assertThat(((ContentEncodedResource) resource).getEncodedLength(), is((long) store.getResources().get(entity.contentId).length));
+					assertThat(resource.contentLength(), is((long) TEXT.length()));
+					assertThat(StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8), is(TEXT));
+				});
+				It("should answer its metadata from its marker", () -> {
+					store.getResources().put(entity.contentId, new byte[0]);
+					ContentMetadata metadata = ((Store<Serializable>) contents).getMetadata(entity.contentId);
+					assertThat(metadata.getLength(), is((long) TEXT.length()));
+				});
+				It("should list it with its uncompressed length and without its marker", () -> {
+					List<ContentMetadata> listed = ((Store<Serializable>) contents).list(null).collect(Collectors.toList());
+					assertThat(listed.size(), is(1));
+					assertThat(listed.get(0).getContentId(), is(entity.contentId));
+					assertThat(listed.get(0).getLength(), is((long) TEXT.length()));
+				});
+				It("should report the compression ratio", () -> {
+					assertThat(compressor.getCompressionRatios().get(CompressedStore.class.getName()), is(greaterThan(10.0d)));
+				});
+				Context("when it is copied to another id", () -> {
+					BeforeEach(() -> {
+						((Store<Serializable>) contents).copy(entity.contentId, "copy");
+					});
+					It("should read the copy decompressed", () -> {
+						Entity copy = new Entity();
+						copy.contentId = "copy";
+						assertThat(StreamUtils.copyToString(contents.getContent(copy), StandardCharsets.UTF_8), is(TEXT));
+					});
+				});
+				Context("when it is written through its resource", () -> {
+					BeforeEach(() -> {
+						try (OutputStream out = ((WritableResource) ((Store<Serializable>) contents).getResource(entity.contentId)).getOutputStream()) {
+							out.write("plain".getBytes(StandardCharsets.UTF_8));
+						}
+					});
+					It("should read it as it was written", () -> {
+						assertThat(StreamUtils.copyToString(contents.getContent(entity), StandardCharsets.UTF_8), is("plain"));
+					});
+				});
+				Context("when it is unset", () -> {
+					BeforeEach(() -> {
+						contents.unsetContent(entity);
+					});
+					It("should delete its marker", () -> {
+						assertThat(store.getResources().isEmpty(), is(true));
+					});
+				});
+				Context("when it is replaced by content that is not compressed", () -> {
+					BeforeEach(() -> {
+						entity.mimeType = "image/png";
+						contents.setContent(entity, stream("png"));
+					});
+					It("should read it as it was stored", () -> {
+						assertThat(store.count(EncodingMarker.ENCODINGS), is(0));
+						assertThat(StreamUtils.copyToString(contents.getContent(entity), StandardCharsets.UTF_8), is("png"));
+					});
+				});
+			});
+			Context("given gzip content is set", () -> {
+				BeforeEach(() -> {
+					entity.mimeType = "application/gzip";
+					ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+					try (OutputStream out = new GZIPOutputStream(gzip)) {
+						out.write(TEXT.getBytes(StandardCharsets.UTF_8));
+					}
+					contents.setContent(entity, new ByteArrayInputStream(gzip.toByteArray()));
+				});
+				It("should read it as it was stored", () -> {
+					InputStream content = contents.getContent(entity);
+					assertThat(content, is(not(instanceOf(ContentEncodedInputStream.class))));
+					assertThat(StreamUtils.copyToByteArray(content), is(store.getResources().get(entity.contentId)));
+				});
+			});
+			Context("given content of a mime type that is not compressed is set", () -> {
+				BeforeEach(() -> {
+					entity.mimeType = "image/png";
+					contents.setContent(entity, stream(TEXT));
+				});
+				It("should store it as it is", () -> {
+					assertThat(new String(store.getResources().get(entity.contentId), StandardCharsets.UTF_8), is(TEXT));
+					assertThat(StreamUtils.copyToString(contents.getContent(entity), StandardCharsets.UTF_8), is(TEXT));
+				});
+				It("should return the store's own resource", () -> {
+					Resource resource = ((Store<Serializable>) contents).getResource(entity.contentId);
+					assertThat(resource, is(not(instanceOf(ContentEncodedResource.class))));
+					assertThat(resource.contentLength(), is((long) TEXT.length()));
+				});
+			});
+			Context("given content is set in bulk", () -> {
+				BeforeEach(() -> {
+					Entity image = new Entity();
+					image.mimeType = "image/png";
+					Map<Object, InputStream> bulk = new LinkedHashMap<>();
+					bulk.put(entity, stream(TEXT));
+					bulk.put(image, stream("png"));
+					contents.setContents(bulk);
+				});
+				It("should compress each content of a compressed mime type", () -> {
+					assertThat(store.getResources().get(entity.contentId).length, is(lessThan(TEXT.length() / 10)));
+					assertThat(entity.contentLength, is((long) TEXT.length()));
+					assertThat(StreamUtils.copyToString(contents.getContent(entity), StandardCharsets.UTF_8), is(TEXT));
+				});
+			});
+			Context("given a store that is not compressed", () -> {
+				BeforeEach(() -> {
+					contents = proxy(PlainStore.class);
+					contents.setContent(entity, stream(TEXT));
+				});
+				It("should store the content as usual", () -> {
+					assertThat(new String(store.getResources().get(entity.contentId), StandardCharsets.UTF_8), is(TEXT));
+					assertThat(compressor.getCompressionRatios().isEmpty(), is(true));
+				});
+			});
+		});
+	}
+
+	@Test
+	public void noop() {
+	}
+
+	// a store proxy, like a store's bean, that dispatches the compressor's methods to it
+	private ContentStore<Object, Serializable> proxy(Class<?> storeInterface) {
+		Map<Method, StoreExtension> extensions = new HashMap<>();
+		for (Method method : compressor.getMethods()) {
+			extensions.put(method, compressor);
+		}
+		StoreMethodInterceptor interceptor = new StoreMethodInterceptor(store, Entity.class, String.class, extensions, mock(ApplicationEventPublisher.class));
+		interceptor.setStoreInterface(storeInterface);
+		ProxyFactory factory = new ProxyFactory(store);
+		factory.addInterface(storeInterface);
+		factory.addAdvice(interceptor);
+		return (ContentStore<Object, Serializable>) factory.getProxy();
+	}
+
+	private static InputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@CompressContent
+	public interface CompressedStore extends ContentStore<Entity, String> {
+	}
+
+	public interface PlainStore extends ContentStore<Entity, String> {
+	}
+
+	public static class Entity {
+
+		@ContentId
+		private String contentId;
+
+		@ContentLength
+		private long contentLength;
+
+		@MimeType
+		private String mimeType;
+	}
+}
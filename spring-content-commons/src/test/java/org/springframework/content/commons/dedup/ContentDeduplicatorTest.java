@@ -0,0 +1,243 @@
+package org.springframework.content.commons.dedup;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.AfterEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.BeforeEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Context;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Describe;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.It;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.StoreExtension;
+import org.springframework.content.commons.testsupport.InMemoryStore;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+
+import internal.org.springframework.content.commons.repository.factory.StoreMethodInterceptor;
+
+@SuppressWarnings("unchecked")
+@RunWith(Ginkgo4jRunner.class)
+@Ginkgo4jConfiguration(threads = 1)
+public class ContentDeduplicatorTest {
+
+	private ContentDeduplicator deduplicator;
+
+	private InMemoryStore store;
+	private Entity entity;
+	private Entity other;
+	private File directory;
+	private ContentStore<Object, Serializable> contents;
+
+	{
+		Describe("ContentDeduplicator", () -> {
+			BeforeEach(() -> {
+				deduplicator = new ContentDeduplicator();
+				deduplicator.setInMemory(true);
+				store = new InMemoryStore();
+				contents = proxy(DeduplicatedStore.class);
+				entity = new Entity();
+				other = new Entity();
+			});
+			AfterEach(() -> {
+				deduplicator.destroy();
+			});
+			Context("given the same content is set on two entities", () -> {
+				BeforeEach(() -> {
+					contents.setContent(entity, stream("Hello dedup world!"));
+					contents.setContent(other, stream("Hello dedup world!"));
+				});
+				It("should store it once and share it", () -> {
+					assertThat(store.getResources().size(), is(1));
+					assertThat(other.contentId, is(entity.contentId));
+					assertThat(other.contentLength, is(18L));
+				});
+				It("should report the dedup ratio", () -> {
+					assertThat(deduplicator.getLogicalSizes().get(DeduplicatedStore.class.getName()), is(36L));
+					assertThat(deduplicator.getStoredSizes().get(DeduplicatedStore.class.getName()), is(18L));
+					assertThat(deduplicator.getDedupRatios().get(DeduplicatedStore.class.getName()), is(2.0d));
+				});
+				Context("when the content of one is unset", () -> {
+					BeforeEach(() -> {
+						contents.unsetContent(entity);
+					});
+					It("should keep the content for the other", () -> {
+						assertThat(entity.contentId, is(nullValue()));
+						assertThat(store.getResources().size(), is(1));
+						assertThat(store.read(other.contentId), is("Hello dedup world!"));
+					});
+					Context("when the content of the other is unset", () -> {
+						BeforeEach(() -> {
+							contents.unsetContent(other);
+						});
+						It("should delete the content", () -> {
+							assertThat(store.getResources().isEmpty(), is(true));
+						});
+					});
+				});
+				Context("when one is set to new content", () -> {
+					BeforeEach(() -> {
+						contents.setContent(other, stream("Something else"));
+					});
+					It("should store it separately and keep the shared content", () -> {
+						assertThat(other.contentId, is(not(entity.contentId)));
+						assertThat(store.read(entity.contentId), is("Hello dedup world!"));
+						assertThat(store.read(other.contentId), is("Something else"));
+					});
+				});
+			});
+			Context("given an entity whose unshared content is replaced by stored content", () -> {
+				BeforeEach(() -> {
+					contents.setContent(entity, stream("Hello dedup world!"));
+					contents.setContent(other, stream("Something else"));
+					contents.setContent(other, stream("Hello dedup world!"));
+				});
+				It("should delete the replaced content", () -> {
+					assertThat(store.getResources().size(), is(1));
+					assertThat(other.contentId, is(entity.contentId));
+				});
+			});
+			Context("given the same content is set in bulk", () -> {
+				BeforeEach(() -> {
+					Map<Object, InputStream> bulk = new LinkedHashMap<>();
+					bulk.put(entity, stream("Hello dedup world!"));
+					bulk.put(other, stream("Hello dedup world!"));
+					contents.setContents(bulk);
+				});
+				It("should store it once", () -> {
+					assertThat(store.getResources().size(), is(1));
+					assertThat(store.getBulkWrites(), is(1));
+					assertThat(other.contentId, is(entity.contentId));
+				});
+				Context("when both are unset in bulk", () -> {
+					BeforeEach(() -> {
+						contents.unsetContents(Arrays.asList(entity, other));
+					});
+					It("should delete the content", () -> {
+						assertThat(store.getResources().isEmpty(), is(true));
+					});
+				});
+			});
+			Context("given a journal directory", () -> {
+				BeforeEach(() -> {
+					directory = Files.createTempDirectory("dedup").toFile();
+					deduplicator.setDirectory(directory);
+					contents.setContent(entity, stream("Hello dedup world!"));
+					contents.setContent(other, stream("Hello dedup world!"));
+					deduplicator.destroy();
+
+					deduplicator = new ContentDeduplicator();
+					deduplicator.setDirectory(directory);
+					contents = proxy(DeduplicatedStore.class);
+				});
+				AfterEach(() -> {
+					FileUtils.deleteDirectory(directory);
+				});
+				It("should keep the references across restarts", () -> {
+					contents.unsetContent(entity);
+					assertThat(store.getResources().size(), is(1));
+					contents.unsetContent(other);
+					assertThat(store.getResources().isEmpty(), is(true));
+				});
+			});
+			Context("given neither a journal directory nor an in-memory index", () -> {
+				BeforeEach(() -> {
+					deduplicator = new ContentDeduplicator();
+					contents = proxy(DeduplicatedStore.class);
+				});
+				It("should fail to start", () -> {
+					Exception ex = null;
+					try {
+						deduplicator.afterPropertiesSet();
+					} catch (Exception e) {
+						ex = e;
+					}
+					assertThat(ex, instanceOf(IllegalStateException.class));
+				});
+				It("should not set content", () -> {
+					Exception ex = null;
+					try {
+						contents.setContent(entity, stream("Hello dedup world!"));
+					} catch (Exception e) {
+						ex = e;
+					}
+					assertThat(ex, instanceOf(IllegalStateException.class));
+					assertThat(store.getResources().isEmpty(), is(true));
+				});
+			});
+			Context("given a store that is not deduplicated", () -> {
+				BeforeEach(() -> {
+					contents = proxy(PlainStore.class);
+					contents.setContent(entity, stream("Hello dedup world!"));
+					contents.setContent(other, stream("Hello dedup world!"));
+				});
+				It("should store the content as usual", () -> {
+					assertThat(store.getResources().size(), is(2));
+					assertThat(deduplicator.getDedupRatios().isEmpty(), is(true));
+				});
+			});
+		});
+	}
+
+	@Test
+	public void noop() {
+	}
+
+	// a store proxy, like a store's bean, that dispatches the deduplicator's methods to it
+	private ContentStore<Object, Serializable> proxy(Class<?> storeInterface) {
+		Map<Method, StoreExtension> extensions = new HashMap<>();
+		for (Method method : deduplicator.getMethods()) {
+			extensions.put(method, deduplicator);
+		}
+		StoreMethodInterceptor interceptor = new StoreMethodInterceptor(store, Entity.class, String.class, extensions, mock(ApplicationEventPublisher.class));
+		interceptor.setStoreInterface(storeInterface);
+		ProxyFactory factory = new ProxyFactory(store);
+		factory.addInterface(storeInterface);
+		factory.addAdvice(interceptor);
+		return (ContentStore<Object, Serializable>) factory.getProxy();
+	}
+
+	private static InputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@DeduplicateContent
+	public interface DeduplicatedStore extends ContentStore<Entity, String> {
+	}
+
+	public interface PlainStore extends ContentStore<Entity, String> {
+	}
+
+	public static class Entity {
+
+		@ContentId
+		private String contentId;
+
+		@ContentLength
+		private long contentLength;
+	}
+}
@@ -0,0 +1,244 @@
+package org.springframework.content.commons.gc;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.AfterEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.BeforeEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Context;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Describe;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.It;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.storeservice.ContentStoreInfo;
+import org.springframework.content.commons.storeservice.ContentStoreService;
+import org.springframework.content.commons.testsupport.InMemoryStore;
+import org.springframework.core.io.Resource;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+
+import internal.org.springframework.content.commons.storeservice.ContentStoreInfoImpl;
+
+@RunWith(Ginkgo4jRunner.class)
+@Ginkgo4jConfiguration(threads = 1)
+public class ContentGarbageCollectorTest {
+
+	private static final long OLD = System.currentTimeMillis() - 7L * 24L * 60L * 60L * 1000L;
+
+	private ContentGarbageCollector gc;
+
+	private ResourceStore store;
+	private Referenced references;
+	private List<GarbageCollectionReport> reports;
+
+	{
+		Describe("ContentGarbageCollector", () -> {
+			BeforeEach(() -> {
+				store = new ResourceStore();
+				references = new Referenced();
+
+				ContentStoreService stores = mock(ContentStoreService.class);
+				when(stores.getStores(ContentStore.class)).thenReturn(new ContentStoreInfo[] { new ContentStoreInfoImpl(EntityStore.class, Entity.class, (ContentStore<Object, Serializable>) store) });
+
+				gc = new ContentGarbageCollector();
+				gc.setInterval(0L);
+				gc.setStoreService(stores);
+				gc.setReferences(Collections.singletonList(references));
+			});
+			AfterEach(() -> {
+				gc.destroy();
+			});
+			Context("given referenced, unreferenced and recent unreferenced content", () -> {
+				BeforeEach(() -> {
+					store.put("referenced", new byte[10], OLD);
+					store.put("orphan", new byte[20], OLD);
+					store.put("other-orphan", new byte[30], OLD);
+					store.put("recent", new byte[40], System.currentTimeMillis());
+					references.contentIds.add("referenced");
+				});
+				Context("when content is collected", () -> {
+					BeforeEach(() -> {
+						reports = gc.collect();
+					});
+					It("should reclaim the unreferenced content older than the grace period", () -> {
+						assertThat(new HashSet<>(store.getResources().keySet()), is(new HashSet<>(Arrays.asList("referenced", "recent"))));
+					});
+					It("should delete it through the store's resources without unsetting content", () -> {
+						assertThat(store.batches.size(), is(1));
+						assertThat(new HashSet<>(store.batches.get(0)), is(new HashSet<>(Arrays.asList("orphan", "other-orphan"))));
+						assertThat(store.getBulkUnsets().isEmpty(), is(true));
+					});
+					It("should report what it listed and reclaimed", () -> {
+						assertThat(reports.size(), is(1));
+						GarbageCollectionReport report = reports.get(0);
+						assertThat(report.getStore(), is(EntityStore.class.getName()));
+						assertThat(report.isDryRun(), is(false));
+						assertThat(report.getListed(), is(4L));
+						assertThat(report.getListedBytes(), is(100L));
+						assertThat(report.getUnreferenced(), is(3L));
+						assertThat(report.getReclaimed(), is(2L));
+						assertThat(report.getReclaimedBytes(), is(50L));
+						assertThat(gc.getReclaimedBytes().get(EntityStore.class.getName()), is(50L));
+					});
+				});
+				Context("when content is collected in a dry run", () -> {
+					BeforeEach(() -> {
+						gc.setDryRun(true);
+						reports = gc.collect();
+					});
+					It("should reclaim nothing", () -> {
+						assertThat(store.getResources().size(), is(4));
+						assertThat(store.batches.isEmpty(), is(true));
+					});
+					It("should report what it would reclaim", () -> {
+						assertThat(reports.get(0).isDryRun(), is(true));
+						assertThat(reports.get(0).getReclaimed(), is(2L));
+						assertThat(reports.get(0).getReclaimedBytes(), is(50L));
+					});
+				});
+				Context("when content is collected in batches", () -> {
+					BeforeEach(() -> {
+						gc.setBatchSize(1);
+						reports = gc.collect();
+					});
+					It("should check and reclaim each batch in turn", () -> {
+						assertThat(references.batches.size(), is(4));
+						assertThat(references.batches.stream().allMatch(batch -> batch.size() == 1), is(true));
+						assertThat(store.batches.size(), is(2));
+						assertThat(new HashSet<>(store.getResources().keySet()), is(new HashSet<>(Arrays.asList("referenced", "recent"))));
+					});
+				});
+				Context("when the rate content is reclaimed at is limited", () -> {
+					BeforeEach(() -> {
+						gc.setBatchSize(1);
+						gc.setMaxRate(5.0d);
+					});
+					It("should pace the reclamation", () -> {
+						long start = System.currentTimeMillis();
+						gc.collect();
+						assertThat(System.currentTimeMillis() - start, is(greaterThanOrEqualTo(200L)));
+						assertThat(store.getResources().size(), is(2));
+					});
+				});
+				Context("when the store's content is not collected", () -> {
+					BeforeEach(() -> {
+						gc.setReferences(Collections.emptyList());
+						reports = gc.collect();
+					});
+					It("should reclaim nothing", () -> {
+						assertThat(reports.isEmpty(), is(true));
+						assertThat(store.getResources().size(), is(4));
+					});
+				});
+			});
+			Context("given unreferenced content without a last modified time", () -> {
+				BeforeEach(() -> {
+					store.put("orphan", new byte[20], 0L);
+					gc.setGracePeriod(1L);
+				});
+				It("should reclaim it once it is still unreferenced after the grace period", () -> {
+					gc.collect();
+					assertThat(store.getResources().containsKey("orphan"), is(true));
+					Thread.sleep(1100L);
+					gc.collect();
+					assertThat(store.getResources().containsKey("orphan"), is(false));
+				});
+			});
+			Context("given a store that converts content ids to locations with a converter of its own", () -> {
+				BeforeEach(() -> {
+					store = new ConvertingStore();
+					store.put("/referenced/content", new byte[10], OLD);
+					store.put("/orphan/content", new byte[20], OLD);
+					references.contentIds.add("referenced-content");
+
+					ContentStoreService stores = mock(ContentStoreService.class);
+					when(stores.getStores(ContentStore.class)).thenReturn(new ContentStoreInfo[] { new ContentStoreInfoImpl(EntityStore.class, Entity.class, (ContentStore<Object, Serializable>) store) });
+					gc.setStoreService(stores);
+
+					reports = gc.collect();
+				});
+				It("should not reclaim content by its location", () -> {
+					assertThat(store.batches.isEmpty(), is(true));
+					assertThat(new HashSet<>(store.getResources().keySet()), is(new HashSet<>(Arrays.asList("/referenced/content", "/orphan/content"))));
+					assertThat(reports.get(0).getReclaimed(), is(0L));
+				});
+			});
+		});
+	}
+
+	@Test
+	public void noop() {
+	}
+
+	public interface EntityStore extends ContentStore<Entity, String> {
+	}
+
+	public static class Entity {
+
+		@ContentId
+		private String contentId;
+
+		@ContentLength
+		private long contentLength;
+	}
+
+	// records the ids of each batch of resources it is asked for
+	private static class ResourceStore extends InMemoryStore {
+
+		private final List<Collection<Serializable>> batches = new ArrayList<>();
+
+		@Override
+		public Map<Serializable, Resource> getResources(Collection<Serializable> ids) {
+			batches.add(new ArrayList<>(ids));
+			return super.getResources(ids);
+		}
+	}
+
+	/*
+	 * Keeps content at locations converted from content ids, as a filesystem store does with a
+	 * FilesystemStoreConverter of its own.
+	 */
+	private static class ConvertingStore extends ResourceStore {
+
+		@Override
+		public Resource getResource(Serializable id) {
+			return super.getResource("/" + id.toString().replace('-', '/'));
+		}
+	}
+
+	private static class Referenced implements ContentReferences {
+
+		private final Set<String> contentIds = new HashSet<>();
+		private final List<Collection<?>> batches = new ArrayList<>();
+
+		@Override
+		public boolean supports(Class<?> domainClass) {
+			return Entity.class.equals(domainClass);
+		}
+
+		@Override
+		public Collection<?> findReferenced(Class<?> domainClass, String contentIdProperty, Collection<?> contentIds) {
+			assertThat(contentIdProperty, is("contentId"));
+			batches.add(new ArrayList<>(contentIds));
+			return contentIds.stream().filter(this.contentIds::contains).collect(Collectors.toList());
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package org.springframework.content.commons.io;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.BeforeEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Context;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Describe;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.It;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.JustBeforeEach;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.runner.RunWith;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+
+@RunWith(Ginkgo4jRunner.class)
+@Ginkgo4jConfiguration(threads=1)
+public class BoundedInputStreamTest {
+
+    private InputStream content;
+    private long offset;
+    private long length;
+
+    private InputStream range;
+
+    {
+        Describe("#range", () -> {
+            BeforeEach(() -> {
+                content = new ByteArrayInputStream("0123456789".getBytes());
+            });
+            JustBeforeEach(() -> {
+                range = BoundedInputStream.range(content, offset, length);
+            });
+            Context("given a range within the content", () -> {
+                BeforeEach(() -> {
+                    offset = 2L;
+                    length = 5L;
+                });
+                It("should return only the range", () -> {
+                    assertThat(IOUtils.toString(range), is("23456"));
+                });
+            });
+            Context("given a range past the end of the content", () -> {
+                BeforeEach(() -> {
+                    offset = 7L;
+                    length = 10L;
+                });
+                It("should return the remaining content", () -> {
+                    assertThat(IOUtils.toString(range), is("789"));
+                });
+            });
+            Context("given a stream that skips nothing", () -> {
+                BeforeEach(() -> {
+                    content = new FilterInputStream(content) {
+                        @Override
+                        public long skip(long n) throws IOException {
+                            return 0;
+                        }
+                    };
+                    offset = 4L;
+                    length = 3L;
+                });
+                It("should read past the content before the offset", () -> {
+                    assertThat(IOUtils.toString(range), is("456"));
+                });
+            });
+        });
+    }
+}
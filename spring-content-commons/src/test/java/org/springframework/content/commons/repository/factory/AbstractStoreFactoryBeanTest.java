@@ -12,7 +12,9 @@ import java.io.Serializable;
 import java.util.UUID;
 
 import org.junit.runner.RunWith;
+import org.springframework.content.commons.repository.AsyncContentStore;
 import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.ReactiveContentStore;
 
 import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
 import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
@@ -35,6 +37,16 @@ public class AbstractStoreFactoryBeanTest {
                     Class<?> domainClass = factory.getDomainClass(ContentStoreNotFirstIntefaceStore.class);
                     assertThat(domainClass, is(equalTo(String.class)));
                 });
+                It("gets the domain class of an async store", () -> {
+                    TestContentStoreFactory factory = new TestContentStoreFactory();
+                    Class<?> domainClass = factory.getDomainClass(TestAsyncStore.class);
+                    assertThat(domainClass, is(equalTo(String.class)));
+                });
+                It("gets the domain class of a reactive store", () -> {
+                    TestContentStoreFactory factory = new TestContentStoreFactory();
+                    Class<?> domainClass = factory.getDomainClass(TestReactiveStore.class);
+                    assertThat(domainClass, is(equalTo(String.class)));
+                });
             });
 
             Context("#getContentIdClass", () -> {
@@ -67,6 +79,12 @@ public class AbstractStoreFactoryBeanTest {
     public interface TestStore extends ContentStore<String, UUID> {
     }
 
+    public interface TestAsyncStore extends AsyncContentStore<String, UUID> {
+    }
+
+    public interface TestReactiveStore extends ReactiveContentStore<String, UUID> {
+    }
+
     public interface ContentStoreNotFirstIntefaceStore extends Serializable, ContentStore<String, UUID> {
     }
 }
@@ -0,0 +1,338 @@
+package org.springframework.content.commons.sharding;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.BeforeEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Context;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Describe;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.It;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.repository.ContentMetadata;
+import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.Store;
+import org.springframework.content.commons.repository.StoreExtension;
+import org.springframework.content.commons.testsupport.InMemoryStore;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.StreamUtils;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+
+import internal.org.springframework.content.commons.repository.factory.StoreMethodInterceptor;
+
+@SuppressWarnings("unchecked")
+@RunWith(Ginkgo4jRunner.class)
+@Ginkgo4jConfiguration(threads = 1)
+public class ContentShardingTest {
+
+	private static final int CONTENTS = 100;
+
+	private ContentSharding sharding;
+
+	private InMemoryStore a;
+	private InMemoryStore b;
+	private InMemoryStore c;
+	private ApplicationContext context;
+	private List<Entity> entities;
+	private Map<String, InMemoryStore> before = new HashMap<>();
+	private long moved;
+	private ContentStore<Object, Serializable> store;
+	private List<Object> events = new ArrayList<>();
+	private ApplicationEventPublisher publisher = new ApplicationEventPublisher() {
+		@Override
+		public void publishEvent(ApplicationEvent event) {
+			events.add(event);
+		}
+
+		@Override
+		public void publishEvent(Object event) {
+			events.add(event);
+		}
+	};
+
+	{
+		Describe("ContentSharding", () -> {
+			BeforeEach(() -> {
+				a = new SparseStore();
+				b = new SparseStore();
+				c = new SparseStore();
+				context = mock(ApplicationContext.class);
+				when(context.getBean((Class) ShardB.class)).thenReturn(b);
+				when(context.getBean((Class) ShardC.class)).thenReturn(c);
+
+				sharding = new ContentSharding();
+				sharding.setApplicationContext(context);
+				store = proxy(a, TwoShardStore.class, sharding);
+				when(context.getBean((Class) TwoShardStore.class)).thenReturn(store);
+				entities = new ArrayList<>();
+				for (int i = 0; i < CONTENTS; i++) {
+					entities.add(new Entity());
+				}
+			});
+			Context("given contents are set", () -> {
+				BeforeEach(() -> {
+					for (Entity entity : entities) {
+						store.setContent(entity, stream("content " + entities.indexOf(entity)));
+					}
+				});
+				It("should spread them across the shards", () -> {
+					assertThat(a.getResources().size(), is(greaterThan(CONTENTS / 4)));
+					assertThat(b.getResources().size(), is(greaterThan(CONTENTS / 4)));
+					assertThat(a.getResources().size() + b.getResources().size(), is(CONTENTS));
+					assertThat(sharding.getShardOperations().get(TwoShardStore.class.getName() + "/" + ShardB.class.getName()), is((long) b.getResources().size()));
+				});
+				It("should read each from its shard", () -> {
+					for (Entity entity : entities) {
+						assertThat(read(store.getContent(entity)), is("content " + entities.indexOf(entity)));
+					}
+					assertThat(read(store.getContent(entities.get(7), 2L, 5L)), is("ntent"));
+				});
+				It("should return the resource of each from its shard", () -> {
+					List<Serializable> ids = new ArrayList<>();
+					for (Entity entity : entities) {
+						ids.add(entity.contentId);
+					}
+					Map<Serializable, Resource> resources = ((Store<Serializable>) store).getResources(ids);
+					assertThat(new ArrayList<>(resources.keySet()), is(ids));
+					for (Entity entity : entities) {
+						assertThat(StreamUtils.copyToString(resources.get(entity.contentId).getInputStream(), StandardCharsets.UTF_8), is("content " + entities.indexOf(entity)));
+					}
+				});
+				It("should return the metadata of each, and of missing content, from its shard", () -> {
+					List<Serializable> ids = new ArrayList<>();
+					for (Entity entity : entities) {
+						ids.add(entity.contentId);
+					}
+					ids.add("missing");
+					Map<Serializable, ContentMetadata> metadata = ((Store<Serializable>) store).getMetadata(ids);
+					assertThat(new ArrayList<>(metadata.keySet()), is(ids));
+					for (Entity entity : entities) {
+						assertThat(metadata.get(entity.contentId).getLength(), is((long) ("content " + entities.indexOf(entity)).length()));
+					}
+					assertThat(metadata.get("missing").exists(), is(false));
+				});
+				Context("when they are unset in bulk", () -> {
+					BeforeEach(() -> {
+						store.unsetContents(new ArrayList<>(entities));
+					});
+					It("should remove them from every shard", () -> {
+						assertThat(a.getResources().isEmpty(), is(true));
+						assertThat(b.getResources().isEmpty(), is(true));
+					});
+				});
+				Context("when a shard is added", () -> {
+					BeforeEach(() -> {
+						MockEnvironment env = new MockEnvironment();
+						env.setProperty(ContentSharding.PROPERTY_PREFIX + "stores.TwoShardStore.shards", ShardB.class.getName() + "," + ShardC.class.getName());
+						sharding = new ContentSharding();
+						sharding.setEnvironment(env);
+						sharding.setApplicationContext(context);
+						store = proxy(a, TwoShardStore.class, sharding);
+						when(context.getBean((Class) TwoShardStore.class)).thenReturn(store);
+					});
+					It("should still read every content", () -> {
+						for (Entity entity : entities) {
+							assertThat(read(store.getContent(entity)), is("content " + entities.indexOf(entity)));
+						}
+					});
+					Context("and the store is rebalanced", () -> {
+						BeforeEach(() -> {
+							before.clear();
+							before.putAll(locations());
+							moved = sharding.rebalance(TwoShardStore.class);
+						});
+						It("should only move the content of the new shard", () -> {
+							assertThat(moved, is((long) c.getResources().size()));
+							assertThat(moved, is(greaterThan(0L)));
+							assertThat(moved, is(lessThan((long) CONTENTS / 2)));
+							assertThat(a.getResources().size() + b.getResources().size() + c.getResources().size(), is(CONTENTS));
+							Map<String, InMemoryStore> after = locations();
+							for (Map.Entry<String, InMemoryStore> location : before.entrySet()) {
+								if (after.get(location.getKey()) != c) {
+									assertThat(after.get(location.getKey()) == location.getValue(), is(true));
+								}
+							}
+						});
+						It("should read every content", () -> {
+							for (Entity entity : entities) {
+								assertThat(read(store.getContent(entity)), is("content " + entities.indexOf(entity)));
+							}
+						});
+					});
+					Context("and the contents are set again", () -> {
+						BeforeEach(() -> {
+							for (Entity entity : entities) {
+								store.setContent(entity, stream("changed " + entities.indexOf(entity)));
+							}
+						});
+						It("should read the content set", () -> {
+							for (Entity entity : entities) {
+								assertThat(read(store.getContent(entity)), is("changed " + entities.indexOf(entity)));
+							}
+						});
+						It("should leave no older copy in another shard once rebalanced", () -> {
+							moved = sharding.rebalance(TwoShardStore.class);
+							assertThat(moved, is(0L));
+							assertThat(a.getResources().size() + b.getResources().size() + c.getResources().size(), is(CONTENTS));
+							for (Entity entity : entities) {
+								assertThat(read(store.getContent(entity)), is("changed " + entities.indexOf(entity)));
+							}
+						});
+						Context("and then unset and the store is rebalanced", () -> {
+							BeforeEach(() -> {
+								for (Entity entity : entities) {
+									store.unsetContent(entity);
+								}
+								moved = sharding.rebalance(TwoShardStore.class);
+							});
+							It("should not bring any content back", () -> {
+								assertThat(moved, is(0L));
+								assertThat(a.getResources().isEmpty(), is(true));
+								assertThat(b.getResources().isEmpty(), is(true));
+								assertThat(c.getResources().isEmpty(), is(true));
+							});
+						});
+					});
+				});
+			});
+			Context("given the stores publish events", () -> {
+				BeforeEach(() -> {
+					when(context.getBean((Class) ShardB.class)).thenReturn(proxy(b, ShardB.class, null));
+					store = proxy(a, TwoShardStore.class, sharding);
+					events.clear();
+					for (Entity entity : entities) {
+						store.setContent(entity, new ByteArrayInputStream(("content " + entities.indexOf(entity)).getBytes(StandardCharsets.UTF_8)));
+					}
+				});
+				It("should publish the events of each call once", () -> {
+					assertThat(b.getResources().size(), is(greaterThan(0)));
+					assertThat(events.size(), is(CONTENTS * 2));
+					events.clear();
+					for (Entity entity : entities) {
+						assertThat(StreamUtils.copyToString(store.getContent(entity), StandardCharsets.UTF_8), is("content " + entities.indexOf(entity)));
+						store.unsetContent(entity);
+					}
+					assertThat(events.size(), is(CONTENTS * 4));
+					assertThat(b.getResources().isEmpty(), is(true));
+				});
+			});
+			Context("given contents are set in bulk", () -> {
+				BeforeEach(() -> {
+					Map<Object, InputStream> contents = new LinkedHashMap<>();
+					for (Entity entity : entities) {
+						contents.put(entity, new ByteArrayInputStream(("content " + entities.indexOf(entity)).getBytes(StandardCharsets.UTF_8)));
+					}
+					store.setContents(contents);
+				});
+				It("should spread them across the shards", () -> {
+					assertThat(a.getResources().size(), is(greaterThan(0)));
+					assertThat(b.getResources().size(), is(greaterThan(0)));
+					for (Entity entity : entities) {
+						assertThat(read(store.getContent(entity)), is("content " + entities.indexOf(entity)));
+					}
+				});
+			});
+		});
+	}
+
+	@Test
+	public void noop() {
+	}
+
+	private static InputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String read(InputStream content) throws IOException {
+		return StreamUtils.copyToString(content, StandardCharsets.UTF_8);
+	}
+
+	// a store proxy, like a store's bean, that publishes the events of the store's methods around
+	// its extensions
+	private ContentStore<Object, Serializable> proxy(InMemoryStore store, Class<?> storeInterface, ContentSharding extension) {
+		Map<Method, StoreExtension> extensions = new HashMap<>();
+		if (extension != null) {
+			for (Method method : extension.getMethods()) {
+				extensions.put(method, extension);
+			}
+		}
+		StoreMethodInterceptor interceptor = new StoreMethodInterceptor(store, Entity.class, String.class, extensions, publisher);
+		interceptor.setStoreInterface(storeInterface);
+		interceptor.setExtensionsInsideEvents(true);
+		ProxyFactory factory = new ProxyFactory(store);
+		factory.addInterface(storeInterface);
+		factory.addAdvice(interceptor);
+		return (ContentStore<Object, Serializable>) factory.getProxy();
+	}
+
+	private Map<String, InMemoryStore> locations() {
+		Map<String, InMemoryStore> locations = new HashMap<>();
+		for (InMemoryStore store : new InMemoryStore[] { a, b, c }) {
+			for (String id : store.getResources().keySet()) {
+				locations.put(id, store);
+			}
+		}
+		return locations;
+	}
+
+	@ShardedContent(shards = ShardB.class)
+	public interface TwoShardStore extends ContentStore<Entity, String> {
+	}
+
+	public interface ShardB extends ContentStore<Entity, String> {
+	}
+
+	public interface ShardC extends ContentStore<Entity, String> {
+	}
+
+	public static class Entity {
+
+		@ContentId
+		private String contentId;
+
+		@ContentLength
+		private long contentLength;
+	}
+
+	// like some stores, leaves out content it does not have
+	private static class SparseStore extends InMemoryStore {
+
+		@Override
+		public Map<Serializable, ContentMetadata> getMetadata(Collection<Serializable> ids) {
+			Map<Serializable, ContentMetadata> metadata = new LinkedHashMap<>();
+			for (Serializable id : ids) {
+				byte[] content = getResources().get(id.toString());
+				if (content != null) {
+					metadata.put(id, new ContentMetadata(id, content.length, 0L, null));
+				}
+			}
+			return metadata;
+		}
+	}
+}
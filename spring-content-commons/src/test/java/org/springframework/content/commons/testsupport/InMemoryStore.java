@@ -0,0 +1,256 @@
+package org.springframework.content.commons.testsupport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.io.DeletableResource;
+import org.springframework.content.commons.repository.ContentMetadata;
+import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.Store;
+import org.springframework.content.commons.utils.BeanUtils;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.WritableResource;
+import org.springframework.util.StreamUtils;
+
+/**
+ * A store that keeps content in memory, keyed by content id, for testing store extensions.
+ * Entities are any objects with a {@link ContentId} and {@link ContentLength}; a random content
+ * id is given to an entity without one when its content is set.  The content can be read and
+ * changed directly through {@link #getResources()}, and its writes are counted.
+ */
+public class InMemoryStore implements Store<Serializable>, ContentStore<Object, Serializable> {
+
+	private final Map<String, byte[]> resources = new ConcurrentHashMap<>();
+	private final Map<String, Long> lastModified = new ConcurrentHashMap<>();
+
+	private final AtomicInteger writes = new AtomicInteger();
+	private final AtomicInteger bulkWrites = new AtomicInteger();
+	private final List<Collection<Object>> bulkUnsets = new CopyOnWriteArrayList<>();
+
+	private volatile long delay = 0L;
+
+	/**
+	 * Returns the content of the store, keyed by location.
+	 *
+	 * @return the content
+	 */
+	public Map<String, byte[]> getResources() {
+		return resources;
+	}
+
+	public void put(String location, String content) {
+		put(location, content.getBytes(StandardCharsets.UTF_8), System.currentTimeMillis());
+	}
+
+	public void put(String location, byte[] content, long lastModified) {
+		resources.put(location, content);
+		this.lastModified.put(location, lastModified);
+	}
+
+	public String read(String location) {
+		byte[] content = resources.get(location);
+		return (content != null ? new String(content, StandardCharsets.UTF_8) : null);
+	}
+
+	/**
+	 * Returns the number of contents at locations starting with a prefix.
+	 *
+	 * @param prefix the prefix
+	 * @return the number of contents
+	 */
+	public int count(String prefix) {
+		int count = 0;
+		for (String location : resources.keySet()) {
+			if (location.startsWith(prefix)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of times content was written through a resource.
+	 *
+	 * @return the number of writes
+	 */
+	public int getWrites() {
+		return writes.get();
+	}
+
+	/**
+	 * Returns the number of times content was set in bulk.
+	 *
+	 * @return the number of bulk writes
+	 */
+	public int getBulkWrites() {
+		return bulkWrites.get();
+	}
+
+	/**
+	 * Returns the entities whose content was unset in bulk, one collection for each time.
+	 *
+	 * @return the bulk unsets
+	 */
+	public List<Collection<Object>> getBulkUnsets() {
+		return bulkUnsets;
+	}
+
+	/**
+	 * Delays each read of content, to simulate a slow store.
+	 *
+	 * @param delay the delay in milliseconds
+	 */
+	public void setDelay(long delay) {
+		this.delay = delay;
+	}
+
+	@Override
+	public Resource getResource(Serializable id) {
+		return new MapResource(id.toString());
+	}
+
+	@Override
+	public Stream<ContentMetadata> list(String prefix) {
+		List<ContentMetadata> listed = new ArrayList<>();
+		for (Map.Entry<String, byte[]> resource : resources.entrySet()) {
+			if (prefix == null || resource.getKey().startsWith(prefix)) {
+				listed.add(new ContentMetadata(resource.getKey(), resource.getValue().length, lastModified.getOrDefault(resource.getKey(), 0L), null));
+			}
+		}
+		return listed.stream();
+	}
+
+	@Override
+	public void setContent(Object property, InputStream content) {
+		Object contentId = BeanUtils.getFieldWithAnnotation(property, ContentId.class);
+		if (contentId == null) {
+			contentId = UUID.randomUUID().toString();
+			BeanUtils.setFieldWithAnnotation(property, ContentId.class, contentId);
+		}
+		try {
+			byte[] bytes = StreamUtils.copyToByteArray(content);
+			put(contentId.toString(), bytes, System.currentTimeMillis());
+			BeanUtils.setFieldWithAnnotation(property, ContentLength.class, (long) bytes.length);
+		} catch (IOException ioe) {
+			throw new IllegalStateException(ioe);
+		}
+	}
+
+	@Override
+	public void setContents(Map<Object, InputStream> contents) {
+		bulkWrites.incrementAndGet();
+		ContentStore.super.setContents(contents);
+	}
+
+	@Override
+	public void unsetContent(Object property) {
+		Object contentId = BeanUtils.getFieldWithAnnotation(property, ContentId.class);
+		if (contentId != null) {
+			resources.remove(contentId.toString());
+			lastModified.remove(contentId.toString());
+		}
+		BeanUtils.setFieldWithAnnotation(property, ContentId.class, null);
+		BeanUtils.setFieldWithAnnotation(property, ContentLength.class, 0L);
+	}
+
+	@Override
+	public void unsetContents(Collection<Object> properties) {
+		bulkUnsets.add(new ArrayList<>(properties));
+		ContentStore.super.unsetContents(properties);
+	}
+
+	@Override
+	public InputStream getContent(Object property) {
+		if (delay > 0) {
+			try {
+				Thread.sleep(delay);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		Object contentId = BeanUtils.getFieldWithAnnotation(property, ContentId.class);
+		byte[] content = (contentId != null ? resources.get(contentId.toString()) : null);
+		return (content != null ? new ByteArrayInputStream(content) : null);
+	}
+
+	private class MapResource extends AbstractResource implements WritableResource, DeletableResource {
+
+		private final String location;
+
+		MapResource(String location) {
+			this.location = location;
+		}
+
+		@Override
+		public boolean exists() {
+			return resources.containsKey(location);
+		}
+
+		@Override
+		public boolean isWritable() {
+			return true;
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			byte[] content = resources.get(location);
+			if (content == null) {
+				throw new IOException(String.format("No content at %s", location));
+			}
+			return new ByteArrayInputStream(content);
+		}
+
+		@Override
+		public long contentLength() throws IOException {
+			byte[] content = resources.get(location);
+			if (content == null) {
+				throw new IOException(String.format("No content at %s", location));
+			}
+			return content.length;
+		}
+
+		@Override
+		public long lastModified() throws IOException {
+			return lastModified.getOrDefault(location, 0L);
+		}
+
+		@Override
+		public OutputStream getOutputStream() throws IOException {
+			writes.incrementAndGet();
+			return new ByteArrayOutputStream() {
+				@Override
+				public void close() throws IOException {
+					put(location, toByteArray(), System.currentTimeMillis());
+				}
+			};
+		}
+
+		@Override
+		public void delete() {
+			resources.remove(location);
+			lastModified.remove(location);
+		}
+
+		@Override
+		public String getDescription() {
+			return location;
+		}
+	}
+}
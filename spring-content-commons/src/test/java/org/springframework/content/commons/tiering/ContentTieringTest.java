@@ -0,0 +1,232 @@
+package org.springframework.content.commons.tiering;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.AfterEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.BeforeEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Context;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Describe;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.It;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.StoreExtension;
+import org.springframework.content.commons.testsupport.InMemoryStore;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.util.StreamUtils;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+
+import internal.org.springframework.content.commons.repository.factory.StoreMethodInterceptor;
+
+@SuppressWarnings("unchecked")
+@RunWith(Ginkgo4jRunner.class)
+@Ginkgo4jConfiguration(threads = 1)
+public class ContentTieringTest {
+
+	private ContentTiering tiering;
+
+	private InMemoryStore hot;
+	private InMemoryStore cold;
+	private Entity entity;
+	private Entity other;
+	private ContentStore<Object, Serializable> contents;
+
+	{
+		Describe("ContentTiering", () -> {
+			BeforeEach(() -> {
+				hot = new InMemoryStore();
+				cold = new InMemoryStore();
+				ApplicationContext context = mock(ApplicationContext.class);
+				when(context.getBean((Class) ColdStore.class)).thenReturn(cold);
+
+				tiering = new ContentTiering();
+				tiering.setApplicationContext(context);
+				tiering.setInterval(0L);
+				contents = proxy(HotStore.class);
+				entity = new Entity();
+				other = new Entity();
+			});
+			AfterEach(() -> {
+				tiering.destroy();
+			});
+			Context("given content is set", () -> {
+				BeforeEach(() -> {
+					contents.setContent(entity, stream("hot content"));
+				});
+				It("should store it in the hot tier", () -> {
+					assertThat(hot.read(entity.contentId), is("hot content"));
+					assertThat(cold.getResources().isEmpty(), is(true));
+					assertThat(tiering.getHotSizes().get(HotStore.class.getName()), is(11L));
+				});
+				Context("when the content is unset", () -> {
+					BeforeEach(() -> {
+						contents.unsetContent(entity);
+					});
+					It("should remove it from the hot tier", () -> {
+						assertThat(hot.getResources().isEmpty(), is(true));
+						assertThat(tiering.getHotSizes().get(HotStore.class.getName()), is(0L));
+					});
+				});
+			});
+			Context("given content in the cold tier", () -> {
+				BeforeEach(() -> {
+					entity.contentId = "archived";
+					cold.put("archived", "cold content");
+				});
+				It("should read it from the cold tier", () -> {
+					assertThat(read(contents.getContent(entity)), is("cold content"));
+					assertThat(tiering.getHotHitRatios().get(HotStore.class.getName()), is(0.0d));
+				});
+				It("should read a range of it from the cold tier", () -> {
+					assertThat(read(contents.getContent(entity, 5L, 7L)), is("content"));
+				});
+				Context("when it is read and content is migrated", () -> {
+					BeforeEach(() -> {
+						read(contents.getContent(entity));
+						tiering.migrate();
+					});
+					It("should promote it to the hot tier keeping its content id", () -> {
+						assertThat(hot.read("archived"), is("cold content"));
+						assertThat(cold.getResources().isEmpty(), is(true));
+						assertThat(tiering.getPromotions().get(HotStore.class.getName()), is(1L));
+						assertThat(tiering.getPromotedBytes().get(HotStore.class.getName()), is(12L));
+					});
+					It("should read it from the hot tier", () -> {
+						assertThat(read(contents.getContent(entity)), is("cold content"));
+						assertThat(tiering.getHotHitRatios().get(HotStore.class.getName()), is(0.5d));
+					});
+				});
+				Context("when its promotion runs as soon as it is scheduled", () -> {
+					BeforeEach(() -> {
+						tiering.setExecutor(new ScheduledThreadPoolExecutor(1) {
+							@Override
+							public void execute(Runnable command) {
+								command.run();
+							}
+						});
+					});
+					It("should still read it from the cold tier", () -> {
+						assertThat(read(contents.getContent(entity)), is("cold content"));
+						assertThat(hot.read("archived"), is("cold content"));
+						assertThat(cold.getResources().isEmpty(), is(true));
+					});
+					It("should still read a range of it from the cold tier", () -> {
+						assertThat(read(contents.getContent(entity, 5L, 7L)), is("content"));
+						assertThat(hot.read("archived"), is("cold content"));
+					});
+				});
+				Context("when it is unset", () -> {
+					BeforeEach(() -> {
+						contents.unsetContent(entity);
+					});
+					It("should remove it from the cold tier", () -> {
+						assertThat(cold.getResources().isEmpty(), is(true));
+					});
+				});
+			});
+			Context("given the hot tier is over capacity", () -> {
+				BeforeEach(() -> {
+					tiering.setCapacity(10L);
+					contents.setContent(entity, stream("12345678"));
+					contents.setContent(other, stream("abcdefgh"));
+					tiering.migrate();
+				});
+				It("should demote the least recently used content", () -> {
+					assertThat(cold.read(entity.contentId), is("12345678"));
+					assertThat(hot.getResources().containsKey(entity.contentId), is(false));
+					assertThat(hot.read(other.contentId), is("abcdefgh"));
+					assertThat(tiering.getDemotedBytes().get(HotStore.class.getName()), is(8L));
+				});
+				It("should still read the demoted content", () -> {
+					assertThat(read(contents.getContent(entity)), is("12345678"));
+				});
+			});
+			Context("given content older than the maximum age", () -> {
+				BeforeEach(() -> {
+					tiering.setMaxAge(0L);
+					contents.setContent(entity, stream("old content"));
+					Thread.sleep(5L);
+					tiering.migrate();
+				});
+				It("should demote it", () -> {
+					assertThat(cold.read(entity.contentId), is("old content"));
+					assertThat(hot.getResources().isEmpty(), is(true));
+				});
+			});
+			Context("given content is unset in bulk", () -> {
+				BeforeEach(() -> {
+					contents.setContent(entity, stream("hot content"));
+					other.contentId = "archived";
+					cold.put("archived", "cold content");
+					contents.unsetContents(Arrays.asList(entity, other));
+				});
+				It("should remove it from both tiers", () -> {
+					assertThat(hot.getResources().isEmpty(), is(true));
+					assertThat(cold.getResources().isEmpty(), is(true));
+				});
+			});
+		});
+	}
+
+	@Test
+	public void noop() {
+	}
+
+	// a store proxy, like a store's bean, that dispatches the tiering's methods to it
+	private ContentStore<Object, Serializable> proxy(Class<?> storeInterface) {
+		Map<Method, StoreExtension> extensions = new HashMap<>();
+		for (Method method : tiering.getMethods()) {
+			extensions.put(method, tiering);
+		}
+		StoreMethodInterceptor interceptor = new StoreMethodInterceptor(hot, Entity.class, String.class, extensions, mock(ApplicationEventPublisher.class));
+		interceptor.setStoreInterface(storeInterface);
+		ProxyFactory factory = new ProxyFactory(hot);
+		factory.addInterface(storeInterface);
+		factory.addAdvice(interceptor);
+		return (ContentStore<Object, Serializable>) factory.getProxy();
+	}
+
+	private static InputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String read(InputStream content) throws IOException {
+		return StreamUtils.copyToString(content, StandardCharsets.UTF_8);
+	}
+
+	@TieredContent(coldStore = ColdStore.class)
+	public interface HotStore extends ContentStore<Entity, String> {
+	}
+
+	public interface ColdStore extends ContentStore<Entity, String> {
+	}
+
+	public static class Entity {
+
+		@ContentId
+		private String contentId;
+
+		@ContentLength
+		private long contentLength;
+	}
+}
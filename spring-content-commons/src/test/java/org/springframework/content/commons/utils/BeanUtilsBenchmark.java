@@ -0,0 +1,163 @@
+package org.springframework.content.commons.utils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.annotations.MimeType;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Compares {@link BeanUtils} against the uncached, per-call introspection it replaced.
+ * <p>
+ * Not run as part of the build.  Run with:
+ * <pre>
+ * mvn -pl spring-content-commons test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.springframework.content.commons.utils.BeanUtilsBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanUtilsBenchmark {
+
+	private Document document;
+
+	@Setup
+	public void setup() {
+		document = new Document();
+		document.setContentId("4f3c2a6e-1d4b-4a8e-9d55-8b6a0f0e5f11");
+		document.setContentLength(1024L);
+		document.mimeType = "text/plain";
+	}
+
+	@Benchmark
+	public Object getContentId() {
+		return BeanUtils.getFieldWithAnnotation(document, ContentId.class);
+	}
+
+	@Benchmark
+	public Object getContentIdLegacy() {
+		return Legacy.getFieldWithAnnotation(document, ContentId.class);
+	}
+
+	@Benchmark
+	public Object getMimeTypeField() {
+		return BeanUtils.getFieldWithAnnotation(document, MimeType.class);
+	}
+
+	@Benchmark
+	public Object getMimeTypeFieldLegacy() {
+		return Legacy.getFieldWithAnnotation(document, MimeType.class);
+	}
+
+	@Benchmark
+	public Document setContentLength() {
+		BeanUtils.setFieldWithAnnotation(document, ContentLength.class, 2048L);
+		return document;
+	}
+
+	@Benchmark
+	public Document setContentLengthLegacy() {
+		Legacy.setFieldWithAnnotation(document, ContentLength.class, 2048L);
+		return document;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(BeanUtilsBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	public static class Document {
+		private String name;
+		@ContentId private String contentId;
+		@ContentLength private Long contentLength;
+		@MimeType public String mimeType;
+
+		public String getName() {
+			return name;
+		}
+		public void setName(String name) {
+			this.name = name;
+		}
+		public String getContentId() {
+			return contentId;
+		}
+		public void setContentId(String contentId) {
+			this.contentId = contentId;
+		}
+		public Long getContentLength() {
+			return contentLength;
+		}
+		public void setContentLength(Long contentLength) {
+			this.contentLength = contentLength;
+		}
+	}
+
+	/**
+	 * The pre-cache implementation, kept as the baseline.
+	 */
+	static class Legacy {
+
+		static Field findFieldWithAnnotation(Class<?> domainObjClass, Class<? extends Annotation> annotationClass) {
+			BeanWrapper wrapper = new BeanWrapperImpl(domainObjClass);
+			for (PropertyDescriptor descriptor : wrapper.getPropertyDescriptors()) {
+				Field candidate = BeanUtils.getField(domainObjClass, descriptor.getName());
+				if (candidate != null && candidate.getAnnotation(annotationClass) != null) {
+					return candidate;
+				}
+			}
+			for (Field field : BeanUtils.getAllFields(domainObjClass)) {
+				if (field.getAnnotation(annotationClass) != null) {
+					return field;
+				}
+			}
+			return null;
+		}
+
+		static Object getFieldWithAnnotation(Object domainObj, Class<? extends Annotation> annotationClass) {
+			Field field = findFieldWithAnnotation(domainObj.getClass(), annotationClass);
+			if (field == null) {
+				return null;
+			}
+			PropertyDescriptor descriptor = org.springframework.beans.BeanUtils.getPropertyDescriptor(domainObj.getClass(), field.getName());
+			if (descriptor != null) {
+				return new BeanWrapperImpl(domainObj).getPropertyValue(field.getName());
+			}
+			return ReflectionUtils.getField(field, domainObj);
+		}
+
+		static void setFieldWithAnnotation(Object domainObj, Class<? extends Annotation> annotationClass, Object value) {
+			Field field = findFieldWithAnnotation(domainObj.getClass(), annotationClass);
+			if (field == null) {
+				return;
+			}
+			PropertyDescriptor descriptor = org.springframework.beans.BeanUtils.getPropertyDescriptor(domainObj.getClass(), field.getName());
+			if (descriptor != null) {
+				new BeanWrapperImpl(domainObj).setPropertyValue(field.getName(), value);
+			} else {
+				ReflectionUtils.setField(field, domainObj, value);
+			}
+		}
+	}
+}
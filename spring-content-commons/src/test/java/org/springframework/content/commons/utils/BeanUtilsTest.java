@@ -11,6 +11,7 @@ import java.lang.reflect.Field;
 
 import org.hamcrest.CoreMatchers;
 import org.junit.runner.RunWith;
+import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.content.commons.annotations.ContentId;
 import org.springframework.content.commons.annotations.ContentLength;
 
@@ -22,6 +23,8 @@ import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
 public class BeanUtilsTest {
 
 	private TestEntity testEntity;
+	private PrimitiveTestEntity primitiveEntity;
+	private GeneratedAccessorTestEntity generatedEntity;
 	{
 		Describe("BeanUtils", () -> {
 			Context("#setFieldWithAnnotation",  () -> {
@@ -67,6 +70,83 @@ public class BeanUtilsTest {
 				});
 			});
 
+			Context("#setFieldWithAnnotation given a value of a different type", () -> {
+				BeforeEach(() -> {
+					primitiveEntity = new PrimitiveTestEntity();
+				});
+				It("should convert the value for a primitive property", () -> {
+					BeanUtils.setFieldWithAnnotation(primitiveEntity, ContentLength.class, 10);
+					assertThat(primitiveEntity.getContentLen(), is(10L));
+				});
+				It("should set a subtype value on a field", () -> {
+					BeanUtils.setFieldWithAnnotation(primitiveEntity, ContentId.class, "abc");
+					assertThat(primitiveEntity.contentId, is("abc"));
+				});
+				It("should return primitive values boxed", () -> {
+					primitiveEntity.setContentLen(99L);
+					assertThat(BeanUtils.getFieldWithAnnotation(primitiveEntity, ContentLength.class), is(99L));
+				});
+			});
+
+			Context("given a class with a generated accessor", () -> {
+				BeforeEach(() -> {
+					generatedEntity = new GeneratedAccessorTestEntity();
+					GeneratedAccessorTestEntity_ContentEntityAccessor.invocations = 0;
+				});
+				It("should use the generated accessor for supported annotations", () -> {
+					BeanUtils.setFieldWithAnnotation(generatedEntity, ContentId.class, "12345");
+					assertThat(BeanUtils.getFieldWithAnnotation(generatedEntity, ContentId.class), is("12345"));
+					assertThat(GeneratedAccessorTestEntity_ContentEntityAccessor.invocations, is(2));
+				});
+				It("should fall back to reflection for unsupported annotations", () -> {
+					BeanUtils.setFieldWithAnnotation(generatedEntity, ContentLength.class, 10L);
+					assertThat(BeanUtils.getFieldWithAnnotation(generatedEntity, ContentLength.class), is(10L));
+					assertThat(GeneratedAccessorTestEntity_ContentEntityAccessor.invocations, is(0));
+				});
+				It("should fall back to reflection for values the generated accessor refuses", () -> {
+					BeanUtils.setFieldWithAnnotation(generatedEntity, ContentId.class, new StringBuilder("12345"));
+					assertThat(generatedEntity.contentId, is(nullValue()));
+				});
+			});
+
+			Context("given a subclass of a class with a generated accessor", () -> {
+				BeforeEach(() -> {
+					GeneratedAccessorTestEntity_ContentEntityAccessor.invocations = 0;
+				});
+				It("should use the superclass's generated accessor", () -> {
+					GeneratedAccessorTestEntity subEntity = new GeneratedAccessorSubEntity();
+					BeanUtils.setFieldWithAnnotation(subEntity, ContentId.class, "12345");
+					assertThat(subEntity.contentId, is("12345"));
+					assertThat(GeneratedAccessorTestEntity_ContentEntityAccessor.invocations, is(1));
+				});
+				It("should not use it when the subclass declares content fields of its own", () -> {
+					GeneratedAccessorShadowingEntity subEntity = new GeneratedAccessorShadowingEntity();
+					BeanUtils.setFieldWithAnnotation(subEntity, ContentId.class, "12345");
+					assertThat(BeanUtils.getFieldWithAnnotation(subEntity, ContentId.class), is("12345"));
+					assertThat(subEntity.contentId, is("12345"));
+					assertThat(((GeneratedAccessorTestEntity) subEntity).contentId, is(nullValue()));
+					assertThat(GeneratedAccessorTestEntity_ContentEntityAccessor.invocations, is(0));
+				});
+			});
+
+			Context("given a proxy of a class with a generated accessor", () -> {
+				BeforeEach(() -> {
+					generatedEntity = new GeneratedAccessorTestEntity();
+					GeneratedAccessorTestEntity_ContentEntityAccessor.invocations = 0;
+				});
+				It("should access the proxied entity through its accessor methods", () -> {
+					ProxyFactory factory = new ProxyFactory(generatedEntity);
+					factory.setProxyTargetClass(true);
+					GeneratedAccessorTestEntity proxy = (GeneratedAccessorTestEntity) factory.getProxy();
+
+					BeanUtils.setFieldWithAnnotation(proxy, ContentId.class, "12345");
+					assertThat(generatedEntity.contentId, is("12345"));
+					assertThat(proxy.contentId, is(nullValue()));
+					assertThat(BeanUtils.getFieldWithAnnotation(proxy, ContentId.class), is("12345"));
+					assertThat(GeneratedAccessorTestEntity_ContentEntityAccessor.invocations, is(0));
+				});
+			});
+
 			Context("setFieldWithAnnotationConditionally",  () -> {
                         Context("given a simple, non-inheriting class", () -> {
                             BeforeEach(() -> {
@@ -314,6 +394,23 @@ public class BeanUtilsTest {
 	}
 	
 	public static class InheritingTestEntity extends TestEntity {}
+
+	public static class GeneratedAccessorSubEntity extends GeneratedAccessorTestEntity {}
+
+	public static class GeneratedAccessorShadowingEntity extends GeneratedAccessorTestEntity {
+		@ContentId public String contentId;
+	}
+
+	public static class PrimitiveTestEntity {
+		@ContentId public Object contentId;
+		@ContentLength private long contentLen;
+		public long getContentLen() {
+			return contentLen;
+		}
+		public void setContentLen(long contentLen) {
+			this.contentLen = contentLen;
+		}
+	}
 	
 	public static class MatchingCondition implements Condition {
 		@Override
@@ -0,0 +1,17 @@
+package org.springframework.content.commons.utils;
+
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.annotations.ContentLength;
+
+public class GeneratedAccessorTestEntity {
+	@ContentId public String contentId;
+	@ContentLength public long contentLength;
+
+	String getContentId() {
+		return contentId;
+	}
+
+	void setContentId(String contentId) {
+		this.contentId = contentId;
+	}
+}
@@ -0,0 +1,35 @@
+package org.springframework.content.commons.utils;
+
+import java.lang.annotation.Annotation;
+
+import org.springframework.content.commons.annotations.ContentId;
+
+/**
+ * Stands in for an accessor generated by spring-content-processor.  Only supports
+ * {@link ContentId} and records its use.
+ */
+public final class GeneratedAccessorTestEntity_ContentEntityAccessor implements ContentEntityAccessor<GeneratedAccessorTestEntity> {
+
+	static int invocations = 0;
+
+	@Override
+	public boolean supports(Class<? extends Annotation> annotationClass) {
+		return annotationClass == ContentId.class;
+	}
+
+	@Override
+	public Object get(GeneratedAccessorTestEntity entity, Class<? extends Annotation> annotationClass) {
+		invocations++;
+		return entity.contentId;
+	}
+
+	@Override
+	public boolean set(GeneratedAccessorTestEntity entity, Class<? extends Annotation> annotationClass, Object value) {
+		invocations++;
+		if (value == null || value instanceof String) {
+			entity.contentId = (String) value;
+			return true;
+		}
+		return false;
+	}
+}
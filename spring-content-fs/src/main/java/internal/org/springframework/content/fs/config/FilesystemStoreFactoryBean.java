@@ -1,9 +1,14 @@
 package internal.org.springframework.content.fs.config;
 
+import java.util.concurrent.Executor;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.content.commons.repository.factory.AbstractStoreFactoryBean;
 import org.springframework.content.commons.utils.FileServiceImpl;
+import org.springframework.content.fs.io.FanoutLayout;
 import org.springframework.content.fs.io.FileSystemResourceLoader;
+import org.springframework.content.fs.io.WriteMode;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.util.Assert;
 
@@ -12,11 +17,23 @@ import internal.org.springframework.content.fs.repository.DefaultFilesystemStore
 @SuppressWarnings("rawtypes")
 public class FilesystemStoreFactoryBean extends AbstractStoreFactoryBean {
 
+	public static final String BULK_EXECUTOR_BEAN_NAME = "filesystemStoreBulkExecutor";
+
 	@Autowired
 	FileSystemResourceLoader loader;
 	
 	@Autowired
 	ConversionService filesystemStoreConverter;
+
+	@Autowired(required=false)
+	FanoutLayout layout;
+
+	@Autowired(required=false)
+	WriteMode writeMode;
+
+	@Autowired(required=false)
+	@Qualifier(BULK_EXECUTOR_BEAN_NAME)
+	Executor bulkExecutor;
 	
 	@Override
 	public void afterPropertiesSet() throws Exception {
@@ -28,7 +45,9 @@ public class FilesystemStoreFactoryBean extends AbstractStoreFactoryBean {
 
 	@Override
 	protected Object getContentStoreImpl() {
-		return new DefaultFilesystemStoreImpl(loader, filesystemStoreConverter, new FileServiceImpl());
+		DefaultFilesystemStoreImpl store = new DefaultFilesystemStoreImpl(loader, filesystemStoreConverter, new FileServiceImpl(), (layout != null ? layout : FanoutLayout.FLAT), (writeMode != null ? writeMode : WriteMode.IN_PLACE));
+		store.setBulkExecutor(bulkExecutor);
+		return store;
 	}
 
 }
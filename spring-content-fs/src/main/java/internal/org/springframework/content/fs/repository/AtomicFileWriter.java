@@ -0,0 +1,194 @@
+package internal.org.springframework.content.fs.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.reactivestreams.Publisher;
+import org.springframework.content.fs.io.WriteMode;
+import org.springframework.content.fs.io.WriteMode.Durability;
+
+import internal.org.springframework.content.commons.io.AsynchronousFileChannelWriter;
+
+/**
+ * Writes content to a temporary file in its directory and renames it into place, syncing it as
+ * the {@link WriteMode}'s durability requires.  File data is synced before the rename, so a
+ * renamed file is never missing content, and the directory after it, so the rename survives a
+ * crash.
+ */
+class AtomicFileWriter {
+
+	private static final boolean DIRECTORIES_SYNCABLE = !System.getProperty("os.name", "").toLowerCase().startsWith("windows");
+
+	private final Durability durability;
+	private final GroupCommit group;
+	private final ThreadPoolExecutor committer;
+
+	AtomicFileWriter(WriteMode mode) {
+		this.durability = mode.getDurability();
+		this.group = (durability == Durability.GROUP_COMMIT ? new GroupCommit() : null);
+
+		int threads = Runtime.getRuntime().availableProcessors();
+		committer = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, "content-fs-sync");
+			thread.setDaemon(true);
+			return thread;
+		});
+		committer.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Writes content to the file, replacing any existing file.
+	 *
+	 * @param target the file
+	 * @param content the content
+	 * @return the number of bytes written
+	 * @throws IOException if the content cannot be written
+	 */
+	long write(Path target, InputStream content) throws IOException {
+		Path temporary = temporary(target);
+		try {
+			long length;
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+				length = IOUtils.copyLarge(content, Channels.newOutputStream(channel));
+				force(channel);
+			}
+			commit(temporary, target);
+			return length;
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(temporary);
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes content to the file, replacing any existing file.  The file is synced and renamed
+	 * on the writer's own threads rather than on the thread that completes the write.
+	 *
+	 * @param target the file
+	 * @param content the content
+	 * @return a future completed with the number of bytes written
+	 */
+	CompletableFuture<Long> write(Path target, Publisher<ByteBuffer> content) {
+		Path temporary = temporary(target);
+		return AsynchronousFileChannelWriter.write(content, temporary)
+				.thenComposeAsync(length -> {
+					try {
+						sync(temporary);
+						return commitAsync(temporary, target).thenApplyAsync(synced -> length, committer);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}, committer)
+				.whenComplete((length, t) -> {
+					if (t != null) {
+						delete(temporary);
+					}
+				});
+	}
+
+	/**
+	 * Copies a file, replacing any existing file.
+	 *
+	 * @param source the file to copy
+	 * @param target the copy
+	 * @throws IOException if the file cannot be copied
+	 */
+	void copy(Path source, Path target) throws IOException {
+		Path temporary = temporary(target);
+		try {
+			Files.copy(source, temporary);
+			sync(temporary);
+			commit(temporary, target);
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(temporary);
+			throw e;
+		}
+	}
+
+	private Path temporary(Path target) {
+		return target.resolveSibling(WriteMode.temporary(UUID.randomUUID().toString()));
+	}
+
+	private void sync(Path file) throws IOException {
+		if (durability == Durability.NONE) {
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			force(channel);
+		}
+	}
+
+	/*
+	 * Group committed writes sync just the file's data and what is needed to read it, such as its
+	 * length, but not its timestamps.
+	 */
+	private void force(FileChannel channel) throws IOException {
+		if (durability != Durability.NONE) {
+			channel.force(durability == Durability.FSYNC);
+		}
+	}
+
+	private void commit(Path temporary, Path target) throws IOException {
+		rename(temporary, target);
+
+		if (durability == Durability.FSYNC) {
+			syncDirectory(target.getParent());
+		} else if (durability == Durability.GROUP_COMMIT) {
+			group.sync(target.getParent());
+		}
+	}
+
+	/*
+	 * Commits without waiting for the directory's group commit, which completes the future.
+	 */
+	private CompletableFuture<Void> commitAsync(Path temporary, Path target) throws IOException {
+		rename(temporary, target);
+
+		if (durability == Durability.FSYNC) {
+			syncDirectory(target.getParent());
+		} else if (durability == Durability.GROUP_COMMIT) {
+			return group.syncAsync(target.getParent());
+		}
+		return CompletableFuture.completedFuture(null);
+	}
+
+	private static void rename(Path temporary, Path target) throws IOException {
+		try {
+			Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	static void syncDirectory(Path directory) throws IOException {
+		if (!DIRECTORIES_SYNCABLE) {
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		}
+	}
+
+	private static void delete(Path temporary) {
+		try {
+			Files.deleteIfExists(temporary);
+		} catch (IOException e) {
+			// temporary files are never listed, so a stale one is harmless
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package internal.org.springframework.content.fs.repository;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -7,21 +8,46 @@ import java.io.OutputStream;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.reactivestreams.Publisher;
 import org.springframework.content.commons.annotations.ContentId;
 import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.io.BoundedInputStream;
 import org.springframework.content.commons.io.DeletableResource;
+import org.springframework.content.commons.io.RangeableResource;
 import org.springframework.content.commons.repository.AssociativeStore;
+import org.springframework.content.commons.repository.ContentMetadata;
 import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.ReactiveContentStore;
 import org.springframework.content.commons.repository.Store;
+import org.springframework.content.commons.repository.StoreAccessException;
 import org.springframework.content.commons.utils.BeanUtils;
 import org.springframework.content.commons.utils.Condition;
 import org.springframework.content.commons.utils.FileService;
+import org.springframework.content.fs.io.FanoutLayout;
+import org.springframework.content.fs.io.FileSystemDeletableResource;
 import org.springframework.content.fs.io.FileSystemResourceLoader;
+import org.springframework.content.fs.io.WriteMode;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.io.Resource;
@@ -29,33 +55,187 @@ import org.springframework.core.io.WritableResource;
 
 import javax.annotation.PostConstruct;
 
-public class DefaultFilesystemStoreImpl<S, SID extends Serializable> implements Store<SID>, AssociativeStore<S, SID>, ContentStore<S,SID> {
+import internal.org.springframework.content.commons.io.AsynchronousFileChannelPublisher;
+import internal.org.springframework.content.commons.io.AsynchronousFileChannelWriter;
+import internal.org.springframework.content.commons.io.InputStreamPublisher;
+
+public class DefaultFilesystemStoreImpl<S, SID extends Serializable> implements Store<SID>, AssociativeStore<S, SID>, ContentStore<S,SID>, ReactiveContentStore<S,SID> {
 
 	private static Log logger = LogFactory.getLog(DefaultFilesystemStoreImpl.class);
 
 	private FileSystemResourceLoader loader;
 	private ConversionService conversion;
 	private FileService fileService;
-
+	private FanoutLayout layout;
+	private AtomicFileWriter writer;
+	private Executor bulkExecutor;
 
 	public DefaultFilesystemStoreImpl(FileSystemResourceLoader loader, ConversionService conversion, FileService fileService) {
+		this(loader, conversion, fileService, FanoutLayout.FLAT);
+	}
+
+	public DefaultFilesystemStoreImpl(FileSystemResourceLoader loader, ConversionService conversion, FileService fileService, FanoutLayout layout) {
+		this(loader, conversion, fileService, layout, WriteMode.IN_PLACE);
+	}
+
+	public DefaultFilesystemStoreImpl(FileSystemResourceLoader loader, ConversionService conversion, FileService fileService, FanoutLayout layout, WriteMode writeMode) {
 		this.loader = loader;
 		this.conversion = conversion;
 		this.fileService = fileService;
+		this.layout = layout;
+		this.writer = (writeMode.isAtomic() ? new AtomicFileWriter(writeMode) : null);
+	}
+
+	/**
+	 * Sets the executor that content set in bulk is written on.  Without one, content set in bulk
+	 * is written in turn on the calling thread.
+	 *
+	 * @param bulkExecutor the executor
+	 */
+	public void setBulkExecutor(Executor bulkExecutor) {
+		this.bulkExecutor = bulkExecutor;
 	}
 
 	@Override
 	public Resource getResource(SID id) {
-		String location = conversion.convert(id, String.class);
-		Resource resource = loader.getResource(location);
-		return resource;
+		return resource(id);
+	}
+
+	/*
+	 * Returns the resource content is read from.  Content stored before the root was laid out may
+	 * not have been migrated yet, so when there is none at its placed path it is looked for at
+	 * its location.
+	 */
+	private Resource resource(Object contentId) {
+		String location = conversion.convert(contentId, String.class);
+		Resource resource = loader.getResource(layout.toPath(location));
+		if (layout.isFlat() || resource.exists()) {
+			return resource;
+		}
+		Resource unmigrated = loader.getResource(location);
+		return (unmigrated.exists() ? unmigrated : resource);
+	}
+
+	/*
+	 * Returns the resource content is written to.
+	 */
+	private Resource placedResource(Object contentId) {
+		String location = conversion.convert(contentId, String.class);
+		return loader.getResource(layout.toPath(location));
 	}
 	
+	/**
+	 * Stats the content's file once, rather than once for each of its attributes.
+	 */
+	@Override
+	public ContentMetadata getMetadata(SID id) {
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(getResource(id).getFile().toPath(), BasicFileAttributes.class);
+			return new ContentMetadata(id, attributes.size(), attributes.lastModifiedTime().toMillis(), null);
+		} catch (NoSuchFileException e) {
+			return ContentMetadata.missing(id);
+		} catch (IOException e) {
+			throw new StoreAccessException(String.format("Unexpected error getting metadata of content %s", id.toString()), e);
+		}
+	}
+
+	/**
+	 * Walks the files under the root, reading each directory lazily; the stream splits between
+	 * the root's subdirectories, so a parallel stream walks them in parallel.  When the root is
+	 * laid out the prefix does not say which directories to walk, so all of them are walked and
+	 * each file is listed by its location.  Content striped over several roots is listed a root
+	 * at a time.
+	 */
+	@Override
+	public Stream<ContentMetadata> list(String prefix) {
+		Stream<ContentMetadata> listed = Stream.empty();
+		for (String root : loader.getFilesystemRoots()) {
+			listed = Stream.concat(listed, list(Paths.get(root), prefix));
+		}
+		return listed;
+	}
+
+	private Stream<ContentMetadata> list(Path root, String prefix) {
+		if (layout.isFlat()) {
+			WalkSpliterator files = WalkSpliterator.of(root, prefix);
+			return StreamSupport.stream(files, false).onClose(files::close);
+		}
+
+		String location = (prefix != null ? prefix.replaceFirst("^/+", "") : "");
+		WalkSpliterator files = WalkSpliterator.of(root, null);
+		return StreamSupport.stream(files, false)
+				.map(this::located)
+				.filter(metadata -> metadata.getContentId().toString().startsWith(location))
+				.onClose(files::close);
+	}
+
+	private ContentMetadata located(ContentMetadata file) {
+		String path = file.getContentId().toString();
+		String location = layout.toLocation(path);
+		return new ContentMetadata(location != null ? location : path, file.getLength(), file.getLastModified(), file.getChecksum());
+	}
+
+	/**
+	 * Copies the content's file with {@link Files#copy}, which leaves the copying to the
+	 * operating system.  Files are not hard linked as content may be rewritten in place, which
+	 * would change both.  The copy holds a permit of the root it is written to.
+	 */
+	@Override
+	public void copy(SID from, SID to) {
+		if (from.equals(to)) {
+			return;
+		}
+		Resource target = placedResource(to);
+		try (Closeable permit = permit(target)) {
+			if (writer != null) {
+				writer.copy(source(from), target(target));
+			} else {
+				Files.copy(source(from), target(target), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			throw new StoreAccessException(String.format("Unexpected error copying content %s to %s", from.toString(), to.toString()), e);
+		}
+	}
+
+	/**
+	 * Renames the content's file, atomically when the filesystem can.
+	 */
+	@Override
+	public void move(SID from, SID to) {
+		if (from.equals(to)) {
+			return;
+		}
+		try {
+			Path source = source(from);
+			Path target = target(placedResource(to));
+			try {
+				Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			throw new StoreAccessException(String.format("Unexpected error moving content %s to %s", from.toString(), to.toString()), e);
+		}
+	}
+
+	private Path source(SID id) throws IOException {
+		Resource resource = resource(id);
+		if (!resource.exists()) {
+			throw new StoreAccessException(String.format("No content %s", id.toString()));
+		}
+		return resource.getFile().toPath();
+	}
+
+	private Path target(Resource resource) throws IOException {
+		File file = resource.getFile();
+		this.fileService.mkdirs(file.getParentFile());
+		return file.toPath();
+	}
+
 	@Override
 	public void associate(S entity, SID id) {
 		BeanUtils.setFieldWithAnnotation(entity, ContentId.class, id.toString());
-		String location = conversion.convert(id, String.class);
-		Resource resource = loader.getResource(location);
+		Resource resource = resource(id);
 		try {
 			BeanUtils.setFieldWithAnnotation(entity, ContentLength.class, resource.contentLength());
 		} catch (IOException e) {
@@ -78,8 +258,12 @@ public class DefaultFilesystemStoreImpl<S, SID extends Serializable> implements
 			BeanUtils.setFieldWithAnnotation(property, ContentId.class, contentId);
 		}
 
-		String location = conversion.convert(contentId, String.class);
-		Resource resource = loader.getResource(location);
+		Resource resource = placedResource(contentId);
+		if (writer != null) {
+			setContentAtomically(property, contentId, resource, content);
+			return;
+		}
+
 		OutputStream os = null;
 		try {
 		    if (resource.exists() == false) {
@@ -110,6 +294,54 @@ public class DefaultFilesystemStoreImpl<S, SID extends Serializable> implements
 		}
 	}
 
+	/*
+	 * Writes content to a temporary file and renames it into place, so readers never see partly
+	 * written content.
+	 */
+	private void setContentAtomically(S property, Object contentId, Resource resource, InputStream content) {
+		try {
+			File resourceFile = resource.getFile();
+			if (resource.exists() == false) {
+				this.fileService.mkdirs(resourceFile.getParentFile());
+			}
+			long length;
+			try (Closeable permit = permit(resource)) {
+				length = writer.write(resourceFile.toPath(), content);
+			}
+			BeanUtils.setFieldWithAnnotation(property, ContentLength.class, length);
+		} catch (IOException e) {
+			logger.error(String.format("Unexpected error setting content %s", contentId.toString()), e);
+		}
+	}
+
+	/**
+	 * Writes each content on the bulk executor, when there is one; files are independent, so a
+	 * bulk ingest is then limited by the disk rather than by a single writer.  Returns once every
+	 * content is written.
+	 */
+	@Override
+	public void setContents(Map<S, InputStream> contents) {
+		if (bulkExecutor == null) {
+			for (Map.Entry<S, InputStream> content : contents.entrySet()) {
+				setContent(content.getKey(), content.getValue());
+			}
+			return;
+		}
+
+		List<CompletableFuture<Void>> writes = new ArrayList<>(contents.size());
+		for (Map.Entry<S, InputStream> content : contents.entrySet()) {
+			writes.add(CompletableFuture.runAsync(() -> setContent(content.getKey(), content.getValue()), bulkExecutor));
+		}
+		try {
+			CompletableFuture.allOf(writes.toArray(new CompletableFuture[writes.size()])).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new StoreAccessException("Unexpected error setting contents", e.getCause());
+		}
+	}
+
 	@Override
 	public InputStream getContent(S property) {
 		if (property == null)
@@ -118,8 +350,7 @@ public class DefaultFilesystemStoreImpl<S, SID extends Serializable> implements
 		if (contentId == null)
 			return null;
 
-		String location = conversion.convert(contentId, String.class);
-		Resource resource = loader.getResource(location);
+		Resource resource = resource(contentId);
 		
 		try {
 			if (resource.exists()) {
@@ -132,6 +363,94 @@ public class DefaultFilesystemStoreImpl<S, SID extends Serializable> implements
 		return null;
 	}
 
+	@Override
+	public InputStream getContent(S property, long offset, long length) {
+		if (property == null)
+			return null;
+		Object contentId = BeanUtils.getFieldWithAnnotation(property, ContentId.class);
+		if (contentId == null)
+			return null;
+
+		Resource resource = resource(contentId);
+
+		try {
+			if (resource.exists()) {
+				if (resource instanceof RangeableResource) {
+					return ((RangeableResource)resource).getInputStream(offset, length);
+				}
+				InputStream content = resource.getInputStream();
+				try {
+					return BoundedInputStream.range(content, offset, length);
+				} catch (IOException e) {
+					IOUtils.closeQuietly(content);
+					throw e;
+				}
+			}
+		} catch (IOException e) {
+			logger.error(String.format("Unexpected error getting content %s", contentId.toString()), e);
+		}
+
+		return null;
+	}
+
+	@Override
+	public Publisher<ByteBuffer> readContent(S property) {
+		if (property == null)
+			return InputStreamPublisher.empty();
+		Object contentId = BeanUtils.getFieldWithAnnotation(property, ContentId.class);
+		if (contentId == null)
+			return InputStreamPublisher.empty();
+
+		Resource resource = resource(contentId);
+
+		try {
+			if (resource.exists()) {
+				return new AsynchronousFileChannelPublisher(resource.getFile().toPath());
+			}
+		} catch (IOException e) {
+			logger.error(String.format("Unexpected error getting content %s", contentId.toString()), e);
+		}
+
+		return InputStreamPublisher.empty();
+	}
+
+	@Override
+	public CompletableFuture<Void> writeContent(S property, Publisher<ByteBuffer> content) {
+		Object contentId = BeanUtils.getFieldWithAnnotation(property, ContentId.class);
+		if (contentId == null) {
+			contentId = UUID.randomUUID();
+			contentId = convertToExternalContentIdType(property, contentId);
+			BeanUtils.setFieldWithAnnotation(property, ContentId.class, contentId);
+		}
+
+		Resource resource = placedResource(contentId);
+		File resourceFile;
+		try {
+			resourceFile = resource.getFile();
+			if (resource.exists() == false) {
+				this.fileService.mkdirs(resourceFile.getParentFile());
+			}
+		} catch (IOException e) {
+			logger.error(String.format("Unexpected error setting content %s", contentId.toString()), e);
+			CompletableFuture<Void> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			return failed;
+		}
+
+		return permitAsync(resource)
+				.thenCompose(permit -> {
+					CompletableFuture<Long> written;
+					try {
+						written = (writer != null ? writer.write(resourceFile.toPath(), content) : AsynchronousFileChannelWriter.write(content, resourceFile.toPath()));
+					} catch (RuntimeException e) {
+						closeQuietly(permit);
+						throw e;
+					}
+					return written.whenComplete((length, t) -> closeQuietly(permit));
+				})
+				.thenAccept(length -> BeanUtils.setFieldWithAnnotation(property, ContentLength.class, length));
+	}
+
 	@Override
 	public void unsetContent(S property) {
 		if (property == null)
@@ -140,13 +459,13 @@ public class DefaultFilesystemStoreImpl<S, SID extends Serializable> implements
 		if (contentId == null)
 			return;
 	
-		// delete any existing content object	
+		// delete any existing content object, first at its location in case it has not been
+		// migrated, so that it cannot be moved to its placed path after that is deleted
 		String location = conversion.convert(contentId, String.class);
-		Resource resource = loader.getResource(location);
-
-		if (resource.exists() && resource instanceof DeletableResource) {
-			((DeletableResource)resource).delete();
+		if (!layout.isFlat()) {
+			delete(loader.getResource(location));
 		}
+		delete(loader.getResource(layout.toPath(location)));
 
 		// reset content fields
 		BeanUtils.setFieldWithAnnotationConditionally(property, ContentId.class, null, new Condition() {
@@ -163,6 +482,35 @@ public class DefaultFilesystemStoreImpl<S, SID extends Serializable> implements
 		BeanUtils.setFieldWithAnnotation(property, ContentLength.class, 0);
 	}
 	
+	/*
+	 * Holds a permit of the root the resource is on, when the root's concurrency is limited,
+	 * while content is written to its file rather than through its streams.
+	 */
+	private Closeable permit(Resource resource) throws IOException {
+		return (resource instanceof FileSystemDeletableResource ? ((FileSystemDeletableResource)resource).acquire() : () -> {});
+	}
+
+	/*
+	 * Reactive writes wait for their permit without blocking the caller.
+	 */
+	private CompletableFuture<Closeable> permitAsync(Resource resource) {
+		return (resource instanceof FileSystemDeletableResource ? ((FileSystemDeletableResource)resource).acquireAsync() : CompletableFuture.<Closeable>completedFuture(() -> {}));
+	}
+
+	private static void closeQuietly(Closeable closeable) {
+		try {
+			closeable.close();
+		} catch (IOException ioe) {
+			// ignore
+		}
+	}
+
+	private void delete(Resource resource) {
+		if (resource.exists() && resource instanceof DeletableResource) {
+			((DeletableResource)resource).delete();
+		}
+	}
+
 	private Object convertToExternalContentIdType(S property, Object contentId) {
 		if (conversion.canConvert(TypeDescriptor.forObject(contentId), TypeDescriptor.valueOf(BeanUtils.getFieldWithAnnotationType(property, ContentId.class)))) {
 			contentId = conversion.convert(contentId, TypeDescriptor.forObject(contentId), TypeDescriptor.valueOf(BeanUtils.getFieldWithAnnotationType(property, ContentId.class)));
@@ -0,0 +1,92 @@
+package internal.org.springframework.content.fs.repository;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Syncs the directories of concurrent writes together.  Writes waiting while a batch is being
+ * synced join the next batch, which syncs each of its directories once, so writers to the same
+ * directory share its sync rather than queueing for one each.
+ */
+class GroupCommit {
+
+	private final ThreadPoolExecutor committer;
+
+	private Batch pending;
+
+	GroupCommit() {
+		committer = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, "content-fs-commit");
+			thread.setDaemon(true);
+			return thread;
+		});
+		committer.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Syncs the directory, returning once a batch that includes it has been synced.
+	 *
+	 * @param directory the directory
+	 * @throws IOException if the directory cannot be synced
+	 */
+	void sync(Path directory) throws IOException {
+		try {
+			syncAsync(directory).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(String.format("Interrupted syncing %s", directory));
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException(String.format("Unexpected error syncing %s", directory), e.getCause());
+		}
+	}
+
+	/**
+	 * Syncs the directory, without waiting for it to be synced.
+	 *
+	 * @param directory the directory
+	 * @return a future completed, on the committing thread, once a batch that includes the
+	 * directory has been synced
+	 */
+	synchronized CompletableFuture<Void> syncAsync(Path directory) {
+		if (pending == null) {
+			pending = new Batch();
+			committer.execute(this::commit);
+		}
+		pending.directories.add(directory);
+		return pending.synced;
+	}
+
+	private void commit() {
+		Batch batch;
+		synchronized (this) {
+			batch = pending;
+			pending = null;
+		}
+
+		try {
+			for (Path directory : batch.directories) {
+				AtomicFileWriter.syncDirectory(directory);
+			}
+			batch.synced.complete(null);
+		} catch (IOException | RuntimeException e) {
+			batch.synced.completeExceptionally(e);
+		}
+	}
+
+	private static class Batch {
+
+		private final Set<Path> directories = new LinkedHashSet<>();
+		private final CompletableFuture<Void> synced = new CompletableFuture<>();
+	}
+}
@@ -0,0 +1,203 @@
+package internal.org.springframework.content.fs.repository;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.content.commons.repository.ContentMetadata;
+import org.springframework.content.commons.repository.StoreAccessException;
+import org.springframework.content.fs.io.WriteMode;
+
+/**
+ * Walks the files under a directory, stating each as it goes.  The directory's entries are read
+ * lazily and each of its subdirectories is walked lazily, so only the directories being walked are
+ * held in memory.  Splitting hands a batch of the directory's entries to another spliterator, so a
+ * parallel stream walks the subdirectories in parallel.  The temporary files of atomic writes are
+ * not content, so are skipped.
+ */
+class WalkSpliterator implements Spliterator<ContentMetadata>, Closeable {
+
+	// the growth and limit of the batches of entries handed to split spliterators
+	private static final int BATCH_UNIT = 16;
+	private static final int MAX_BATCH = 1024;
+
+	private final Path root;
+	private final Iterator<Path> entries;
+	private final List<Path> split;
+	private int next = 0;
+	private final Closeable directory;
+	private final Collection<WalkSpliterator> walks;
+
+	private Stream<Path> walk;
+	private Iterator<Path> walked;
+	private int batch = 0;
+
+	private WalkSpliterator(Path root, Iterator<Path> entries, Closeable directory, Collection<WalkSpliterator> walks) {
+		this.root = root;
+		this.entries = entries;
+		this.split = null;
+		this.directory = directory;
+		this.walks = walks;
+	}
+
+	private WalkSpliterator(Path root, List<Path> split, Collection<WalkSpliterator> walks) {
+		this.root = root;
+		this.entries = null;
+		this.split = split;
+		this.directory = null;
+		this.walks = walks;
+	}
+
+	/**
+	 * Returns a spliterator of the files under the root whose location starts with the prefix.
+	 *
+	 * @param root the root
+	 * @param prefix the prefix of the location of the files
+	 * @return the spliterator
+	 */
+	static WalkSpliterator of(Path root, String prefix) {
+		String location = (prefix != null ? prefix.replaceFirst("^/+", "") : "");
+		int slash = location.lastIndexOf('/');
+		Path parent = (slash >= 0 ? root.resolve(location.substring(0, slash)) : root);
+		String name = location.substring(slash + 1);
+
+		List<WalkSpliterator> walks = new ArrayList<>();
+		if (!Files.isDirectory(parent)) {
+			return new WalkSpliterator(root, new ArrayList<Path>().iterator(), null, walks);
+		}
+		try {
+			DirectoryStream<Path> directory = Files.newDirectoryStream(parent, path -> path.getFileName().toString().startsWith(name));
+			WalkSpliterator spliterator = new WalkSpliterator(root, directory.iterator(), directory, walks);
+			walks.add(spliterator);
+			return spliterator;
+		} catch (IOException ioe) {
+			throw new StoreAccessException(String.format("Unexpected error listing %s", parent), ioe);
+		}
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super ContentMetadata> action) {
+		try {
+			while (true) {
+				Path path;
+				if (walked != null && walked.hasNext()) {
+					path = walked.next();
+				} else {
+					closeWalk();
+					if (!hasEntry()) {
+						return false;
+					}
+					path = nextEntry();
+				}
+
+				BasicFileAttributes attributes;
+				try {
+					attributes = Files.readAttributes(path, BasicFileAttributes.class);
+				} catch (NoSuchFileException nsfe) {
+					// deleted since it was listed
+					continue;
+				}
+				if (attributes.isDirectory() && walked == null) {
+					walk = Files.walk(path);
+					walked = walk.iterator();
+				} else if (attributes.isRegularFile() && !WriteMode.isTemporary(path.getFileName().toString())) {
+					String location = root.relativize(path).toString().replace(File.separatorChar, '/');
+					action.accept(new ContentMetadata(location, attributes.size(), attributes.lastModifiedTime().toMillis(), null));
+					return true;
+				}
+			}
+		} catch (IOException | UncheckedIOException e) {
+			throw new StoreAccessException(String.format("Unexpected error listing %s", root), e);
+		}
+	}
+
+	/*
+	 * The directory's entries are handed off in growing batches, as their number is not known;
+	 * a batch, once handed off, is split in half.
+	 */
+	@Override
+	public Spliterator<ContentMetadata> trySplit() {
+		List<Path> handed;
+		if (split != null) {
+			int remaining = split.size() - next;
+			if (remaining < 2) {
+				return null;
+			}
+			int half = next + remaining / 2;
+			handed = new ArrayList<>(split.subList(next, half));
+			next = half;
+		} else {
+			batch = Math.min(batch + BATCH_UNIT, MAX_BATCH);
+			handed = new ArrayList<>(batch);
+			while (handed.size() < batch && entries.hasNext()) {
+				handed.add(entries.next());
+			}
+			if (handed.isEmpty()) {
+				return null;
+			}
+		}
+		WalkSpliterator spliterator = new WalkSpliterator(root, handed, walks);
+		synchronized (walks) {
+			walks.add(spliterator);
+		}
+		return spliterator;
+	}
+
+	@Override
+	public long estimateSize() {
+		return (split != null ? split.size() - next : Long.MAX_VALUE);
+	}
+
+	@Override
+	public int characteristics() {
+		return NONNULL | DISTINCT;
+	}
+
+	/**
+	 * Closes the directories being walked by this spliterator and every spliterator split from it.
+	 */
+	@Override
+	public void close() {
+		synchronized (walks) {
+			for (WalkSpliterator spliterator : walks) {
+				spliterator.closeWalk();
+				if (spliterator.directory != null) {
+					try {
+						spliterator.directory.close();
+					} catch (IOException ioe) {
+						// nothing more can be listed
+					}
+				}
+			}
+		}
+	}
+
+	private boolean hasEntry() {
+		return (split != null ? next < split.size() : entries.hasNext());
+	}
+
+	private Path nextEntry() {
+		return (split != null ? split.get(next++) : entries.next());
+	}
+
+	private void closeWalk() {
+		if (walk != null) {
+			walk.close();
+			walk = null;
+			walked = null;
+		}
+	}
+}
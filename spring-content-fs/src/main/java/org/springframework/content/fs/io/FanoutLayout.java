@@ -0,0 +1,100 @@
+package org.springframework.content.fs.io;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Places content under nested fan-out directories, rather than all under the filesystem root,
+ * so that no one directory grows to hold all of a store's content.
+ *
+ * <p>The location the filesystem store's {@code ConversionService} converts a content id to is
+ * placed under {@code levels} directories, each named by the next {@code width} hex characters of
+ * the MD5 of the location.  For example, with 2 levels of 2 characters content {@code 1234}
+ * is placed at {@code 81/dc/1234}.  Hashing the location, rather than using its leading
+ * characters, spreads content evenly whatever its content ids look like.
+ */
+public class FanoutLayout {
+
+	/**
+	 * The layout that places content directly at its location.
+	 */
+	public static final FanoutLayout FLAT = new FanoutLayout(0, 0);
+
+	private final int levels;
+	private final int width;
+
+	public FanoutLayout(int levels, int width) {
+		Assert.isTrue(levels >= 0, "levels must not be negative");
+		Assert.isTrue(levels == 0 || width > 0, "width must be positive");
+		Assert.isTrue(levels * width <= 32, "levels and width must not need more than the 32 hex characters of an MD5");
+		this.levels = levels;
+		this.width = (levels > 0 ? width : 0);
+	}
+
+	public int getLevels() {
+		return levels;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public boolean isFlat() {
+		return levels == 0;
+	}
+
+	/**
+	 * Returns the path, relative to the filesystem root, that content at the location is placed at.
+	 *
+	 * @param location the location
+	 * @return the path
+	 */
+	public String toPath(String location) {
+		if (isFlat()) {
+			return location;
+		}
+		String relative = relative(location);
+		return fanout(relative) + relative;
+	}
+
+	/**
+	 * Returns the location of the content placed at the path, or null when the path is not one
+	 * this layout places content at, for example because the content was stored before the
+	 * filesystem root was laid out.
+	 *
+	 * @param path the path, relative to the filesystem root
+	 * @return the location, or null
+	 */
+	public String toLocation(String path) {
+		String relative = relative(path);
+		if (isFlat()) {
+			return relative;
+		}
+		int fanout = levels * (width + 1);
+		if (relative.length() <= fanout) {
+			return null;
+		}
+		String location = relative.substring(fanout);
+		return (relative.startsWith(fanout(location)) ? location : null);
+	}
+
+	private String fanout(String location) {
+		String hash = DigestUtils.md5DigestAsHex(location.getBytes(StandardCharsets.UTF_8));
+		StringBuilder fanout = new StringBuilder(levels * (width + 1));
+		for (int i = 0; i < levels; i++) {
+			fanout.append(hash, i * width, (i + 1) * width).append('/');
+		}
+		return fanout.toString();
+	}
+
+	private static String relative(String location) {
+		return location.replaceFirst("^/+", "");
+	}
+
+	@Override
+	public String toString() {
+		return String.format("FanoutLayout[levels=%d, width=%d]", levels, width);
+	}
+}
@@ -0,0 +1,174 @@
+package org.springframework.content.fs.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+
+/**
+ * Moves the content of the filesystem roots into a {@link FanoutLayout} while the application
+ * keeps using them.  Filesystem stores laid out with the layout look for content at its old location
+ * until it has been moved, and store new content only at its new one.
+ *
+ * <p>Each file is hard linked to its new path and then unlinked from its old one, so content is
+ * never missing and is never copied.  A link is not made when the new path already has content,
+ * on any root, as that content was stored after the root was laid out, so is newer; the old file
+ * is just removed.
+ * Where the filesystem does not support hard links the file is renamed instead.
+ */
+@ManagedResource(description = "Moves the content of the filesystem roots into their fan-out layout")
+public class FanoutMigrator {
+
+	private static Log logger = LogFactory.getLog(FanoutMigrator.class);
+
+	private final FileSystemResourceLoader loader;
+	private final List<Path> roots = new ArrayList<>();
+	private final FanoutLayout layout;
+
+	private final AtomicLong migrated = new AtomicLong();
+	private final AtomicLong superseded = new AtomicLong();
+
+	private volatile Thread thread;
+	private volatile boolean stopped;
+
+	public FanoutMigrator(FileSystemResourceLoader loader, FanoutLayout layout) {
+		Assert.notNull(loader, "loader must not be null");
+		Assert.notNull(layout, "layout must not be null");
+		this.loader = loader;
+		for (String root : loader.getFilesystemRoots()) {
+			this.roots.add(Paths.get(root));
+		}
+		this.layout = layout;
+	}
+
+	/**
+	 * Moves every file under the roots that is not yet at the path the layout places it at.  Files
+	 * are moved within their root, so content striped over several roots stays on its disk.
+	 *
+	 * @return the number of files moved
+	 */
+	@ManagedOperation(description = "Moves the content of the filesystem roots into their fan-out layout")
+	public synchronized long migrate() {
+		if (layout.isFlat()) {
+			return 0L;
+		}
+
+		long moved = 0L;
+		for (Path root : roots) {
+			if (!stopped) {
+				moved += migrate(root);
+			}
+		}
+		return moved;
+	}
+
+	private long migrate(Path root) {
+		long moved = 0L;
+		logger.info(String.format("Migrating %s to %s", root, layout));
+		try (Stream<Path> files = Files.walk(root)) {
+			Iterator<Path> paths = files.iterator();
+			while (paths.hasNext() && !stopped) {
+				Path path = paths.next();
+				String relative = root.relativize(path).toString().replace(File.separatorChar, '/');
+				if (!Files.isRegularFile(path) || WriteMode.isTemporary(path.getFileName().toString()) || layout.toLocation(relative) != null) {
+					continue;
+				}
+				if (migrate(path, root, layout.toPath(relative))) {
+					moved++;
+				}
+			}
+		} catch (IOException | UncheckedIOException e) {
+			logger.error(String.format("Unexpected error migrating %s to %s", root, layout), e);
+		}
+		logger.info(String.format("Migrated %d files of %s to %s", moved, root, layout));
+		return moved;
+	}
+
+	private boolean migrate(Path from, Path root, String placed) throws IOException {
+		Path to = root.resolve(placed);
+		Files.createDirectories(to.getParent());
+		try {
+			if (loader.getResource(placed).exists()) {
+				// stored since the root was laid out, possibly on another root
+				throw new FileAlreadyExistsException(placed);
+			}
+			try {
+				Files.createLink(to, from);
+			} catch (FileAlreadyExistsException | NoSuchFileException e) {
+				throw e;
+			} catch (UnsupportedOperationException | FileSystemException e) {
+				if (Files.exists(to)) {
+					throw new FileAlreadyExistsException(to.toString());
+				}
+				Files.move(from, to);
+				migrated.incrementAndGet();
+				return true;
+			}
+			Files.delete(from);
+			migrated.incrementAndGet();
+			return true;
+		} catch (FileAlreadyExistsException e) {
+			Files.deleteIfExists(from);
+			superseded.incrementAndGet();
+			return false;
+		} catch (NoSuchFileException e) {
+			// unset since it was listed
+			return false;
+		}
+	}
+
+	/**
+	 * Starts migrating on a background thread.
+	 */
+	public void start() {
+		if (layout.isFlat()) {
+			return;
+		}
+		Thread migration = new Thread(this::migrate, "content-fs-migration");
+		migration.setDaemon(true);
+		thread = migration;
+		migration.start();
+	}
+
+	/**
+	 * Stops migrating, after the file being moved, when the application shuts down.
+	 */
+	public void stop() {
+		stopped = true;
+		Thread migration = thread;
+		if (migration != null) {
+			try {
+				migration.join(10000L);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@ManagedAttribute(description = "Files moved into the fan-out layout")
+	public long getMigrated() {
+		return migrated.get();
+	}
+
+	@ManagedAttribute(description = "Files removed because newer content was already at their fan-out path")
+	public long getSuperseded() {
+		return superseded.get();
+	}
+}
@@ -1,28 +1,64 @@
 package org.springframework.content.fs.io;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.content.commons.io.BoundedInputStream;
 import org.springframework.content.commons.io.DeletableResource;
+import org.springframework.content.commons.io.FileChannelResource;
+import org.springframework.content.commons.io.RangeableResource;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.WritableResource;
 
-public class FileSystemDeletableResource implements WritableResource, DeletableResource {
+public class FileSystemDeletableResource implements WritableResource, DeletableResource, RangeableResource, FileChannelResource {
 
 	private static Log logger = LogFactory.getLog(FileSystemDeletableResource.class);
 
 	private FileSystemResource resource;
+	private FilesystemRoot root;
 	
 	public FileSystemDeletableResource(FileSystemResource resource) {
+		this(resource, null);
+	}
+
+	public FileSystemDeletableResource(FileSystemResource resource, FilesystemRoot root) {
 		this.resource = resource;
+		this.root = root;
+	}
+
+	/**
+	 * Waits for a permit to use the root the resource is on, when the root's concurrency is
+	 * limited.  Streams opened by the resource hold a permit until they are closed.
+	 *
+	 * @return the permit, released when closed
+	 * @throws IOException if interrupted while waiting
+	 */
+	public Closeable acquire() throws IOException {
+		return (root != null ? root.acquire() : () -> {});
+	}
+
+	/**
+	 * Returns a permit to use the root the resource is on without blocking the caller.
+	 *
+	 * @return a future completed with the permit
+	 */
+	public CompletableFuture<Closeable> acquireAsync() {
+		return (root != null ? root.acquireAsync() : CompletableFuture.<Closeable>completedFuture(() -> {}));
 	}
 
 	@Override
@@ -51,7 +87,45 @@ public class FileSystemDeletableResource implements WritableResource, DeletableR
 	}
 
 	public InputStream getInputStream() throws IOException {
-		return resource.getInputStream();
+		if (!limited()) {
+			return resource.getInputStream();
+		}
+		Closeable permit = acquire();
+		try {
+			return new PermitInputStream(resource.getInputStream(), permit);
+		} catch (IOException | RuntimeException e) {
+			permit.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens a channel positioned at offset so the file before it is never read.
+	 */
+	@Override
+	public InputStream getInputStream(long offset, long length) throws IOException {
+		Closeable permit = (limited() ? acquire() : null);
+		FileChannel channel;
+		try {
+			channel = getFileChannel();
+		} catch (IOException | RuntimeException e) {
+			close(permit);
+			throw e;
+		}
+		try {
+			channel.position(offset);
+		} catch (IOException e) {
+			channel.close();
+			close(permit);
+			throw e;
+		}
+		InputStream in = new BoundedInputStream(Channels.newInputStream(channel), length);
+		return (permit != null ? new PermitInputStream(in, permit) : in);
+	}
+
+	@Override
+	public FileChannel getFileChannel() throws IOException {
+		return FileChannel.open(getFile().toPath(), StandardOpenOption.READ);
 	}
 
 	public boolean isWritable() {
@@ -66,7 +140,16 @@ public class FileSystemDeletableResource implements WritableResource, DeletableR
 		if (!exists()) {
 			FileUtils.touch(this.getFile());
 		}
-		return resource.getOutputStream();
+		if (!limited()) {
+			return resource.getOutputStream();
+		}
+		Closeable permit = acquire();
+		try {
+			return new PermitOutputStream(resource.getOutputStream(), permit);
+		} catch (IOException | RuntimeException e) {
+			permit.close();
+			throw e;
+		}
 	}
 
 	public URL getURL() throws IOException {
@@ -108,4 +191,60 @@ public class FileSystemDeletableResource implements WritableResource, DeletableR
 	public int hashCode() {
 		return resource.hashCode();
 	}
-}
\ No newline at end of file
+
+	private boolean limited() {
+		return root != null && root.getMaxConcurrency() > 0;
+	}
+
+	private static void close(Closeable permit) throws IOException {
+		if (permit != null) {
+			permit.close();
+		}
+	}
+
+	/*
+	 * Releases the stream's permit when it is closed.
+	 */
+	private static class PermitInputStream extends FilterInputStream {
+
+		private final Closeable permit;
+
+		PermitInputStream(InputStream in, Closeable permit) {
+			super(in);
+			this.permit = permit;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				permit.close();
+			}
+		}
+	}
+
+	private static class PermitOutputStream extends FilterOutputStream {
+
+		private final Closeable permit;
+
+		PermitOutputStream(OutputStream out, Closeable permit) {
+			super(out);
+			this.permit = permit;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				permit.close();
+			}
+		}
+	}
+}
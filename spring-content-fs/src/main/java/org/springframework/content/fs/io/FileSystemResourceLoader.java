@@ -1,12 +1,14 @@
 package org.springframework.content.fs.io;
 
-import static org.springframework.util.StringUtils.cleanPath;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.content.commons.io.DeletableResource;
 import org.springframework.core.io.DefaultResourceLoader;
-import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.util.Assert;
@@ -20,37 +22,105 @@ import org.springframework.util.Assert;
  * to the root specified during instantiation rather than relative to the current VM working directory
  * (the latter is {@link org.springframework.core.io.FileSystemResourceLoader}'s default behavior, even if they start with
  * a slash.
+ *
+ * <p>Content can be striped over several roots, for example one for each disk.  Each location is
+ * placed on the roots in an order given by rendezvous hashing the location with each root, so
+ * adding a root only changes the first root of the locations that now hash to it.  Content is looked for in
+ * that order, so it is usually found on the first root probed, and new content is placed on the
+ * first root in that order with enough free space.
  */
 public class FileSystemResourceLoader extends org.springframework.core.io.FileSystemResourceLoader {
 
 	private static final Logger logger = LoggerFactory.getLogger(FileSystemResourceLoader.class);
 
-	private FileSystemResource root;
-	
+	private final List<FilesystemRoot> roots;
+
 	public FileSystemResourceLoader(String root) {
 	    Assert.notNull(root);
 		logger.info(String.format("Defaulting filesystem root to %s", root));
-		this.root = new FileSystemResource(suffixPath(cleanPath(root)));
+		this.roots = Collections.singletonList(new FilesystemRoot(root));
 	}
 
+	public FileSystemResourceLoader(FilesystemRoot... roots) {
+		this(Arrays.asList(roots));
+	}
+
+	public FileSystemResourceLoader(List<FilesystemRoot> roots) {
+		Assert.notEmpty(roots, "roots must not be empty");
+		logger.info(String.format("Striping filesystem content over %s", roots));
+		this.roots = Collections.unmodifiableList(new ArrayList<>(roots));
+	}
+
+	/**
+	 * Returns the first root.
+	 *
+	 * @return the path of the root
+	 */
 	public String getFilesystemRoot() {
-		return root.getPath();
+		return roots.get(0).getPath();
 	}
 
-    private String suffixPath(String path) {
-	    if (path.endsWith("/") == false) {
-	        return path + "/";
-        }
-        return path;
-    }
+	/**
+	 * Returns the roots content is placed in.
+	 *
+	 * @return the paths of the roots
+	 */
+	public List<String> getFilesystemRoots() {
+		List<String> paths = new ArrayList<>(roots.size());
+		for (FilesystemRoot root : roots) {
+			paths.add(root.getPath());
+		}
+		return paths;
+	}
 
     @Override
 	public Resource getResource(String location) {
-        Assert.notNull(root);
-		Resource resource = root.createRelative(location);
-		if (resource instanceof FileSystemResource) {
-			resource = new FileSystemDeletableResource((FileSystemResource)resource);
+		if (roots.size() == 1) {
+			return roots.get(0).getResource(location);
+		}
+
+		List<FilesystemRoot> placement = placement(location);
+		for (FilesystemRoot root : placement) {
+			Resource resource = root.getResource(location);
+			if (resource.exists()) {
+				return resource;
+			}
+		}
+		for (FilesystemRoot root : placement) {
+			if (root.hasFreeSpace()) {
+				return root.getResource(location);
+			}
+		}
+		return placement.get(0).getResource(location);
+	}
+
+	/*
+	 * Orders the roots by the hash of the location with each root, highest first.
+	 */
+	private List<FilesystemRoot> placement(String location) {
+		List<FilesystemRoot> placement = new ArrayList<>(roots);
+		long[] weights = new long[roots.size()];
+		for (int i = 0; i < roots.size(); i++) {
+			weights[i] = weight(location, roots.get(i));
 		}
-		return resource;
+		Integer[] order = new Integer[roots.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> Long.compare(weights[b], weights[a]));
+		for (int i = 0; i < order.length; i++) {
+			placement.set(i, roots.get(order[i]));
+		}
+		return placement;
+	}
+
+	private static long weight(String location, FilesystemRoot root) {
+		long hash = location.hashCode() * 0x9E3779B97F4A7C15L + root.getPath().hashCode();
+		hash ^= (hash >>> 33);
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= (hash >>> 33);
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= (hash >>> 33);
+		return hash;
 	}
 }
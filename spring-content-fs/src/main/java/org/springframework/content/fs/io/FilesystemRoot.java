@@ -0,0 +1,176 @@
+package org.springframework.content.fs.io;
+
+import static org.springframework.util.StringUtils.cleanPath;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+
+/**
+ * One of the directories a {@link FileSystemResourceLoader} places content in, typically the
+ * mount point of one disk.  New content is not placed on a root with less than its minimum free
+ * space while another root has more, and the number of content streams open on a root at once
+ * can be limited so that one busy disk does not tie up every request thread.
+ */
+public class FilesystemRoot {
+
+	private static final long FREE_SPACE_TTL = TimeUnit.SECONDS.toMillis(1L);
+
+	private final FileSystemResource root;
+
+	private long minFreeSpace = 0L;
+	private int maxConcurrency = 0;
+	private Semaphore permits;
+	private final Queue<CompletableFuture<Closeable>> waiters = new ConcurrentLinkedQueue<>();
+
+	private volatile long usableSpace;
+	private volatile long usableSpaceCheckedAt;
+
+	public FilesystemRoot(String path) {
+		Assert.notNull(path, "path must not be null");
+		this.root = new FileSystemResource(suffixPath(cleanPath(path)));
+	}
+
+	public String getPath() {
+		return root.getPath();
+	}
+
+	public long getMinFreeSpace() {
+		return minFreeSpace;
+	}
+
+	/**
+	 * Sets the free space, in bytes, below which new content is placed on other roots.
+	 *
+	 * @param minFreeSpace the minimum free space
+	 */
+	public void setMinFreeSpace(long minFreeSpace) {
+		this.minFreeSpace = minFreeSpace;
+	}
+
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	/**
+	 * Sets the number of content streams that can be open on the root at once, or 0 for no limit.
+	 *
+	 * @param maxConcurrency the maximum concurrency
+	 */
+	public void setMaxConcurrency(int maxConcurrency) {
+		Assert.isTrue(maxConcurrency >= 0, "maxConcurrency must not be negative");
+		this.maxConcurrency = maxConcurrency;
+		this.permits = (maxConcurrency > 0 ? new Semaphore(maxConcurrency, true) : null);
+	}
+
+	Resource getResource(String location) {
+		Resource resource = root.createRelative(location);
+		if (resource instanceof FileSystemResource) {
+			resource = new FileSystemDeletableResource((FileSystemResource)resource, this);
+		}
+		return resource;
+	}
+
+	/*
+	 * Free space is only read once a second, as it costs a system call.
+	 */
+	boolean hasFreeSpace() {
+		if (minFreeSpace <= 0L) {
+			return true;
+		}
+		long now = System.currentTimeMillis();
+		if (now - usableSpaceCheckedAt > FREE_SPACE_TTL) {
+			usableSpace = new File(getPath()).getUsableSpace();
+			usableSpaceCheckedAt = now;
+		}
+		return usableSpace >= minFreeSpace;
+	}
+
+	/**
+	 * Waits for a permit to use the root when its concurrency is limited.  Closing the returned
+	 * permit releases it; closing it more than once has no effect.
+	 *
+	 * @return the permit
+	 * @throws IOException if interrupted while waiting
+	 */
+	public Closeable acquire() throws IOException {
+		Semaphore semaphore = permits;
+		if (semaphore == null) {
+			return () -> {};
+		}
+		try {
+			semaphore.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(String.format("Interrupted waiting to use %s", getPath()));
+		}
+		return permit(semaphore);
+	}
+
+	/**
+	 * Returns a permit to use the root when its concurrency is limited, without blocking the
+	 * caller; the future completes when a permit is released to it.  Closing the permit releases
+	 * it; closing it more than once has no effect.
+	 *
+	 * @return a future completed with the permit
+	 */
+	public CompletableFuture<Closeable> acquireAsync() {
+		Semaphore semaphore = permits;
+		if (semaphore == null) {
+			return CompletableFuture.completedFuture(() -> {});
+		}
+		if (semaphore.tryAcquire()) {
+			return CompletableFuture.completedFuture(permit(semaphore));
+		}
+		CompletableFuture<Closeable> waiter = new CompletableFuture<>();
+		waiters.add(waiter);
+		// a permit released before the waiter was queued is handed to the first waiter
+		if (semaphore.tryAcquire()) {
+			release(semaphore);
+		}
+		return waiter;
+	}
+
+	private Closeable permit(Semaphore semaphore) {
+		AtomicBoolean released = new AtomicBoolean();
+		return () -> {
+			if (released.compareAndSet(false, true)) {
+				release(semaphore);
+			}
+		};
+	}
+
+	/*
+	 * Hands a released permit to the first waiter that has not given up, rather than to the
+	 * semaphore, so that waiters that do not block are not starved by those that do.
+	 */
+	private void release(Semaphore semaphore) {
+		CompletableFuture<Closeable> waiter;
+		while ((waiter = waiters.poll()) != null) {
+			if (waiter.complete(permit(semaphore))) {
+				return;
+			}
+		}
+		semaphore.release();
+	}
+
+	private static String suffixPath(String path) {
+		return (path.endsWith("/") ? path : path + "/");
+	}
+
+	@Override
+	public String toString() {
+		return getPath();
+	}
+}
@@ -0,0 +1,97 @@
+package org.springframework.content.fs.io;
+
+import org.springframework.util.Assert;
+
+/**
+ * How filesystem stores write content.
+ *
+ * <p>By default content is written in place, so readers can see a partly written file and a
+ * crash can leave one truncated.  Atomic writes stream content to a temporary file in the same
+ * directory and rename it into place, so readers only ever see whole content; how durable the
+ * rename is once the write returns is set by its {@link Durability}.
+ */
+public class WriteMode {
+
+	/**
+	 * When written content is synced to the disk.
+	 */
+	public enum Durability {
+
+		/**
+		 * Content is left to the operating system to sync, so a crash can lose recent writes.
+		 */
+		NONE,
+
+		/**
+		 * Each write syncs its file and then its directory before it returns.
+		 */
+		FSYNC,
+
+		/**
+		 * Each write syncs its file's data, and the directory syncs of concurrent writes are
+		 * batched so that each directory is synced once for all the writes waiting on it.
+		 */
+		GROUP_COMMIT
+	}
+
+	/**
+	 * Writes content in place.
+	 */
+	public static final WriteMode IN_PLACE = new WriteMode(false, Durability.NONE);
+
+	private static final String TEMPORARY_PREFIX = ".content-";
+	private static final String TEMPORARY_SUFFIX = ".tmp";
+
+	private final boolean atomic;
+	private final Durability durability;
+
+	private WriteMode(boolean atomic, Durability durability) {
+		this.atomic = atomic;
+		this.durability = durability;
+	}
+
+	/**
+	 * Returns the mode that writes content to a temporary file and renames it into place.
+	 *
+	 * @param durability when written content is synced to the disk
+	 * @return the mode
+	 */
+	public static WriteMode atomic(Durability durability) {
+		Assert.notNull(durability, "durability must not be null");
+		return new WriteMode(true, durability);
+	}
+
+	public boolean isAtomic() {
+		return atomic;
+	}
+
+	public Durability getDurability() {
+		return durability;
+	}
+
+	/**
+	 * Returns the name of a new temporary file to write content to.
+	 *
+	 * @param unique a value unique to the write
+	 * @return the name of the temporary file
+	 */
+	public static String temporary(String unique) {
+		return TEMPORARY_PREFIX + unique + TEMPORARY_SUFFIX;
+	}
+
+	/**
+	 * Returns whether the file is a temporary file content is being, or was being, written to,
+	 * rather than content.
+	 *
+	 * @param name the name of the file
+	 * @return true when the file is a temporary file
+	 */
+	public static boolean isTemporary(String name) {
+		return name.startsWith(TEMPORARY_PREFIX) && name.endsWith(TEMPORARY_SUFFIX);
+	}
+
+	@Override
+	public String toString() {
+		return (atomic ? String.format("WriteMode[atomic, durability=%s]", durability) : "WriteMode[in place]");
+	}
+}
@@ -0,0 +1,143 @@
+package internal.org.springframework.content.fs.repository;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.BeforeEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Context;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Describe;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.It;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.runner.RunWith;
+import org.springframework.content.commons.repository.ContentMetadata;
+import org.springframework.content.fs.io.FileSystemResourceLoader;
+import org.springframework.content.fs.io.WriteMode;
+import org.springframework.content.fs.io.WriteMode.Durability;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+
+import internal.org.springframework.content.commons.io.InputStreamPublisher;
+
+@RunWith(Ginkgo4jRunner.class)
+@Ginkgo4jConfiguration(threads=1)
+public class AtomicFileWriterTest {
+
+	private AtomicFileWriter writer;
+
+	private File parent;
+	private File file;
+
+	{
+		Describe("AtomicFileWriter", () -> {
+			BeforeEach(() -> {
+				parent = Files.createTempDirectory("store").toFile();
+				parent.deleteOnExit();
+				file = new File(parent, "content");
+				Files.write(file.toPath(), "Some much longer previous content".getBytes(StandardCharsets.UTF_8));
+			});
+			for (Durability durability : Durability.values()) {
+				Context(String.format("given %s durability", durability), () -> {
+					BeforeEach(() -> {
+						writer = new AtomicFileWriter(WriteMode.atomic(durability));
+					});
+					It("should replace the file", () -> {
+						assertThat(writer.write(file.toPath(), stream("Hello content world!")), is(20L));
+						assertThat(content(file), is("Hello content world!"));
+						assertThat(parent.list().length, is(1));
+					});
+					It("should replace the file asynchronously", () -> {
+						assertThat(writer.write(file.toPath(), new InputStreamPublisher(() -> stream("Hello content world!"), Runnable::run, 4)).get(10, TimeUnit.SECONDS), is(20L));
+						assertThat(content(file), is("Hello content world!"));
+						assertThat(parent.list().length, is(1));
+					});
+					It("should copy the file", () -> {
+						File copy = new File(parent, "copy");
+						writer.copy(file.toPath(), copy.toPath());
+						assertThat(content(copy), is("Some much longer previous content"));
+						assertThat(parent.list().length, is(2));
+					});
+				});
+			}
+			Context("when the content cannot be read", () -> {
+				BeforeEach(() -> {
+					writer = new AtomicFileWriter(WriteMode.atomic(Durability.FSYNC));
+				});
+				It("should leave the file and no temporary file", () -> {
+					try {
+						writer.write(file.toPath(), new InputStream() {
+							@Override
+							public int read() throws IOException {
+								throw new IOException("badness");
+							}
+						});
+						fail("expected an IOException");
+					} catch (IOException e) {
+						assertThat(content(file), is("Some much longer previous content"));
+						assertThat(parent.list().length, is(1));
+					}
+				});
+			});
+			Context("given group commit durability and concurrent writes", () -> {
+				BeforeEach(() -> {
+					writer = new AtomicFileWriter(WriteMode.atomic(Durability.GROUP_COMMIT));
+				});
+				It("should write each of them", () -> {
+					IntStream.range(0, 32).parallel().forEach(i -> {
+						try {
+							writer.write(new File(parent, "content-" + i).toPath(), stream("content " + i));
+						} catch (IOException e) {
+							throw new RuntimeException(e);
+						}
+					});
+					for (int i = 0; i < 32; i++) {
+						assertThat(content(new File(parent, "content-" + i)), is("content " + i));
+					}
+				});
+				It("should write each of them asynchronously", () -> {
+					List<CompletableFuture<Long>> writes = IntStream.range(0, 32)
+							.mapToObj(i -> writer.write(new File(parent, "content-" + i).toPath(), new InputStreamPublisher(() -> stream("content " + i), Runnable::run, 4)))
+							.collect(Collectors.toList());
+					CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+					for (int i = 0; i < 32; i++) {
+						assertThat(content(new File(parent, "content-" + i)), is("content " + i));
+					}
+				});
+			});
+			Context("given a temporary file", () -> {
+				BeforeEach(() -> {
+					Files.write(new File(parent, WriteMode.temporary("abcd")).toPath(), new byte[] { 1 });
+				});
+				It("should not list it", () -> {
+					FileSystemResourceLoader loader = new FileSystemResourceLoader(parent.getPath());
+					try (Stream<ContentMetadata> listed = new DefaultFilesystemStoreImpl<Object, String>(loader, null, null).list(null)) {
+						List<String> contentIds = listed.map(metadata -> metadata.getContentId().toString()).collect(Collectors.toList());
+						assertThat(contentIds, is(Collections.singletonList("content")));
+					}
+				});
+			});
+		});
+	}
+
+	private static InputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String content(File file) throws IOException {
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	}
+}
@@ -4,6 +4,21 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import internal.org.springframework.content.commons.io.InputStreamPublisher;
+import internal.org.springframework.content.commons.io.PublisherInputStream;
 
 import org.junit.runner.RunWith;
 import org.mockito.InOrder;
@@ -12,11 +27,16 @@ import org.mockito.Mockito;
 import org.springframework.content.commons.annotations.ContentId;
 import org.springframework.content.commons.annotations.ContentLength;
 import org.springframework.content.commons.io.DeletableResource;
+import org.springframework.content.commons.repository.ContentMetadata;
+import org.springframework.content.commons.repository.StoreAccessException;
 import org.springframework.content.commons.utils.FileService;
+import org.springframework.content.fs.io.FileSystemDeletableResource;
 import org.springframework.content.fs.io.FileSystemResourceLoader;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.WritableResource;
+import org.springframework.util.StreamUtils;
 
 import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
 import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
@@ -26,6 +46,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
 
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.eq;
@@ -42,21 +63,26 @@ public class DefaultFilesystemStoresImplTest {
     private FileSystemResourceLoader loader;
     private ConversionService conversion;
     private ContentProperty entity;
+    private ContentProperty otherEntity;
     
     private Resource resource;
     private WritableResource writeableResource;
+    private WritableResource otherWriteableResource;
     private DeletableResource deletableResource;
     private DeletableResource nonExistentResource;
     private FileService fileService;
 
     private InputStream content;
     private OutputStream output;
+    private OutputStream otherOutput;
 
     private File parent;
+    private File file;
     
     private String id;
 
     private InputStream result;
+    private AtomicInteger bulkTasks;
 
     {
         Describe("DefaultFilesystemContentRepositoryImpl", () -> {
@@ -129,6 +155,81 @@ public class DefaultFilesystemStoresImplTest {
     					assertThat(entity.getContentLen(), is(0L));
     				});
         		});
+        		Context("#copy and #move", () -> {
+        			BeforeEach(() -> {
+        				parent = Files.createTempDirectory("store").toFile();
+        				parent.deleteOnExit();
+        				file = new File(parent, "from");
+        				Files.write(file.toPath(), "Hello content world!".getBytes(StandardCharsets.UTF_8));
+
+        				when(conversion.convert(eq("from"), eq(String.class))).thenReturn("from");
+        				when(conversion.convert(eq("to"), eq(String.class))).thenReturn("to");
+        				when(loader.getResource(eq("from"))).thenReturn(new FileSystemDeletableResource(new FileSystemResource(file)));
+        				when(loader.getResource(eq("to"))).thenReturn(new FileSystemDeletableResource(new FileSystemResource(new File(parent, "to"))));
+        			});
+        			It("should copy the content's file", () -> {
+        				filesystemContentRepoImpl.copy("from", "to");
+        				assertThat(new String(Files.readAllBytes(new File(parent, "to").toPath()), StandardCharsets.UTF_8), is("Hello content world!"));
+        				assertThat(file.exists(), is(true));
+        			});
+        			It("should move the content's file", () -> {
+        				filesystemContentRepoImpl.move("from", "to");
+        				assertThat(new String(Files.readAllBytes(new File(parent, "to").toPath()), StandardCharsets.UTF_8), is("Hello content world!"));
+        				assertThat(file.exists(), is(false));
+        			});
+        			It("should stat the content's file", () -> {
+        				ContentMetadata metadata = filesystemContentRepoImpl.getMetadata("from");
+        				assertThat(metadata.exists(), is(true));
+        				assertThat(metadata.getLength(), is(20L));
+        				assertThat(metadata.getLastModified(), is(file.lastModified()));
+        				assertThat(filesystemContentRepoImpl.getMetadata("to").exists(), is(false));
+        			});
+        			Context("when the content does not exist", () -> {
+        				BeforeEach(() -> {
+        					file.delete();
+        				});
+        				It("should fail", () -> {
+        					try {
+        						filesystemContentRepoImpl.copy("from", "to");
+        						fail("expected a StoreAccessException");
+        					} catch (StoreAccessException e) {
+        						assertThat(new File(parent, "to").exists(), is(false));
+        					}
+        				});
+        			});
+        		});
+        		Context("#list", () -> {
+        			BeforeEach(() -> {
+        				parent = Files.createTempDirectory("store").toFile();
+        				parent.deleteOnExit();
+        				for (String location : new String[] { "a", "b/c", "b/d/e", "bc", "f/g" }) {
+        					File listed = new File(parent, location);
+        					listed.getParentFile().mkdirs();
+        					Files.write(listed.toPath(), location.getBytes(StandardCharsets.UTF_8));
+        				}
+        				when(loader.getFilesystemRoots()).thenReturn(Collections.singletonList(parent.getPath() + "/"));
+        			});
+        			It("should list every file", () -> {
+        				try (Stream<ContentMetadata> listed = filesystemContentRepoImpl.list(null)) {
+        					Map<Serializable, Long> lengths = listed.collect(Collectors.toMap(ContentMetadata::getContentId, ContentMetadata::getLength));
+        					assertThat(lengths.size(), is(5));
+        					assertThat(lengths.get("b/d/e"), is(5L));
+        				}
+        			});
+        			It("should list the files whose location starts with the prefix", () -> {
+        				try (Stream<ContentMetadata> listed = filesystemContentRepoImpl.list("b")) {
+        					assertThat(listed.map(ContentMetadata::getContentId).collect(Collectors.toCollection(HashSet::new)), is(new HashSet<Serializable>(Arrays.asList("b/c", "b/d/e", "bc"))));
+        				}
+        				try (Stream<ContentMetadata> listed = filesystemContentRepoImpl.list("b/d/")) {
+        					assertThat(listed.map(ContentMetadata::getContentId).collect(Collectors.toCollection(HashSet::new)), is(new HashSet<Serializable>(Arrays.asList("b/d/e"))));
+        				}
+        			});
+        			It("should list in parallel", () -> {
+        				try (Stream<ContentMetadata> listed = filesystemContentRepoImpl.list("").parallel()) {
+        					assertThat(listed.count(), is(5L));
+        				}
+        			});
+        		});
         	});
         	
         	Describe("ContentStore", () -> {
@@ -204,6 +305,59 @@ public class DefaultFilesystemStoresImplTest {
         			});
         		});
         		
+        		Context("#setContents", () -> {
+        			BeforeEach(() -> {
+        				entity = new TestEntity();
+        				entity.setContentId("12345");
+        				otherEntity = new TestEntity();
+        				otherEntity.setContentId("67890");
+
+        				when(conversion.convert(eq("12345"), eq(String.class))).thenReturn("12345");
+        				when(conversion.convert(eq("67890"), eq(String.class))).thenReturn("67890");
+
+        				when(loader.getResource(eq("12345"))).thenReturn(writeableResource);
+        				output = mock(OutputStream.class);
+        				when(writeableResource.exists()).thenReturn(true);
+        				when(writeableResource.getOutputStream()).thenReturn(output);
+        				when(writeableResource.contentLength()).thenReturn(20L);
+
+        				otherWriteableResource = mock(WritableResource.class);
+        				when(loader.getResource(eq("67890"))).thenReturn(otherWriteableResource);
+        				otherOutput = mock(OutputStream.class);
+        				when(otherWriteableResource.exists()).thenReturn(true);
+        				when(otherWriteableResource.getOutputStream()).thenReturn(otherOutput);
+        				when(otherWriteableResource.contentLength()).thenReturn(5L);
+        			});
+        			JustBeforeEach(() -> {
+        				Map<ContentProperty, InputStream> contents = new HashMap<>();
+        				contents.put(entity, new ByteArrayInputStream("Hello content world!".getBytes()));
+        				contents.put(otherEntity, new ByteArrayInputStream("Hello".getBytes()));
+        				filesystemContentRepoImpl.setContents(contents);
+        			});
+        			It("should write each content to its resource's outputstream", () -> {
+        				verify(output, times(1)).write(Matchers.<byte[]>any(), eq(0), eq(20));
+        				verify(otherOutput, times(1)).write(Matchers.<byte[]>any(), eq(0), eq(5));
+        			});
+        			It("should set the content length of each entity", () -> {
+        				assertThat(entity.getContentLen(), is(20L));
+        				assertThat(otherEntity.getContentLen(), is(5L));
+        			});
+        			Context("given a bulk executor", () -> {
+        				BeforeEach(() -> {
+        					bulkTasks = new AtomicInteger();
+        					filesystemContentRepoImpl.setBulkExecutor(task -> {
+        						bulkTasks.incrementAndGet();
+        						task.run();
+        					});
+        				});
+        				It("should write each content on the executor", () -> {
+        					assertThat(bulkTasks.get(), is(2));
+        					verify(output, times(1)).write(Matchers.<byte[]>any(), eq(0), eq(20));
+        					verify(otherOutput, times(1)).write(Matchers.<byte[]>any(), eq(0), eq(5));
+        				});
+        			});
+        		});
+
         		Context("#getContent", () -> {
         			BeforeEach(() -> {
         				entity = new TestEntity();
@@ -263,6 +417,34 @@ public class DefaultFilesystemStoresImplTest {
         			});
         		});
         		
+        		Context("#getContent with a range", () -> {
+        			BeforeEach(() -> {
+        				entity = new TestEntity();
+        				entity.setContentId("abcd-efgh");
+
+        				file = File.createTempFile("content", ".txt");
+        				file.deleteOnExit();
+        				Files.write(file.toPath(), "Hello content world!".getBytes(StandardCharsets.UTF_8));
+
+        				when(conversion.convert(eq("abcd-efgh"), eq(String.class))).thenReturn("/abcd/efgh");
+        				when(loader.getResource(eq("/abcd/efgh"))).thenReturn(new FileSystemDeletableResource(new FileSystemResource(file)));
+        			});
+        			JustBeforeEach(() -> {
+        				result = filesystemContentRepoImpl.getContent(entity, 6L, 7L);
+        			});
+        			It("should get only the range of content", () -> {
+        				assertThat(StreamUtils.copyToString(result, StandardCharsets.UTF_8), is("content"));
+        			});
+        			Context("when the content does not exist", () -> {
+        				BeforeEach(() -> {
+        					file.delete();
+        				});
+        				It("should not find the content", () -> {
+        					assertThat(result, is(nullValue()));
+        				});
+        			});
+        		});
+
         		Context("#unsetContent", () -> {
         			BeforeEach(() -> {
         				entity = new TestEntity();
@@ -327,6 +509,63 @@ public class DefaultFilesystemStoresImplTest {
         			});
 				});
         		
+        		Context("#readContent", () -> {
+        			BeforeEach(() -> {
+        				entity = new TestEntity();
+        				entity.setContentId("abcd-efgh");
+
+        				file = File.createTempFile("content", ".txt");
+        				file.deleteOnExit();
+        				Files.write(file.toPath(), "Hello content world!".getBytes(StandardCharsets.UTF_8));
+
+        				when(conversion.convert(eq("abcd-efgh"), eq(String.class))).thenReturn("/abcd/efgh");
+        				resource = mock(Resource.class);
+        				when(loader.getResource(eq("/abcd/efgh"))).thenReturn(resource);
+        				when(resource.exists()).thenReturn(true);
+        				when(resource.getFile()).thenReturn(file);
+        			});
+        			JustBeforeEach(() -> {
+        				result = new PublisherInputStream(filesystemContentRepoImpl.readContent(entity));
+        			});
+        			It("should publish the content of the file", () -> {
+        				assertThat(StreamUtils.copyToString(result, StandardCharsets.UTF_8), is("Hello content world!"));
+        			});
+        			Context("when the content does not exist", () -> {
+        				BeforeEach(() -> {
+        					when(resource.exists()).thenReturn(false);
+        				});
+        				It("should publish empty content", () -> {
+        					assertThat(result.read(), is(-1));
+        				});
+        			});
+        		});
+
+        		Context("#writeContent", () -> {
+        			BeforeEach(() -> {
+        				entity = new TestEntity();
+        				entity.setContentId("abcd-efgh");
+
+        				file = File.createTempFile("content", ".txt");
+        				file.deleteOnExit();
+        				Files.write(file.toPath(), "Some much longer previous content".getBytes(StandardCharsets.UTF_8));
+
+        				when(conversion.convert(eq("abcd-efgh"), eq(String.class))).thenReturn("/abcd/efgh");
+        				resource = mock(Resource.class);
+        				when(loader.getResource(eq("/abcd/efgh"))).thenReturn(resource);
+        				when(resource.exists()).thenReturn(true);
+        				when(resource.getFile()).thenReturn(file);
+        			});
+        			JustBeforeEach(() -> {
+        				filesystemContentRepoImpl.writeContent(entity, new InputStreamPublisher(() -> new ByteArrayInputStream("Hello content world!".getBytes(StandardCharsets.UTF_8)), Runnable::run, 4)).get(10, TimeUnit.SECONDS);
+        			});
+        			It("should replace the content of the file", () -> {
+        				assertThat(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8), is("Hello content world!"));
+        			});
+        			It("should set the content length", () -> {
+        				assertThat(entity.getContentLen(), is(20L));
+        			});
+        		});
+
         		Context("#getResource", () -> {
         			BeforeEach(() -> {
         				when(conversion.convert(eq("abcd-efgh"), eq(String.class))).thenReturn("/abcd/efgh");
@@ -0,0 +1,149 @@
+package org.springframework.content.fs.io;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.BeforeEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Context;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Describe;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.It;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.File;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.runner.RunWith;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.repository.ContentMetadata;
+import org.springframework.content.commons.utils.FileServiceImpl;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.util.StreamUtils;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+
+import internal.org.springframework.content.fs.repository.DefaultFilesystemStoreImpl;
+
+@RunWith(Ginkgo4jRunner.class)
+@Ginkgo4jConfiguration(threads=1)
+public class FanoutMigratorTest {
+
+	private FanoutLayout layout;
+	private FileSystemResourceLoader loader;
+	private DefaultFilesystemStoreImpl<TestEntity, String> store;
+	private FanoutMigrator migrator;
+
+	private File root;
+
+	{
+		Describe("FanoutLayout", () -> {
+			BeforeEach(() -> {
+				layout = new FanoutLayout(2, 2);
+			});
+			It("should place a location under directories named by its hash", () -> {
+				assertThat(layout.toPath("1234"), is("81/dc/1234"));
+				assertThat(layout.toPath("/1234"), is("81/dc/1234"));
+			});
+			It("should return the location of a placed path", () -> {
+				assertThat(layout.toLocation("81/dc/1234"), is("1234"));
+			});
+			It("should not return a location for a path it does not place content at", () -> {
+				assertThat(layout.toLocation("1234"), is(nullValue()));
+				assertThat(layout.toLocation("00/00/1234"), is(nullValue()));
+			});
+			It("should place content at its location when flat", () -> {
+				assertThat(FanoutLayout.FLAT.toPath("1234"), is("1234"));
+				assertThat(FanoutLayout.FLAT.toLocation("1234"), is("1234"));
+			});
+		});
+
+		Describe("FanoutMigrator", () -> {
+			BeforeEach(() -> {
+				root = Files.createTempDirectory("store").toFile();
+				root.deleteOnExit();
+				for (String location : new String[] { "1234", "5678", "a/b" }) {
+					File file = new File(root, location);
+					file.getParentFile().mkdirs();
+					Files.write(file.toPath(), location.getBytes(StandardCharsets.UTF_8));
+				}
+
+				layout = new FanoutLayout(2, 2);
+				loader = new FileSystemResourceLoader(root.getPath());
+				store = new DefaultFilesystemStoreImpl<>(loader, new DefaultConversionService(), new FileServiceImpl(), layout);
+				migrator = new FanoutMigrator(loader, layout);
+			});
+			Context("given a root that has not been migrated", () -> {
+				It("should get content from its location", () -> {
+					assertThat(content("1234"), is("1234"));
+				});
+				It("should set new content at its placed path", () -> {
+					TestEntity entity = new TestEntity("9999");
+					store.setContent(entity, StreamUtils.emptyInput());
+					assertThat(new File(root, layout.toPath("9999")).exists(), is(true));
+					assertThat(new File(root, "9999").exists(), is(false));
+				});
+				It("should unset content at either path", () -> {
+					store.unsetContent(new TestEntity("1234"));
+					assertThat(new File(root, "1234").exists(), is(false));
+				});
+				It("should list content by its location", () -> {
+					try (Stream<ContentMetadata> listed = store.list(null)) {
+						assertThat(listed.map(ContentMetadata::getContentId).collect(Collectors.toCollection(HashSet::new)), is(new HashSet<Serializable>(Arrays.asList("1234", "5678", "a/b"))));
+					}
+				});
+			});
+			Context("when the root is migrated", () -> {
+				BeforeEach(() -> {
+					Files.write(new File(root, "5678").toPath(), "old".getBytes(StandardCharsets.UTF_8));
+					store.setContent(new TestEntity("5678"), StreamUtils.emptyInput());
+				});
+				It("should move content to its placed path", () -> {
+					assertThat(migrator.migrate(), is(2L));
+					assertThat(new File(root, "1234").exists(), is(false));
+					assertThat(new File(root, layout.toPath("1234")).exists(), is(true));
+					assertThat(new File(root, layout.toPath("a/b")).exists(), is(true));
+					assertThat(content("1234"), is("1234"));
+				});
+				It("should keep content set since the root was laid out", () -> {
+					migrator.migrate();
+					assertThat(new File(root, "5678").exists(), is(false));
+					assertThat(content("5678"), is(""));
+					assertThat(migrator.getSuperseded(), is(1L));
+				});
+				It("should list content by its location", () -> {
+					migrator.migrate();
+					try (Stream<ContentMetadata> listed = store.list("a/")) {
+						assertThat(listed.map(ContentMetadata::getContentId).collect(Collectors.toCollection(HashSet::new)), is(new HashSet<Serializable>(Arrays.asList("a/b"))));
+					}
+				});
+				It("should move nothing the second time", () -> {
+					migrator.migrate();
+					assertThat(migrator.migrate(), is(0L));
+				});
+			});
+		});
+	}
+
+	private String content(String contentId) throws Exception {
+		return StreamUtils.copyToString(store.getContent(new TestEntity(contentId)), StandardCharsets.UTF_8);
+	}
+
+	public static class TestEntity {
+
+		@ContentId
+		private String contentId;
+
+		@ContentLength
+		private long contentLength;
+
+		public TestEntity(String contentId) {
+			this.contentId = contentId;
+		}
+	}
+}
@@ -10,9 +10,20 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.FileUtils;
 import org.junit.runner.RunWith;
@@ -36,6 +47,8 @@ public class FileSystemResourceLoaderTest {
 	private File file;
 	
 	private Exception ex;
+
+	private List<FilesystemRoot> roots;
 	
 	{
 		Describe("FileSystemResourceLoader", () -> {
@@ -95,5 +108,88 @@ public class FileSystemResourceLoaderTest {
 				});
 			});
 		});
+
+		Describe("Striping", () -> {
+			BeforeEach(() -> {
+				roots = new ArrayList<>();
+				for (int i = 0; i < 3; i++) {
+					roots.add(new FilesystemRoot(Files.createTempDirectory("root").toString()));
+				}
+			});
+			JustBeforeEach(() -> {
+				loader = new FileSystemResourceLoader(roots);
+			});
+			It("should spread content over the roots", () -> {
+				Set<String> used = new HashSet<>();
+				for (int i = 0; i < 100; i++) {
+					used.add(loader.getResource(UUID.randomUUID().toString()).getFile().getParent());
+				}
+				assertThat(used.size(), is(3));
+			});
+			It("should place a location on the same root each time", () -> {
+				assertThat(loader.getResource("some-content").getFile(), is(loader.getResource("some-content").getFile()));
+			});
+			It("should list every root", () -> {
+				assertThat(loader.getFilesystemRoots().size(), is(3));
+			});
+			Context("given content on a root it is not placed on first", () -> {
+				BeforeEach(() -> {
+					location = "some-content";
+					File placed = new FileSystemResourceLoader(roots).getResource(location).getFile();
+					for (FilesystemRoot root : roots) {
+						if (!placed.getPath().startsWith(root.getPath())) {
+							file = new File(root.getPath(), location);
+							FileUtils.touch(file);
+							break;
+						}
+					}
+				});
+				It("should find it", () -> {
+					assertThat(loader.getResource(location).getFile(), is(file));
+				});
+			});
+			Context("given roots without enough free space", () -> {
+				BeforeEach(() -> {
+					roots.get(0).setMinFreeSpace(Long.MAX_VALUE);
+					roots.get(1).setMinFreeSpace(Long.MAX_VALUE);
+				});
+				It("should place new content on the root with free space", () -> {
+					for (int i = 0; i < 10; i++) {
+						assertThat(loader.getResource(UUID.randomUUID().toString()).getFile().getParent() + "/", is(roots.get(2).getPath()));
+					}
+				});
+			});
+			Context("given a root with a concurrency limit", () -> {
+				BeforeEach(() -> {
+					roots = new ArrayList<>(roots.subList(0, 1));
+					roots.get(0).setMaxConcurrency(1);
+					FileUtils.touch(new File(roots.get(0).getPath(), "some-content"));
+				});
+				It("should hold a permit while a stream is open", () -> {
+					Resource resource = loader.getResource("some-content");
+					InputStream in = resource.getInputStream();
+					CompletableFuture<InputStream> other = CompletableFuture.supplyAsync(() -> {
+						try {
+							return resource.getInputStream();
+						} catch (IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					});
+					Thread.sleep(200L);
+					assertThat(other.isDone(), is(false));
+					in.close();
+					other.get(10, TimeUnit.SECONDS).close();
+				});
+				It("should hand a released permit to a waiter that does not block", () -> {
+					Closeable permit = roots.get(0).acquire();
+					CompletableFuture<Closeable> waiting = roots.get(0).acquireAsync();
+					assertThat(waiting.isDone(), is(false));
+					permit.close();
+					permit.close();
+					waiting.get(10, TimeUnit.SECONDS).close();
+					roots.get(0).acquireAsync().get(10, TimeUnit.SECONDS).close();
+				});
+			});
+		});
 	}
 }
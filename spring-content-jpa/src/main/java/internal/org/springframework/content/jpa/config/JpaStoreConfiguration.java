@@ -1,5 +1,6 @@
 package internal.org.springframework.content.jpa.config;
 
+import internal.org.springframework.content.jpa.io.BlobBatchOperations;
 import internal.org.springframework.content.jpa.io.DelegatingBlobResourceLoader;
 import internal.org.springframework.content.jpa.io.GenericBlobResourceLoader;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,6 +24,11 @@ public class JpaStoreConfiguration {
         return new DelegatingBlobResourceLoader(ds, loaders);
     }
 
+    @Bean
+    public BlobBatchOperations blobBatchOperations(DataSource ds, PlatformTransactionManager txnMgr) {
+        return new BlobBatchOperations(new JdbcTemplate(ds), txnMgr);
+    }
+
     @Bean
     public BlobResourceLoader genericBlobResourceLoader(DataSource ds, PlatformTransactionManager txnMgr) {
         return new GenericBlobResourceLoader(new JdbcTemplate(ds), txnMgr);
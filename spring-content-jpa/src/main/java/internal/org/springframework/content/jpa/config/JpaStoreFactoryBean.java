@@ -1,5 +1,6 @@
 package internal.org.springframework.content.jpa.config;
 
+import internal.org.springframework.content.jpa.io.BlobBatchOperations;
 import internal.org.springframework.content.jpa.io.DelegatingBlobResourceLoader;
 import internal.org.springframework.content.jpa.repository.DefaultJpaStoreImpl;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,10 +13,13 @@ public class JpaStoreFactoryBean extends AbstractStoreFactoryBean {
 	@Autowired
 	private DelegatingBlobResourceLoader blobResourceLoader;
 
+	@Autowired(required=false)
+	private BlobBatchOperations blobBatchOperations;
+
 	@Override
 	protected Object getContentStoreImpl() {
 		Assert.notNull(blobResourceLoader, "blobResourceLoader cannot be null");
-		return new DefaultJpaStoreImpl(blobResourceLoader);
+		return new DefaultJpaStoreImpl(blobResourceLoader, blobBatchOperations);
 	}
 
 }
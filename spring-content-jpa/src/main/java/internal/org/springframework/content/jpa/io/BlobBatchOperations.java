@@ -0,0 +1,335 @@
+package internal.org.springframework.content.jpa.io;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.content.commons.repository.StoreAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes and deletes many BLOBS rows with JDBC batches, in a single transaction, rather than a
+ * statement and a transaction per row.
+ */
+public class BlobBatchOperations {
+
+    private static Log logger = LogFactory.getLog(BlobBatchOperations.class);
+
+    // bounds the number of parameters in an IN list
+    private static final int MAX_IN_LIST = 500;
+
+    private JdbcTemplate template;
+    private PlatformTransactionManager txnMgr;
+
+    private volatile Boolean supportsBatchInsert = null;
+    private volatile String lengthFunction = null;
+
+    public BlobBatchOperations(JdbcTemplate template, PlatformTransactionManager txnMgr) {
+        this.template = template;
+        this.txnMgr = txnMgr;
+    }
+
+    /**
+     * Returns whether the database can return the generated ids of a batch insert.  When it cannot
+     * blobs must be stored one at a time.
+     *
+     * @return true if {@link #store(List)} can be used
+     */
+    public boolean supportsBatchInsert() {
+        Boolean supported = supportsBatchInsert;
+        if (supported == null) {
+            try {
+                supported = (Boolean) JdbcUtils.extractDatabaseMetaData(template.getDataSource(),
+                        metaData -> metaData.supportsBatchUpdates() && metaData.supportsGetGeneratedKeys());
+            } catch (MetaDataAccessException e) {
+                logger.error("Error fetching database metadata", e);
+                supported = false;
+            }
+            supportsBatchInsert = supported;
+        }
+        return supported;
+    }
+
+    /**
+     * Returns the length of the content of each blob that exists, with the database's length
+     * function, so the content itself is not read.
+     *
+     * @param ids the ids
+     * @return the lengths, keyed by id
+     */
+    public Map<Integer, Long> lengths(Collection<Object> ids) {
+        List<Integer> blobIds = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            blobIds.add(toId(id));
+        }
+
+        Map<Integer, Long> lengths = new HashMap<>();
+        for (int i = 0; i < blobIds.size(); i += MAX_IN_LIST) {
+            List<Integer> chunk = blobIds.subList(i, Math.min(i + MAX_IN_LIST, blobIds.size()));
+            StringBuilder sql = new StringBuilder("SELECT id, ").append(lengthFunction()).append("(content) FROM BLOBS WHERE id IN (");
+            for (int j = 0; j < chunk.size(); j++) {
+                sql.append(j == 0 ? "?" : ",?");
+            }
+            sql.append(")");
+            template.query(sql.toString(), chunk.toArray(), (ResultSet rs) -> {
+                lengths.put(rs.getInt(1), rs.getLong(2));
+            });
+        }
+        return lengths;
+    }
+
+    /**
+     * Returns the lengths of a page of blobs, in id order, starting after the given id.  Pages are
+     * read by id rather than by offset, so each is found with the primary key however far into
+     * the table it is.
+     *
+     * @param after the id of the last blob of the previous page, or null for the first page
+     * @param size the maximum number of blobs in the page
+     * @return the lengths, keyed by id in id order
+     */
+    public Map<Integer, Long> page(Integer after, int size) {
+        String sql = "SELECT id, " + lengthFunction() + "(content) FROM BLOBS" + (after != null ? " WHERE id > ?" : "") + " ORDER BY id";
+        Map<Integer, Long> page = new LinkedHashMap<>();
+        template.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setMaxRows(size);
+            ps.setFetchSize(size);
+            if (after != null) {
+                ps.setInt(1, after);
+            }
+            return ps;
+        }, (ResultSet rs) -> {
+            page.put(rs.getInt(1), rs.getLong(2));
+        });
+        return page;
+    }
+
+    private String lengthFunction() {
+        String function = lengthFunction;
+        if (function == null) {
+            try {
+                String database = (String) JdbcUtils.extractDatabaseMetaData(template.getDataSource(), "getDatabaseProductName");
+                function = (database != null && database.contains("SQL Server") ? "DATALENGTH" : "OCTET_LENGTH");
+            } catch (MetaDataAccessException e) {
+                logger.error("Error fetching database metadata", e);
+                function = "OCTET_LENGTH";
+            }
+            lengthFunction = function;
+        }
+        return function;
+    }
+
+    /**
+     * Stores the content of each blob; existing blobs are updated and the others inserted, after
+     * which every blob's id and length are set.  The content streams are closed.
+     *
+     * @param blobs the blobs to store
+     */
+    public void store(List<Blob> blobs) {
+        try {
+            new TransactionTemplate(txnMgr).execute(status -> {
+                Set<Integer> existing = existingIds(blobs);
+                List<Blob> updates = new ArrayList<>();
+                List<Blob> inserts = new ArrayList<>();
+                for (Blob blob : blobs) {
+                    if (blob.id != null && existing.contains(toId(blob.id))) {
+                        updates.add(blob);
+                    } else {
+                        inserts.add(blob);
+                    }
+                }
+                update(updates);
+                insert(inserts);
+                return null;
+            });
+        } finally {
+            for (Blob blob : blobs) {
+                IOUtils.closeQuietly(blob.content);
+            }
+        }
+    }
+
+    /**
+     * Deletes the blobs with the given ids.
+     *
+     * @param ids the ids
+     */
+    public void delete(Collection<Object> ids) {
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            args.add(new Object[] { toId(id) });
+        }
+        new TransactionTemplate(txnMgr).execute(status -> template.batchUpdate("DELETE FROM BLOBS WHERE id=?", args));
+    }
+
+    /**
+     * Copies the content of one blob to another, replacing the other's content, with a single
+     * INSERT ... SELECT so the content does not leave the database.
+     *
+     * @param from the id of the blob to copy
+     * @param to the id to copy it to
+     */
+    public void copy(Object from, Object to) {
+        new TransactionTemplate(txnMgr).execute(status -> {
+            template.update("DELETE FROM BLOBS WHERE id=?", toId(to));
+            if (template.update("INSERT INTO BLOBS (id, content) SELECT ?, content FROM BLOBS WHERE id=?", toId(to), toId(from)) == 0) {
+                throw new StoreAccessException(String.format("No content %s to copy", from));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Moves the content of one blob to another, replacing the other's content, by changing the
+     * blob's id.
+     *
+     * @param from the id of the blob to move
+     * @param to the id to move it to
+     */
+    public void move(Object from, Object to) {
+        new TransactionTemplate(txnMgr).execute(status -> {
+            template.update("DELETE FROM BLOBS WHERE id=?", toId(to));
+            if (template.update("UPDATE BLOBS SET id=? WHERE id=?", toId(to), toId(from)) == 0) {
+                throw new StoreAccessException(String.format("No content %s to move", from));
+            }
+            return null;
+        });
+    }
+
+    private Set<Integer> existingIds(List<Blob> blobs) {
+        List<Integer> ids = new ArrayList<>();
+        for (Blob blob : blobs) {
+            if (blob.id != null) {
+                ids.add(toId(blob.id));
+            }
+        }
+
+        Set<Integer> existing = new HashSet<>();
+        for (int i = 0; i < ids.size(); i += MAX_IN_LIST) {
+            List<Integer> chunk = ids.subList(i, Math.min(i + MAX_IN_LIST, ids.size()));
+            StringBuilder sql = new StringBuilder("SELECT id FROM BLOBS WHERE id IN (");
+            for (int j = 0; j < chunk.size(); j++) {
+                sql.append(j == 0 ? "?" : ",?");
+            }
+            sql.append(")");
+            existing.addAll(template.queryForList(sql.toString(), Integer.class, chunk.toArray()));
+        }
+        return existing;
+    }
+
+    private void update(List<Blob> blobs) {
+        if (blobs.isEmpty()) {
+            return;
+        }
+        template.batchUpdate("UPDATE BLOBS SET content=? WHERE id=?", new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Blob blob = blobs.get(i);
+                ps.setBinaryStream(1, blob.counted());
+                ps.setInt(2, toId(blob.id));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return blobs.size();
+            }
+        });
+        for (Blob blob : blobs) {
+            blob.stored(toId(blob.id));
+        }
+    }
+
+    private void insert(List<Blob> blobs) {
+        if (blobs.isEmpty()) {
+            return;
+        }
+        template.execute((Connection con) -> con.prepareStatement("INSERT INTO BLOBS (content) VALUES(?)", Statement.RETURN_GENERATED_KEYS), (PreparedStatement ps) -> {
+            for (Blob blob : blobs) {
+                ps.setBinaryStream(1, blob.counted());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+
+            int i = 0;
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                while (keys.next() && i < blobs.size()) {
+                    blobs.get(i++).stored(keys.getInt(1));
+                }
+            }
+            if (i != blobs.size()) {
+                throw new StoreAccessException(String.format("Expected %d generated ids for inserted content but got %d", blobs.size(), i));
+            }
+            return null;
+        });
+    }
+
+    private static Integer toId(Object id) {
+        return Integer.parseInt(id.toString());
+    }
+
+    /**
+     * A blob to store: its current id, if any, and its content.
+     */
+    public static class Blob {
+
+        private final Object id;
+        private final InputStream content;
+        private CountingInputStream counter;
+
+        private Object storedId;
+        private long length = -1L;
+
+        public Blob(Object id, InputStream content) {
+            this.id = id;
+            this.content = content;
+        }
+
+        /**
+         * Returns the id the content was stored under.
+         *
+         * @return the id
+         */
+        public Object getStoredId() {
+            return storedId;
+        }
+
+        /**
+         * Returns the length of the stored content.
+         *
+         * @return the length
+         */
+        public long getLength() {
+            return length;
+        }
+
+        private InputStream counted() {
+            counter = new CountingInputStream(content);
+            return counter;
+        }
+
+        private void stored(Object storedId) {
+            this.storedId = storedId;
+            this.length = counter.getByteCount();
+        }
+    }
+}
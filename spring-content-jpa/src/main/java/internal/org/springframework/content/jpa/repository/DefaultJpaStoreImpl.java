@@ -1,12 +1,16 @@
 package internal.org.springframework.content.jpa.repository;
 
+import internal.org.springframework.content.jpa.io.BlobBatchOperations;
+import internal.org.springframework.content.jpa.io.BlobBatchOperations.Blob;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.content.commons.annotations.ContentId;
 import org.springframework.content.commons.annotations.ContentLength;
 import org.springframework.content.commons.io.DeletableResource;
+import org.springframework.content.commons.io.RangeableResource;
 import org.springframework.content.commons.repository.AssociativeStore;
+import org.springframework.content.commons.repository.ContentMetadata;
 import org.springframework.content.commons.repository.ContentStore;
 import org.springframework.content.commons.repository.Store;
 import org.springframework.content.commons.utils.BeanUtils;
@@ -19,15 +23,35 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class DefaultJpaStoreImpl<S, SID extends Serializable> implements Store<SID>, AssociativeStore<S, SID>, ContentStore<S,SID> {
 
     private static Log logger = LogFactory.getLog(DefaultJpaStoreImpl.class);
 
+    // the number of blobs read at a time when content is listed
+    static final int LIST_PAGE_SIZE = 1000;
+
     private ResourceLoader loader;
+    private BlobBatchOperations batch;
 
     public DefaultJpaStoreImpl(ResourceLoader blobResourceLoader) {
+        this(blobResourceLoader, null);
+    }
+
+    public DefaultJpaStoreImpl(ResourceLoader blobResourceLoader, BlobBatchOperations batch) {
         this.loader = blobResourceLoader;
+        this.batch = batch;
     }
 
     @Override
@@ -35,9 +59,82 @@ public class DefaultJpaStoreImpl<S, SID extends Serializable> implements Store<S
         return loader.getResource(id.toString());
     }
 
+    /**
+     * Reads the content's length with the database's length function rather than reading the
+     * content.  BLOBS rows record neither when they were last modified nor a checksum.
+     */
+    @Override
+    public ContentMetadata getMetadata(SID id) {
+        if (batch == null) {
+            return AssociativeStore.super.getMetadata(id);
+        }
+        return this.getMetadata(Collections.singletonList(id)).get(id);
+    }
+
+    /**
+     * Reads the lengths of all the content with one query.
+     */
+    @Override
+    public Map<SID, ContentMetadata> getMetadata(Collection<SID> ids) {
+        if (batch == null) {
+            return AssociativeStore.super.getMetadata(ids);
+        }
+        Map<Integer, Long> lengths = batch.lengths(new ArrayList<Object>(ids));
+        Map<SID, ContentMetadata> metadata = new LinkedHashMap<>();
+        for (SID id : ids) {
+            Long length = lengths.get(Integer.parseInt(id.toString()));
+            metadata.put(id, length != null ? new ContentMetadata(id, length, 0L, null) : ContentMetadata.missing(id));
+        }
+        return metadata;
+    }
+
+    /**
+     * Reads the lengths of the content a page at a time, in id order.  Ids are numbers, so the
+     * prefix is matched against each id's digits as the pages are read.
+     */
+    @Override
+    public Stream<ContentMetadata> list(String prefix) {
+        if (batch == null) {
+            return AssociativeStore.super.list(prefix);
+        }
+        return StreamSupport.stream(new BlobSpliterator(prefix != null ? prefix : ""), false);
+    }
+
+    /**
+     * Copies the content within the database rather than reading and writing it.
+     */
+    @Override
+    public void copy(SID from, SID to) {
+        if (batch == null) {
+            AssociativeStore.super.copy(from, to);
+            return;
+        }
+        if (!from.equals(to)) {
+            batch.copy(from, to);
+        }
+    }
+
+    /**
+     * Moves the content by changing its id rather than copying it.
+     */
+    @Override
+    public void move(SID from, SID to) {
+        if (batch == null) {
+            AssociativeStore.super.move(from, to);
+            return;
+        }
+        if (!from.equals(to)) {
+            batch.move(from, to);
+        }
+    }
+
     @Override
     public void associate(S entity, SID id) {
         BeanUtils.setFieldWithAnnotation(entity, ContentId.class, id.toString());
+        if (batch != null) {
+            BeanUtils.setFieldWithAnnotation(entity, ContentLength.class, this.getMetadata(id).getLength());
+            return;
+        }
         Resource resource = loader.getResource(id.toString());
         try {
             BeanUtils.setFieldWithAnnotation(entity, ContentLength.class, resource.contentLength());
@@ -66,6 +163,24 @@ public class DefaultJpaStoreImpl<S, SID extends Serializable> implements Store<S
         return null;
     }
 
+    @Override
+    public InputStream getContent(S metadata, long offset, long length) {
+        Object id = BeanUtils.getFieldWithAnnotation(metadata, ContentId.class);
+        if (id == null) {
+            return null;
+        }
+        Resource resource = loader.getResource(id.toString());
+        try {
+            if (resource instanceof RangeableResource) {
+                return ((RangeableResource) resource).getInputStream(offset, length);
+            }
+            return ContentStore.super.getContent(metadata, offset, length);
+        } catch (IOException e) {
+            logger.error(String.format("Unable to get input stream for resource %s", id));
+        }
+        return null;
+    }
+
 	@Override
 	public void setContent(S metadata, InputStream content) {
         Object id = BeanUtils.getFieldWithAnnotation(metadata, ContentId.class);
@@ -95,6 +210,32 @@ public class DefaultJpaStoreImpl<S, SID extends Serializable> implements Store<S
         return;
 	}
 
+    /**
+     * Stores all the content with JDBC batches in a single transaction when the database can
+     * return the ids of a batch insert, and one at a time otherwise.
+     */
+    @Override
+    public void setContents(Map<S, InputStream> contents) {
+        if (batch == null || !batch.supportsBatchInsert()) {
+            ContentStore.super.setContents(contents);
+            return;
+        }
+
+        List<S> properties = new ArrayList<>(contents.size());
+        List<Blob> blobs = new ArrayList<>(contents.size());
+        for (Map.Entry<S, InputStream> content : contents.entrySet()) {
+            properties.add(content.getKey());
+            blobs.add(new Blob(BeanUtils.getFieldWithAnnotation(content.getKey(), ContentId.class), content.getValue()));
+        }
+
+        batch.store(blobs);
+
+        for (int i = 0; i < properties.size(); i++) {
+            BeanUtils.setFieldWithAnnotation(properties.get(i), ContentId.class, blobs.get(i).getStoredId());
+            BeanUtils.setFieldWithAnnotation(properties.get(i), ContentLength.class, blobs.get(i).getLength());
+        }
+    }
+
     private void waitForCommit(BlobResource resource) {
         synchronized (resource) {
             return;
@@ -114,4 +255,72 @@ public class DefaultJpaStoreImpl<S, SID extends Serializable> implements Store<S
         BeanUtils.setFieldWithAnnotation(metadata, ContentId.class, null);
         BeanUtils.setFieldWithAnnotation(metadata, ContentLength.class, 0L);
 	}
+
+    /**
+     * Deletes all the content with a single JDBC batch.
+     */
+    @Override
+    public void unsetContents(Collection<S> metadata) {
+        if (batch == null) {
+            ContentStore.super.unsetContents(metadata);
+            return;
+        }
+
+        List<Object> ids = new ArrayList<>();
+        for (S property : metadata) {
+            if (property == null) {
+                continue;
+            }
+            Object id = BeanUtils.getFieldWithAnnotation(property, ContentId.class);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        if (!ids.isEmpty()) {
+            batch.delete(ids);
+        }
+
+        for (S property : metadata) {
+            if (property == null) {
+                continue;
+            }
+            BeanUtils.setFieldWithAnnotation(property, ContentId.class, null);
+            BeanUtils.setFieldWithAnnotation(property, ContentLength.class, 0L);
+        }
+    }
+
+    private class BlobSpliterator extends Spliterators.AbstractSpliterator<ContentMetadata> {
+
+        private final String prefix;
+
+        private Iterator<Map.Entry<Integer, Long>> page;
+        private Integer last;
+        private boolean done = false;
+
+        BlobSpliterator(String prefix) {
+            super(Long.MAX_VALUE, ORDERED | NONNULL | DISTINCT);
+            this.prefix = prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super ContentMetadata> action) {
+            while (true) {
+                if (page != null && page.hasNext()) {
+                    Map.Entry<Integer, Long> blob = page.next();
+                    last = blob.getKey();
+                    if (last.toString().startsWith(prefix)) {
+                        action.accept(new ContentMetadata(last, blob.getValue(), 0L, null));
+                        return true;
+                    }
+                    continue;
+                }
+                if (done) {
+                    return false;
+                }
+                Map<Integer, Long> next = batch.page(last, LIST_PAGE_SIZE);
+                done = next.size() < LIST_PAGE_SIZE;
+                page = next.entrySet().iterator();
+            }
+        }
+    }
 }
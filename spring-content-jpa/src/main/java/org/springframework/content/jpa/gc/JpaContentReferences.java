@@ -0,0 +1,42 @@
+package org.springframework.content.jpa.gc;
+
+import java.util.Collection;
+
+import javax.persistence.EntityManager;
+import javax.persistence.metamodel.EntityType;
+
+import org.springframework.content.commons.gc.ContentReferences;
+
+/**
+ * Finds the content ids JPA entities reference with one query of the entity's content id
+ * property per batch of content ids.
+ */
+public class JpaContentReferences implements ContentReferences {
+
+	private final EntityManager entityManager;
+
+	public JpaContentReferences(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	@Override
+	public boolean supports(Class<?> domainClass) {
+		return entityType(domainClass) != null;
+	}
+
+	@Override
+	public Collection<?> findReferenced(Class<?> domainClass, String contentIdProperty, Collection<?> contentIds) {
+		String entityName = entityType(domainClass).getName();
+		return entityManager.createQuery(String.format("select distinct e.%s from %s e where e.%s in :contentIds", contentIdProperty, entityName, contentIdProperty))
+				.setParameter("contentIds", contentIds)
+				.getResultList();
+	}
+
+	private EntityType<?> entityType(Class<?> domainClass) {
+		try {
+			return entityManager.getMetamodel().entity(domainClass);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+}
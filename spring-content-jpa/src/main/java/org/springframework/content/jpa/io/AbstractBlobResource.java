@@ -3,6 +3,7 @@ package org.springframework.content.jpa.io;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.content.commons.io.BoundedInputStream;
 import org.springframework.core.io.Resource;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -186,7 +187,22 @@ public abstract class AbstractBlobResource implements BlobResource {
 
     @Override
     public long contentLength() throws IOException {
-        return 0;
+        String sql = "SELECT content FROM BLOBS WHERE id=" + this.id;
+        return this.template.query(sql, new ResultSetExtractor<Long>() {
+            @Override
+            public Long extractData(ResultSet rs) throws SQLException, DataAccessException {
+                if (!rs.next()) {
+                    return 0L;
+                }
+                try {
+                    return rs.getBlob(1).length();
+                } catch (SQLException e) {
+                    // not a BLOB column, postgres bytea for example
+                    byte[] content = rs.getBytes(1);
+                    return (content != null ? (long) content.length : 0L);
+                }
+            }
+        });
     }
 
     @Override
@@ -230,6 +246,42 @@ public abstract class AbstractBlobResource implements BlobResource {
         return new ClosingInputStream(id, is, rs, stmt, conn, ds);
     }
 
+    @Override
+    public InputStream getInputStream(long offset, long length) throws IOException {
+        final Object id = this.id;
+        String sql = "SELECT content FROM BLOBS WHERE id=" + this.id;
+
+        DataSource ds = this.template.getDataSource();
+        Connection conn = DataSourceUtils.getConnection(ds);
+        InputStream is = null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        try {
+            stmt = conn.createStatement();
+            rs = stmt.executeQuery(sql);
+            if(!rs.next()) return null;
+            is = getBinaryStream(rs, offset, length);
+        } catch (SQLException e) {
+            logger.error(format("getting content %s", id), e);
+        }
+        return new ClosingInputStream(id, is, rs, stmt, conn, ds);
+    }
+
+    private InputStream getBinaryStream(ResultSet rs, long offset, long length) throws SQLException, IOException {
+        try {
+            Blob blob = rs.getBlob(1);
+            long available = blob.length() - offset;
+            if (available <= 0 || length <= 0) {
+                return new ByteArrayInputStream(new byte[0]);
+            }
+            return blob.getBinaryStream(offset + 1, Math.min(length, available));
+        } catch (SQLException e) {
+            // not a BLOB column, postgres bytea for example, so skip to the offset instead
+            logger.debug(format("reading content %s from offset %d without a blob", id, offset), e);
+            return BoundedInputStream.range(rs.getBinaryStream(1), offset, length);
+        }
+    }
+
     @Override
     public void delete() {
         final Object id = this.id;
@@ -260,6 +312,16 @@ public abstract class AbstractBlobResource implements BlobResource {
             return actual.read();
         }
 
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return actual.read(b, off, len);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            return actual.skip(n);
+        }
+
         @Override
         public void close() {
             try {
@@ -1,10 +1,11 @@
 package org.springframework.content.jpa.io;
 
 import org.springframework.content.commons.io.DeletableResource;
+import org.springframework.content.commons.io.RangeableResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.WritableResource;
 
-public interface BlobResource extends Resource, WritableResource, DeletableResource {
+public interface BlobResource extends Resource, WritableResource, DeletableResource, RangeableResource {
 
     Object getId();
 
@@ -12,9 +12,11 @@ import javax.sql.DataSource;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.sql.Blob;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
 
 import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.*;
@@ -39,6 +41,7 @@ public class GenericBlobResourceTest {
     private Statement statement;
     private PreparedStatement preparedStatement;
     private ResultSet rs;
+    private Blob blob;
 
     private InputStream in;
 
@@ -135,6 +138,45 @@ public class GenericBlobResourceTest {
                     });
                 });
             });
+            Context("#getInputStream with a range", () -> {
+                BeforeEach(() -> {
+                    conn = mock(Connection.class);
+                    statement = mock(Statement.class);
+                    rs = mock(ResultSet.class);
+
+                    when(ds.getConnection()).thenReturn(conn);
+                    when(conn.createStatement()).thenReturn(statement);
+                    when(statement.executeQuery(anyObject())).thenReturn(rs);
+                    when(rs.next()).thenReturn(true);
+                });
+                JustBeforeEach(() -> {
+                    resource = new GenericBlobResource(id, template, txnMgr);
+                    result = resource.getInputStream(6L, 6L);
+                });
+                Context("given the content is a blob", () -> {
+                    BeforeEach(() -> {
+                        blob = mock(Blob.class);
+                        when(rs.getBlob(1)).thenReturn(blob);
+                        when(blob.length()).thenReturn(45L);
+                        when(blob.getBinaryStream(7L, 6L)).thenReturn(new ByteArrayInputStream("Spring".getBytes()));
+                    });
+                    It("should read the range from the blob", () -> {
+                        verify(blob).getBinaryStream(7L, 6L);
+                        assertThat(IOUtils.toString((InputStream) result), is("Spring"));
+                        IOUtils.closeQuietly((InputStream) result);
+                    });
+                });
+                Context("given the content is not a blob", () -> {
+                    BeforeEach(() -> {
+                        when(rs.getBlob(1)).thenThrow(new SQLException("bad value for type long"));
+                        when(rs.getBinaryStream(1)).thenReturn(new ByteArrayInputStream("Hello Spring Content PostgreSQL BLOBby world!".getBytes()));
+                    });
+                    It("should skip to the range", () -> {
+                        assertThat(IOUtils.toString((InputStream) result), is("Spring"));
+                        IOUtils.closeQuietly((InputStream) result);
+                    });
+                });
+            });
             Context("#getOutputStream", () -> {
                 BeforeEach(() -> {
                     conn = mock(Connection.class);
@@ -0,0 +1,57 @@
+package internal.org.springframework.content.jpa.repository;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+import internal.org.springframework.content.jpa.io.BlobBatchOperations;
+import org.junit.runner.RunWith;
+import org.springframework.content.commons.repository.ContentMetadata;
+import org.springframework.content.jpa.io.BlobResourceLoader;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.*;
+
+@RunWith(Ginkgo4jRunner.class)
+public class DefaultJpaStoreImplListTest {
+
+    private DefaultJpaStoreImpl<Object,Integer> store;
+
+    private BlobResourceLoader blobResourceLoader;
+    private BlobBatchOperations batch;
+
+    {
+        Describe("DefaultJpaStoreImpl", () -> {
+            JustBeforeEach(() -> {
+                store = new DefaultJpaStoreImpl<>(blobResourceLoader, batch);
+            });
+            Context("#list", () -> {
+                BeforeEach(() -> {
+                    blobResourceLoader = mock(BlobResourceLoader.class);
+                    batch = mock(BlobBatchOperations.class);
+                    Map<Integer, Long> first = new LinkedHashMap<>();
+                    for (int i = 1; i <= DefaultJpaStoreImpl.LIST_PAGE_SIZE; i++) {
+                        first.put(i, 10L);
+                    }
+                    when(batch.page(null, DefaultJpaStoreImpl.LIST_PAGE_SIZE)).thenReturn(first);
+                    when(batch.page(DefaultJpaStoreImpl.LIST_PAGE_SIZE, DefaultJpaStoreImpl.LIST_PAGE_SIZE)).thenReturn(Collections.singletonMap(1001, 20L));
+                });
+                It("should read the blobs a page at a time", () -> {
+                    assertThat(store.list(null).count(), is(1001L));
+                    verify(batch, times(2)).page(anyObject(), anyInt());
+                });
+                It("should list the blobs whose id starts with the prefix", () -> {
+                    assertThat(store.list("100").map(ContentMetadata::getContentId).collect(Collectors.toList()), is(Arrays.<Serializable>asList(100, 1000, 1001)));
+                });
+            });
+        });
+    }
+}
@@ -1,12 +1,15 @@
 package internal.org.springframework.content.jpa.store;
 
 import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+import internal.org.springframework.content.jpa.io.BlobBatchOperations;
 import internal.org.springframework.content.jpa.io.GenericBlobResource;
 import internal.org.springframework.content.jpa.repository.DefaultJpaStoreImpl;
 import org.hamcrest.CoreMatchers;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.springframework.content.commons.annotations.ContentId;
 import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.repository.ContentMetadata;
 import org.springframework.content.jpa.io.BlobResource;
 import org.springframework.content.jpa.io.BlobResourceLoader;
 import org.springframework.core.io.Resource;
@@ -15,6 +18,11 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.*;
@@ -35,6 +43,9 @@ public class DefaultJpaStoreImplTest {
     private BlobResourceLoader blobResourceLoader;
 
     private TestEntity entity;
+    private TestEntity otherEntity;
+    private Map<Object, InputStream> contents;
+    private BlobBatchOperations batch;
     private InputStream stream;
     private InputStream inputStream;
     private OutputStream outputStream;
@@ -44,8 +55,11 @@ public class DefaultJpaStoreImplTest {
 
     {
         Describe("DefaultJpaStoreImpl", () -> {
+            BeforeEach(() -> {
+                    batch = null;
+            });
             JustBeforeEach(() -> {
-                    store = new DefaultJpaStoreImpl(blobResourceLoader);
+                    store = new DefaultJpaStoreImpl(blobResourceLoader, batch);
             });
 
             Describe("Store", () -> {
@@ -160,6 +174,103 @@ public class DefaultJpaStoreImplTest {
                     });
                 });
             });
+            Context("#setContents", () -> {
+                BeforeEach(() -> {
+                    blobResourceLoader = mock(BlobResourceLoader.class);
+                    batch = mock(BlobBatchOperations.class);
+
+                    entity = new TestEntity(12345);
+                    contents = new LinkedHashMap<>();
+                    contents.put(entity, new ByteArrayInputStream("hello".getBytes()));
+                    contents.put(new TestEntity(), new ByteArrayInputStream("world".getBytes()));
+                });
+                JustBeforeEach(() -> {
+                    store.setContents(contents);
+                });
+                Context("when the database supports batch inserts", () -> {
+                    BeforeEach(() -> {
+                        when(batch.supportsBatchInsert()).thenReturn(true);
+                    });
+                    It("should store all the content in one batch", () -> {
+                        ArgumentCaptor<List> blobs = ArgumentCaptor.forClass(List.class);
+                        verify(batch).store(blobs.capture());
+                        assertThat(blobs.getValue().size(), is(2));
+                        verify(blobResourceLoader, never()).getResource(anyObject());
+                    });
+                });
+                Context("when the database does not support batch inserts", () -> {
+                    BeforeEach(() -> {
+                        when(batch.supportsBatchInsert()).thenReturn(false);
+
+                        resource = mock(BlobResource.class);
+                        when(blobResourceLoader.getResource(anyObject())).thenReturn((BlobResource) resource);
+                        when(((BlobResource) resource).getOutputStream()).thenReturn(mock(OutputStream.class));
+                        when(((BlobResource) resource).getId()).thenReturn(12345);
+                    });
+                    It("should store each content in turn", () -> {
+                        verify(batch, never()).store(anyObject());
+                        verify(blobResourceLoader).getResource("12345");
+                        verify(blobResourceLoader).getResource("-1");
+                    });
+                });
+            });
+            Context("#unsetContents", () -> {
+                BeforeEach(() -> {
+                    blobResourceLoader = mock(BlobResourceLoader.class);
+                    batch = mock(BlobBatchOperations.class);
+
+                    entity = new TestEntity(12345);
+                    entity.setContentLen(20L);
+                    otherEntity = new TestEntity(67890);
+                });
+                JustBeforeEach(() -> {
+                    store.unsetContents(Arrays.asList(entity, otherEntity, null));
+                });
+                It("should delete all the content in one batch", () -> {
+                    verify(batch).delete(Arrays.<Object>asList(12345, 67890));
+                    verify(blobResourceLoader, never()).getResource(anyObject());
+                });
+                It("should reset the content fields", () -> {
+                    assertThat(entity.getContentId(), is(nullValue()));
+                    assertThat(entity.getContentLen(), is(0L));
+                    assertThat(otherEntity.getContentId(), is(nullValue()));
+                });
+            });
+            Context("#copy and #move", () -> {
+                BeforeEach(() -> {
+                    blobResourceLoader = mock(BlobResourceLoader.class);
+                    batch = mock(BlobBatchOperations.class);
+                });
+                It("should copy the content within the database", () -> {
+                    store.copy(12345, 67890);
+                    verify(batch).copy(12345, 67890);
+                    verify(blobResourceLoader, never()).getResource(anyObject());
+                });
+                It("should move the content within the database", () -> {
+                    store.move(12345, 67890);
+                    verify(batch).move(12345, 67890);
+                    verify(blobResourceLoader, never()).getResource(anyObject());
+                });
+            });
+            Context("#getMetadata", () -> {
+                BeforeEach(() -> {
+                    blobResourceLoader = mock(BlobResourceLoader.class);
+                    batch = mock(BlobBatchOperations.class);
+                    when(batch.lengths(anyObject())).thenReturn(Collections.singletonMap(12345, 20L));
+                });
+                It("should read the lengths without reading the content", () -> {
+                    Map<Integer, ContentMetadata> metadata = store.getMetadata(Arrays.asList(12345, 67890));
+                    assertThat(metadata.get(12345).exists(), is(true));
+                    assertThat(metadata.get(12345).getLength(), is(20L));
+                    assertThat(metadata.get(67890).exists(), is(false));
+                    verify(blobResourceLoader, never()).getResource(anyObject());
+                });
+                It("should set the entity's content length attribute when associated", () -> {
+                    entity = new TestEntity();
+                    store.associate(entity, 12345);
+                    assertThat(entity.getContentLen(), is(20L));
+                });
+            });
         });
     }
 
@@ -0,0 +1,33 @@
+package internal.org.springframework.content.memory.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.content.memory.io.EvictionPolicy;
+import org.springframework.content.memory.io.InMemoryResourceLoader;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+@Configuration
+public class InMemoryStoreConfiguration {
+
+	@Value("${spring.content.memory.capacity:" + InMemoryResourceLoader.DEFAULT_CAPACITY + "}")
+	private long capacity;
+
+	@Value("${spring.content.memory.segment-size:" + InMemoryResourceLoader.DEFAULT_SEGMENT_SIZE + "}")
+	private int segmentSize;
+
+	@Value("${spring.content.memory.eviction-policy:NONE}")
+	private EvictionPolicy evictionPolicy;
+
+	@Bean ConversionService inMemoryStoreConverter() {
+		return new DefaultConversionService();
+	}
+
+	/*
+	 * Replaced by an application's own bean of the same name.
+	 */
+	@Bean InMemoryResourceLoader inMemoryResourceLoader() {
+		return new InMemoryResourceLoader(capacity, segmentSize, evictionPolicy);
+	}
+}
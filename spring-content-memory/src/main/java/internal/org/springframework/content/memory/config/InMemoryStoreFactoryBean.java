@@ -0,0 +1,33 @@
+package internal.org.springframework.content.memory.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.content.commons.repository.factory.AbstractStoreFactoryBean;
+import org.springframework.content.memory.io.InMemoryResourceLoader;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.util.Assert;
+
+import internal.org.springframework.content.memory.store.DefaultInMemoryStoreImpl;
+
+@SuppressWarnings("rawtypes")
+public class InMemoryStoreFactoryBean extends AbstractStoreFactoryBean {
+
+	@Autowired
+	InMemoryResourceLoader loader;
+
+	@Autowired
+	ConversionService inMemoryStoreConverter;
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		super.afterPropertiesSet();
+
+		Assert.notNull(loader, "resource loader cannot be null");
+		Assert.notNull(inMemoryStoreConverter, "inMemoryStoreConverter cannot be null");
+	}
+
+	@Override
+	protected Object getContentStoreImpl() {
+		return new DefaultInMemoryStoreImpl(loader, inMemoryStoreConverter);
+	}
+
+}
@@ -0,0 +1,15 @@
+package internal.org.springframework.content.memory.config;
+
+import java.lang.annotation.Annotation;
+
+import org.springframework.content.commons.config.AbstractStoreBeanDefinitionRegistrar;
+import org.springframework.content.memory.config.EnableInMemoryStores;
+
+public class InMemoryStoreRegistrar extends AbstractStoreBeanDefinitionRegistrar {
+
+	@Override
+	protected Class<? extends Annotation> getAnnotation() {
+		return EnableInMemoryStores.class;
+	}
+
+}
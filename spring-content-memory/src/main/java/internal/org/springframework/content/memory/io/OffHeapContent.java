@@ -0,0 +1,180 @@
+package internal.org.springframework.content.memory.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Content held in a list of pool segments.
+ * <p>
+ * The content is reference counted; the storage holds one reference and each open stream
+ * another, so segments of content that is replaced, deleted or evicted while it is being read
+ * are only returned to the pool once the last stream is closed.
+ */
+public class OffHeapContent {
+
+	private final SegmentPool pool;
+	private final List<ByteBuffer> segments;
+	private final long length;
+	private final long lastModified;
+
+	private final AtomicInteger refs = new AtomicInteger(1);
+
+	public OffHeapContent(SegmentPool pool, List<ByteBuffer> segments, long length) {
+		this.pool = pool;
+		this.segments = segments;
+		this.length = length;
+		this.lastModified = System.currentTimeMillis();
+	}
+
+	public long getLength() {
+		return length;
+	}
+
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * Adds a reference to this content, unless its segments have already been released.
+	 *
+	 * @return true if a reference was added
+	 */
+	public boolean retain() {
+		int current;
+		do {
+			current = refs.get();
+			if (current == 0) {
+				return false;
+			}
+		} while (!refs.compareAndSet(current, current + 1));
+		return true;
+	}
+
+	/**
+	 * Removes a reference to this content, returning its segments to the pool when it was the last.
+	 */
+	public void release() {
+		if (refs.decrementAndGet() == 0) {
+			pool.release(segments);
+		}
+	}
+
+	/**
+	 * Returns a stream of at most length bytes starting at offset.  The caller must have retained
+	 * this content; the reference is released when the stream is closed.
+	 *
+	 * @param offset the offset of the first byte
+	 * @param length the maximum number of bytes
+	 * @return the stream
+	 */
+	public InputStream getInputStream(long offset, long length) {
+		long start = Math.min(Math.max(offset, 0L), this.length);
+		long end = (length > this.length - start ? this.length : start + length);
+		return new SegmentInputStream(start, end);
+	}
+
+	/*
+	 * Reads straight out of the segments into the caller's buffer, with no intermediate heap copy,
+	 * and skips by moving the position rather than reading.
+	 */
+	private class SegmentInputStream extends InputStream {
+
+		private final int segmentSize = pool.getSegmentSize();
+		private final long end;
+
+		private long position;
+		private long mark;
+		private boolean closed = false;
+
+		SegmentInputStream(long start, long end) {
+			this.position = start;
+			this.mark = start;
+			this.end = end;
+		}
+
+		@Override
+		public int read() throws IOException {
+			ensureOpen();
+			if (position >= end) {
+				return -1;
+			}
+			ByteBuffer segment = segments.get((int) (position / segmentSize));
+			int b = segment.get((int) (position % segmentSize)) & 0xff;
+			position++;
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			ensureOpen();
+			if (len == 0) {
+				return 0;
+			}
+			if (position >= end) {
+				return -1;
+			}
+			int read = 0;
+			while (read < len && position < end) {
+				int index = (int) (position / segmentSize);
+				int from = (int) (position % segmentSize);
+				int count = (int) Math.min(Math.min(len - read, segmentSize - from), end - position);
+				ByteBuffer segment = segments.get(index).duplicate();
+				segment.position(from);
+				segment.get(b, off + read, count);
+				read += count;
+				position += count;
+			}
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			ensureOpen();
+			if (n <= 0) {
+				return 0;
+			}
+			long skipped = Math.min(n, end - position);
+			position += skipped;
+			return skipped;
+		}
+
+		@Override
+		public int available() throws IOException {
+			ensureOpen();
+			return (int) Math.min(Integer.MAX_VALUE, end - position);
+		}
+
+		@Override
+		public boolean markSupported() {
+			return true;
+		}
+
+		@Override
+		public synchronized void mark(int readlimit) {
+			mark = position;
+		}
+
+		@Override
+		public synchronized void reset() throws IOException {
+			ensureOpen();
+			position = mark;
+		}
+
+		@Override
+		public void close() {
+			if (!closed) {
+				closed = true;
+				release();
+			}
+		}
+
+		private void ensureOpen() throws IOException {
+			if (closed) {
+				throw new IOException("Stream closed");
+			}
+		}
+	}
+}
@@ -0,0 +1,218 @@
+package internal.org.springframework.content.memory.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.content.memory.io.EvictionPolicy;
+
+/**
+ * Maps locations to content held off-heap in a {@link SegmentPool}.
+ * <p>
+ * Content is written into segments taken from the pool and only becomes visible, replacing any
+ * previous content at the same location, when the writing stream is closed.  When the pool is
+ * exhausted a write either fails or, under {@link EvictionPolicy#LRU}, discards the least
+ * recently read or written content until a segment is free.
+ */
+public class OffHeapContentStorage {
+
+	private static Log logger = LogFactory.getLog(OffHeapContentStorage.class);
+
+	private final SegmentPool pool;
+	private final EvictionPolicy evictionPolicy;
+
+	// iteration starts at the least recently used content
+	private final Map<String, OffHeapContent> contents = new LinkedHashMap<>();
+
+	private final AtomicLong evictions = new AtomicLong();
+
+	public OffHeapContentStorage(long capacity, int segmentSize, EvictionPolicy evictionPolicy) {
+		this.pool = new SegmentPool(capacity, segmentSize);
+		this.evictionPolicy = evictionPolicy;
+	}
+
+	/**
+	 * Returns the content at the given location, retained for the caller, or null.
+	 *
+	 * @param location the location
+	 * @return the retained content or null
+	 */
+	public synchronized OffHeapContent open(String location) {
+		OffHeapContent content = contents.remove(location);
+		if (content == null) {
+			return null;
+		}
+		contents.put(location, content);
+		return (content.retain() ? content : null);
+	}
+
+	/**
+	 * Returns the content at the given location, without retaining it or counting it as a use,
+	 * or null.
+	 *
+	 * @param location the location
+	 * @return the content or null
+	 */
+	public synchronized OffHeapContent peek(String location) {
+		return contents.get(location);
+	}
+
+	public synchronized boolean exists(String location) {
+		return contents.containsKey(location);
+	}
+
+	/**
+	 * Returns a stream that replaces the content at the given location when it is closed.
+	 *
+	 * @param location the location
+	 * @return the stream
+	 */
+	public OutputStream getOutputStream(String location) {
+		return new SegmentOutputStream(location);
+	}
+
+	/**
+	 * Removes the content at the given location.
+	 *
+	 * @param location the location
+	 * @return true if there was content to remove
+	 */
+	public boolean remove(String location) {
+		OffHeapContent removed;
+		synchronized (this) {
+			removed = contents.remove(location);
+		}
+		if (removed != null) {
+			removed.release();
+		}
+		return removed != null;
+	}
+
+	public long getCapacity() {
+		return pool.getCapacity();
+	}
+
+	public long getUsed() {
+		return pool.getUsed();
+	}
+
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	public synchronized int getCount() {
+		return contents.size();
+	}
+
+	private ByteBuffer allocate(String location) throws IOException {
+		ByteBuffer segment = pool.acquire();
+		if (segment != null || evictionPolicy != EvictionPolicy.LRU) {
+			if (segment == null) {
+				throw new IOException(String.format("Insufficient capacity to store content %s", location));
+			}
+			return segment;
+		}
+
+		// evicted content may still be being read, in which case its segments only come back
+		// when the last reader closes, so keep evicting until a segment is actually free
+		while (segment == null) {
+			OffHeapContent evicted;
+			String evictedLocation;
+			synchronized (this) {
+				Iterator<Map.Entry<String, OffHeapContent>> eldest = contents.entrySet().iterator();
+				if (!eldest.hasNext()) {
+					break;
+				}
+				Map.Entry<String, OffHeapContent> entry = eldest.next();
+				evictedLocation = entry.getKey();
+				evicted = entry.getValue();
+				eldest.remove();
+			}
+			evictions.incrementAndGet();
+			logger.debug(String.format("Evicting content %s", evictedLocation));
+			evicted.release();
+			segment = pool.acquire();
+		}
+		if (segment == null) {
+			throw new IOException(String.format("Insufficient capacity to store content %s", location));
+		}
+		return segment;
+	}
+
+	private void commit(String location, List<ByteBuffer> segments, long length) {
+		OffHeapContent replaced;
+		synchronized (this) {
+			replaced = contents.put(location, new OffHeapContent(pool, segments, length));
+		}
+		if (replaced != null) {
+			replaced.release();
+		}
+	}
+
+	private class SegmentOutputStream extends OutputStream {
+
+		private final String location;
+		private final List<ByteBuffer> segments = new ArrayList<>();
+
+		private ByteBuffer current;
+		private long length = 0L;
+		private boolean closed = false;
+
+		SegmentOutputStream(String location) {
+			this.location = location;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			ensureSegment();
+			current.put((byte) b);
+			length++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			while (len > 0) {
+				ensureSegment();
+				int count = Math.min(len, current.remaining());
+				current.put(b, off, count);
+				off += count;
+				len -= count;
+				length += count;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!closed) {
+				closed = true;
+				commit(location, segments, length);
+			}
+		}
+
+		private void ensureSegment() throws IOException {
+			if (closed) {
+				throw new IOException("Stream closed");
+			}
+			if (current == null || !current.hasRemaining()) {
+				try {
+					current = allocate(location);
+				} catch (IOException ioe) {
+					// abandon the write, giving back what it has taken so far
+					closed = true;
+					pool.release(segments);
+					segments.clear();
+					throw ioe;
+				}
+				segments.add(current);
+			}
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package internal.org.springframework.content.memory.io;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+
+import org.springframework.util.Assert;
+
+/**
+ * A bounded pool of fixed-size, direct (off-heap) byte buffers.
+ * <p>
+ * Segments are allocated lazily, up to the capacity, and released segments are reused rather
+ * than returned to the JVM; direct buffers are only freed by the garbage collector so
+ * re-allocating them for every write would leave the off-heap footprint at the mercy of GC.
+ */
+public class SegmentPool {
+
+	private final int segmentSize;
+	private final int maxSegments;
+
+	private final Deque<ByteBuffer> free = new ArrayDeque<>();
+	private int allocated = 0;
+
+	public SegmentPool(long capacity, int segmentSize) {
+		Assert.isTrue(segmentSize > 0, "segmentSize must be greater than 0");
+		Assert.isTrue(capacity >= segmentSize, "capacity must be at least one segment");
+		this.segmentSize = segmentSize;
+		this.maxSegments = (int) Math.min(Integer.MAX_VALUE, capacity / segmentSize);
+	}
+
+	/**
+	 * Returns a cleared segment, or null if the pool is at capacity and no segment is free.
+	 *
+	 * @return the segment or null
+	 */
+	public synchronized ByteBuffer acquire() {
+		ByteBuffer segment = free.poll();
+		if (segment == null) {
+			if (allocated == maxSegments) {
+				return null;
+			}
+			segment = ByteBuffer.allocateDirect(segmentSize);
+			allocated++;
+		}
+		segment.clear();
+		return segment;
+	}
+
+	/**
+	 * Returns the given segments to the pool.
+	 *
+	 * @param segments the segments
+	 */
+	public synchronized void release(Collection<ByteBuffer> segments) {
+		free.addAll(segments);
+	}
+
+	public int getSegmentSize() {
+		return segmentSize;
+	}
+
+	public long getCapacity() {
+		return (long) maxSegments * segmentSize;
+	}
+
+	/**
+	 * Returns the number of bytes held in segments that are in use.
+	 *
+	 * @return the used bytes
+	 */
+	public synchronized long getUsed() {
+		return (long) (allocated - free.size()) * segmentSize;
+	}
+}
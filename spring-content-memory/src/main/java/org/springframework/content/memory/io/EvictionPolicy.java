@@ -0,0 +1,17 @@
+package org.springframework.content.memory.io;
+
+/**
+ * What an in-memory store does when content is written and its capacity is exhausted.
+ */
+public enum EvictionPolicy {
+
+	/**
+	 * The write fails; content is never discarded.
+	 */
+	NONE,
+
+	/**
+	 * The least recently used content is discarded until the write fits.
+	 */
+	LRU
+}
@@ -0,0 +1,106 @@
+package org.springframework.content.memory.io;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.springframework.content.commons.io.DeletableResource;
+import org.springframework.content.commons.io.RangeableResource;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.WritableResource;
+import org.springframework.util.StringUtils;
+
+import internal.org.springframework.content.memory.io.OffHeapContent;
+import internal.org.springframework.content.memory.io.OffHeapContentStorage;
+
+/**
+ * A resource whose content is held off-heap by an {@link InMemoryResourceLoader}.
+ * <p>
+ * Content written through {@link #getOutputStream()} becomes visible when the stream is closed.
+ * Streams read the off-heap segments directly and keep the content they were opened on, even if
+ * it is replaced or deleted before they are closed.
+ */
+public class InMemoryResource extends AbstractResource implements WritableResource, DeletableResource, RangeableResource {
+
+	private final OffHeapContentStorage storage;
+	private final String location;
+
+	InMemoryResource(OffHeapContentStorage storage, String location) {
+		this.storage = storage;
+		this.location = location;
+	}
+
+	@Override
+	public boolean exists() {
+		return storage.exists(location);
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		return getInputStream(0L, Long.MAX_VALUE);
+	}
+
+	@Override
+	public InputStream getInputStream(long offset, long length) throws IOException {
+		OffHeapContent content = storage.open(location);
+		if (content == null) {
+			throw new FileNotFoundException(String.format("%s does not exist", getDescription()));
+		}
+		return content.getInputStream(offset, length);
+	}
+
+	@Override
+	public boolean isWritable() {
+		return true;
+	}
+
+	@Override
+	public OutputStream getOutputStream() throws IOException {
+		return storage.getOutputStream(location);
+	}
+
+	@Override
+	public void delete() {
+		storage.remove(location);
+	}
+
+	@Override
+	public long contentLength() throws IOException {
+		return peek().getLength();
+	}
+
+	@Override
+	public long lastModified() throws IOException {
+		return peek().getLastModified();
+	}
+
+	@Override
+	public String getFilename() {
+		return StringUtils.getFilename(location);
+	}
+
+	@Override
+	public String getDescription() {
+		return String.format("in-memory resource [%s]", location);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return (obj == this || (obj instanceof InMemoryResource &&
+				((InMemoryResource) obj).storage == storage && ((InMemoryResource) obj).location.equals(location)));
+	}
+
+	@Override
+	public int hashCode() {
+		return location.hashCode();
+	}
+
+	private OffHeapContent peek() throws FileNotFoundException {
+		OffHeapContent content = storage.peek(location);
+		if (content == null) {
+			throw new FileNotFoundException(String.format("%s does not exist", getDescription()));
+		}
+		return content;
+	}
+}
@@ -0,0 +1,67 @@
+package org.springframework.content.memory.io;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import internal.org.springframework.content.memory.io.OffHeapContentStorage;
+
+/**
+ * Loads {@link InMemoryResource}s whose content is held off the Java heap, in a fixed capacity
+ * of direct byte buffer segments shared by every resource from this loader.
+ */
+public class InMemoryResourceLoader implements ResourceLoader {
+
+	public static final long DEFAULT_CAPACITY = 64L * 1024L * 1024L;
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024;
+
+	private final OffHeapContentStorage storage;
+
+	public InMemoryResourceLoader() {
+		this(DEFAULT_CAPACITY, DEFAULT_SEGMENT_SIZE, EvictionPolicy.NONE);
+	}
+
+	/**
+	 * @param capacity the maximum number of bytes of content held
+	 * @param segmentSize the size of each off-heap segment; content occupies whole segments
+	 * @param evictionPolicy what to do when a write exceeds the capacity
+	 */
+	public InMemoryResourceLoader(long capacity, int segmentSize, EvictionPolicy evictionPolicy) {
+		Assert.notNull(evictionPolicy, "evictionPolicy must not be null");
+		this.storage = new OffHeapContentStorage(capacity, segmentSize, evictionPolicy);
+	}
+
+	@Override
+	public Resource getResource(String location) {
+		Assert.notNull(location, "location must not be null");
+		return new InMemoryResource(storage, location);
+	}
+
+	@Override
+	public ClassLoader getClassLoader() {
+		return ClassUtils.getDefaultClassLoader();
+	}
+
+	public long getCapacity() {
+		return storage.getCapacity();
+	}
+
+	/**
+	 * Returns the number of bytes of capacity in use.
+	 *
+	 * @return the used bytes
+	 */
+	public long getUsed() {
+		return storage.getUsed();
+	}
+
+	/**
+	 * Returns the number of contents evicted to make room for writes.
+	 *
+	 * @return the evictions
+	 */
+	public long getEvictions() {
+		return storage.getEvictions();
+	}
+}
@@ -0,0 +1,150 @@
+package internal.org.springframework.content.memory.config;
+
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.content.commons.annotations.Content;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.memory.config.EnableInMemoryStores;
+import org.springframework.content.memory.io.EvictionPolicy;
+import org.springframework.content.memory.io.InMemoryResourceLoader;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.AfterEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.BeforeEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Context;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Describe;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.It;
+
+@RunWith(Ginkgo4jRunner.class)
+@Ginkgo4jConfiguration(threads=1)
+public class EnableInMemoryStoresTest {
+
+	private AnnotationConfigApplicationContext context;
+
+	{
+		Describe("EnableInMemoryStores", () -> {
+
+			Context("given a context and a configuration with an in-memory content store bean", () -> {
+				BeforeEach(() -> {
+					context = new AnnotationConfigApplicationContext();
+					context.register(TestConfig.class);
+					context.refresh();
+				});
+				AfterEach(() -> {
+					context.close();
+				});
+				It("should have a ContentStore bean", () -> {
+					assertThat(context.getBean(TestEntityContentStore.class), is(not(nullValue())));
+				});
+				It("should have an in-memory conversion service bean", () -> {
+					assertThat(context.getBean("inMemoryStoreConverter"), is(not(nullValue())));
+				});
+				It("should have an InMemoryResourceLoader bean with the default capacity", () -> {
+					InMemoryResourceLoader loader = context.getBean(InMemoryResourceLoader.class);
+					assertThat(loader.getCapacity(), is(InMemoryResourceLoader.DEFAULT_CAPACITY));
+				});
+			});
+
+			Context("given a context with capacity properties", () -> {
+				BeforeEach(() -> {
+					context = new AnnotationConfigApplicationContext();
+					context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test",
+							Collections.singletonMap("spring.content.memory.capacity", (Object) "1048576")));
+					context.register(TestConfig.class);
+					context.refresh();
+				});
+				AfterEach(() -> {
+					context.close();
+				});
+				It("should configure the InMemoryResourceLoader from them", () -> {
+					InMemoryResourceLoader loader = context.getBean(InMemoryResourceLoader.class);
+					assertThat(loader.getCapacity(), is(1048576L));
+				});
+			});
+
+			Context("given a context with its own InMemoryResourceLoader", () -> {
+				BeforeEach(() -> {
+					context = new AnnotationConfigApplicationContext();
+					context.register(LoaderConfig.class);
+					context.refresh();
+				});
+				AfterEach(() -> {
+					context.close();
+				});
+				It("should use it", () -> {
+					InMemoryResourceLoader loader = context.getBean(InMemoryResourceLoader.class);
+					assertThat(loader.getCapacity(), is(4096L));
+				});
+			});
+
+			Context("given a context with an empty configuration", () -> {
+				BeforeEach(() -> {
+					context = new AnnotationConfigApplicationContext();
+					context.register(EmptyConfig.class);
+					context.refresh();
+				});
+				AfterEach(() -> {
+					context.close();
+				});
+				It("should not contain any in-memory store beans", () -> {
+					try {
+						context.getBean(TestEntityContentStore.class);
+						fail("expected no such bean");
+					} catch (NoSuchBeanDefinitionException e) {
+						assertThat(true, is(true));
+					}
+				});
+			});
+		});
+	}
+
+	@Test
+	public void noop() {
+	}
+
+	@Configuration
+	@EnableInMemoryStores(basePackages="contains.no.memory.stores")
+	public static class EmptyConfig {
+	}
+
+	@Configuration
+	@EnableInMemoryStores
+	public static class TestConfig {
+	}
+
+	@Configuration
+	@EnableInMemoryStores
+	public static class LoaderConfig {
+
+		@Bean
+		InMemoryResourceLoader inMemoryResourceLoader() {
+			return new InMemoryResourceLoader(4096L, 1024, EvictionPolicy.LRU);
+		}
+	}
+
+	@Content
+	public class TestEntity {
+		@ContentId
+		private String contentId;
+	}
+
+	public interface TestEntityContentStore extends ContentStore<TestEntity, String> {
+	}
+}
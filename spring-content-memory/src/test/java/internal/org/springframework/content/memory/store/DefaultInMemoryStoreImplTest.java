@@ -0,0 +1,168 @@
+package internal.org.springframework.content.memory.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.runner.RunWith;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.repository.StoreAccessException;
+import org.springframework.content.memory.io.EvictionPolicy;
+import org.springframework.content.memory.io.InMemoryResourceLoader;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.WritableResource;
+import org.springframework.util.StreamUtils;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.*;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@RunWith(Ginkgo4jRunner.class)
+@Ginkgo4jConfiguration(threads=1)
+public class DefaultInMemoryStoreImplTest {
+
+	private DefaultInMemoryStoreImpl<ContentProperty, String> store;
+	private InMemoryResourceLoader loader;
+
+	private ContentProperty entity;
+	private Exception e;
+
+	{
+		Describe("DefaultInMemoryStoreImpl", () -> {
+			BeforeEach(() -> {
+				loader = new InMemoryResourceLoader(4096L, 1024, EvictionPolicy.NONE);
+				store = new DefaultInMemoryStoreImpl<>(loader, new DefaultConversionService());
+				entity = new ContentProperty();
+			});
+			Context("#setContent", () -> {
+				JustBeforeEach(() -> {
+					store.setContent(entity, new ByteArrayInputStream("Hello content world!".getBytes(StandardCharsets.UTF_8)));
+				});
+				It("should set the content id and length", () -> {
+					assertThat(entity.getContentId(), is(not(nullValue())));
+					assertThat(entity.getContentLen(), is(20L));
+				});
+				It("should store the content off-heap", () -> {
+					assertThat(loader.getUsed(), is(1024L));
+					assertThat(StreamUtils.copyToString(store.getContent(entity), StandardCharsets.UTF_8), is("Hello content world!"));
+				});
+				Context("given the entity already has content", () -> {
+					BeforeEach(() -> {
+						entity.setContentId("abcd");
+						store.setContent(entity, new ByteArrayInputStream("Old content".getBytes(StandardCharsets.UTF_8)));
+					});
+					It("should replace it", () -> {
+						assertThat(entity.getContentId(), is("abcd"));
+						assertThat(StreamUtils.copyToString(store.getContent(entity), StandardCharsets.UTF_8), is("Hello content world!"));
+						assertThat(loader.getUsed(), is(1024L));
+					});
+				});
+			});
+			Context("#setContent with content larger than the capacity", () -> {
+				BeforeEach(() -> {
+					try {
+						store.setContent(entity, new ByteArrayInputStream(new byte[4097]));
+					} catch (Exception e) {
+						this.e = e;
+					}
+				});
+				It("should throw a StoreAccessException and keep no content", () -> {
+					assertThat(e, is(instanceOf(StoreAccessException.class)));
+					assertThat(loader.getUsed(), is(0L));
+					assertThat(loader.getResource(entity.getContentId()).exists(), is(false));
+				});
+			});
+			Context("#getContent", () -> {
+				It("should return null when there is no content", () -> {
+					assertThat(store.getContent(entity), is(nullValue()));
+					entity.setContentId("missing");
+					assertThat(store.getContent(entity), is(nullValue()));
+				});
+				Context("given content spanning several segments", () -> {
+					BeforeEach(() -> {
+						byte[] content = new byte[3000];
+						for (int i = 0; i < content.length; i++) {
+							content[i] = (byte) i;
+						}
+						store.setContent(entity, new ByteArrayInputStream(content));
+					});
+					It("should return a range of it", () -> {
+						InputStream range = store.getContent(entity, 1000L, 100L);
+						byte[] bytes = StreamUtils.copyToByteArray(range);
+						assertThat(bytes.length, is(100));
+						for (int i = 0; i < bytes.length; i++) {
+							assertThat(bytes[i], is((byte) (1000 + i)));
+						}
+					});
+					It("should return an empty range past the end of it", () -> {
+						assertThat(StreamUtils.copyToByteArray(store.getContent(entity, 5000L, 100L)).length, is(0));
+					});
+				});
+			});
+			Context("#unsetContent", () -> {
+				BeforeEach(() -> {
+					store.setContent(entity, new ByteArrayInputStream("Hello content world!".getBytes(StandardCharsets.UTF_8)));
+				});
+				It("should delete the content and reset the content fields", () -> {
+					String id = entity.getContentId();
+					store.unsetContent(entity);
+					assertThat(entity.getContentId(), is(nullValue()));
+					assertThat(entity.getContentLen(), is(0L));
+					assertThat(loader.getResource(id).exists(), is(false));
+					assertThat(loader.getUsed(), is(0L));
+				});
+			});
+			Context("#getResource", () -> {
+				It("should return a resource for the id", () -> {
+					store.setContent(entity, new ByteArrayInputStream("Hello content world!".getBytes(StandardCharsets.UTF_8)));
+					Resource resource = store.getResource(entity.getContentId());
+					assertThat(resource.exists(), is(true));
+					assertThat(resource.contentLength(), is(20L));
+				});
+			});
+			Context("#associate", () -> {
+				It("should set the content id and length", () -> {
+					try (OutputStream os = ((WritableResource)store.getResource("12345")).getOutputStream()) {
+						os.write("Hello".getBytes(StandardCharsets.UTF_8));
+					}
+					store.associate(entity, "12345");
+					assertThat(entity.getContentId(), is("12345"));
+					assertThat(entity.getContentLen(), is(5L));
+				});
+			});
+		});
+	}
+
+	public static class ContentProperty {
+		@ContentId
+		private String contentId;
+
+		@ContentLength
+		private long contentLen;
+
+		public String getContentId() {
+			return contentId;
+		}
+
+		public void setContentId(String contentId) {
+			this.contentId = contentId;
+		}
+
+		public long getContentLen() {
+			return contentLen;
+		}
+
+		public void setContentLen(long contentLen) {
+			this.contentLen = contentLen;
+		}
+	}
+}
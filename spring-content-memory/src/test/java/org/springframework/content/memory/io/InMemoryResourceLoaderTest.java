@@ -0,0 +1,113 @@
+package org.springframework.content.memory.io;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.junit.runner.RunWith;
+import org.springframework.content.commons.io.RangeableResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.WritableResource;
+import org.springframework.util.StreamUtils;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.*;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@RunWith(Ginkgo4jRunner.class)
+@Ginkgo4jConfiguration(threads=1)
+public class InMemoryResourceLoaderTest {
+
+	private InMemoryResourceLoader loader;
+	private Exception e;
+
+	{
+		Describe("InMemoryResourceLoader", () -> {
+			Context("given a loader with no eviction", () -> {
+				BeforeEach(() -> {
+					loader = new InMemoryResourceLoader(2048L, 1024, EvictionPolicy.NONE);
+					e = null;
+				});
+				It("should only make content visible once its stream is closed", () -> {
+					Resource resource = loader.getResource("/some/thing");
+					OutputStream os = ((WritableResource)resource).getOutputStream();
+					os.write(new byte[10]);
+					assertThat(resource.exists(), is(false));
+					os.close();
+					assertThat(resource.exists(), is(true));
+					assertThat(resource.contentLength(), is(10L));
+				});
+				It("should fail writes that exceed the capacity", () -> {
+					write("/a", 1500);
+					try {
+						write("/b", 1000);
+					} catch (IOException ioe) {
+						e = ioe;
+					}
+					assertThat(e, is(instanceOf(IOException.class)));
+					assertThat(loader.getResource("/a").exists(), is(true));
+					assertThat(loader.getResource("/b").exists(), is(false));
+					assertThat(loader.getUsed(), is(2048L));
+				});
+				It("should throw FileNotFoundException reading missing content", () -> {
+					try {
+						loader.getResource("/missing").getInputStream();
+					} catch (IOException ioe) {
+						e = ioe;
+					}
+					assertThat(e, is(instanceOf(FileNotFoundException.class)));
+				});
+				It("should read ranges across segments", () -> {
+					write("/a", 2000);
+					InputStream in = ((RangeableResource)loader.getResource("/a")).getInputStream(1020L, 10L);
+					byte[] bytes = StreamUtils.copyToByteArray(in);
+					assertThat(bytes.length, is(10));
+					assertThat(bytes[0], is((byte) 1020));
+					assertThat(bytes[9], is((byte) 1029));
+				});
+				It("should keep deleted content readable until its stream is closed", () -> {
+					write("/a", 1500);
+					InputStream in = loader.getResource("/a").getInputStream();
+					((WritableResource)loader.getResource("/a")).getOutputStream().close();
+					assertThat(loader.getResource("/a").contentLength(), is(0L));
+					assertThat(loader.getUsed(), is(2048L));
+					assertThat(StreamUtils.copyToByteArray(in).length, is(1500));
+					in.close();
+					assertThat(loader.getUsed(), is(0L));
+				});
+			});
+			Context("given a loader with LRU eviction", () -> {
+				BeforeEach(() -> {
+					loader = new InMemoryResourceLoader(3072L, 1024, EvictionPolicy.LRU);
+				});
+				It("should evict the least recently used content to fit a write", () -> {
+					write("/a", 1000);
+					write("/b", 1000);
+					write("/c", 1000);
+					loader.getResource("/a").getInputStream().close();
+					write("/d", 1000);
+					assertThat(loader.getResource("/a").exists(), is(true));
+					assertThat(loader.getResource("/b").exists(), is(false));
+					assertThat(loader.getResource("/c").exists(), is(true));
+					assertThat(loader.getResource("/d").exists(), is(true));
+					assertThat(loader.getEvictions(), is(1L));
+				});
+			});
+		});
+	}
+
+	private void write(String location, int length) throws IOException {
+		byte[] content = new byte[length];
+		for (int i = 0; i < length; i++) {
+			content[i] = (byte) i;
+		}
+		try (OutputStream os = ((WritableResource)loader.getResource(location)).getOutputStream()) {
+			os.write(content);
+		}
+	}
+}
@@ -3,6 +3,7 @@ package internal.org.springframework.content.mongo.config;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.content.commons.repository.factory.AbstractStoreFactoryBean;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.data.mongodb.MongoDbFactory;
 import org.springframework.data.mongodb.gridfs.GridFsTemplate;
 
 import internal.org.springframework.content.mongo.repository.DefaultMongoStoreImpl;
@@ -11,6 +12,7 @@ public class MongoStoreFactoryBean extends AbstractStoreFactoryBean {
 
 	@Autowired private GridFsTemplate gridFs;
 	@Autowired private ConversionService mongoStoreConverter;
+	@Autowired(required = false) private MongoDbFactory dbFactory;
 
 	@Override
 	public void afterPropertiesSet() throws Exception {
@@ -19,6 +21,6 @@ public class MongoStoreFactoryBean extends AbstractStoreFactoryBean {
 
 	@Override
 	protected Object getContentStoreImpl() {
-		return new DefaultMongoStoreImpl(gridFs, mongoStoreConverter);
+		return new DefaultMongoStoreImpl(gridFs, mongoStoreConverter, dbFactory);
 	}
 }
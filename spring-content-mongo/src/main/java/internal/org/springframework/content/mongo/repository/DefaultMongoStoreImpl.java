@@ -8,33 +8,238 @@ import java.io.InputStream;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.content.commons.annotations.ContentId;
 import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.io.BoundedInputStream;
+import org.springframework.content.commons.repository.ContentMetadata;
 import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.Store;
+import org.springframework.content.commons.repository.StoreAccessException;
 import org.springframework.content.commons.utils.BeanUtils;
 import org.springframework.content.commons.utils.Condition;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.MongoDbFactory;
 import org.springframework.data.mongodb.gridfs.GridFsTemplate;
 import org.springframework.util.Assert;
 
-public class DefaultMongoStoreImpl<S, SID extends Serializable> implements ContentStore<S,SID> {
+import com.mongodb.BasicDBObject;
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.gridfs.GridFSDBFile;
+import org.bson.types.ObjectId;
+
+public class DefaultMongoStoreImpl<S, SID extends Serializable> implements Store<SID>, ContentStore<S,SID> {
 
 	private static Log logger = LogFactory.getLog(DefaultMongoStoreImpl.class);
 
+	// the GridFS bucket of a GridFsTemplate that is not given one
+	static final String DEFAULT_BUCKET = "fs";
+
+	// the number of chunks inserted at a time when a file is copied
+	static final int COPY_BATCH_SIZE = 16;
+
+	// the number of files' documents fetched at a time when files are listed
+	static final int LIST_BATCH_SIZE = 1000;
+
 	private GridFsTemplate gridFs;
 	private ConversionService converter;
+	private MongoDbFactory dbFactory;
 
 	public DefaultMongoStoreImpl(GridFsTemplate gridFs, ConversionService converter) {
+		this(gridFs, converter, null);
+	}
+
+	public DefaultMongoStoreImpl(GridFsTemplate gridFs, ConversionService converter, MongoDbFactory dbFactory) {
 		Assert.notNull(gridFs, "gridFs cannot be null");
 		Assert.notNull(converter, "converter cannot be null");
 
 		this.gridFs = gridFs;
 		this.converter = converter;
+		this.dbFactory = dbFactory;
+	}
+
+	@Override
+	public Resource getResource(SID id) {
+		return gridFs.getResource(converter.convert(id, String.class));
+	}
+
+	/**
+	 * Copies the file's document and chunks within the database, so the content is not decoded
+	 * and re-chunked by GridFS.  The file's document is inserted last, so a failed copy leaves no
+	 * file behind.  Content outside the default bucket, or of a store without a MongoDbFactory, is
+	 * read and stored again.
+	 */
+	@Override
+	public void copy(SID from, SID to) {
+		if (from.equals(to)) {
+			return;
+		}
+		String source = converter.convert(from, String.class);
+		String target = converter.convert(to, String.class);
+
+		DBObject file = findFile(source);
+		if (file == null) {
+			Resource resource = gridFs.getResource(source);
+			if (resource == null || !resource.exists()) {
+				throw new StoreAccessException(String.format("No content %s to copy", from.toString()));
+			}
+			gridFs.delete(query(whereFilename().is(target)));
+			try (InputStream content = resource.getInputStream()) {
+				gridFs.store(content, target);
+			} catch (IOException e) {
+				throw new StoreAccessException(String.format("Unexpected error copying content %s to %s", from.toString(), to.toString()), e);
+			}
+			return;
+		}
+
+		gridFs.delete(query(whereFilename().is(target)));
+
+		DB db = dbFactory.getDb();
+		DBCollection chunks = db.getCollection(DEFAULT_BUCKET + ".chunks");
+		ObjectId copyId = new ObjectId();
+		List<DBObject> batch = new ArrayList<>(COPY_BATCH_SIZE);
+		DBCursor cursor = chunks.find(new BasicDBObject("files_id", file.get("_id")));
+		try {
+			while (cursor.hasNext()) {
+				DBObject chunk = cursor.next();
+				chunk.put("_id", new ObjectId());
+				chunk.put("files_id", copyId);
+				batch.add(chunk);
+				if (batch.size() == COPY_BATCH_SIZE) {
+					chunks.insert(batch);
+					batch = new ArrayList<>(COPY_BATCH_SIZE);
+				}
+			}
+		} finally {
+			cursor.close();
+		}
+		if (!batch.isEmpty()) {
+			chunks.insert(batch);
+		}
+
+		file.put("_id", copyId);
+		file.put("filename", target);
+		db.getCollection(DEFAULT_BUCKET + ".files").insert(file);
+	}
+
+	/**
+	 * Renames the file, so its chunks are not copied.  Content outside the default bucket, or of a
+	 * store without a MongoDbFactory, is copied and then deleted.
+	 */
+	@Override
+	public void move(SID from, SID to) {
+		if (from.equals(to)) {
+			return;
+		}
+		String source = converter.convert(from, String.class);
+		String target = converter.convert(to, String.class);
+
+		DBObject file = findFile(source);
+		if (file == null) {
+			this.copy(from, to);
+			gridFs.delete(query(whereFilename().is(source)));
+			return;
+		}
+
+		gridFs.delete(query(whereFilename().is(target)));
+		dbFactory.getDb().getCollection(DEFAULT_BUCKET + ".files").update(
+				new BasicDBObject("_id", file.get("_id")),
+				new BasicDBObject("$set", new BasicDBObject("filename", target)));
+	}
+
+	/**
+	 * Reads the metadata from the file's document, so the file's chunks are not read.
+	 */
+	@Override
+	public ContentMetadata getMetadata(SID id) {
+		GridFSDBFile file = gridFs.findOne(query(whereFilename().is(converter.convert(id, String.class))));
+		if (file == null) {
+			return ContentMetadata.missing(id);
+		}
+		return metadata(id, file);
+	}
+
+	/**
+	 * Reads the metadata of every id with one query of the files' documents.
+	 */
+	@Override
+	public Map<SID, ContentMetadata> getMetadata(Collection<SID> ids) {
+		Map<String, SID> locations = new LinkedHashMap<>();
+		for (SID id : ids) {
+			locations.put(converter.convert(id, String.class), id);
+		}
+		Map<String, GridFSDBFile> files = new HashMap<>();
+		if (!locations.isEmpty()) {
+			for (GridFSDBFile file : gridFs.find(query(whereFilename().in(locations.keySet())))) {
+				files.put(file.getFilename(), file);
+			}
+		}
+		Map<SID, ContentMetadata> metadata = new LinkedHashMap<>();
+		for (Map.Entry<String, SID> location : locations.entrySet()) {
+			GridFSDBFile file = files.get(location.getKey());
+			metadata.put(location.getValue(), file != null ? metadata(location.getValue(), file) : ContentMetadata.missing(location.getValue()));
+		}
+		return metadata;
+	}
+
+	/**
+	 * Reads the files' documents with a cursor, a batch at a time, in filename order.  A store
+	 * without a MongoDbFactory reads them with one query.
+	 */
+	@Override
+	public Stream<ContentMetadata> list(String prefix) {
+		String regex = "^" + Pattern.quote(prefix != null ? prefix : "");
+		if (dbFactory == null) {
+			return gridFs.find(query(whereFilename().regex(regex))).stream()
+					.map(file -> new ContentMetadata(file.getFilename(), file.getLength(), file.getUploadDate() != null ? file.getUploadDate().getTime() : 0L, file.getMD5()));
+		}
+
+		DBObject fields = new BasicDBObject("filename", 1).append("length", 1).append("uploadDate", 1).append("md5", 1);
+		DBCursor cursor = dbFactory.getDb().getCollection(DEFAULT_BUCKET + ".files")
+				.find(new BasicDBObject("filename", new BasicDBObject("$regex", regex)), fields)
+				.sort(new BasicDBObject("filename", 1))
+				.batchSize(LIST_BATCH_SIZE);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.map(file -> {
+					Date uploadDate = (Date) file.get("uploadDate");
+					Number length = (Number) file.get("length");
+					return new ContentMetadata((String) file.get("filename"), length != null ? length.longValue() : 0L, uploadDate != null ? uploadDate.getTime() : 0L, (String) file.get("md5"));
+				})
+				.onClose(cursor::close);
+	}
+
+	private ContentMetadata metadata(SID id, GridFSDBFile file) {
+		long lastModified = (file.getUploadDate() != null ? file.getUploadDate().getTime() : 0L);
+		return new ContentMetadata(id, file.getLength(), lastModified, file.getMD5());
+	}
+
+	private DBObject findFile(String location) {
+		if (dbFactory == null) {
+			return null;
+		}
+		return dbFactory.getDb().getCollection(DEFAULT_BUCKET + ".files").findOne(new BasicDBObject("filename", location));
 	}
 
 	@Override
@@ -83,6 +288,25 @@ public class DefaultMongoStoreImpl<S, SID extends Serializable> implements Conte
 		return null;
 	}
 
+	/**
+	 * GridFS streams skip by seeking to the chunk that holds the offset, so the chunks before it
+	 * are never fetched.
+	 */
+	@Override
+	public InputStream getContent(S property, long offset, long length) {
+		InputStream content = getContent(property);
+		if (content == null)
+			return null;
+
+		try {
+			return BoundedInputStream.range(content, offset, length);
+		} catch (IOException e) {
+			IOUtils.closeQuietly(content);
+			logger.error(String.format("Unexpected error getting content %s", BeanUtils.getFieldWithAnnotation(property, ContentId.class)), e);
+		}
+		return null;
+	}
+
 	@Override
 	public void unsetContent(S property) {
 		if (property == null)
@@ -97,22 +321,59 @@ public class DefaultMongoStoreImpl<S, SID extends Serializable> implements Conte
 			if (resource != null && resource.exists()) {
 				gridFs.delete(query(whereFilename().is(resource.getFilename())));
 
-				// reset content fields
-				BeanUtils.setFieldWithAnnotationConditionally(property, ContentId.class, null, new Condition() {
-					@Override
-					public boolean matches(Field field) {
-						for (Annotation annotation : field.getAnnotations()) {
-							if ("javax.persistence.Id".equals(annotation.annotationType().getCanonicalName()) ||
-								"org.springframework.data.annotation.Id".equals(annotation.annotationType().getCanonicalName())) {
-								return false;
-							}
-						}
-						return true;
-					}});
-				BeanUtils.setFieldWithAnnotation(property, ContentLength.class, 0);
+				resetContentFields(property);
 			}
 		} catch (Exception ase) {
 			logger.error(String.format("Unexpected error unsetting content %s", contentId.toString()), ase);
 		}
 	}
+
+	/**
+	 * Deletes the content of properties with a single delete of every file whose filename is one
+	 * of their locations, rather than a lookup and a delete per property.
+	 */
+	@Override
+	public void unsetContents(Collection<S> properties) {
+		List<S> unset = new ArrayList<>();
+		Set<String> locations = new LinkedHashSet<>();
+		for (S property : properties) {
+			if (property == null)
+				continue;
+			Object contentId = BeanUtils.getFieldWithAnnotation(property, ContentId.class);
+			if (contentId == null)
+				continue;
+
+			locations.add(converter.convert(contentId, String.class));
+			unset.add(property);
+		}
+		if (locations.isEmpty()) {
+			return;
+		}
+
+		try {
+			gridFs.delete(query(whereFilename().in(locations)));
+		} catch (Exception ase) {
+			logger.error(String.format("Unexpected error unsetting content %s", locations), ase);
+			return;
+		}
+
+		for (S property : unset) {
+			resetContentFields(property);
+		}
+	}
+
+	private void resetContentFields(S property) {
+		BeanUtils.setFieldWithAnnotationConditionally(property, ContentId.class, null, new Condition() {
+			@Override
+			public boolean matches(Field field) {
+				for (Annotation annotation : field.getAnnotations()) {
+					if ("javax.persistence.Id".equals(annotation.annotationType().getCanonicalName()) ||
+						"org.springframework.data.annotation.Id".equals(annotation.annotationType().getCanonicalName())) {
+						return false;
+					}
+				}
+				return true;
+			}});
+		BeanUtils.setFieldWithAnnotation(property, ContentLength.class, 0);
+	}
 }
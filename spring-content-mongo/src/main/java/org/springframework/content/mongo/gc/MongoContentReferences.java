@@ -0,0 +1,46 @@
+package org.springframework.content.mongo.gc;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.gc.ContentReferences;
+import org.springframework.content.commons.utils.BeanUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Finds the content ids MongoDB documents reference with one query of the document's content
+ * id property per batch of content ids.  Only the content id property is read.
+ */
+public class MongoContentReferences implements ContentReferences {
+
+	private final MongoOperations operations;
+
+	public MongoContentReferences(MongoOperations operations) {
+		this.operations = operations;
+	}
+
+	@Override
+	public boolean supports(Class<?> domainClass) {
+		return AnnotationUtils.findAnnotation(domainClass, Document.class) != null;
+	}
+
+	@Override
+	public Collection<?> findReferenced(Class<?> domainClass, String contentIdProperty, Collection<?> contentIds) {
+		Query query = query(where(contentIdProperty).in(contentIds));
+		query.fields().include(contentIdProperty);
+
+		Set<Object> referenced = new HashSet<>();
+		for (Object entity : operations.find(query, domainClass)) {
+			referenced.add(BeanUtils.getFieldWithAnnotation(entity, ContentId.class));
+		}
+		return referenced;
+	}
+}
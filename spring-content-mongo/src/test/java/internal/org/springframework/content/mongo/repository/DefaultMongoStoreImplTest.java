@@ -2,39 +2,72 @@ package internal.org.springframework.content.mongo.repository;
 
 import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.*;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.springframework.content.commons.annotations.ContentId;
 import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.repository.ContentMetadata;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.gridfs.GridFsResource;
 import org.springframework.data.mongodb.gridfs.GridFsTemplate;
 
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
 import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.gridfs.GridFSDBFile;
 import com.mongodb.gridfs.GridFSFile;
 
 
 @RunWith(Ginkgo4jRunner.class)
+@Ginkgo4jConfiguration(threads=1)
 public class DefaultMongoStoreImplTest {
     private DefaultMongoStoreImpl<Object, String> mongoContentRepoImpl;
     private GridFsTemplate gridFsTemplate;
     private GridFSFile gridFSFile;
     private ContentProperty property;
+    private ContentProperty otherProperty;
     private GridFsResource resource;
     private ConversionService converter;
+    private MongoDbFactory dbFactory;
+    private DBCollection files;
+    private DBCollection chunks;
+    private DBObject file;
+    private DBCursor cursor;
 
     private InputStream content;
     private InputStream result;
@@ -157,6 +190,31 @@ public class DefaultMongoStoreImplTest {
                 });
             });
 
+            Context("ranged #getContent", () -> {
+                BeforeEach(() -> {
+                    property = new TestEntity();
+                    property.setContentId("abcd");
+
+                    content = mock(InputStream.class);
+                    when(content.skip(6L)).thenReturn(6L);
+
+                    when(converter.convert(eq("abcd"), eq(String.class))).thenReturn("abcd");
+                    when(gridFsTemplate.getResource(anyObject())).thenReturn(resource);
+                    when(resource.exists()).thenReturn(true);
+                    when(resource.getInputStream()).thenReturn(content);
+                });
+
+                JustBeforeEach(() -> {
+                    result = mongoContentRepoImpl.getContent(property, 6L, 7L);
+                });
+
+                It("should skip the content stream to the offset", () -> {
+                    verify(content).skip(6L);
+                    verify(content, never()).read();
+                    assertThat(result, is(not(nullValue())));
+                });
+            });
+
             Context("#unsetContent", () -> {
                 BeforeEach(() -> {
                     property = new TestEntity();
@@ -209,6 +267,135 @@ public class DefaultMongoStoreImplTest {
                     });
                 });
             });
+
+            Context("bulk #unsetContents", () -> {
+                BeforeEach(() -> {
+                    property = new TestEntity();
+                    property.setContentId("abcd");
+                    otherProperty = new TestEntity();
+                    otherProperty.setContentId("efgh");
+
+                    when(converter.convert(eq("abcd"), eq(String.class))).thenReturn("abcd");
+                    when(converter.convert(eq("efgh"), eq(String.class))).thenReturn("efgh");
+                });
+
+                JustBeforeEach(() -> {
+                    mongoContentRepoImpl.unsetContents(Arrays.asList(property, otherProperty, new TestEntity()));
+                });
+
+                It("should delete the content of every property with a single delete", () -> {
+                    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+                    verify(gridFsTemplate, times(1)).delete(query.capture());
+                    DBObject filename = (DBObject) query.getValue().getQueryObject().get("filename");
+                    assertThat(new ArrayList<Object>((Collection<?>) filename.get("$in")), is(Arrays.<Object>asList("abcd", "efgh")));
+                });
+
+                It("should not fetch each resource", () -> {
+                    verify(gridFsTemplate, never()).getResource(anyObject());
+                });
+
+                It("should reset the metadata of every property", () -> {
+                    assertThat(property.getContentId(), is(nullValue()));
+                    assertThat(otherProperty.getContentId(), is(nullValue()));
+                });
+            });
+            Context("#copy and #move", () -> {
+                BeforeEach(() -> {
+                    dbFactory = mock(MongoDbFactory.class);
+                    DB db = mock(DB.class);
+                    files = mock(DBCollection.class);
+                    chunks = mock(DBCollection.class);
+                    DBCursor cursor = mock(DBCursor.class);
+                    when(dbFactory.getDb()).thenReturn(db);
+                    when(db.getCollection("fs.files")).thenReturn(files);
+                    when(db.getCollection("fs.chunks")).thenReturn(chunks);
+                    when(converter.convert(eq("from"), eq(String.class))).thenReturn("from");
+                    when(converter.convert(eq("to"), eq(String.class))).thenReturn("to");
+
+                    file = new BasicDBObject("_id", "from-id").append("filename", "from").append("length", 2L);
+                    when(files.findOne(eq(new BasicDBObject("filename", "from")))).thenReturn(file);
+                    when(chunks.find(eq(new BasicDBObject("files_id", "from-id")))).thenReturn(cursor);
+                    when(cursor.hasNext()).thenReturn(true, true, false);
+                    when(cursor.next()).thenReturn(new BasicDBObject("n", 0), new BasicDBObject("n", 1));
+
+                    mongoContentRepoImpl = new DefaultMongoStoreImpl<Object, String>(gridFsTemplate, converter, dbFactory);
+                });
+                It("should copy the file's chunks and then its document", () -> {
+                    mongoContentRepoImpl.copy("from", "to");
+                    ArgumentCaptor<List> inserted = ArgumentCaptor.forClass(List.class);
+                    verify(chunks).insert(inserted.capture());
+                    assertThat(inserted.getValue().size(), is(2));
+                    ArgumentCaptor<DBObject> copy = ArgumentCaptor.forClass(DBObject.class);
+                    verify(files).insert(copy.capture());
+                    assertThat(copy.getValue().get("filename"), is("to"));
+                    assertThat(copy.getValue().get("length"), is(2L));
+                    assertThat(((DBObject) inserted.getValue().get(0)).get("files_id"), is(copy.getValue().get("_id")));
+                    verify(gridFsTemplate, never()).store(anyObject(), anyString());
+                });
+                It("should rename the file when it is moved", () -> {
+                    mongoContentRepoImpl.move("from", "to");
+                    verify(files).update(eq(new BasicDBObject("_id", "from-id")), eq(new BasicDBObject("$set", new BasicDBObject("filename", "to"))));
+                    verify(chunks, never()).insert(anyListOf(DBObject.class));
+                });
+            });
+            Context("#getMetadata", () -> {
+                BeforeEach(() -> {
+                    when(converter.convert(eq("some-id"), eq(String.class))).thenReturn("some-id");
+                    when(converter.convert(eq("other-id"), eq(String.class))).thenReturn("other-id");
+                    GridFSDBFile file = mock(GridFSDBFile.class);
+                    when(file.getFilename()).thenReturn("some-id");
+                    when(file.getLength()).thenReturn(20L);
+                    when(file.getUploadDate()).thenReturn(new Date(1000L));
+                    when(file.getMD5()).thenReturn("some-md5");
+                    when(gridFsTemplate.findOne(anyObject())).thenReturn(file);
+                    when(gridFsTemplate.find(anyObject())).thenReturn(Collections.singletonList(file));
+                });
+                It("should read the file's document", () -> {
+                    ContentMetadata metadata = mongoContentRepoImpl.getMetadata("some-id");
+                    assertThat(metadata.getLength(), is(20L));
+                    assertThat(metadata.getLastModified(), is(1000L));
+                    assertThat(metadata.getChecksum(), is("some-md5"));
+                    verify(gridFsTemplate, never()).getResource(anyString());
+                });
+                It("should read the documents of many files with one query", () -> {
+                    Map<String, ContentMetadata> metadata = mongoContentRepoImpl.getMetadata(Arrays.asList("some-id", "other-id"));
+                    assertThat(metadata.get("some-id").exists(), is(true));
+                    assertThat(metadata.get("other-id").exists(), is(false));
+                    verify(gridFsTemplate, times(1)).find(anyObject());
+                });
+            });
+            Context("#list", () -> {
+                BeforeEach(() -> {
+                    dbFactory = mock(MongoDbFactory.class);
+                    DB db = mock(DB.class);
+                    files = mock(DBCollection.class);
+                    cursor = mock(DBCursor.class);
+                    when(dbFactory.getDb()).thenReturn(db);
+                    when(db.getCollection("fs.files")).thenReturn(files);
+                    when(files.find(isA(DBObject.class), isA(DBObject.class))).thenReturn(cursor);
+                    when(cursor.sort(anyObject())).thenReturn(cursor);
+                    when(cursor.batchSize(anyInt())).thenReturn(cursor);
+                    when(cursor.hasNext()).thenReturn(true, true, false);
+                    doCallRealMethod().when(cursor).forEachRemaining(anyObject());
+                    when(cursor.next()).thenReturn(
+                            new BasicDBObject("filename", "a").append("length", 1L).append("uploadDate", new Date(1000L)).append("md5", "some-md5"),
+                            new BasicDBObject("filename", "ab").append("length", 2));
+
+                    mongoContentRepoImpl = new DefaultMongoStoreImpl<Object, String>(gridFsTemplate, converter, dbFactory);
+                });
+                It("should read the files' documents with a cursor", () -> {
+                    try (Stream<ContentMetadata> listed = mongoContentRepoImpl.list("a")) {
+                        List<ContentMetadata> metadata = listed.collect(Collectors.toList());
+                        assertThat(metadata.size(), is(2));
+                        assertThat(metadata.get(0).getContentId(), is("a"));
+                        assertThat(metadata.get(0).getLastModified(), is(1000L));
+                        assertThat(metadata.get(1).getLength(), is(2L));
+                    }
+                    verify(cursor).batchSize(DefaultMongoStoreImpl.LIST_BATCH_SIZE);
+                    verify(cursor).close();
+                    verify(gridFsTemplate, never()).find(anyObject());
+                });
+            });
         });
     }
 
@@ -0,0 +1,349 @@
+package org.springframework.content.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.annotations.MimeType;
+import org.springframework.content.commons.annotations.OriginalFileName;
+import org.springframework.content.commons.utils.ContentEntityAccessor;
+
+/**
+ * Generates a {@link ContentEntityAccessor} for each class with fields annotated with
+ * {@link ContentId}, {@link ContentLength}, {@link MimeType} or {@link OriginalFileName}.
+ * <p>
+ * Fields are accessed the same way {@link org.springframework.content.commons.utils.BeanUtils}
+ * accesses them; through their public getter and setter when they are exposed as a bean property
+ * and directly otherwise.  Fields that cannot be accessed from generated code in the entity's
+ * package are not supported by the generated accessor and continue to be accessed reflectively.
+ */
+public class ContentEntityAccessorProcessor extends AbstractProcessor {
+
+	private static final String[] CONTENT_ANNOTATIONS = new String[] {
+		ContentId.class.getCanonicalName(),
+		ContentLength.class.getCanonicalName(),
+		MimeType.class.getCanonicalName(),
+		OriginalFileName.class.getCanonicalName()
+	};
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		Set<String> types = new LinkedHashSet<>();
+		for (String annotation : CONTENT_ANNOTATIONS) {
+			types.add(annotation);
+		}
+		return types;
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		Set<TypeElement> entities = new LinkedHashSet<>();
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() == ElementKind.FIELD) {
+					entities.add((TypeElement) element.getEnclosingElement());
+				}
+			}
+		}
+
+		for (TypeElement entity : entities) {
+			if (!isGeneratable(entity)) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+						String.format("Not generating a content entity accessor for %s, it is not accessible", entity.getQualifiedName()), entity);
+				continue;
+			}
+
+			Map<String, PropertyAccess> properties = new LinkedHashMap<>();
+			for (String annotation : CONTENT_ANNOTATIONS) {
+				PropertyAccess access = resolve(entity, annotation);
+				if (access != null) {
+					properties.put(annotation, access);
+				}
+			}
+
+			try {
+				write(entity, properties);
+			} catch (IOException e) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+						String.format("Unable to write content entity accessor for %s: %s", entity.getQualifiedName(), e.getMessage()), entity);
+			}
+		}
+
+		// leave the annotations for other processors
+		return false;
+	}
+
+	private boolean isGeneratable(TypeElement entity) {
+		if (entity.getKind() != ElementKind.CLASS) {
+			return false;
+		}
+		for (Element e = entity; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+			if (e.getModifiers().contains(Modifier.PRIVATE)) {
+				return false;
+			}
+			if (e instanceof TypeElement) {
+				NestingKind nesting = ((TypeElement) e).getNestingKind();
+				if (nesting == NestingKind.LOCAL || nesting == NestingKind.ANONYMOUS) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private PropertyAccess resolve(TypeElement entity, String annotation) {
+		List<VariableElement> fields = getAllFields(entity);
+
+		// as BeanUtils, fields backing a bean property take precedence
+		VariableElement field = null;
+		for (VariableElement candidate : fields) {
+			if (hasAnnotation(candidate, annotation) && (findGetter(entity, candidate) != null || findSetter(entity, candidate) != null)) {
+				field = candidate;
+				break;
+			}
+		}
+		if (field == null) {
+			for (VariableElement candidate : fields) {
+				if (hasAnnotation(candidate, annotation)) {
+					field = candidate;
+					break;
+				}
+			}
+		}
+		if (field == null) {
+			return null;
+		}
+
+		String valueType = valueType(field.asType());
+		boolean primitive = field.asType().getKind().isPrimitive();
+
+		ExecutableElement getter = findGetter(entity, field);
+		ExecutableElement setter = findSetter(entity, field);
+		if (getter != null || setter != null) {
+			if (getter == null || setter == null) {
+				return null;
+			}
+			return new PropertyAccess(
+					String.format("entity.%s()", getter.getSimpleName()),
+					String.format("entity.%s((%s) value)", setter.getSimpleName(), valueType),
+					valueType, primitive);
+		}
+
+		if (!isAccessible(entity, field) || field.getModifiers().contains(Modifier.FINAL)) {
+			return null;
+		}
+		return new PropertyAccess(
+				String.format("entity.%s", field.getSimpleName()),
+				String.format("entity.%s = (%s) value", field.getSimpleName(), valueType),
+				valueType, primitive);
+	}
+
+	private List<VariableElement> getAllFields(TypeElement type) {
+		List<VariableElement> fields = new ArrayList<>();
+		for (TypeElement t = type; t != null; t = superclass(t)) {
+			for (VariableElement field : ElementFilter.fieldsIn(t.getEnclosedElements())) {
+				if (!field.getModifiers().contains(Modifier.STATIC)) {
+					fields.add(field);
+				}
+			}
+		}
+		return fields;
+	}
+
+	private TypeElement superclass(TypeElement type) {
+		TypeMirror superclass = type.getSuperclass();
+		if (superclass.getKind() != TypeKind.DECLARED) {
+			return null;
+		}
+		return (TypeElement) ((DeclaredType) superclass).asElement();
+	}
+
+	private boolean hasAnnotation(Element element, String annotation) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private ExecutableElement findGetter(TypeElement entity, VariableElement field) {
+		String property = capitalize(field.getSimpleName().toString());
+		TypeMirror type = processingEnv.getTypeUtils().erasure(field.asType());
+		for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(entity))) {
+			if (!isPublicInstanceMethod(method) || !method.getParameters().isEmpty()) {
+				continue;
+			}
+			String name = method.getSimpleName().toString();
+			if ((name.equals("get" + property) || (name.equals("is" + property) && type.getKind() == TypeKind.BOOLEAN))
+					&& processingEnv.getTypeUtils().isSameType(processingEnv.getTypeUtils().erasure(method.getReturnType()), type)) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+	private ExecutableElement findSetter(TypeElement entity, VariableElement field) {
+		String name = "set" + capitalize(field.getSimpleName().toString());
+		TypeMirror type = processingEnv.getTypeUtils().erasure(field.asType());
+		for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(entity))) {
+			if (isPublicInstanceMethod(method) && method.getSimpleName().contentEquals(name) && method.getParameters().size() == 1
+					&& processingEnv.getTypeUtils().isSameType(processingEnv.getTypeUtils().erasure(method.getParameters().get(0).asType()), type)) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+	private boolean isPublicInstanceMethod(ExecutableElement method) {
+		return method.getModifiers().contains(Modifier.PUBLIC) && !method.getModifiers().contains(Modifier.STATIC);
+	}
+
+	private boolean isAccessible(TypeElement entity, VariableElement field) {
+		if (field.getModifiers().contains(Modifier.PRIVATE)) {
+			return false;
+		}
+		if (field.getModifiers().contains(Modifier.PUBLIC)) {
+			return true;
+		}
+		PackageElement fieldPackage = processingEnv.getElementUtils().getPackageOf(field);
+		return fieldPackage.equals(processingEnv.getElementUtils().getPackageOf(entity));
+	}
+
+	private String valueType(TypeMirror type) {
+		if (type.getKind().isPrimitive()) {
+			return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+		}
+		return processingEnv.getTypeUtils().erasure(type).toString();
+	}
+
+	private void write(TypeElement entity, Map<String, PropertyAccess> properties) throws IOException {
+		String packageName = processingEnv.getElementUtils().getPackageOf(entity).getQualifiedName().toString();
+		String accessorName = accessorSimpleName(entity);
+		String entityName = processingEnv.getTypeUtils().erasure(entity.asType()).toString();
+
+		StringBuilder source = new StringBuilder();
+		if (!packageName.isEmpty()) {
+			source.append("package ").append(packageName).append(";\n\n");
+		}
+		source.append("import java.lang.annotation.Annotation;\n\n");
+		source.append("/**\n * Generated by ").append(ContentEntityAccessorProcessor.class.getName()).append(". Do not edit.\n */\n");
+		source.append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n");
+		source.append("public final class ").append(accessorName).append(" implements ")
+				.append(ContentEntityAccessor.class.getName()).append("<").append(entityName).append("> {\n\n");
+
+		source.append("\t@Override\n");
+		source.append("\tpublic boolean supports(Class<? extends Annotation> annotationClass) {\n");
+		if (properties.isEmpty()) {
+			source.append("\t\treturn false;\n");
+		} else {
+			source.append("\t\treturn ");
+			boolean first = true;
+			for (String annotation : properties.keySet()) {
+				if (!first) {
+					source.append("\n\t\t\t\t|| ");
+				}
+				source.append("annotationClass == ").append(annotation).append(".class");
+				first = false;
+			}
+			source.append(";\n");
+		}
+		source.append("\t}\n\n");
+
+		source.append("\t@Override\n");
+		source.append("\tpublic Object get(").append(entityName).append(" entity, Class<? extends Annotation> annotationClass) {\n");
+		for (Map.Entry<String, PropertyAccess> property : properties.entrySet()) {
+			source.append("\t\tif (annotationClass == ").append(property.getKey()).append(".class) {\n");
+			source.append("\t\t\treturn ").append(property.getValue().getter).append(";\n");
+			source.append("\t\t}\n");
+		}
+		source.append("\t\tthrow new IllegalArgumentException(\"Unsupported annotation \" + annotationClass);\n");
+		source.append("\t}\n\n");
+
+		source.append("\t@Override\n");
+		source.append("\tpublic boolean set(").append(entityName).append(" entity, Class<? extends Annotation> annotationClass, Object value) {\n");
+		for (Map.Entry<String, PropertyAccess> property : properties.entrySet()) {
+			PropertyAccess access = property.getValue();
+			source.append("\t\tif (annotationClass == ").append(property.getKey()).append(".class) {\n");
+			source.append("\t\t\tif (");
+			if (!access.primitive) {
+				source.append("value == null || ");
+			}
+			source.append("value instanceof ").append(access.valueType).append(") {\n");
+			source.append("\t\t\t\t").append(access.setter).append(";\n");
+			source.append("\t\t\t\treturn true;\n");
+			source.append("\t\t\t}\n");
+			source.append("\t\t\treturn false;\n");
+			source.append("\t\t}\n");
+		}
+		source.append("\t\tthrow new IllegalArgumentException(\"Unsupported annotation \" + annotationClass);\n");
+		source.append("\t}\n");
+		source.append("}\n");
+
+		String qualifiedName = packageName.isEmpty() ? accessorName : packageName + "." + accessorName;
+		try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, entity).openWriter()) {
+			writer.write(source.toString());
+		}
+	}
+
+	private String accessorSimpleName(TypeElement entity) {
+		StringBuilder name = new StringBuilder(entity.getSimpleName());
+		for (Element e = entity.getEnclosingElement(); e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+			name.insert(0, '_').insert(0, e.getSimpleName());
+		}
+		return name.append(ContentEntityAccessor.SUFFIX).toString();
+	}
+
+	private static String capitalize(String name) {
+		if (name.isEmpty()) {
+			return name;
+		}
+		return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+	}
+
+	private static class PropertyAccess {
+
+		private final String getter;
+		private final String setter;
+		private final String valueType;
+		private final boolean primitive;
+
+		PropertyAccess(String getter, String setter, String valueType, boolean primitive) {
+			this.getter = getter;
+			this.setter = setter;
+			this.valueType = valueType;
+			this.primitive = primitive;
+		}
+	}
+}
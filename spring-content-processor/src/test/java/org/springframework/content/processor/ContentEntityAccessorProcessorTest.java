@@ -0,0 +1,118 @@
+package org.springframework.content.processor;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.AfterEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.BeforeEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Context;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Describe;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.It;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.JustBeforeEach;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.runner.RunWith;
+import org.springframework.content.commons.annotations.ContentId;
+import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.annotations.MimeType;
+import org.springframework.content.commons.utils.ContentEntityAccessor;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+
+@SuppressWarnings({"rawtypes", "unchecked"})
+@RunWith(Ginkgo4jRunner.class)
+@Ginkgo4jConfiguration(threads = 1)
+public class ContentEntityAccessorProcessorTest {
+
+	private static final String ENTITY_SOURCE =
+			"package com.example;\n" +
+			"import org.springframework.content.commons.annotations.*;\n" +
+			"public class Document {\n" +
+			"	@ContentId private String contentId;\n" +
+			"	@ContentLength long contentLength;\n" +
+			"	@MimeType private String mimeType;\n" +
+			"	public String getContentId() { return contentId; }\n" +
+			"	public void setContentId(String contentId) { this.contentId = contentId; }\n" +
+			"}\n";
+
+	private File dir;
+	private boolean compiled;
+	private ClassLoader loader;
+
+	{
+		Describe("ContentEntityAccessorProcessor", () -> {
+			BeforeEach(() -> {
+				dir = Files.createTempDirectory("processor").toFile();
+				File source = new File(dir, "com/example/Document.java");
+				source.getParentFile().mkdirs();
+				Files.write(source.toPath(), ENTITY_SOURCE.getBytes(StandardCharsets.UTF_8));
+			});
+			JustBeforeEach(() -> {
+				JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+				try (StandardJavaFileManager files = compiler.getStandardFileManager(null, null, null)) {
+					JavaCompiler.CompilationTask task = compiler.getTask(null, files, null,
+							Arrays.asList("-d", dir.getPath(), "-s", dir.getPath(), "-classpath", System.getProperty("java.class.path")),
+							null,
+							files.getJavaFileObjects(new File(dir, "com/example/Document.java")));
+					task.setProcessors(Arrays.asList(new ContentEntityAccessorProcessor()));
+					compiled = task.call();
+				}
+				loader = new URLClassLoader(new URL[] { dir.toURI().toURL() }, ContentEntityAccessorProcessorTest.class.getClassLoader());
+			});
+			AfterEach(() -> {
+				FileUtils.deleteDirectory(dir);
+			});
+			Context("given an entity with content annotated fields", () -> {
+				It("should generate an accessor that compiles", () -> {
+					assertThat(compiled, is(true));
+					assertThat(new File(dir, "com/example/Document_ContentEntityAccessor.java").exists(), is(true));
+				});
+				It("should support properties and accessible fields", () -> {
+					ContentEntityAccessor accessor = accessor();
+					assertThat(accessor.supports(ContentId.class), is(true));
+					assertThat(accessor.supports(ContentLength.class), is(true));
+				});
+				It("should not support inaccessible fields", () -> {
+					assertThat(accessor().supports(MimeType.class), is(false));
+				});
+				It("should get and set values", () -> {
+					ContentEntityAccessor accessor = accessor();
+					Object entity = loader.loadClass("com.example.Document").newInstance();
+
+					assertThat(accessor.set(entity, ContentId.class, "12345"), is(true));
+					assertThat(accessor.get(entity, ContentId.class), is("12345"));
+
+					assertThat(accessor.set(entity, ContentLength.class, 99L), is(true));
+					assertThat(accessor.get(entity, ContentLength.class), is(99L));
+
+					assertThat(accessor.set(entity, ContentId.class, null), is(true));
+					assertThat(accessor.get(entity, ContentId.class), is(nullValue()));
+				});
+				It("should refuse values that need conversion", () -> {
+					ContentEntityAccessor accessor = accessor();
+					Object entity = loader.loadClass("com.example.Document").newInstance();
+
+					assertThat(accessor.set(entity, ContentLength.class, 99), is(false));
+					assertThat(accessor.set(entity, ContentLength.class, null), is(false));
+					assertThat(accessor.get(entity, ContentLength.class), is(0L));
+				});
+			});
+		});
+	}
+
+	private ContentEntityAccessor accessor() throws Exception {
+		return (ContentEntityAccessor) loader.loadClass("com.example.Document" + ContentEntityAccessor.SUFFIX).newInstance();
+	}
+}
@@ -15,6 +15,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.content.commons.annotations.ContentId;
 import org.springframework.content.commons.annotations.MimeType;
 import org.springframework.content.commons.annotations.OriginalFileName;
+import org.springframework.content.commons.repository.ContentMetadata;
 import org.springframework.content.commons.repository.ContentStore;
 import org.springframework.content.commons.repository.Store;
 import org.springframework.content.commons.storeservice.ContentStoreInfo;
@@ -104,10 +105,13 @@ public class ContentEntityRestController extends AbstractContentPropertyControll
 
 	@StoreType("contentstore")
 	@RequestMapping(value = BASE_MAPPING, method = RequestMethod.GET)
-	public ResponseEntity<InputStreamResource> getContent(@PathVariable String store, 
+	public ResponseEntity<InputStreamResource> getContent(HttpServletRequest request, 
+														  HttpServletResponse response,
+														  @PathVariable String store, 
 														  @PathVariable String id, 
-														  @RequestHeader(value="Accept", required=false) String mimeType) 
-			throws HttpRequestMethodNotSupportedException {
+														  @RequestHeader(value="Accept", required=false) String mimeType,
+														  @RequestHeader(value="Accept-Encoding", required=false) String acceptEncoding) 
+			throws HttpRequestMethodNotSupportedException, ServletException, IOException {
 		
 		ContentStoreInfo info = ContentStoreUtils.findStore(storeService, store);
 		if (info == null) {
@@ -128,7 +132,12 @@ public class ContentEntityRestController extends AbstractContentPropertyControll
 		
 		final HttpHeaders headers = new HttpHeaders();
 		ContentStore<Object,Serializable> storeImpl = info.getImpementation();
-		InputStream content = ContentStoreUtils.getContent(storeImpl, domainObj, mimeTypes, headers);
+		Resource resource = ContentStoreUtils.getResource(storeImpl, domainObj, mimeTypes, acceptEncoding, headers);
+		if (resource != null) {
+			handler.handleRequest(resource, headers, request, response);
+			return null;
+		}
+		InputStream content = ContentStoreUtils.getContent(storeImpl, domainObj, mimeTypes, acceptEncoding, headers);
 		if (content != null) {		
 			InputStreamResource inputStreamResource = new InputStreamResource(content);
 			return new ResponseEntity<InputStreamResource>(inputStreamResource, headers, HttpStatus.OK);
@@ -137,6 +146,33 @@ public class ContentEntityRestController extends AbstractContentPropertyControll
 		}
 	}
 	
+	@StoreType("contentstore")
+	@RequestMapping(value = BASE_MAPPING, method = RequestMethod.HEAD, headers="accept!=application/hal+json")
+	public ResponseEntity<Void> headContent(@PathVariable String store, 
+											@PathVariable String id) 
+			throws HttpRequestMethodNotSupportedException {
+		
+		ContentStoreInfo info = ContentStoreUtils.findStore(storeService, store);
+		if (info == null) {
+			throw new IllegalArgumentException(String.format("Store for path %s not found", store));
+		}
+		
+		Object domainObj = findOne(repositories, info.getDomainObjectClass(), id);
+
+		Serializable cid = (Serializable) BeanUtils.getFieldWithAnnotation(domainObj, ContentId.class);
+		if (cid == null) {
+			throw new ResourceNotFoundException();
+		}
+
+		ContentMetadata metadata = ((Store)info.getImpementation()).getMetadata(cid);
+		if (!metadata.exists()) {
+			throw new ResourceNotFoundException();
+		}
+
+		Object mimeType = BeanUtils.getFieldWithAnnotation(domainObj, MimeType.class);
+		return new ResponseEntity<Void>(ContentStoreUtils.metadataHeaders(metadata, mimeType != null ? mimeType.toString() : null), HttpStatus.OK);
+	}
+
 	@StoreType("contentstore")
 	@RequestMapping(value = BASE_MAPPING, method = RequestMethod.PUT, headers={"content-type!=multipart/form-data", "accept!=application/hal+json"})
 	@ResponseBody
@@ -17,6 +17,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.content.commons.annotations.ContentId;
 import org.springframework.content.commons.annotations.MimeType;
 import org.springframework.content.commons.annotations.OriginalFileName;
+import org.springframework.content.commons.repository.ContentMetadata;
 import org.springframework.content.commons.repository.ContentStore;
 import org.springframework.content.commons.repository.Store;
 import org.springframework.content.commons.storeservice.ContentStoreInfo;
@@ -141,8 +142,9 @@ public class ContentPropertyCollectionRestController extends AbstractContentProp
 				    @PathVariable String repository, 
 			  	    @PathVariable String id, 
 			  	    @PathVariable String contentProperty,
-			  	    @RequestHeader(value="Accept", required=false) String mimeType) 
-			throws HttpRequestMethodNotSupportedException {
+			  	    @RequestHeader(value="Accept", required=false) String mimeType,
+			  	    @RequestHeader(value="Accept-Encoding", required=false) String acceptEncoding) 
+			throws HttpRequestMethodNotSupportedException, ServletException, IOException {
 		
 		Object domainObj = findOne(repositories, repository, id);
 				
@@ -181,7 +183,12 @@ public class ContentPropertyCollectionRestController extends AbstractContentProp
 		
 		final HttpHeaders headers = new HttpHeaders();
 		ContentStore<Object,Serializable> store = info.getImpementation();
-		InputStream content = ContentStoreUtils.getContent(store, propVal, mimeTypes, headers);
+		org.springframework.core.io.Resource resource = ContentStoreUtils.getResource(store, propVal, mimeTypes, acceptEncoding, headers);
+		if (resource != null) {
+			handler.handleRequest(resource, headers, request, response);
+			return null;
+		}
+		InputStream content = ContentStoreUtils.getContent(store, propVal, mimeTypes, acceptEncoding, headers);
 		if (content != null) {		
 			InputStreamResource inputStreamResource = new InputStreamResource(content);
 			return new ResponseEntity<InputStreamResource>(inputStreamResource, headers, HttpStatus.OK);
@@ -190,6 +197,51 @@ public class ContentPropertyCollectionRestController extends AbstractContentProp
 		}
 	}
 
+	@StoreType("contentstore")
+	@RequestMapping(value = BASE_MAPPING, method = RequestMethod.HEAD, headers="accept!=application/hal+json")
+	public ResponseEntity<Void> headContent(@PathVariable String repository, 
+											@PathVariable String id, 
+											@PathVariable String contentProperty) 
+			throws HttpRequestMethodNotSupportedException {
+		
+		Object domainObj = findOne(repositories, repository, id);
+				
+		PersistentEntity<?,?> entity = repositories.getPersistentEntity(domainObj.getClass());
+		if (null == entity)
+			throw new ResourceNotFoundException();
+		
+		PersistentProperty<?> property = this.getContentPropertyDefinition(entity, contentProperty);
+		if (PersistentEntityUtils.isPropertyMultiValued(property)) {
+			return new ResponseEntity<Void>(HttpStatus.METHOD_NOT_ALLOWED);
+		} 
+
+		PersistentPropertyAccessor accessor = property.getOwner().getPropertyAccessor(domainObj);
+		Object propVal = accessor.getProperty(property);
+		if (propVal == null)
+			throw new ResourceNotFoundException("No content");
+		
+		if (!BeanUtils.hasFieldWithAnnotation(propVal,ContentId.class)) {
+			throw new ResourceNotFoundException("Missing @ContentId");
+		}
+		
+		Serializable cid = (Serializable) BeanUtils.getFieldWithAnnotation(propVal,ContentId.class);
+		if (cid == null) {
+			throw new ResourceNotFoundException();
+		}
+
+		ContentStoreInfo info = ContentStoreUtils.findContentStore(storeService, propVal.getClass());
+		if (info == null)
+			throw new IllegalStateException(String.format("Unable to find a content store for %s", repository));
+
+		ContentMetadata metadata = ((Store)info.getImpementation()).getMetadata(cid);
+		if (!metadata.exists()) {
+			throw new ResourceNotFoundException();
+		}
+
+		Object mimeType = BeanUtils.getFieldWithAnnotation(propVal, MimeType.class);
+		return new ResponseEntity<Void>(ContentStoreUtils.metadataHeaders(metadata, mimeType != null ? mimeType.toString() : null), HttpStatus.OK);
+	}
+
 	@StoreType("contentstore")
 	@RequestMapping(value = BASE_MAPPING, method = RequestMethod.PUT, headers = "content-type!=multipart/form-data")
 	@ResponseBody
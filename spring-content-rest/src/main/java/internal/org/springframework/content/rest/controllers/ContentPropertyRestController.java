@@ -15,6 +15,7 @@ import org.springframework.content.commons.annotations.Content;
 import org.springframework.content.commons.annotations.ContentId;
 import org.springframework.content.commons.annotations.MimeType;
 import org.springframework.content.commons.annotations.OriginalFileName;
+import org.springframework.content.commons.repository.ContentMetadata;
 import org.springframework.content.commons.repository.ContentStore;
 import org.springframework.content.commons.repository.Store;
 import org.springframework.content.commons.storeservice.ContentStoreInfo;
@@ -119,12 +120,15 @@ public class ContentPropertyRestController extends AbstractContentPropertyContro
 	
 	@StoreType("contentstore")
 	@RequestMapping(value = BASE_MAPPING, method = RequestMethod.GET)
-	public ResponseEntity<InputStreamResource> getContent(@PathVariable String repository, 
+	public ResponseEntity<InputStreamResource> getContent(HttpServletRequest request, 
+														  HttpServletResponse response,
+														  @PathVariable String repository, 
 														  @PathVariable String id, 
 														  @PathVariable String contentProperty,
 														  @PathVariable String contentId,
-														  @RequestHeader("Accept") String mimeType) 
-			throws HttpRequestMethodNotSupportedException {
+														  @RequestHeader("Accept") String mimeType,
+														  @RequestHeader(value="Accept-Encoding", required=false) String acceptEncoding) 
+			throws HttpRequestMethodNotSupportedException, ServletException, IOException {
 		
 		Object domainObj = findOne(repositories, repository, id);
 		
@@ -152,7 +156,12 @@ public class ContentPropertyRestController extends AbstractContentPropertyContro
 		
 		final HttpHeaders headers = new HttpHeaders();
 		ContentStore<Object,Serializable> store = info.getImpementation();
-		InputStream content = ContentStoreUtils.getContent(store, contentPropertyValue, mimeTypes, headers);
+		Resource resource = ContentStoreUtils.getResource(store, contentPropertyValue, mimeTypes, acceptEncoding, headers);
+		if (resource != null) {
+			handler.handleRequest(resource, headers, request, response);
+			return null;
+		}
+		InputStream content = ContentStoreUtils.getContent(store, contentPropertyValue, mimeTypes, acceptEncoding, headers);
 		if (content != null) {		
 			InputStreamResource inputStreamResource = new InputStreamResource(content);
 			return new ResponseEntity<InputStreamResource>(inputStreamResource, headers, HttpStatus.OK);
@@ -161,6 +170,47 @@ public class ContentPropertyRestController extends AbstractContentPropertyContro
 		}
 	}
 
+	@StoreType("contentstore")
+	@RequestMapping(value = BASE_MAPPING, method = RequestMethod.HEAD, headers="accept!=application/hal+json")
+	public ResponseEntity<Void> headContent(@PathVariable String repository, 
+											@PathVariable String id, 
+											@PathVariable String contentProperty,
+											@PathVariable String contentId) 
+			throws HttpRequestMethodNotSupportedException {
+		
+		Object domainObj = findOne(repositories, repository, id);
+		
+		Object contentPropertyValue = null;
+		Class<?> contentEntityClass = null;
+		
+		if (domainObj.getClass().isAnnotationPresent(Content.class)) {
+			contentPropertyValue = domainObj;
+			contentEntityClass = domainObj.getClass();
+		} else {
+			PersistentProperty<?> property = getContentPropertyDefinition(repositories.getPersistentEntity(domainObj.getClass()), contentProperty);
+			contentEntityClass = ContentPropertyUtils.getContentPropertyType(property);
+			contentPropertyValue = getContentProperty(domainObj, property, contentId);
+		}
+
+		ContentStoreInfo info = ContentStoreUtils.findContentStore(storeService, contentEntityClass);
+		if (info == null) {
+			throw new IllegalArgumentException(String.format("Store for entity class %s not found", contentEntityClass.getCanonicalName()));
+		}
+
+		Serializable cid = (Serializable) BeanUtils.getFieldWithAnnotation(contentPropertyValue, ContentId.class);
+		if (cid == null) {
+			throw new ResourceNotFoundException();
+		}
+
+		ContentMetadata metadata = ((Store)info.getImpementation()).getMetadata(cid);
+		if (!metadata.exists()) {
+			throw new ResourceNotFoundException();
+		}
+
+		Object mimeType = BeanUtils.getFieldWithAnnotation(contentPropertyValue, MimeType.class);
+		return new ResponseEntity<Void>(ContentStoreUtils.metadataHeaders(metadata, mimeType != null ? mimeType.toString() : null), HttpStatus.OK);
+	}
+
 	@StoreType("contentstore")
 	@RequestMapping(value = BASE_MAPPING, method = RequestMethod.PUT)
 	@ResponseBody
@@ -11,11 +11,14 @@ import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.io.IOUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.content.commons.io.DeletableResource;
+import org.springframework.content.commons.repository.ContentMetadata;
 import org.springframework.content.commons.repository.Store;
 import org.springframework.content.commons.storeservice.ContentStoreInfo;
 import org.springframework.content.commons.storeservice.ContentStoreService;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.WritableResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -72,6 +75,28 @@ public class StoreRestController extends AbstractContentPropertyController {
 		return;
 	}
 	
+	@StoreType("store")
+	@RequestMapping(value = BASE_MAPPING, method = RequestMethod.HEAD)
+	public ResponseEntity<Void> headContent(HttpServletRequest request, 
+											@PathVariable String store) {
+		
+		ContentStoreInfo info = ContentStoreUtils.findStore(storeService, store);
+		if (info == null) {
+			throw new IllegalArgumentException("Entity not a content repository");
+		}
+		
+		String path = new UrlPathHelper().getPathWithinApplication(request);
+		String pathToUse = path.substring(ContentStoreUtils.storePath(info).length() + 1);
+
+		ContentMetadata metadata = ((Store)info.getImpementation()).getMetadata(pathToUse);
+		if (!metadata.exists()) {
+			throw new ResourceNotFoundException();
+		}
+
+		String mimeType = request.getServletContext().getMimeType(pathToUse);
+		return new ResponseEntity<Void>(ContentStoreUtils.metadataHeaders(metadata, mimeType), HttpStatus.OK);
+	}
+	
 	@StoreType("store")
 	@RequestMapping(value = BASE_MAPPING, method = RequestMethod.PUT, headers={"content-type!=multipart/form-data", "accept!=application/hal+json"})
 	@ResponseBody
@@ -91,7 +91,7 @@ public class ContentHandlerMapping extends RequestMappingHandlerMapping {
 
 	private boolean isHalOrJsonRequest(HttpServletRequest request) {
 		String method = request.getMethod();
-		if ("GET".equals(method) || "DELETE".equals(method)) {
+		if ("GET".equals(method) || "HEAD".equals(method) || "DELETE".equals(method)) {
 			String accept = request.getHeader("Accept");
 			if (accept != null) {
 				try {
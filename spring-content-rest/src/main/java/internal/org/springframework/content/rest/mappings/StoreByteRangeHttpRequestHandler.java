@@ -1,30 +1,343 @@
 package internal.org.springframework.content.rest.mappings;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.content.commons.io.FileChannelResource;
+import org.springframework.content.commons.io.RangeableResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.MediaType;
 import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
 
 public class StoreByteRangeHttpRequestHandler extends ResourceHttpRequestHandler {
 
+	// the request attributes of containers, like Tomcat, that send files with sendfile
+	static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+	static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+	static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+	static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+	// smaller files are written faster than they are sent with sendfile
+	static final long SENDFILE_MIN_SIZE = 48L * 1024L;
+
+	private static final String SENDFILE = "SPRING_CONTENT_SENDFILE";
+
 	public StoreByteRangeHttpRequestHandler() {
 	}
 
+	/*
+	 * Files are sent with sendfile when the container says it supports it for the request,
+	 * whatever the response is wrapped in.
+	 */
+	@Override
+	public void handleRequest(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+		request.setAttribute(SENDFILE, Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED)));
+		super.handleRequest(request, response);
+	}
+
+	/**
+	 * Sends a resource of content with the headers of its entity.  The Content-Type header gives
+	 * the content's mime type, and the other headers the handler does not set are added to the
+	 * response.
+	 *
+	 * @param resource the resource
+	 * @param headers the headers
+	 * @param request the request
+	 * @param response the response
+	 * @throws ServletException if the request cannot be handled
+	 * @throws IOException if the resource cannot be sent
+	 */
+	public void handleRequest(Resource resource, HttpHeaders headers, HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+		request.setAttribute("SPRING_CONTENT_RESOURCE", resource);
+		if (headers.getContentType() != null) {
+			request.setAttribute("SPRING_CONTENT_CONTENTTYPE", headers.getContentType().toString());
+		}
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(header.getKey()) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getKey())) {
+				continue;
+			}
+			for (String value : header.getValue()) {
+				response.addHeader(header.getKey(), value);
+			}
+		}
+		handleRequest(request, response);
+	}
+
     @Override
     protected Resource getResource(HttpServletRequest request) throws IOException {
-	    return (Resource)request.getAttribute("SPRING_CONTENT_RESOURCE");
+	    Resource resource = (Resource)request.getAttribute("SPRING_CONTENT_RESOURCE");
+	    String range = request.getHeader(HttpHeaders.RANGE);
+	    if (resource instanceof FileChannelResource && Boolean.TRUE.equals(request.getAttribute(SENDFILE))) {
+	        Resource sent = sendfile((FileChannelResource)resource, range, request);
+	        if (sent != null) {
+	            return sent;
+	        }
+	    }
+	    if (range != null && resource instanceof RangeableResource) {
+	        return rangeable((RangeableResource)resource, range);
+	    }
+	    return resource;
     }
 
 	@Override
 	protected MediaType getMediaType(HttpServletRequest request, Resource resource) {
 		if (request.getAttribute("SPRING_CONTENT_CONTENTTYPE") != null) {
-			return MediaType.valueOf((String)request.getAttribute("SPRING_CONTENT_CONTENTTYPE")); 
+			return MediaType.valueOf((String)request.getAttribute("SPRING_CONTENT_CONTENTTYPE"));
 		}
 		return super.getMediaType(request, resource);
 	}
-    
-    
+
+	/*
+	 * Each requested region is written by skipping a stream of the whole resource to the start
+	 * of the region.  The returned resource's streams instead read the region from the store when
+	 * they are first skipped, so only the requested bytes are fetched.
+	 */
+	private Resource rangeable(RangeableResource resource, String range) {
+		Map<Long, Long> regions = new HashMap<>();
+		try {
+			List<HttpRange> ranges = HttpRange.parseRanges(range);
+			for (ResourceRegion region : HttpRange.toResourceRegions(ranges, resource)) {
+				regions.put(region.getPosition(), region.getCount());
+			}
+		} catch (IllegalArgumentException iae) {
+			// unsatisfiable ranges are rejected by the handler
+			return resource;
+		}
+		return new RegionResource(resource, regions);
+	}
+
+	/*
+	 * The whole file, or the one region requested, is sent by the container with sendfile, and so
+	 * with FileChannel.transferTo, once the response is committed.  The returned resource's
+	 * streams set the region of the file to send on the request and return no content themselves.
+	 * Several regions are written as the parts of one body, so they are not sent this way.
+	 */
+	private Resource sendfile(FileChannelResource resource, String range, HttpServletRequest request) throws IOException {
+		if (!resource.exists() || resource.contentLength() < SENDFILE_MIN_SIZE) {
+			return null;
+		}
+		Map<Long, Long> regions = new HashMap<>();
+		if (range != null) {
+			try {
+				List<HttpRange> ranges = HttpRange.parseRanges(range);
+				if (ranges.size() != 1) {
+					return null;
+				}
+				ResourceRegion region = ranges.get(0).toResourceRegion(resource);
+				regions.put(region.getPosition(), region.getCount());
+			} catch (IllegalArgumentException iae) {
+				return null;
+			}
+		}
+		return new SendfileResource(resource, regions, request);
+	}
+
+	private static class RegionResource extends DelegatingResource {
+
+		private final RangeableResource resource;
+		private final Map<Long, Long> regions;
+
+		RegionResource(RangeableResource resource, Map<Long, Long> regions) {
+			super(resource);
+			this.resource = resource;
+			this.regions = regions;
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			return new RegionInputStream(resource, regions);
+		}
+	}
+
+	private static class SendfileResource extends DelegatingResource {
+
+		private final FileChannelResource resource;
+		private final Map<Long, Long> regions;
+		private final HttpServletRequest request;
+
+		SendfileResource(FileChannelResource resource, Map<Long, Long> regions, HttpServletRequest request) {
+			super(resource);
+			this.resource = resource;
+			this.regions = regions;
+			this.request = request;
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			return new SendfileInputStream(resource, regions, request);
+		}
+	}
+
+	private static abstract class DelegatingResource implements Resource {
+
+		private final Resource resource;
+
+		DelegatingResource(Resource resource) {
+			this.resource = resource;
+		}
+
+		@Override
+		public boolean exists() {
+			return resource.exists();
+		}
+
+		@Override
+		public boolean isReadable() {
+			return resource.isReadable();
+		}
+
+		@Override
+		public boolean isOpen() {
+			return resource.isOpen();
+		}
+
+		@Override
+		public URL getURL() throws IOException {
+			return resource.getURL();
+		}
+
+		@Override
+		public URI getURI() throws IOException {
+			return resource.getURI();
+		}
+
+		@Override
+		public File getFile() throws IOException {
+			return resource.getFile();
+		}
+
+		@Override
+		public long contentLength() throws IOException {
+			return resource.contentLength();
+		}
+
+		@Override
+		public long lastModified() throws IOException {
+			return resource.lastModified();
+		}
+
+		@Override
+		public Resource createRelative(String relativePath) throws IOException {
+			return resource.createRelative(relativePath);
+		}
+
+		@Override
+		public String getFilename() {
+			return resource.getFilename();
+		}
+
+		@Override
+		public String getDescription() {
+			return resource.getDescription();
+		}
+	}
+
+	private static class SendfileInputStream extends InputStream {
+
+		private final FileChannelResource resource;
+		private final Map<Long, Long> regions;
+		private final HttpServletRequest request;
+
+		private boolean sent = false;
+
+		SendfileInputStream(FileChannelResource resource, Map<Long, Long> regions, HttpServletRequest request) {
+			this.resource = resource;
+			this.regions = regions;
+			this.request = request;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			if (!sent) {
+				Long count = regions.get(n);
+				send(n, (count != null ? count : resource.contentLength() - n));
+			}
+			return n;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (!sent) {
+				send(0L, resource.contentLength());
+			}
+			return -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			return read();
+		}
+
+		private void send(long position, long count) throws IOException {
+			request.setAttribute(SENDFILE_FILENAME, resource.getFile().getAbsolutePath());
+			request.setAttribute(SENDFILE_START, position);
+			request.setAttribute(SENDFILE_END, position + count);
+			sent = true;
+		}
+	}
+
+	private static class RegionInputStream extends InputStream {
+
+		private final RangeableResource resource;
+		private final Map<Long, Long> regions;
+
+		private InputStream in;
+
+		RegionInputStream(RangeableResource resource, Map<Long, Long> regions) {
+			this.resource = resource;
+			this.regions = regions;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			if (in == null) {
+				Long count = regions.get(n);
+				in = resource.getInputStream(n, (count != null ? count : Long.MAX_VALUE));
+				return n;
+			}
+			return in.skip(n);
+		}
+
+		@Override
+		public int read() throws IOException {
+			return stream().read();
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			return stream().read(b, off, len);
+		}
+
+		@Override
+		public int available() throws IOException {
+			return stream().available();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (in != null) {
+				in.close();
+			}
+		}
+
+		private InputStream stream() throws IOException {
+			if (in == null) {
+				in = resource.getInputStream();
+			}
+			return in;
+		}
+	}
 }
@@ -1,13 +1,18 @@
 package internal.org.springframework.content.rest.utils;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
 import java.util.List;
 
 import org.atteo.evo.inflector.English;
+import org.springframework.content.commons.annotations.ContentId;
 import org.springframework.content.commons.annotations.ContentLength;
 import org.springframework.content.commons.annotations.OriginalFileName;
+import org.springframework.content.commons.io.ContentEncodedInputStream;
+import org.springframework.content.commons.io.ContentEncodedResource;
 import org.springframework.content.commons.renditions.Renderable;
+import org.springframework.content.commons.repository.ContentMetadata;
 import org.springframework.content.commons.repository.ContentStore;
 import org.springframework.content.commons.repository.Store;
 import org.springframework.content.commons.storeservice.ContentStoreInfo;
@@ -15,6 +20,7 @@ import org.springframework.content.commons.storeservice.ContentStoreService;
 import org.springframework.content.commons.utils.BeanUtils;
 import org.springframework.content.rest.StoreRestResource;
 import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.util.StringUtils;
@@ -37,8 +43,25 @@ public final class ContentStoreUtils {
 	 * 
 	 * @return input stream
 	 */
-	@SuppressWarnings("unchecked")
 	public static InputStream getContent(ContentStore<Object,Serializable> store, Object entity, List<MediaType> mimeTypes, HttpHeaders headers) {
+		return getContent(store, entity, mimeTypes, null, headers);
+	}
+
+	/**
+	 * As {@link #getContent(ContentStore, Object, List, HttpHeaders)} but when the content is stored
+	 * encoded, for instance compressed, with a content-coding the client accepts the content is
+	 * returned as it is stored and the Content-Encoding header is set.
+	 * 
+	 * @param store		store the store to fetch the content from
+	 * @param entity 	the entity whose content is being fetched
+	 * @param mimeTypes	the mime types requested
+	 * @param acceptEncoding	the Accept-Encoding header of the request, or null
+	 * @param headers 	headers that will be sent back to the client
+	 * 
+	 * @return input stream
+	 */
+	@SuppressWarnings("unchecked")
+	public static InputStream getContent(ContentStore<Object,Serializable> store, Object entity, List<MediaType> mimeTypes, String acceptEncoding, HttpHeaders headers) {
 		InputStream content = null;
 		
 		Object entityMimeType = BeanUtils.getFieldWithAnnotation(entity, org.springframework.content.commons.annotations.MimeType.class);
@@ -67,7 +90,7 @@ public final class ContentStoreUtils {
 				if (len != null)
 					headers.setContentLength(Long.parseLong(len.toString()));
 				
-				content = store.getContent(entity);
+				content = encoded(store.getContent(entity), acceptEncoding, headers);
 				break;
 			} else if (store instanceof Renderable) {
 				content = ((Renderable<Object>)store).getRendition(entity, mimeType.toString());
@@ -76,6 +99,148 @@ public final class ContentStoreUtils {
 		return content;
 	}
 	
+	/**
+	 * Returns the resource of the content when the content is sent as it is stored, so that it can
+	 * be sent by a {@link internal.org.springframework.content.rest.mappings.StoreByteRangeHttpRequestHandler},
+	 * or null when it is sent by {@link #getContent(ContentStore, Object, List, String, HttpHeaders)}
+	 * instead: as a rendition of another mime type, or encoded because the client accepts its
+	 * content-coding.  The Content-Type, Content-Disposition and Vary headers of the content are
+	 * set; the handler sets the others from the resource.
+	 * 
+	 * @param store		store the store to fetch the content from
+	 * @param entity 	the entity whose content is being fetched
+	 * @param mimeTypes	the mime types requested
+	 * @param acceptEncoding	the Accept-Encoding header of the request, or null
+	 * @param headers 	headers that will be sent back to the client
+	 * 
+	 * @return the resource, or null
+	 */
+	@SuppressWarnings("unchecked")
+	public static Resource getResource(ContentStore<Object,Serializable> store, Object entity, List<MediaType> mimeTypes, String acceptEncoding, HttpHeaders headers) {
+		Object entityMimeType = BeanUtils.getFieldWithAnnotation(entity, org.springframework.content.commons.annotations.MimeType.class);
+		Object contentId = BeanUtils.getFieldWithAnnotation(entity, ContentId.class);
+		if (entityMimeType == null || contentId == null || !(store instanceof Store)) {
+			return null;
+		}
+		
+		MediaType targetMimeType = MediaType.valueOf(entityMimeType.toString());
+		
+		MediaType.sortBySpecificityAndQuality(mimeTypes);
+		
+		// the content is sent as it is stored when no rendition is asked for before it
+		boolean stored = false;
+		for (MediaType mimeType : mimeTypes) {
+			if (mimeType.includes(targetMimeType)) {
+				stored = true;
+				break;
+			} else if (store instanceof Renderable) {
+				return null;
+			}
+		}
+		if (!stored) {
+			return null;
+		}
+		
+		Resource resource = ((Store<Serializable>)store).getResource((Serializable)contentId);
+		if (resource == null || !resource.exists()) {
+			return null;
+		}
+		if (acceptEncoding != null && resource instanceof ContentEncodedResource) {
+			try {
+				if (accepts(acceptEncoding, ((ContentEncodedResource)resource).getContentEncoding())) {
+					return null;
+				}
+			} catch (IOException ioe) {
+				return null;
+			}
+			headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		}
+		
+		Object originalFileName = BeanUtils.getFieldWithAnnotation(entity, OriginalFileName.class);
+		if (originalFileName != null) {
+			headers.setContentDispositionFormData("attachment", (String)originalFileName);
+		}
+		headers.setContentType(targetMimeType);
+		return resource;
+	}
+	
+	/*
+	 * Encoded content is read through the store, like any other, and the stream it returns is then
+	 * swapped for the content as it is stored, with the stored length as its Content-Length when
+	 * the stream knows it.  Content sent decoded keeps its decoded length.
+	 */
+	private static InputStream encoded(InputStream content, String acceptEncoding, HttpHeaders headers) {
+		if (acceptEncoding == null || !(content instanceof ContentEncodedInputStream)) {
+			return content;
+		}
+		ContentEncodedInputStream encoded = (ContentEncodedInputStream)content;
+		String encoding = encoded.getContentEncoding();
+		headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (!accepts(acceptEncoding, encoding)) {
+			return content;
+		}
+		try {
+			InputStream stored = encoded.getEncodedInputStream();
+			headers.set(HttpHeaders.CONTENT_ENCODING, encoding);
+			long encodedLength = encoded.getEncodedLength();
+			if (encodedLength >= 0) {
+				headers.setContentLength(encodedLength);
+			} else {
+				headers.remove(HttpHeaders.CONTENT_LENGTH);
+			}
+			return stored;
+		} catch (IOException ioe) {
+			// served decoded
+			return content;
+		}
+	}
+
+	private static boolean accepts(String acceptEncoding, String encoding) {
+		for (String coding : StringUtils.commaDelimitedListToStringArray(acceptEncoding)) {
+			String[] params = StringUtils.tokenizeToStringArray(coding, ";");
+			if (params.length == 0 || !(params[0].equalsIgnoreCase(encoding) || params[0].equals("*"))) {
+				continue;
+			}
+			boolean acceptable = true;
+			for (int i = 1; i < params.length; i++) {
+				if (params[i].startsWith("q=")) {
+					try {
+						acceptable = Double.parseDouble(params[i].substring(2)) > 0;
+					} catch (NumberFormatException nfe) {
+						acceptable = false;
+					}
+				}
+			}
+			return acceptable;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the headers of a HEAD request for content, taken from the content's metadata so the
+	 * content is not read.
+	 * 
+	 * @param metadata	the metadata of the content
+	 * @param mimeType	the mime type of the content, or null if it is not known
+	 * 
+	 * @return the headers
+	 */
+	public static HttpHeaders metadataHeaders(ContentMetadata metadata, String mimeType) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentLength(metadata.getLength());
+		headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+		if (metadata.getLastModified() > 0) {
+			headers.setLastModified(metadata.getLastModified());
+		}
+		if (metadata.getChecksum() != null) {
+			headers.setETag("\"" + metadata.getChecksum() + "\"");
+		}
+		if (StringUtils.hasText(mimeType)) {
+			headers.setContentType(MediaType.valueOf(mimeType));
+		}
+		return headers;
+	}
+
 	public static ContentStoreInfo findContentStore(ContentStoreService stores, Class<?> contentEntityClass) {
 		
 		for (ContentStoreInfo info : stores.getStores(ContentStore.class)) {
@@ -131,6 +131,17 @@ public class ContentPropertyRestControllerIntegrationTest {
 							assertThat(response.getContentAsString(), is("Hello Spring Content World!"));
 						});
 					});
+					Context("a HEAD to /{repository}/{id}/{contentProperty}", () -> {
+						It("should return the content's metadata without its content", () -> {
+							MockHttpServletResponse response = mvc.perform(head("/files/" + testEntity2.id.toString() + "/child"))
+									.andExpect(status().isOk())
+									.andReturn().getResponse();
+
+							assertThat(response.getHeader("Content-Length"), is("27"));
+							assertThat(response.getContentType(), is("text/plain"));
+							assertThat(response.getContentAsString(), is(""));
+						});
+					});
 					Context("a GET to /{repository}/{id}/{contentProperty} with a range", () -> {
 						It("should return the content", () -> {
 							MockHttpServletResponse response = mvc.perform(get("/files/" + testEntity2.id.toString() + "/child")
@@ -201,6 +212,17 @@ public class ContentPropertyRestControllerIntegrationTest {
 							assertThat(response.getContentAsString(), is("Hello Spring Content World!"));
 						});
 					});
+					Context("a HEAD to /{repository}/{id}/{contentProperty}/{contentId}", () -> {
+						It("should return the content's metadata without its content", () -> {
+							MockHttpServletResponse response = mvc.perform(head("/files/" + testEntity2.id.toString() + "/child/" + testEntity2.child.contentId))
+									.andExpect(status().isOk())
+									.andReturn().getResponse();
+
+							assertThat(response.getHeader("Content-Length"), is("27"));
+							assertThat(response.getContentType(), is("text/plain"));
+							assertThat(response.getContentAsString(), is(""));
+						});
+					});
 					Context("a GET to /{repository}/{id}/{contentProperty}/{contentId} with a range", () -> {
 						It("should return the content", () -> {
 							MockHttpServletResponse response = mvc.perform(get("/files/" + testEntity2.id.toString() + "/child/" + testEntity2.child.contentId)
@@ -4,6 +4,7 @@ import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.fileUpload;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -96,6 +97,15 @@ public class StoreRestControllerIntegrationTest {
 					assertThat(response, is(not(nullValue())));
 					assertThat(response.getContentAsString(), is("cont"));
 				});
+				It("should return the resource's metadata without its content", () -> {
+					MockHttpServletResponse response = mvc.perform(head(request))
+							.andExpect(status().isOk())
+							.andReturn().getResponse();
+
+					assertThat(response.getHeader("Content-Length"), is("16"));
+					assertThat(response.getHeader("Accept-Ranges"), is("bytes"));
+					assertThat(response.getContentAsString(), is(""));
+				});
 				It("should overwrite the resource's content", () -> {
 					mvc.perform(put(request)
 							.content("New Existing content")
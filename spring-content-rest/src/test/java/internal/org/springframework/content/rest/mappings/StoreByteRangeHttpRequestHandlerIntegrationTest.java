@@ -0,0 +1,190 @@
+package internal.org.springframework.content.rest.mappings;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.descriptor.web.FilterDef;
+import org.apache.tomcat.util.descriptor.web.FilterMap;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.content.fs.io.FileSystemDeletableResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jConfiguration;
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.AfterEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.BeforeEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Context;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Describe;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.It;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.JustBeforeEach;
+
+@RunWith(Ginkgo4jRunner.class)
+@Ginkgo4jConfiguration(threads=1)
+public class StoreByteRangeHttpRequestHandlerIntegrationTest {
+
+	private Tomcat tomcat;
+	private File base;
+	private File file;
+	private byte[] content;
+
+	private boolean wrapResponse;
+	private volatile Object sentFile;
+
+	private HttpURLConnection connection;
+
+	{
+		Describe("StoreByteRangeHttpRequestHandler in Tomcat", () -> {
+			BeforeEach(() -> {
+				base = Files.createTempDirectory("tomcat").toFile();
+				content = new byte[200000];
+				new Random(42L).nextBytes(content);
+				file = new File(base, "content");
+				Files.write(file.toPath(), content);
+				wrapResponse = false;
+				sentFile = null;
+			});
+			JustBeforeEach(() -> {
+				tomcat = new Tomcat();
+				tomcat.setBaseDir(base.getAbsolutePath());
+				tomcat.setPort(0);
+				Context context = tomcat.addContext("", base.getAbsolutePath());
+				Tomcat.addServlet(context, "content", new ContentServlet());
+				context.addServletMappingDecoded("/*", "content");
+				if (wrapResponse) {
+					FilterDef wrapping = new FilterDef();
+					wrapping.setFilterName("wrapping");
+					wrapping.setFilter(new WrappingFilter());
+					context.addFilterDef(wrapping);
+					FilterMap mapping = new FilterMap();
+					mapping.setFilterName("wrapping");
+					mapping.addURLPattern("/*");
+					context.addFilterMap(mapping);
+				}
+				tomcat.start();
+
+				connection = (HttpURLConnection) new URL("http", "localhost", tomcat.getConnector().getLocalPort(), "/content").openConnection();
+			});
+			AfterEach(() -> {
+				connection.disconnect();
+				tomcat.stop();
+				tomcat.destroy();
+				FileSystemUtils.deleteRecursively(base);
+			});
+			It("should send the whole file with sendfile", () -> {
+				assertThat(connection.getResponseCode(), is(200));
+				assertThat(Arrays.equals(body(connection), content), is(true));
+				assertThat(sentFile, is(notNullValue()));
+			});
+			Context("given a range request", () -> {
+				JustBeforeEach(() -> {
+					connection.setRequestProperty("Range", "bytes=1000-150999");
+				});
+				It("should send the range of the file with sendfile", () -> {
+					assertThat(connection.getResponseCode(), is(206));
+					assertThat(connection.getHeaderField("Content-Range"), is("bytes 1000-150999/200000"));
+					assertThat(Arrays.equals(body(connection), Arrays.copyOfRange(content, 1000, 151000)), is(true));
+					assertThat(sentFile, is(notNullValue()));
+				});
+			});
+			Context("given a filter that wraps the response", () -> {
+				BeforeEach(() -> {
+					wrapResponse = true;
+				});
+				It("should write the file itself", () -> {
+					assertThat(connection.getResponseCode(), is(200));
+					assertThat(Arrays.equals(body(connection), content), is(true));
+					assertThat(sentFile, is(nullValue()));
+				});
+			});
+		});
+	}
+
+	@Test
+	public void noop() {
+	}
+
+	private static byte[] body(HttpURLConnection connection) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		try (InputStream in = connection.getInputStream()) {
+			byte[] buffer = new byte[8192];
+			for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+				body.write(buffer, 0, read);
+			}
+		}
+		return body.toByteArray();
+	}
+
+	private class ContentServlet extends HttpServlet {
+
+		private static final long serialVersionUID = 1L;
+
+		private StoreByteRangeHttpRequestHandler handler;
+
+		@Override
+		public void init() throws ServletException {
+			StaticWebApplicationContext context = new StaticWebApplicationContext();
+			context.setServletContext(new MockServletContext());
+			handler = new StoreByteRangeHttpRequestHandler();
+			handler.setApplicationContext(context);
+			try {
+				handler.afterPropertiesSet();
+			} catch (Exception e) {
+				throw new ServletException(e);
+			}
+		}
+
+		@Override
+		protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+			request.setAttribute("SPRING_CONTENT_RESOURCE", new FileSystemDeletableResource(new FileSystemResource(file)));
+			request.setAttribute("SPRING_CONTENT_CONTENTTYPE", "application/octet-stream");
+			handler.handleRequest(request, response);
+			sentFile = request.getAttribute(StoreByteRangeHttpRequestHandler.SENDFILE_FILENAME);
+		}
+	}
+
+	private static class WrappingFilter implements Filter {
+
+		@Override
+		public void init(FilterConfig filterConfig) {
+		}
+
+		@Override
+		public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+			chain.doFilter(request, new HttpServletResponseWrapper((HttpServletResponse) response));
+		}
+
+		@Override
+		public void destroy() {
+		}
+	}
+}
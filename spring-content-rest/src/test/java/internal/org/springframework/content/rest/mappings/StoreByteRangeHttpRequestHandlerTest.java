@@ -0,0 +1,150 @@
+package internal.org.springframework.content.rest.mappings;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.junit.runner.RunWith;
+import org.springframework.content.commons.io.FileChannelResource;
+import org.springframework.content.commons.io.RangeableResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+
+import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.BeforeEach;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Context;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Describe;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.It;
+import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.JustBeforeEach;
+
+@RunWith(Ginkgo4jRunner.class)
+public class StoreByteRangeHttpRequestHandlerTest {
+
+	private StoreByteRangeHttpRequestHandler handler;
+
+	private RangeableResource resource;
+	private FileChannelResource file;
+
+	private MockHttpServletRequest request;
+	private MockHttpServletResponse response;
+	private HttpServletResponse wrapper;
+
+	{
+		Describe("StoreByteRangeHttpRequestHandler", () -> {
+			BeforeEach(() -> {
+				resource = mock(RangeableResource.class);
+				when(resource.exists()).thenReturn(true);
+				when(resource.isReadable()).thenReturn(true);
+				when(resource.contentLength()).thenReturn(20L);
+
+				request = new MockHttpServletRequest("GET", "/testEntities/1");
+				request.setAttribute("SPRING_CONTENT_RESOURCE", resource);
+				request.setAttribute("SPRING_CONTENT_CONTENTTYPE", "text/plain");
+				response = new MockHttpServletResponse();
+				wrapper = null;
+			});
+			JustBeforeEach(() -> {
+				StaticWebApplicationContext context = new StaticWebApplicationContext();
+				context.setServletContext(new MockServletContext());
+				handler = new StoreByteRangeHttpRequestHandler();
+				handler.setApplicationContext(context);
+				handler.afterPropertiesSet();
+				handler.handleRequest(request, (wrapper != null ? wrapper : response));
+			});
+			Context("given a range request for a rangeable resource", () -> {
+				BeforeEach(() -> {
+					request.addHeader("Range", "bytes=6-12");
+					when(resource.getInputStream(6L, 7L)).thenReturn(new ByteArrayInputStream("content".getBytes()));
+				});
+				It("should read only the range from the resource", () -> {
+					assertThat(response.getStatus(), is(206));
+					assertThat(response.getContentAsString(), is("content"));
+					verify(resource, never()).getInputStream();
+				});
+			});
+			Context("given a request without a range", () -> {
+				BeforeEach(() -> {
+					when(resource.getInputStream()).thenReturn(new ByteArrayInputStream("Hello content world!".getBytes()));
+				});
+				It("should read the whole resource", () -> {
+					assertThat(response.getStatus(), is(200));
+					assertThat(response.getContentAsString(), is("Hello content world!"));
+				});
+			});
+			Context("given a resource sent with the headers of its entity", () -> {
+				BeforeEach(() -> {
+					when(resource.getInputStream()).thenReturn(new ByteArrayInputStream("Hello content world!".getBytes()), new ByteArrayInputStream("Hello content world!".getBytes()));
+				});
+				It("should send it with its mime type and headers", () -> {
+					HttpHeaders headers = new HttpHeaders();
+					headers.setContentType(MediaType.valueOf("text/csv"));
+					headers.setContentDispositionFormData("attachment", "content.csv");
+					headers.setContentLength(999L);
+					MockHttpServletRequest request = new MockHttpServletRequest("GET", "/testEntities/1");
+					MockHttpServletResponse response = new MockHttpServletResponse();
+					handler.handleRequest(resource, headers, request, response);
+					assertThat(response.getStatus(), is(200));
+					assertThat(response.getContentType(), is("text/csv"));
+					assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION), is(headers.getFirst(HttpHeaders.CONTENT_DISPOSITION)));
+					assertThat(response.getContentLength(), is(20));
+					assertThat(response.getContentAsString(), is("Hello content world!"));
+				});
+			});
+			Context("given a file", () -> {
+				BeforeEach(() -> {
+					file = mock(FileChannelResource.class);
+					when(file.exists()).thenReturn(true);
+					when(file.isReadable()).thenReturn(true);
+					when(file.contentLength()).thenReturn(100000L);
+					when(file.getFile()).thenReturn(new File("/content/video.mp4"));
+					when(file.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[100000]));
+					request.setAttribute("SPRING_CONTENT_RESOURCE", file);
+				});
+				Context("and a container that sends files with sendfile", () -> {
+					BeforeEach(() -> {
+						request.setAttribute(StoreByteRangeHttpRequestHandler.SENDFILE_SUPPORTED, Boolean.TRUE);
+					});
+					It("should have the container send the file", () -> {
+						assertThat(response.getStatus(), is(200));
+						assertThat(response.getContentAsByteArray().length, is(0));
+						assertThat(request.getAttribute(StoreByteRangeHttpRequestHandler.SENDFILE_FILENAME), is(new File("/content/video.mp4").getAbsolutePath()));
+						assertThat(request.getAttribute(StoreByteRangeHttpRequestHandler.SENDFILE_START), is(0L));
+						assertThat(request.getAttribute(StoreByteRangeHttpRequestHandler.SENDFILE_END), is(100000L));
+					});
+					Context("and a response wrapped by a filter", () -> {
+						BeforeEach(() -> {
+							wrapper = new HttpServletResponseWrapper(response);
+						});
+						It("should have the container send the file", () -> {
+							assertThat(response.getStatus(), is(200));
+							assertThat(response.getContentAsByteArray().length, is(0));
+							assertThat(request.getAttribute(StoreByteRangeHttpRequestHandler.SENDFILE_FILENAME), is(new File("/content/video.mp4").getAbsolutePath()));
+						});
+					});
+				});
+				Context("and a container that does not send files with sendfile", () -> {
+					It("should write the file itself", () -> {
+						assertThat(response.getStatus(), is(200));
+						assertThat(response.getContentAsByteArray().length, is(100000));
+						assertThat(request.getAttribute(StoreByteRangeHttpRequestHandler.SENDFILE_FILENAME), is(nullValue()));
+					});
+				});
+			});
+		});
+	}
+}
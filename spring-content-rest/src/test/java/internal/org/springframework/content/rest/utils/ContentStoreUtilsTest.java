@@ -8,17 +8,23 @@ import java.util.UUID;
 
 import org.junit.runner.RunWith;
 import org.mockito.InOrder;
+import org.springframework.content.commons.io.ContentEncodedInputStream;
+import org.springframework.content.commons.io.ContentEncodedResource;
 import org.springframework.content.commons.renditions.Renderable;
 import org.springframework.content.commons.repository.ContentStore;
+import org.springframework.content.commons.repository.Store;
 import org.springframework.content.commons.storeservice.ContentStoreInfo;
 import org.springframework.content.commons.storeservice.ContentStoreService;
 import org.springframework.content.rest.StoreRestResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 
 import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import static org.mockito.Matchers.anyObject;
@@ -55,6 +61,13 @@ public class ContentStoreUtilsTest {
 	private List<MediaType> mimeTypes;
 	private InputStream content;
 	private HttpHeaders headers;
+
+	private ContentStore<TestEntity, UUID> encodedStore;
+	private String acceptEncoding;
+
+	private ResourceStore resourceStore;
+	private Resource resource;
+	private Resource found;
 	
 	{
 		Describe("ContentStoreUtilsTest", () -> {
@@ -278,6 +291,122 @@ public class ContentStoreUtilsTest {
 				});
 			});
 		});
+		Context("#getContent with an Accept-Encoding", () -> {
+			JustBeforeEach(() -> {
+				headers = new HttpHeaders();
+				content = ContentStoreUtils.getContent((ContentStore)encodedStore, entity, mimeTypes, acceptEncoding, headers);
+			});
+			BeforeEach(() -> {
+				encodedStore = mock(ContentStore.class);
+				entity = new TestEntity();
+				entity.contentId = UUID.randomUUID();
+				entity.setMimeType("text/plain");
+				entity.setLen(100L);
+				mimeTypes = Arrays.asList(new MediaType[] {MediaType.valueOf("text/plain")});
+				when(encodedStore.getContent(eq(entity))).thenReturn(new EncodedStream(new byte[] {1, 2}, 2L));
+			});
+			Context("given the client accepts the encoding of the stored content", () -> {
+				BeforeEach(() -> {
+					acceptEncoding = "deflate, gzip;q=0.8";
+				});
+				It("should return the stored content, read through the store, with a content encoding", () -> {
+					verify(encodedStore).getContent(eq(entity));
+					assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING), is("gzip"));
+					assertThat(headers.getContentLength(), is(2L));
+					assertThat(headers.getFirst(HttpHeaders.VARY), is(HttpHeaders.ACCEPT_ENCODING));
+					assertThat(content.read(), is(1));
+				});
+				Context("given the stored length is not known", () -> {
+					BeforeEach(() -> {
+						when(encodedStore.getContent(eq(entity))).thenReturn(new EncodedStream(new byte[] {1, 2}, -1L));
+					});
+					It("should not send a content length", () -> {
+						assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING), is("gzip"));
+						assertThat(headers.getContentLength(), is(-1L));
+					});
+				});
+			});
+			Context("given the client does not accept the encoding of the stored content", () -> {
+				BeforeEach(() -> {
+					acceptEncoding = "gzip;q=0, br";
+				});
+				It("should return the decoded content", () -> {
+					verify(encodedStore).getContent(eq(entity));
+					assertThat(content, is(instanceOf(EncodedStream.class)));
+					assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING), is(nullValue()));
+					assertThat(headers.getContentLength(), is(100L));
+					assertThat(headers.getFirst(HttpHeaders.VARY), is(HttpHeaders.ACCEPT_ENCODING));
+				});
+			});
+		});
+		Context("#getResource", () -> {
+			JustBeforeEach(() -> {
+				headers = new HttpHeaders();
+				found = ContentStoreUtils.getResource((ContentStore)resourceStore, entity, mimeTypes, acceptEncoding, headers);
+			});
+			BeforeEach(() -> {
+				resourceStore = mock(ResourceStore.class);
+				entity = new TestEntity();
+				entity.contentId = UUID.randomUUID();
+				entity.setMimeType("application/word");
+				entity.setOriginalFileName("content.doc");
+				mimeTypes = Arrays.asList(new MediaType[] {MediaType.valueOf("application/word")});
+				acceptEncoding = null;
+				resource = mock(Resource.class);
+				when(resource.exists()).thenReturn(true);
+				when(resourceStore.getResource(eq(entity.contentId))).thenReturn(resource);
+			});
+			It("should return the content's resource and set its type and disposition headers", () -> {
+				assertThat(found, is(resource));
+				assertThat(headers.getContentType().toString(), is("application/word"));
+				assertThat(headers.getFirst(HttpHeaders.CONTENT_DISPOSITION), is("form-data; name=\"attachment\"; filename=\"content.doc\""));
+			});
+			Context("given the content does not exist", () -> {
+				BeforeEach(() -> {
+					when(resource.exists()).thenReturn(false);
+				});
+				It("should not return a resource", () -> {
+					assertThat(found, is(nullValue()));
+				});
+			});
+			Context("given a renderer and accept mime types text/html, */*", () -> {
+				BeforeEach(() -> {
+					mimeTypes = Arrays.asList(new MediaType[] {
+							MediaType.valueOf("*/*"),
+							MediaType.valueOf("text/html")
+						});
+				});
+				It("should leave the content to be rendered", () -> {
+					assertThat(found, is(nullValue()));
+					verify(resourceStore, never()).getResource(anyObject());
+				});
+			});
+			Context("given content stored encoded", () -> {
+				BeforeEach(() -> {
+					resource = mock(ContentEncodedResource.class);
+					when(resource.exists()).thenReturn(true);
+					when(((ContentEncodedResource)resource).getContentEncoding()).thenReturn("gzip");
+					when(resourceStore.getResource(eq(entity.contentId))).thenReturn(resource);
+				});
+				Context("given the client accepts its encoding", () -> {
+					BeforeEach(() -> {
+						acceptEncoding = "gzip";
+					});
+					It("should leave the content to be sent as it is stored", () -> {
+						assertThat(found, is(nullValue()));
+					});
+				});
+				Context("given the client does not accept its encoding", () -> {
+					BeforeEach(() -> {
+						acceptEncoding = "br";
+					});
+					It("should return the resource, which is decoded as it is read", () -> {
+						assertThat(found, is(resource));
+						assertThat(headers.getFirst(HttpHeaders.VARY), is(HttpHeaders.ACCEPT_ENCODING));
+					});
+				});
+			});
+		});
 	}
 	
 	@ContentStoreRestResource
@@ -303,4 +432,35 @@ public class ContentStoreUtilsTest {
 	public static interface StoreWithRenderable extends ContentStore<TestEntity, UUID>, Renderable<TestEntity> {
 		//
 	}
+
+	public static interface ResourceStore extends StoreWithRenderable, Store<UUID> {
+		//
+	}
+
+	public static class EncodedStream extends ByteArrayInputStream implements ContentEncodedInputStream {
+
+		private final byte[] encoded;
+		private final long encodedLength;
+
+		public EncodedStream(byte[] encoded, long encodedLength) {
+			super(new byte[0]);
+			this.encoded = encoded;
+			this.encodedLength = encodedLength;
+		}
+
+		@Override
+		public String getContentEncoding() {
+			return "gzip";
+		}
+
+		@Override
+		public long getEncodedLength() {
+			return encodedLength;
+		}
+
+		@Override
+		public InputStream getEncodedInputStream() {
+			return new ByteArrayInputStream(encoded);
+		}
+	}
 }
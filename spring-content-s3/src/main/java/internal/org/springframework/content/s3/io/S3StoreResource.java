@@ -0,0 +1,168 @@
+package internal.org.springframework.content.s3.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+
+import org.springframework.content.commons.io.DeletableResource;
+import org.springframework.content.commons.io.RangeableResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.WritableResource;
+import org.springframework.util.Assert;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.DeleteObjectRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+
+/**
+ * An S3 object resource whose ranges are read with ranged GETs and that is deleted with a
+ * DeleteObject request.  Everything else is delegated to the resource loaded for the object.
+ */
+public class S3StoreResource implements WritableResource, RangeableResource, DeletableResource {
+
+	// returned by S3 for a range that starts past the end of the object
+	private static final int RANGE_NOT_SATISFIABLE = 416;
+
+	private final Resource delegate;
+	private final AmazonS3 client;
+	private final String bucket;
+	private final String key;
+
+	public S3StoreResource(Resource delegate, AmazonS3 client, String bucket, String key) {
+		Assert.notNull(delegate, "delegate must be specified");
+		Assert.notNull(client, "client must be specified");
+		this.delegate = delegate;
+		this.client = client;
+		this.bucket = bucket;
+		this.key = key;
+	}
+
+	public String getBucket() {
+		return bucket;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	@Override
+	public InputStream getInputStream(long offset, long length) throws IOException {
+		if (length <= 0) {
+			return new ByteArrayInputStream(new byte[0]);
+		}
+		long end = offset + Math.min(length, Long.MAX_VALUE - offset) - 1;
+		try {
+			return client.getObject(new GetObjectRequest(bucket, key).withRange(offset, end)).getObjectContent();
+		} catch (AmazonS3Exception e) {
+			if (e.getStatusCode() == RANGE_NOT_SATISFIABLE) {
+				return new ByteArrayInputStream(new byte[0]);
+			}
+			throw new IOException(String.format("Unable to get range %d-%d of s3://%s/%s", offset, end, bucket, key), e);
+		} catch (AmazonClientException e) {
+			throw new IOException(String.format("Unable to get range %d-%d of s3://%s/%s", offset, end, bucket, key), e);
+		}
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		return delegate.getInputStream();
+	}
+
+	@Override
+	public boolean isWritable() {
+		return delegate instanceof WritableResource && ((WritableResource)delegate).isWritable();
+	}
+
+	@Override
+	public OutputStream getOutputStream() throws IOException {
+		if (delegate instanceof WritableResource) {
+			return ((WritableResource)delegate).getOutputStream();
+		}
+		throw new FileNotFoundException(String.format("%s is not writable", delegate.getDescription()));
+	}
+
+	@Override
+	public void delete() {
+		client.deleteObject(new DeleteObjectRequest(bucket, key));
+	}
+
+	@Override
+	public boolean exists() {
+		return delegate.exists();
+	}
+
+	@Override
+	public boolean isReadable() {
+		return delegate.isReadable();
+	}
+
+	@Override
+	public boolean isOpen() {
+		return delegate.isOpen();
+	}
+
+	@Override
+	public URL getURL() throws IOException {
+		return delegate.getURL();
+	}
+
+	@Override
+	public URI getURI() throws IOException {
+		return delegate.getURI();
+	}
+
+	@Override
+	public File getFile() throws IOException {
+		return delegate.getFile();
+	}
+
+	@Override
+	public long contentLength() throws IOException {
+		return delegate.contentLength();
+	}
+
+	@Override
+	public long lastModified() throws IOException {
+		return delegate.lastModified();
+	}
+
+	@Override
+	public Resource createRelative(String relativePath) throws IOException {
+		return delegate.createRelative(relativePath);
+	}
+
+	@Override
+	public String getFilename() {
+		return delegate.getFilename();
+	}
+
+	@Override
+	public String getDescription() {
+		return delegate.getDescription();
+	}
+
+	@Override
+	public String toString() {
+		return delegate.toString();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof S3StoreResource) {
+			return delegate.equals(((S3StoreResource)obj).delegate);
+		}
+		return delegate.equals(obj);
+	}
+
+	@Override
+	public int hashCode() {
+		return delegate.hashCode();
+	}
+}
@@ -6,13 +6,25 @@ import java.io.OutputStream;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.content.commons.annotations.ContentId;
 import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.io.RangeableResource;
+import org.springframework.content.commons.repository.ContentMetadata;
 import org.springframework.content.commons.repository.ContentStore;
 import org.springframework.content.commons.repository.Store;
 import org.springframework.content.commons.repository.StoreAccessException;
@@ -26,13 +38,38 @@ import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.WritableResource;
 import org.springframework.util.Assert;
 
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.CopyPartResult;
 import com.amazonaws.services.s3.model.DeleteObjectRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest.KeyVersion;
+import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+
+import internal.org.springframework.content.s3.io.S3StoreResource;
 
 public class DefaultS3StoreImpl<S, SID extends Serializable> implements Store<SID>, ContentStore<S,SID> {
 
 	private static Log logger = LogFactory.getLog(DefaultS3StoreImpl.class);
 
+	// the most keys a single DeleteObjects request accepts
+	static final int MAX_DELETE_KEYS = 1000;
+
+	// the largest object a single CopyObject request copies
+	static final long MAX_COPY_SIZE = 5L * 1024 * 1024 * 1024;
+
+	// the size of each part of a multipart copy
+	static final long COPY_PART_SIZE = 512L * 1024 * 1024;
+
 	private ResourceLoader loader;
 	private ConversionService converter;
 	private AmazonS3 client;
@@ -68,7 +105,112 @@ public class DefaultS3StoreImpl<S, SID extends Serializable> implements Store<SI
 		String location = converter.convert(objectId, String.class);
 		location = absolutify(bucket, location);
 		Resource resource = loader.getResource(location);
-		return resource;
+		if (resource == null) {
+			return null;
+		}
+		return new S3StoreResource(resource, client, bucket, location.substring(String.format("s3://%s/", bucket).length()));
+	}
+
+	/**
+	 * Copies the content's object with a CopyObject request, or with a multipart copy when it is
+	 * larger than a CopyObject request accepts, so the content is copied by S3 rather than
+	 * downloaded and uploaded again.  The ids may be in different buckets.
+	 */
+	@Override
+	public void copy(SID from, SID to) {
+		if (from.equals(to)) {
+			return;
+		}
+		S3StoreResource source = (S3StoreResource) this.getResource(from);
+		S3StoreResource target = (S3StoreResource) this.getResource(to);
+		try {
+			if (source == null || !source.exists()) {
+				throw new StoreAccessException(String.format("No content %s to copy", from.toString()));
+			}
+			long length = source.contentLength();
+			if (length <= MAX_COPY_SIZE) {
+				client.copyObject(new CopyObjectRequest(source.getBucket(), source.getKey(), target.getBucket(), target.getKey()));
+			} else {
+				copyParts(source, target, length);
+			}
+		} catch (IOException | AmazonClientException e) {
+			throw new StoreAccessException(String.format("Unexpected error copying content %s to %s", from.toString(), to.toString()), e);
+		}
+	}
+
+	/**
+	 * Copies the content's object and then deletes it, as S3 cannot rename objects.
+	 */
+	@Override
+	public void move(SID from, SID to) {
+		if (from.equals(to)) {
+			return;
+		}
+		this.copy(from, to);
+		S3StoreResource source = (S3StoreResource) this.getResource(from);
+		try {
+			client.deleteObject(new DeleteObjectRequest(source.getBucket(), source.getKey()));
+		} catch (AmazonClientException e) {
+			throw new StoreAccessException(String.format("Unexpected error moving content %s to %s", from.toString(), to.toString()), e);
+		}
+	}
+
+	/**
+	 * Heads the content's object, so the metadata is read without the object's content.
+	 */
+	@Override
+	public ContentMetadata getMetadata(SID id) {
+		S3StoreResource resource = (S3StoreResource) this.getResource(id);
+		try {
+			ObjectMetadata metadata = client.getObjectMetadata(new GetObjectMetadataRequest(resource.getBucket(), resource.getKey()));
+			long lastModified = (metadata.getLastModified() != null ? metadata.getLastModified().getTime() : 0L);
+			return new ContentMetadata(id, metadata.getContentLength(), lastModified, metadata.getETag());
+		} catch (AmazonServiceException e) {
+			if (e.getStatusCode() == 404) {
+				return ContentMetadata.missing(id);
+			}
+			throw new StoreAccessException(String.format("Unexpected error getting metadata of content %s", id.toString()), e);
+		} catch (AmazonClientException e) {
+			throw new StoreAccessException(String.format("Unexpected error getting metadata of content %s", id.toString()), e);
+		}
+	}
+
+	/**
+	 * Lists the objects of the store's bucket with ListObjectsV2 requests, a page at a time; the
+	 * stream splits between the common prefixes of the keys, so a parallel stream lists them in
+	 * parallel.
+	 */
+	@Override
+	public Stream<ContentMetadata> list(String prefix) {
+		if (bucket == null) {
+			throw new StoreAccessException("Bucket not set");
+		}
+		String prefixToUse = (prefix != null && prefix.startsWith("/") ? prefix.substring(1) : prefix);
+		return StreamSupport.stream(new ListObjectsSpliterator(client, bucket, prefixToUse), false);
+	}
+
+	private void copyParts(S3StoreResource source, S3StoreResource target, long length) {
+		String uploadId = client.initiateMultipartUpload(new InitiateMultipartUploadRequest(target.getBucket(), target.getKey())).getUploadId();
+		try {
+			List<PartETag> etags = new ArrayList<>();
+			int partNumber = 1;
+			for (long offset = 0; offset < length; offset += COPY_PART_SIZE, partNumber++) {
+				CopyPartResult part = client.copyPart(new CopyPartRequest()
+						.withSourceBucketName(source.getBucket())
+						.withSourceKey(source.getKey())
+						.withDestinationBucketName(target.getBucket())
+						.withDestinationKey(target.getKey())
+						.withUploadId(uploadId)
+						.withFirstByte(offset)
+						.withLastByte(Math.min(offset + COPY_PART_SIZE, length) - 1)
+						.withPartNumber(partNumber));
+				etags.add(part.getPartETag());
+			}
+			client.completeMultipartUpload(new CompleteMultipartUploadRequest(target.getBucket(), target.getKey(), uploadId, etags));
+		} catch (AmazonClientException e) {
+			client.abortMultipartUpload(new AbortMultipartUploadRequest(target.getBucket(), target.getKey(), uploadId));
+			throw e;
+		}
 	}
 
 	@Override
@@ -127,6 +269,28 @@ public class DefaultS3StoreImpl<S, SID extends Serializable> implements Store<SI
 		return null;
 	}
 
+	@Override
+	public InputStream getContent(S property, long offset, long length) {
+		if (property == null)
+			return null;
+		SID contentId = (SID)BeanUtils.getFieldWithAnnotation(property, ContentId.class);
+		if (contentId == null)
+			return null;
+
+		Resource resource = this.getResource(contentId);
+		try {
+			if (resource.exists()) {
+				if (resource instanceof RangeableResource) {
+					return ((RangeableResource)resource).getInputStream(offset, length);
+				}
+				return ContentStore.super.getContent(property, offset, length);
+			}
+		} catch (IOException e) {
+			logger.error(String.format("Unexpected error getting content %s", contentId.toString()), e);
+		}
+		return null;
+	}
+
 	@Override
 	public void unsetContent(S property) {
 		if (property == null)
@@ -142,24 +306,99 @@ public class DefaultS3StoreImpl<S, SID extends Serializable> implements Store<SI
 				this.delete(resource);
 			}
 
-			// reset content fields
-			BeanUtils.setFieldWithAnnotationConditionally(property, ContentId.class, null, new Condition() {
-				@Override
-				public boolean matches(Field field) {
-					for (Annotation annotation : field.getAnnotations()) {
-						if ("javax.persistence.Id".equals(annotation.annotationType().getCanonicalName()) ||
-								"org.springframework.data.annotation.Id".equals(annotation.annotationType().getCanonicalName())) {
-							return false;
+			resetContentFields(property);
+		} catch (Exception ase) {
+			logger.error(String.format("Unexpected error unsetting content %s", contentId.toString()), ase);
+		}
+	}
+
+	/**
+	 * Deletes the content of properties with one DeleteObjects request per bucket for every
+	 * {@value #MAX_DELETE_KEYS} objects, rather than a request (and an existence check) per object.
+	 * Properties whose content could not be deleted keep their content fields.
+	 */
+	@Override
+	public void unsetContents(Collection<S> properties) {
+		Map<String, Map<String, List<S>>> propertiesByKeyByBucket = new LinkedHashMap<>();
+		for (S property : properties) {
+			if (property == null)
+				continue;
+			SID contentId = (SID)BeanUtils.getFieldWithAnnotation(property, ContentId.class);
+			if (contentId == null)
+				continue;
+
+			String bucket = this.bucket;
+			Object objectId = contentId;
+			if (contentId instanceof S3ContentId) {
+				bucket = ((S3ContentId)contentId).getBucket();
+				objectId = ((S3ContentId)contentId).getObjectId();
+			}
+			if (bucket == null) {
+				throw new StoreAccessException("Bucket not set");
+			}
+
+			String key = converter.convert(objectId, String.class);
+			if (key.startsWith("/")) {
+				key = key.substring(1);
+			}
+			propertiesByKeyByBucket.computeIfAbsent(bucket, b -> new LinkedHashMap<>())
+					.computeIfAbsent(key, k -> new ArrayList<>())
+					.add(property);
+		}
+
+		for (Map.Entry<String, Map<String, List<S>>> bucketKeys : propertiesByKeyByBucket.entrySet()) {
+			String bucket = bucketKeys.getKey();
+			List<String> keys = new ArrayList<>(bucketKeys.getValue().keySet());
+			for (int i = 0; i < keys.size(); i += MAX_DELETE_KEYS) {
+				List<String> batch = keys.subList(i, Math.min(i + MAX_DELETE_KEYS, keys.size()));
+				Set<String> failed = deleteObjects(bucket, batch);
+				for (String key : batch) {
+					if (!failed.contains(key)) {
+						for (S property : bucketKeys.getValue().get(key)) {
+							resetContentFields(property);
 						}
 					}
-					return true;
-				}});
-	        BeanUtils.setFieldWithAnnotation(property, ContentLength.class, 0);
+				}
+			}
+		}
+	}
+
+	private Set<String> deleteObjects(String bucket, List<String> keys) {
+		List<KeyVersion> keyVersions = new ArrayList<>(keys.size());
+		for (String key : keys) {
+			keyVersions.add(new KeyVersion(key));
+		}
+		try {
+			client.deleteObjects(new DeleteObjectsRequest(bucket).withKeys(keyVersions).withQuiet(true));
+			return Collections.emptySet();
+		} catch (MultiObjectDeleteException mode) {
+			Set<String> failed = new HashSet<>();
+			for (MultiObjectDeleteException.DeleteError error : mode.getErrors()) {
+				logger.error(String.format("Unexpected error unsetting content %s: %s", error.getKey(), error.getMessage()));
+				failed.add(error.getKey());
+			}
+			return failed;
 		} catch (Exception ase) {
-			logger.error(String.format("Unexpected error unsetting content %s", contentId.toString()), ase);
+			logger.error(String.format("Unexpected error unsetting content in bucket %s", bucket), ase);
+			return new HashSet<>(keys);
 		}
 	}
 
+	private void resetContentFields(S property) {
+		BeanUtils.setFieldWithAnnotationConditionally(property, ContentId.class, null, new Condition() {
+			@Override
+			public boolean matches(Field field) {
+				for (Annotation annotation : field.getAnnotations()) {
+					if ("javax.persistence.Id".equals(annotation.annotationType().getCanonicalName()) ||
+							"org.springframework.data.annotation.Id".equals(annotation.annotationType().getCanonicalName())) {
+						return false;
+					}
+				}
+				return true;
+			}});
+        BeanUtils.setFieldWithAnnotation(property, ContentLength.class, 0);
+	}
+
 	private String absolutify(String bucket, String location) {
 		String locationToUse = null;
 		Assert.state(location.startsWith("s3://") == false);
@@ -0,0 +1,123 @@
+package internal.org.springframework.content.s3.store;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import org.springframework.content.commons.repository.ContentMetadata;
+import org.springframework.content.commons.repository.StoreAccessException;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+
+/**
+ * Lists the objects of a bucket whose key starts with a prefix with ListObjectsV2 requests, a
+ * page at a time.  The objects directly under the prefix are listed with a delimiter, and each of
+ * the common prefixes that listing returns is then listed without one.  Splitting hands half of
+ * the common prefixes not yet listed to another spliterator, so a parallel stream lists them in
+ * parallel.
+ */
+class ListObjectsSpliterator implements Spliterator<ContentMetadata> {
+
+	// the maximum number of keys listed by each request
+	static final int PAGE_SIZE = 1000;
+
+	private static final String DELIMITER = "/";
+
+	private final AmazonS3 client;
+	private final String bucket;
+	private final Deque<String> prefixes;
+
+	private ListObjectsV2Request request;
+	private Iterator<S3ObjectSummary> objects;
+
+	ListObjectsSpliterator(AmazonS3 client, String bucket, String prefix) {
+		this(client, bucket, new ArrayDeque<>());
+		this.request = new ListObjectsV2Request()
+				.withBucketName(bucket)
+				.withPrefix(prefix)
+				.withDelimiter(DELIMITER)
+				.withMaxKeys(PAGE_SIZE);
+	}
+
+	private ListObjectsSpliterator(AmazonS3 client, String bucket, Deque<String> prefixes) {
+		this.client = client;
+		this.bucket = bucket;
+		this.prefixes = prefixes;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super ContentMetadata> action) {
+		while (true) {
+			if (objects != null && objects.hasNext()) {
+				S3ObjectSummary object = objects.next();
+				// folders created by consoles and tools are not content
+				if (object.getKey().endsWith(DELIMITER) && object.getSize() == 0) {
+					continue;
+				}
+				long lastModified = (object.getLastModified() != null ? object.getLastModified().getTime() : 0L);
+				action.accept(new ContentMetadata(object.getKey(), object.getSize(), lastModified, object.getETag()));
+				return true;
+			}
+			if (request == null) {
+				if (prefixes.isEmpty()) {
+					return false;
+				}
+				request = new ListObjectsV2Request()
+						.withBucketName(bucket)
+						.withPrefix(prefixes.poll())
+						.withMaxKeys(PAGE_SIZE);
+			}
+			nextPage();
+		}
+	}
+
+	@Override
+	public Spliterator<ContentMetadata> trySplit() {
+		// the common prefixes are only known once the delimited listing has started
+		if (objects == null && request != null && request.getDelimiter() != null) {
+			nextPage();
+		}
+		if (prefixes.size() < 2) {
+			return null;
+		}
+		Deque<String> split = new ArrayDeque<>();
+		for (int i = prefixes.size() / 2; i > 0; i--) {
+			split.add(prefixes.pollLast());
+		}
+		return new ListObjectsSpliterator(client, bucket, split);
+	}
+
+	@Override
+	public long estimateSize() {
+		return Long.MAX_VALUE;
+	}
+
+	@Override
+	public int characteristics() {
+		return NONNULL | DISTINCT;
+	}
+
+	private void nextPage() {
+		ListObjectsV2Result result;
+		try {
+			result = client.listObjectsV2(request);
+		} catch (AmazonClientException e) {
+			throw new StoreAccessException(String.format("Unexpected error listing %s in bucket %s", request.getPrefix(), bucket), e);
+		}
+		objects = result.getObjectSummaries().iterator();
+		if (request.getDelimiter() != null) {
+			prefixes.addAll(result.getCommonPrefixes());
+		}
+		if (result.isTruncated()) {
+			request.setContinuationToken(result.getNextContinuationToken());
+		} else {
+			request = null;
+		}
+	}
+}
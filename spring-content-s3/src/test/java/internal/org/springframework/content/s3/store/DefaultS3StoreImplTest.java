@@ -1,11 +1,31 @@
 package internal.org.springframework.content.s3.store;
 
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.CopyPartResult;
+import com.amazonaws.services.s3.model.DeleteObjectRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectInputStream;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.github.paulcwarren.ginkgo4j.Ginkgo4jRunner;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.springframework.content.commons.annotations.ContentId;
 import org.springframework.content.commons.annotations.ContentLength;
+import org.springframework.content.commons.repository.ContentMetadata;
+import org.springframework.content.commons.repository.StoreAccessException;
 import org.springframework.content.s3.S3ContentId;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.TypeDescriptor;
@@ -17,6 +37,12 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.BeforeEach;
 import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.Context;
@@ -25,9 +51,11 @@ import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.It;
 import static com.github.paulcwarren.ginkgo4j.Ginkgo4jDSL.JustBeforeEach;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.isA;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.endsWith;
 import static org.mockito.Matchers.eq;
@@ -47,6 +75,7 @@ public class DefaultS3StoreImplTest {
     private ConversionService converter;
     private AmazonS3 client;
     private ContentProperty entity;
+    private ContentProperty otherEntity;
 
     private WritableResource resource;
     private Resource nonExistentResource;
@@ -57,6 +86,7 @@ public class DefaultS3StoreImplTest {
     private File parent;
 
     private InputStream result;
+    private S3ObjectInputStream rangeContent;
 
     private Exception e;
 
@@ -244,6 +274,37 @@ public class DefaultS3StoreImplTest {
                 });
             });
 
+            Context("#getContent with a range", () -> {
+                BeforeEach(() -> {
+                    entity = new TestEntity();
+                    entity.setContentId("abcd-efgh");
+
+                    when(converter.convert(eq("abcd-efgh"), eq(String.class))).thenReturn("abcd-efgh");
+                    when(loader.getResource(endsWith("abcd-efgh"))).thenReturn(resource);
+                    when(resource.exists()).thenReturn(true);
+
+                    S3Object object = mock(S3Object.class);
+                    rangeContent = mock(S3ObjectInputStream.class);
+                    when(object.getObjectContent()).thenReturn(rangeContent);
+                    when(client.getObject(argThat(isA(GetObjectRequest.class)))).thenReturn(object);
+                });
+                JustBeforeEach(() -> {
+                    result = s3StoreImpl.getContent(entity, 6L, 7L);
+                });
+                It("should get the range with a ranged GET", () -> {
+                    ArgumentCaptor<GetObjectRequest> request = ArgumentCaptor.forClass(GetObjectRequest.class);
+                    verify(client).getObject(request.capture());
+                    assertThat(request.getValue().getBucketName(), is("some-bucket"));
+                    assertThat(request.getValue().getKey(), is("abcd-efgh"));
+                    assertThat(request.getValue().getRange()[0], is(6L));
+                    assertThat(request.getValue().getRange()[1], is(12L));
+                    assertThat(result, is(rangeContent));
+                });
+                It("should not read the whole object", () -> {
+                    verify(resource, never()).getInputStream();
+                });
+            });
+
             Context("#unsetContent", () -> {
                 BeforeEach(() -> {
                     entity = new TestEntity();
@@ -327,9 +388,184 @@ public class DefaultS3StoreImplTest {
                 	});
                 });
             });
+            Context("#unsetContents", () -> {
+                BeforeEach(() -> {
+                    entity = new TestEntity("abcd-efgh");
+                    entity.setContentLen(100L);
+                    otherEntity = new TestEntity("ijkl-mnop");
+                    otherEntity.setContentLen(200L);
+
+                    when(converter.convert(eq("abcd-efgh"), eq(String.class))).thenReturn("/abcd-efgh");
+                    when(converter.convert(eq("ijkl-mnop"), eq(String.class))).thenReturn("ijkl-mnop");
+                });
+                JustBeforeEach(() -> {
+                    s3StoreImpl.unsetContents(Arrays.asList(entity, otherEntity, new TestEntity()));
+                });
+                It("should delete all the objects with a single request", () -> {
+                    ArgumentCaptor<DeleteObjectsRequest> request = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+                    verify(client, times(1)).deleteObjects(request.capture());
+                    assertThat(request.getValue().getBucketName(), is("some-bucket"));
+                    assertThat(request.getValue().getKeys().size(), is(2));
+                    assertThat(request.getValue().getKeys().get(0).getKey(), is("abcd-efgh"));
+                    assertThat(request.getValue().getKeys().get(1).getKey(), is("ijkl-mnop"));
+                });
+                It("should not check whether each object exists", () -> {
+                    verify(loader, never()).getResource(anyObject());
+                });
+                It("should unset the content of each entity", () -> {
+                    assertThat(entity.getContentId(), is(nullValue()));
+                    assertThat(entity.getContentLen(), is(0L));
+                    assertThat(otherEntity.getContentId(), is(nullValue()));
+                    assertThat(otherEntity.getContentLen(), is(0L));
+                });
+                Context("when an object cannot be deleted", () -> {
+                    BeforeEach(() -> {
+                        DeleteError error = new DeleteError();
+                        error.setKey("ijkl-mnop");
+                        error.setMessage("Access Denied");
+                        when(client.deleteObjects(anyObject())).thenThrow(new MultiObjectDeleteException(Collections.singletonList(error), Collections.emptyList()));
+                    });
+                    It("should only unset the content of the deleted objects", () -> {
+                        assertThat(entity.getContentId(), is(nullValue()));
+                        assertThat(otherEntity.getContentId(), is("ijkl-mnop"));
+                        assertThat(otherEntity.getContentLen(), is(200L));
+                    });
+                });
+            });
+            Context("#copy", () -> {
+                BeforeEach(() -> {
+                    when(converter.convert(eq("from"), eq(String.class))).thenReturn("from");
+                    when(converter.convert(eq("to"), eq(String.class))).thenReturn("to");
+                    when(loader.getResource(eq("s3://some-bucket/from"))).thenReturn(resource);
+                    when(loader.getResource(eq("s3://some-bucket/to"))).thenReturn(mock(WritableResource.class));
+                    when(resource.exists()).thenReturn(true);
+                    when(resource.contentLength()).thenReturn(100L);
+                });
+                It("should copy the object with a single request", () -> {
+                    s3StoreImpl.copy("from", "to");
+                    ArgumentCaptor<CopyObjectRequest> request = ArgumentCaptor.forClass(CopyObjectRequest.class);
+                    verify(client).copyObject(request.capture());
+                    assertThat(request.getValue().getSourceBucketName(), is("some-bucket"));
+                    assertThat(request.getValue().getSourceKey(), is("from"));
+                    assertThat(request.getValue().getDestinationBucketName(), is("some-bucket"));
+                    assertThat(request.getValue().getDestinationKey(), is("to"));
+                });
+                It("should delete the object when it is moved", () -> {
+                    s3StoreImpl.move("from", "to");
+                    verify(client).copyObject(anyObject());
+                    ArgumentCaptor<DeleteObjectRequest> request = ArgumentCaptor.forClass(DeleteObjectRequest.class);
+                    verify(client).deleteObject(request.capture());
+                    assertThat(request.getValue().getKey(), is("from"));
+                });
+                Context("when the object is larger than a single request copies", () -> {
+                    BeforeEach(() -> {
+                        when(resource.contentLength()).thenReturn(DefaultS3StoreImpl.MAX_COPY_SIZE + 1);
+                        InitiateMultipartUploadResult upload = new InitiateMultipartUploadResult();
+                        upload.setUploadId("some-upload");
+                        when(client.initiateMultipartUpload(anyObject())).thenReturn(upload);
+                        CopyPartResult part = new CopyPartResult();
+                        part.setETag("some-etag");
+                        when(client.copyPart(anyObject())).thenReturn(part);
+                    });
+                    It("should copy the object in parts", () -> {
+                        s3StoreImpl.copy("from", "to");
+                        ArgumentCaptor<CopyPartRequest> parts = ArgumentCaptor.forClass(CopyPartRequest.class);
+                        verify(client, times(11)).copyPart(parts.capture());
+                        assertThat(parts.getAllValues().get(10).getFirstByte(), is(10 * DefaultS3StoreImpl.COPY_PART_SIZE));
+                        assertThat(parts.getAllValues().get(10).getLastByte(), is(DefaultS3StoreImpl.MAX_COPY_SIZE));
+                        verify(client).completeMultipartUpload(anyObject());
+                        verify(client, never()).copyObject(anyObject());
+                    });
+                });
+                Context("when the object does not exist", () -> {
+                    BeforeEach(() -> {
+                        when(resource.exists()).thenReturn(false);
+                    });
+                    It("should fail", () -> {
+                        try {
+                            s3StoreImpl.copy("from", "to");
+                            fail("expected a StoreAccessException");
+                        } catch (StoreAccessException sae) {
+                            verify(client, never()).copyObject(anyObject());
+                        }
+                    });
+                });
+            });
+            Context("#getMetadata", () -> {
+                BeforeEach(() -> {
+                    when(converter.convert(eq("some-id"), eq(String.class))).thenReturn("some-id");
+                    when(loader.getResource(eq("s3://some-bucket/some-id"))).thenReturn(resource);
+                    ObjectMetadata metadata = new ObjectMetadata();
+                    metadata.setContentLength(100L);
+                    metadata.setLastModified(new Date(1000L));
+                    metadata.setHeader("ETag", "some-etag");
+                    when(client.getObjectMetadata(Matchers.<GetObjectMetadataRequest>anyObject())).thenReturn(metadata);
+                });
+                It("should head the object", () -> {
+                    ContentMetadata metadata = s3StoreImpl.getMetadata("some-id");
+                    assertThat(metadata.exists(), is(true));
+                    assertThat(metadata.getLength(), is(100L));
+                    assertThat(metadata.getLastModified(), is(1000L));
+                    assertThat(metadata.getChecksum(), is("some-etag"));
+                    ArgumentCaptor<GetObjectMetadataRequest> request = ArgumentCaptor.forClass(GetObjectMetadataRequest.class);
+                    verify(client).getObjectMetadata(request.capture());
+                    assertThat(request.getValue().getKey(), is("some-id"));
+                    verify(client, never()).getObject(Matchers.<GetObjectRequest>anyObject());
+                });
+                Context("when the object does not exist", () -> {
+                    BeforeEach(() -> {
+                        AmazonS3Exception notFound = new AmazonS3Exception("Not Found");
+                        notFound.setStatusCode(404);
+                        when(client.getObjectMetadata(Matchers.<GetObjectMetadataRequest>anyObject())).thenThrow(notFound);
+                    });
+                    It("should report it missing", () -> {
+                        assertThat(s3StoreImpl.getMetadata("some-id").exists(), is(false));
+                    });
+                });
+            });
+            Context("#list", () -> {
+                BeforeEach(() -> {
+                    ListObjectsV2Result top = new ListObjectsV2Result();
+                    top.getObjectSummaries().add(summary("a", 1L));
+                    top.getCommonPrefixes().addAll(Arrays.asList("b/", "c/"));
+                    ListObjectsV2Result b = new ListObjectsV2Result();
+                    b.getObjectSummaries().add(summary("b/d", 2L));
+                    b.setTruncated(true);
+                    b.setNextContinuationToken("some-token");
+                    ListObjectsV2Result bNext = new ListObjectsV2Result();
+                    bNext.getObjectSummaries().add(summary("b/e", 3L));
+                    ListObjectsV2Result c = new ListObjectsV2Result();
+                    c.getObjectSummaries().add(summary("c/", 0L));
+                    c.getObjectSummaries().add(summary("c/f", 4L));
+                    when(client.listObjectsV2(Matchers.<ListObjectsV2Request>anyObject())).thenAnswer(invocation -> {
+                        ListObjectsV2Request request = (ListObjectsV2Request) invocation.getArguments()[0];
+                        if (request.getDelimiter() != null) {
+                            return top;
+                        }
+                        if ("b/".equals(request.getPrefix())) {
+                            return (request.getContinuationToken() == null ? b : bNext);
+                        }
+                        return c;
+                    });
+                });
+                It("should list every page of every prefix", () -> {
+                    List<Serializable> keys = s3StoreImpl.list(null).map(ContentMetadata::getContentId).collect(Collectors.toList());
+                    assertThat(keys, is(Arrays.<Serializable>asList("a", "b/d", "b/e", "c/f")));
+                });
+                It("should list the prefixes in parallel", () -> {
+                    assertThat(s3StoreImpl.list(null).parallel().mapToLong(ContentMetadata::getLength).sum(), is(10L));
+                });
+            });
         });
     }
 
+    private static S3ObjectSummary summary(String key, long size) {
+        S3ObjectSummary summary = new S3ObjectSummary();
+        summary.setKey(key);
+        summary.setSize(size);
+        return summary;
+    }
+
     public interface ContentProperty {
         String getContentId();
         void setContentId(String contentId);